@@ -0,0 +1,63 @@
+package io.github.haiphamcoder.toolkit.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suites over the 1/4/16/64 thread matrix with the GC
+ * profiler and writes one JMH JSON result file per suite and thread count, so
+ * two releases can be compared file by file (e.g. with jmh.morethan.io).
+ *
+ * <pre>
+ * java -cp backend-toolkit-benchmarks/target/benchmarks.jar \
+ *     io.github.haiphamcoder.toolkit.benchmarks.BenchmarkRunner [include-regex] [output-dir]
+ * </pre>
+ *
+ * Defaults: every benchmark, output to {@code jmh-results/<version>}, with the
+ * version read from the {@code Implementation-Version} of the benchmarks.jar
+ * manifest; outside that jar an output directory must be given.
+ */
+public final class BenchmarkRunner {
+
+    private static final int[] THREADS = { 1, 4, 16, 64 };
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : ".*";
+        Path outputDir;
+        if (args.length > 1) {
+            outputDir = Paths.get(args[1]);
+        } else {
+            String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+            if (version == null) {
+                // results filed under a made-up version would overwrite or be mistaken for a release's
+                throw new IllegalStateException("No Implementation-Version in the manifest: run from "
+                        + "target/benchmarks.jar or pass an output directory");
+            }
+            outputDir = Paths.get("jmh-results", version);
+        }
+        Files.createDirectories(outputDir);
+
+        for (int threads : THREADS) {
+            Path result = outputDir.resolve("results-" + threads + "-threads.json");
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.toString());
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.haiphamcoder.toolkit.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process HTTP stand-in on the loopback interface, like the one used by
+ * {@code HttpCallerTest}: every path answers 200 with a small fixed body, so
+ * the benchmarks measure client overhead rather than server work.
+ * {@code /payload/<size>} answers {@code size} bytes with a Content-Length, and
+ * {@code /payload/<size>/chunked} the same bytes with chunked transfer coding.
+ */
+public final class StubServer implements AutoCloseable {
+
+    private static final byte[] BODY = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final Map<Integer, byte[]> PAYLOADS = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a server on an ephemeral loopback port.
+     *
+     * @return running server
+     * @throws IOException if the socket cannot be bound
+     */
+    public static StubServer start() throws IOException {
+        // without TCP_NODELAY every response waits for the peer's delayed ACK (~40ms on Linux)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.createContext("/payload/", exchange -> {
+            String[] segments = exchange.getRequestURI().getPath().split("/");
+            byte[] payload = payload(Integer.parseInt(segments[2]));
+            boolean chunked = segments.length > 3 && segments[3].equals("chunked");
+            exchange.sendResponseHeaders(200, chunked ? 0 : payload.length);
+            exchange.getResponseBody().write(payload);
+            exchange.close();
+        });
+        server.start();
+        return new StubServer(server, executor);
+    }
+
+    private static byte[] payload(int size) {
+        return PAYLOADS.computeIfAbsent(size, n -> {
+            byte[] data = new byte[n];
+            Arrays.fill(data, (byte) 'x');
+            return data;
+        });
+    }
+
+    /**
+     * Base URL of the server, e.g. "http://127.0.0.1:41234".
+     *
+     * @return base URL
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
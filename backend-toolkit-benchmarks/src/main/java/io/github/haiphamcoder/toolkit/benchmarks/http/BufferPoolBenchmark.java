@@ -0,0 +1,108 @@
+package io.github.haiphamcoder.toolkit.benchmarks.http;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.toolkit.benchmarks.StubServer;
+import io.github.haiphamcoder.toolkit.core.http.BufferPool;
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Allocation per request of {@link HttpCaller} body reads with each
+ * {@link BufferPool}. {@code unpooled} allocates a scratch buffer per
+ * response, like the previous {@code EntityUtils} based reads; compare its
+ * {@code gc.alloc.rate.norm} with the pooled variants. Responses either carry
+ * a Content-Length or are chunked, where the body size is unknown up front.
+ *
+ * <pre>
+ * java -jar backend-toolkit-benchmarks/target/benchmarks.jar BufferPoolBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BufferPoolBenchmark {
+
+    @Param({ "unpooled", "striped", "threadLocal" })
+    public String pool;
+
+    @Param({ "1024", "65536" })
+    public int size;
+
+    @Param({ "length", "chunked" })
+    public String transfer;
+
+    private StubServer server;
+    private HttpCaller caller;
+    private String url;
+
+    /**
+     * One download target per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Target {
+        private Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("buffer-pool-benchmark", ".bin");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubServer.start();
+        BufferPool bufferPool = switch (pool) {
+            case "striped" -> BufferPool.striped();
+            case "threadLocal" -> BufferPool.threadLocal();
+            default -> BufferPool.unpooled();
+        };
+        caller = new HttpCaller.Builder().pool(128, 128).bufferPool(bufferPool).build();
+        url = server.baseUrl() + "/payload/" + size + (transfer.equals("chunked") ? "/chunked" : "");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        caller.close();
+        server.close();
+    }
+
+    @Benchmark
+    public byte[] getBytes() throws HttpCaller.APIException {
+        return caller.getBytes(url, null, null);
+    }
+
+    @Benchmark
+    public String getString() throws HttpCaller.APIException {
+        return caller.get(url, null, null);
+    }
+
+    @Benchmark
+    public void downloadToFile(Target target) throws HttpCaller.APIException {
+        caller.downloadToFile(url, null, null, target.file);
+    }
+}
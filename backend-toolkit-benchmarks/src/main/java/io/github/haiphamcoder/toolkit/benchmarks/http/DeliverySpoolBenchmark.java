@@ -0,0 +1,83 @@
+package io.github.haiphamcoder.toolkit.benchmarks.http;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.toolkit.benchmarks.StubServer;
+import io.github.haiphamcoder.toolkit.core.http.DeliverySpool;
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Producer-side latency of {@link DeliverySpool#enqueue} while the spool
+ * delivers to an in-process stand-in, against an inline
+ * {@link HttpCaller#postJson}. Run with {@code -t 8} to see the append lock
+ * under contention; the spool's backlog grows when producers outpace delivery.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliverySpoolBenchmark {
+
+    private static final String JSON = "{\"event\":\"order.paid\",\"order\":42,\"amount\":\"19.90\"}";
+
+    private StubServer server;
+    private HttpCaller caller;
+    private Path directory;
+    private DeliverySpool spool;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubServer.start();
+        caller = new HttpCaller.Builder().pool(128, 128).build();
+        directory = Files.createTempDirectory("delivery-spool-benchmark");
+        spool = new DeliverySpool.Builder()
+                .caller(caller)
+                .directory(directory)
+                .concurrency(32)
+                .build();
+        url = server.baseUrl() + "/v1/hooks";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        spool.close();
+        caller.close();
+        server.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long enqueue() throws IOException {
+        return spool.enqueue(url, JSON);
+    }
+
+    @Benchmark
+    public String postJsonInline() throws HttpCaller.APIException {
+        return caller.postJson(url, JSON, null, null);
+    }
+}
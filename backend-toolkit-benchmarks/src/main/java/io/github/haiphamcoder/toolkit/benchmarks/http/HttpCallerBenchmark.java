@@ -0,0 +1,78 @@
+package io.github.haiphamcoder.toolkit.benchmarks.http;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.toolkit.benchmarks.StubServer;
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Per-request overhead of {@link HttpCaller} against an in-process
+ * {@code com.sun.net.httpserver} stand-in that answers every request with a
+ * tiny fixed body. Absolute numbers include the loopback round trip; compare
+ * them between releases on the same machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpCallerBenchmark {
+
+    private static final String JSON = "{\"id\":1,\"name\":\"benchmark\"}";
+
+    private StubServer server;
+    private HttpCaller caller;
+    private String getUrl;
+    private String postUrl;
+    private Map<String, String> params;
+    private Map<String, String> headers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubServer.start();
+        // pool sized for the largest thread count of the matrix
+        caller = new HttpCaller.Builder().pool(128, 128).build();
+        getUrl = server.baseUrl() + "/v1/items";
+        postUrl = server.baseUrl() + "/v1/events";
+        params = Collections.singletonMap("limit", "10");
+        headers = Collections.singletonMap("Accept", "application/json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        caller.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String get() throws HttpCaller.APIException {
+        return caller.get(getUrl, params, headers);
+    }
+
+    @Benchmark
+    public byte[] getBytes() throws HttpCaller.APIException {
+        return caller.getBytes(getUrl, params, headers);
+    }
+
+    @Benchmark
+    public String postJson() throws HttpCaller.APIException {
+        return caller.postJson(postUrl, JSON, Collections.emptyMap(), headers);
+    }
+}
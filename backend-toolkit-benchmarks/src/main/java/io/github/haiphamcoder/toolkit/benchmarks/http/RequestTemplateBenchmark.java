@@ -0,0 +1,125 @@
+package io.github.haiphamcoder.toolkit.benchmarks.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.net.URIBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.toolkit.benchmarks.StubServer;
+import io.github.haiphamcoder.toolkit.core.http.BodyDecoder;
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.http.RequestSpec;
+import io.github.haiphamcoder.toolkit.core.http.RequestTemplate;
+
+/**
+ * Compares {@link RequestTemplate} with the map based
+ * {@code HttpCaller.get(String, Map, Map)} call.
+ * <p>
+ * The {@code prepare*} benchmarks isolate the per-call request preparation (URI
+ * building and header copying); the {@code call*} benchmarks run complete
+ * requests against an in-process stub server.
+ *
+ * <pre>
+ * java -jar backend-toolkit-benchmarks/target/benchmarks.jar RequestTemplateBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestTemplateBenchmark {
+
+    private StubServer server;
+    private HttpCaller caller;
+    private RequestTemplate template;
+    private String endpointUrl;
+    private Map<String, String> params;
+    private Map<String, String> headers;
+
+    /**
+     * Path IDs of one benchmark thread, so that the counter is not shared
+     * between threads.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private long counter;
+
+        private String next() {
+            return Long.toString(counter++);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubServer.start();
+        caller = new HttpCaller.Builder().build();
+        endpointUrl = server.baseUrl() + "/v1/users/";
+
+        params = new LinkedHashMap<>();
+        params.put("fields", "name,email");
+        headers = new LinkedHashMap<>();
+        headers.put("Accept", "application/json");
+        headers.put("X-Client", "benchmark");
+        headers.put("Authorization", "Bearer 0123456789abcdef");
+
+        template = RequestTemplate.builder(Method.GET, server.baseUrl(), "/v1/users/{id}?fields={fields}")
+                .headers(headers)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        caller.close();
+        server.close();
+    }
+
+    @Benchmark
+    public HttpGet prepareWithUriBuilder(Ids ids) throws URISyntaxException {
+        // mirrors what HttpCaller.get(String, Map, Map) does before executing
+        URIBuilder builder = new URIBuilder(endpointUrl + ids.next());
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            builder.addParameter(entry.getKey(), entry.getValue());
+        }
+        URI uri = builder.build();
+        HttpGet request = new HttpGet(uri);
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            request.addHeader(entry.getKey(), entry.getValue());
+        }
+        return request;
+    }
+
+    @Benchmark
+    public RequestSpec prepareWithTemplate(Ids ids) {
+        return template.bind(ids.next(), "name,email");
+    }
+
+    @Benchmark
+    public String callWithMaps(Ids ids) throws HttpCaller.APIException {
+        return caller.get(endpointUrl + ids.next(), params, headers);
+    }
+
+    @Benchmark
+    public String callWithTemplate(Ids ids) throws HttpCaller.APIException {
+        return caller.execute(template, BodyDecoder.ofString(), ids.next(), "name,email");
+    }
+}
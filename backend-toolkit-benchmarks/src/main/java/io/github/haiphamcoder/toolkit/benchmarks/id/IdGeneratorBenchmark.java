@@ -0,0 +1,87 @@
+package io.github.haiphamcoder.toolkit.benchmarks.id;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.haiphamcoder.toolkit.core.id.IdGenerator;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+import io.github.haiphamcoder.toolkit.core.id.UuidGenerator;
+import io.github.haiphamcoder.toolkit.core.id.UuidV7Generator;
+
+/**
+ * Throughput and latency of every {@link IdGenerator}.
+ * <p>
+ * One generator instance is shared by all benchmark threads, as it would be in
+ * a service, so contention shows up when run with more threads
+ * ({@link io.github.haiphamcoder.toolkit.benchmarks.BenchmarkRunner} runs the
+ * 1/4/16/64 thread matrix). {@code generateId} includes the String conversion;
+ * {@code nextId} measures the raw Snowflake value, so the difference is the
+ * String cost. Run with {@code -prof gc} for allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private SnowflakeGenerator snowflake;
+
+    @Setup
+    public void setUp() {
+        snowflake = new SnowflakeGenerator(1, 1);
+    }
+
+    @Benchmark
+    public String generateId(Generators generators) {
+        return generators.idGenerator.generateId();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return snowflake.nextId();
+    }
+
+    /**
+     * Every {@link IdGenerator} implementation, so only {@code generateId} is
+     * parameterized by it.
+     */
+    @State(Scope.Benchmark)
+    public static class Generators {
+
+        @Param({ "snowflake", "uuid", "uuidv7" })
+        public String generator;
+
+        private IdGenerator idGenerator;
+
+        @Setup
+        public void setUp() {
+            idGenerator = create(generator);
+        }
+    }
+
+    static IdGenerator create(String name) {
+        switch (name) {
+            case "snowflake":
+                return new SnowflakeGenerator(1, 1);
+            case "uuid":
+                return new UuidGenerator();
+            case "uuidv7":
+                return new UuidV7Generator();
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + name);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.haiphamcoder.toolkit.benchmarks.startup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Time to first request and memory of a fresh process running
+ * {@link StartupProbe}, with eager and with deferred {@code HttpCaller} pool
+ * creation. JMH measures warmed-up code inside one long-lived JVM, so this
+ * driver starts a new process per run instead and times it from just before
+ * the launch to the probe's request arriving at a loopback server.
+ *
+ * <pre>
+ * mvn -q -pl backend-toolkit-benchmarks -am package -DskipTests
+ * java -cp backend-toolkit-benchmarks/target/benchmarks.jar \
+ *     io.github.haiphamcoder.toolkit.benchmarks.startup.StartupBenchmark [--name=value ...]
+ * # as a native image (GraalVM): builds target/startup-probe
+ * mvn -q -pl backend-toolkit-benchmarks -am package -DskipTests -Pnative
+ * java -cp backend-toolkit-benchmarks/target/benchmarks.jar \
+ *     io.github.haiphamcoder.toolkit.benchmarks.startup.StartupBenchmark \
+ *     --native=backend-toolkit-benchmarks/target/startup-probe
+ * </pre>
+ *
+ * Options: {@code --runs=N} measured runs per mode (default 20, after one
+ * discarded run), {@code --native=PATH} probe executable to run instead of a
+ * JVM, {@code --jvm-args="..."} extra options of the probe JVM.
+ */
+public final class StartupBenchmark {
+
+    private static final String[] MODES = { "eager", "deferred" };
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        int runs = Integer.parseInt(options.getOrDefault("runs", "20"));
+        List<String> command = new ArrayList<>();
+        if (options.containsKey("native")) {
+            command.add(Path.of(options.get("native")).toAbsolutePath().toString());
+        } else {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            String jvmArgs = options.getOrDefault("jvm-args", "").trim();
+            if (!jvmArgs.isEmpty()) {
+                command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+            }
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), StartupProbe.class.getName()));
+        }
+
+        AtomicLong arrived = new AtomicLong();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            arrived.compareAndSet(0, System.nanoTime());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/startup";
+        try {
+            System.out.println("probe: " + command.get(0) + ", " + runs + " runs per mode");
+            System.out.printf("%-9s %-22s %-22s %-22s %-18s %-18s%n", "mode", "first request ms",
+                    "main to caller ms", "caller to response ms", "rss MiB", "peak rss MiB");
+            for (String mode : MODES) {
+                List<long[]> samples = new ArrayList<>();
+                for (int run = -1; run < runs; run++) {
+                    long[] sample = run(command, url, mode, arrived);
+                    if (run >= 0) {
+                        samples.add(sample);
+                    }
+                }
+                System.out.printf("%-9s %-22s %-22s %-22s %-18s %-18s%n", mode,
+                        percentiles(samples, 0, 1_000_000.0), percentiles(samples, 1, 1_000.0),
+                        percentiles(samples, 2, 1_000.0), percentiles(samples, 3, 1_024.0),
+                        percentiles(samples, 4, 1_024.0));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * One probe process: nanoseconds from launch to the request arriving,
+     * then the values the probe printed.
+     */
+    private static long[] run(List<String> command, String url, String mode, AtomicLong arrived)
+            throws IOException, InterruptedException {
+        List<String> probe = new ArrayList<>(command);
+        probe.add(url);
+        probe.add(mode);
+        arrived.set(0);
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(probe).start();
+        String line;
+        String errors;
+        try (InputStream in = process.getInputStream(); InputStream err = process.getErrorStream();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            line = reader.readLine();
+            errors = new String(err.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int exit = process.waitFor();
+        // stderr is only shown on failure; it otherwise carries the logging backend's startup notice
+        if (exit != 0 || line == null || arrived.get() == 0) {
+            throw new IllegalStateException("Probe failed with exit code " + exit + ": " + line + "\n" + errors);
+        }
+        Map<String, Long> values = new HashMap<>();
+        for (String pair : line.trim().split(" ")) {
+            int eq = pair.indexOf('=');
+            values.put(pair.substring(0, eq), Long.parseLong(pair.substring(eq + 1)));
+        }
+        return new long[] { arrived.get() - launched, values.get("build_us"), values.get("first_request_us"),
+                values.get("rss_kb"), values.get("hwm_kb") };
+    }
+
+    private static String percentiles(List<long[]> samples, int column, double scale) {
+        long[] values = samples.stream().mapToLong(sample -> sample[column]).sorted().toArray();
+        if (values.length == 0 || values[0] < 0) {
+            return "n/a";
+        }
+        double p50 = values[(values.length - 1) / 2] / scale;
+        double p90 = values[(int) Math.ceil(values.length * 0.9) - 1] / scale;
+        return String.format("p50 %.1f p90 %.1f", p50, p90);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.haiphamcoder.toolkit.benchmarks.startup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+
+/**
+ * What a short-lived CLI tool or serverless function does before its real
+ * work: build an {@link HttpCaller}, generate a Snowflake ID and send one
+ * request with it. Started in a fresh process, JVM or native image, by
+ * {@link StartupBenchmark}, which times it from process start to the request
+ * arriving.
+ * <p>
+ * Arguments: the URL to call, then {@code eager} or {@code deferred} pool
+ * creation. Prints one line of {@code name=value} pairs: microseconds from
+ * {@code main} to the built caller and from there to the response, and the
+ * resident and peak resident set size from {@code /proc/self/status} (-1
+ * where unavailable).
+ */
+public final class StartupProbe {
+
+    private StartupProbe() {
+    }
+
+    public static void main(String[] args) throws IOException, HttpCaller.APIException {
+        long entered = System.nanoTime();
+        boolean deferred = args.length > 1 && args[1].equals("deferred");
+        SnowflakeGenerator ids = new SnowflakeGenerator(1, 1);
+        try (HttpCaller caller = new HttpCaller.Builder().deferPoolCreation(deferred).build()) {
+            long built = System.nanoTime();
+            caller.get(args[0], Map.of("id", Long.toString(ids.nextId())), null);
+            long responded = System.nanoTime();
+            System.out.println("build_us=" + (built - entered) / 1_000
+                    + " first_request_us=" + (responded - built) / 1_000
+                    + " rss_kb=" + status("VmRSS:")
+                    + " hwm_kb=" + status("VmHWM:"));
+        }
+    }
+
+    private static long status(String field) {
+        try {
+            List<String> lines = Files.readAllLines(Path.of("/proc/self/status"));
+            for (String line : lines) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+}
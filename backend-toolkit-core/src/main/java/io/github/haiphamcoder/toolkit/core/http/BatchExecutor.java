@@ -0,0 +1,254 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Runs large numbers of precompiled {@link RequestSpec}s through an
+ * {@link HttpCaller} with bounded concurrency.
+ * <p>
+ * The input stream is pulled lazily: a new spec is only taken once one of the
+ * {@code concurrency} slots is free, so producers are paced by the network and
+ * memory stays bounded regardless of the input size. Requests travel over the
+ * caller's keep-alive connection pool, so size the caller's per-route pool to at
+ * least {@code concurrency}.
+ * <p>
+ * Two delivery modes are available:
+ * <ul>
+ * <li>{@link #forEachCompleted} hands each outcome to the listener as soon as
+ * it is available, from the worker threads;</li>
+ * <li>{@link #forEachOrdered} delivers outcomes in input order, one at a time.
+ * Slots are freed on delivery, so a slow request holds back at most
+ * {@code concurrency} completed ones.</li>
+ * </ul>
+ */
+public final class BatchExecutor implements Closeable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final HttpCaller caller;
+    private final int concurrency;
+    private final ExecutorService workers;
+
+    /**
+     * Create an executor with its own pool of {@code concurrency} worker threads.
+     *
+     * @param caller      caller used to execute the requests
+     * @param concurrency maximum number of requests in flight per batch
+     */
+    public BatchExecutor(HttpCaller caller, int concurrency) {
+        if (caller == null) {
+            throw new IllegalArgumentException("caller must not be null");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be > 0");
+        }
+        this.caller = caller;
+        this.concurrency = concurrency;
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "http-batch-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Execute every spec and deliver outcomes as they complete. Blocks until the
+     * whole stream has been executed and delivered.
+     *
+     * @param specs    request specs, consumed lazily
+     * @param decoder  body decoder for successful responses
+     * @param listener outcome listener, called concurrently
+     * @param <T>      decoded type
+     * @return batch summary
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     */
+    public <T> Summary forEachCompleted(Stream<RequestSpec> specs, BodyDecoder<T> decoder,
+            BatchListener<T> listener) throws InterruptedException {
+        return run(specs, decoder, new Delivery<>(listener, false));
+    }
+
+    /**
+     * Execute every spec and deliver outcomes in input order. Blocks until the
+     * whole stream has been executed and delivered.
+     *
+     * @param specs    request specs, consumed lazily
+     * @param decoder  body decoder for successful responses
+     * @param listener outcome listener, called serially in input order
+     * @param <T>      decoded type
+     * @return batch summary
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     */
+    public <T> Summary forEachOrdered(Stream<RequestSpec> specs, BodyDecoder<T> decoder,
+            BatchListener<T> listener) throws InterruptedException {
+        return run(specs, decoder, new Delivery<>(listener, true));
+    }
+
+    private <T> Summary run(Stream<RequestSpec> specs, BodyDecoder<T> decoder, Delivery<T> delivery)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        Semaphore slots = delivery.slots;
+        long index = 0;
+        try {
+            Iterator<RequestSpec> iterator = specs.iterator();
+            while (iterator.hasNext()) {
+                RequestSpec spec = iterator.next();
+                slots.acquire();
+                long position = index++;
+                try {
+                    workers.execute(() -> execute(position, spec, decoder, delivery));
+                } catch (RuntimeException e) {
+                    slots.release();
+                    throw e;
+                }
+            }
+        } finally {
+            // wait for everything already submitted before returning or propagating
+            slots.acquireUninterruptibly(concurrency);
+            slots.release(concurrency);
+        }
+        RuntimeException listenerError = delivery.listenerError.get();
+        if (listenerError != null) {
+            throw listenerError;
+        }
+        return new Summary(index, delivery.succeeded.get(), delivery.failed.get(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private <T> void execute(long index, RequestSpec spec, BodyDecoder<T> decoder, Delivery<T> delivery) {
+        T result = null;
+        HttpCaller.APIException error = null;
+        try {
+            result = caller.execute(spec, decoder);
+        } catch (HttpCaller.APIException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new HttpCaller.APIException(e.getMessage(), e);
+        } catch (Error e) {
+            // still release the slot and the ordered sequence, or run() waits forever
+            delivery.complete(index, spec, null, new HttpCaller.APIException(e.getMessage(), e));
+            throw e;
+        }
+        delivery.complete(index, spec, result, error);
+    }
+
+    /**
+     * Shut down the worker threads. The underlying {@link HttpCaller} is not
+     * closed.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+    }
+
+    private final class Delivery<T> {
+        private final BatchListener<T> listener;
+        private final boolean ordered;
+        private final Semaphore slots = new Semaphore(concurrency);
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicReference<RuntimeException> listenerError = new AtomicReference<>();
+        private final Map<Long, Outcome<T>> pending = new HashMap<>();
+        private long next;
+
+        private Delivery(BatchListener<T> listener, boolean ordered) {
+            this.listener = listener;
+            this.ordered = ordered;
+        }
+
+        private void complete(long index, RequestSpec spec, T result, HttpCaller.APIException error) {
+            Outcome<T> outcome = new Outcome<>(index, spec, result, error);
+            if (!ordered) {
+                deliver(outcome);
+                return;
+            }
+            synchronized (this) {
+                pending.put(index, outcome);
+                Outcome<T> head;
+                while ((head = pending.remove(next)) != null) {
+                    next++;
+                    deliver(head);
+                }
+            }
+        }
+
+        private void deliver(Outcome<T> outcome) {
+            try {
+                if (outcome.error == null) {
+                    succeeded.incrementAndGet();
+                    listener.onSuccess(outcome.index, outcome.spec, outcome.result);
+                } else {
+                    failed.incrementAndGet();
+                    listener.onFailure(outcome.index, outcome.spec, outcome.error);
+                }
+            } catch (RuntimeException e) {
+                listenerError.compareAndSet(null, e);
+            } finally {
+                slots.release();
+            }
+        }
+    }
+
+    private static final class Outcome<T> {
+        private final long index;
+        private final RequestSpec spec;
+        private final T result;
+        private final HttpCaller.APIException error;
+
+        private Outcome(long index, RequestSpec spec, T result, HttpCaller.APIException error) {
+            this.index = index;
+            this.spec = spec;
+            this.result = result;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Counters for a finished batch.
+     */
+    public static final class Summary {
+        private final long submitted;
+        private final long succeeded;
+        private final long failed;
+        private final Duration elapsed;
+
+        private Summary(long submitted, long succeeded, long failed, Duration elapsed) {
+            this.submitted = submitted;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.elapsed = elapsed;
+        }
+
+        public long submitted() {
+            return submitted;
+        }
+
+        public long succeeded() {
+            return succeeded;
+        }
+
+        public long failed() {
+            return failed;
+        }
+
+        public Duration elapsed() {
+            return elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{submitted=" + submitted + ", succeeded=" + succeeded + ", failed=" + failed
+                    + ", elapsed=" + elapsed + "}";
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+/**
+ * Receives the outcome of each request submitted to a {@link BatchExecutor}.
+ * <p>
+ * In unordered mode callbacks run concurrently on the executor's worker threads
+ * and must be thread-safe; in ordered mode they are serialized and delivered in
+ * submission order.
+ *
+ * @param <T> decoded response type
+ */
+public interface BatchListener<T> {
+
+    /**
+     * Called when a request completed with a 2xx response.
+     *
+     * @param index  zero-based position of the spec in the input
+     * @param spec   the request spec
+     * @param result decoded response body
+     */
+    void onSuccess(long index, RequestSpec spec, T result);
+
+    /**
+     * Called when a request failed (IO error, decoding error or non-2xx status).
+     *
+     * @param index zero-based position of the spec in the input
+     * @param spec  the request spec
+     * @param error failure cause
+     */
+    void onFailure(long index, RequestSpec spec, HttpCaller.APIException error);
+
+}
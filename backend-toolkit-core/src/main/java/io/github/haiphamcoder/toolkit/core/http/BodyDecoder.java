@@ -0,0 +1,51 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Decodes a response body straight from the entity stream.
+ * <p>
+ * Decoders run while the connection is still leased, so they should read what
+ * they need and return; the stream is closed and the connection released by
+ * {@link HttpCaller} afterwards. Reading from the stream directly avoids
+ * materializing the body as a byte array and then as a {@link String} before a
+ * parser sees it.
+ *
+ * @param <T> decoded type
+ * @see HttpCaller#get(String, java.util.Map, java.util.Map, BodyDecoder)
+ */
+@FunctionalInterface
+public interface BodyDecoder<T> {
+
+    /**
+     * Decode the response body.
+     *
+     * @param body    entity content (empty stream if the response has no entity)
+     * @param charset charset declared by the response Content-Type, UTF-8 if
+     *                none
+     * @return decoded value
+     * @throws IOException on read or parse errors
+     */
+    T decode(InputStream body, Charset charset) throws IOException;
+
+    /**
+     * Decoder returning the body as a String in the response charset.
+     *
+     * @return string decoder
+     */
+    static BodyDecoder<String> ofString() {
+        return (body, charset) -> new String(body.readAllBytes(), charset);
+    }
+
+    /**
+     * Decoder returning the raw body bytes.
+     *
+     * @return byte array decoder
+     */
+    static BodyDecoder<byte[]> ofByteArray() {
+        return (body, charset) -> body.readAllBytes();
+    }
+
+}
@@ -0,0 +1,83 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+/**
+ * Source of scratch byte arrays for reading and writing HTTP bodies.
+ * <p>
+ * {@link HttpCaller} borrows a buffer for the duration of one body transfer
+ * and returns it afterwards, so steady traffic reuses the same few arrays
+ * instead of allocating and growing new ones per response. Pools hand out
+ * power-of-two size classes from 4 KiB up to a maximum; larger requests are
+ * served with plain allocations that are dropped on release. A buffer must not
+ * be used after it was released.
+ */
+public interface BufferPool {
+
+    /**
+     * Borrow a buffer.
+     *
+     * @param minSize minimum length
+     * @return buffer of at least {@code minSize} bytes, with arbitrary content
+     */
+    byte[] acquire(int minSize);
+
+    /**
+     * Return a buffer obtained from {@link #acquire(int)}.
+     *
+     * @param buffer borrowed buffer
+     */
+    void release(byte[] buffer);
+
+    /**
+     * Lock-free pool shared by all threads, split into one stripe per CPU
+     * (rounded up to a power of two) with 2 buffers per size class, up to
+     * 64 KiB buffers. Suits any thread model, including virtual threads.
+     *
+     * @return striped pool
+     */
+    static BufferPool striped() {
+        return striped(Runtime.getRuntime().availableProcessors(), 2, 64 * 1024);
+    }
+
+    /**
+     * Lock-free pool shared by all threads. Retains at most
+     * {@code stripes * buffersPerClass} buffers per size class.
+     *
+     * @param stripes         number of stripes, rounded up to a power of two
+     * @param buffersPerClass buffers kept per size class and stripe
+     * @param maxBufferSize   largest pooled buffer
+     * @return striped pool
+     */
+    static BufferPool striped(int stripes, int buffersPerClass, int maxBufferSize) {
+        return new StripedBufferPool(stripes, buffersPerClass, maxBufferSize);
+    }
+
+    /**
+     * Pool keeping one buffer per size class in each thread, up to 64 KiB
+     * buffers. Cheapest when a bounded set of platform threads makes the
+     * calls; avoid it with virtual threads or unbounded thread pools.
+     *
+     * @return thread-local pool
+     */
+    static BufferPool threadLocal() {
+        return threadLocal(64 * 1024);
+    }
+
+    /**
+     * Pool keeping one buffer per size class in each thread.
+     *
+     * @param maxBufferSize largest pooled buffer
+     * @return thread-local pool
+     */
+    static BufferPool threadLocal(int maxBufferSize) {
+        return new ThreadLocalBufferPool(maxBufferSize);
+    }
+
+    /**
+     * No pooling: every {@link #acquire(int)} allocates.
+     *
+     * @return allocating pool
+     */
+    static BufferPool unpooled() {
+        return SizeClassedBufferPool.UNPOOLED;
+    }
+}
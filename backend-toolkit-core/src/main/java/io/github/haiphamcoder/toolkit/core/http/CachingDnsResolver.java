@@ -0,0 +1,283 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+/**
+ * {@link DnsResolver} that caches lookups for a fixed TTL, refreshes hot entries
+ * in the background and spreads new connections across every resolved address.
+ * <p>
+ * HttpClient opens a connection to the first address returned by the resolver
+ * and only falls back to the next ones on failure. This resolver rotates the
+ * cached address list on every call (round-robin), so a host name backed by
+ * many A records (for example a Kubernetes headless service) gets its pooled
+ * connections evenly spread across the backends instead of all landing on the
+ * first record.
+ * <p>
+ * Entries are served from memory until their TTL expires; a background task
+ * re-resolves entries that are still in use before they expire, so lookups on
+ * the connect path rarely block. When a lookup fails the previous addresses
+ * keep being served (stale-if-error) until a lookup succeeds again; the connect
+ * path retries the delegate at most once per {@code errorRetry}, so an outage
+ * of the DNS server does not put a slow lookup in front of every connection.
+ * Hosts not used for {@code idleExpiry} are dropped from the cache.
+ * <p>
+ * The TTL is the configured one, the same for every host: {@link DnsResolver}
+ * and {@link InetAddress} do not expose the TTL of the DNS records, so the
+ * record TTLs are not honoured.
+ * <p>
+ * Note: the default delegate is {@link SystemDefaultDnsResolver}, which is
+ * itself subject to the JVM-wide {@code networkaddress.cache.ttl}; keep that
+ * value at or below the TTL configured here.
+ */
+public final class CachingDnsResolver implements DnsResolver, Closeable {
+
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final long errorRetryNanos;
+    private final long idleExpiryNanos;
+    private final LongSupplier clock;
+    private final Map<String, CachedHost> cache = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+
+    private CachingDnsResolver(Builder builder) {
+        this.delegate = builder.delegate;
+        this.ttlNanos = builder.ttl.toNanos();
+        this.errorRetryNanos = Math.min(builder.errorRetry.toNanos(), ttlNanos);
+        this.idleExpiryNanos = builder.idleExpiry.toNanos();
+        this.clock = builder.clock;
+        if (builder.backgroundRefresh) {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dns-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // refresh at half the TTL so entries in use are renewed before they expire
+            long periodMillis = Math.max(1L, builder.ttl.toMillis() / 2);
+            refresher.scheduleWithFixedDelay(this::refreshAll, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.refresher = null;
+        }
+    }
+
+    /**
+     * Builder for {@link CachingDnsResolver}.
+     * <p>
+     * Defaults:
+     * - Delegate: {@link SystemDefaultDnsResolver}
+     * - TTL: 30s, idle expiry: 5 min
+     * - Retry after a failed lookup: 5s
+     * - Background refresh: enabled
+     */
+    public static class Builder {
+        private DnsResolver delegate = SystemDefaultDnsResolver.INSTANCE;
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration idleExpiry = Duration.ofMinutes(5);
+        private Duration errorRetry = Duration.ofSeconds(5);
+        private boolean backgroundRefresh = true;
+        private LongSupplier clock = System::nanoTime;
+
+        /**
+         * Set the resolver used for actual lookups.
+         *
+         * @param delegate underlying resolver
+         * @return this builder
+         */
+        public Builder delegate(DnsResolver delegate) {
+            if (delegate == null) {
+                throw new IllegalArgumentException("delegate must not be null");
+            }
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Set how long resolved addresses are served from the cache.
+         *
+         * @param ttl cache time-to-live, must be positive
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl) {
+            if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+                throw new IllegalArgumentException("ttl must be positive");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Set after how long without lookups a host is dropped from the cache and
+         * no longer refreshed.
+         *
+         * @param idleExpiry idle expiry, must be positive
+         * @return this builder
+         */
+        public Builder idleExpiry(Duration idleExpiry) {
+            if (idleExpiry == null || idleExpiry.isZero() || idleExpiry.isNegative()) {
+                throw new IllegalArgumentException("idleExpiry must be positive");
+            }
+            this.idleExpiry = idleExpiry;
+            return this;
+        }
+
+        /**
+         * Set how long the previous addresses are served without another
+         * lookup after a lookup failed; capped at the TTL.
+         *
+         * @param errorRetry retry interval of failed lookups, must be positive
+         * @return this builder
+         */
+        public Builder errorRetry(Duration errorRetry) {
+            if (errorRetry == null || errorRetry.isZero() || errorRetry.isNegative()) {
+                throw new IllegalArgumentException("errorRetry must be positive");
+            }
+            this.errorRetry = errorRetry;
+            return this;
+        }
+
+        /**
+         * Enable or disable background refresh of cached entries.
+         *
+         * @param backgroundRefresh true to refresh in the background (default)
+         * @return this builder
+         */
+        public Builder backgroundRefresh(boolean backgroundRefresh) {
+            this.backgroundRefresh = backgroundRefresh;
+            return this;
+        }
+
+        Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Build a new {@link CachingDnsResolver} instance.
+         *
+         * @return configured resolver
+         */
+        public CachingDnsResolver build() {
+            return new CachingDnsResolver(this);
+        }
+    }
+
+    /**
+     * Resolve the host, returning all cached addresses rotated so that each call
+     * starts with the next address.
+     */
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long now = clock.getAsLong();
+        CachedHost cached = cache.get(host);
+        if (cached == null || now - cached.resolvedAt >= ttlNanos) {
+            cached = lookup(host, cached, now);
+        }
+        cached.lastAccess = now;
+        return cached.next();
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+
+    /**
+     * Drop every cached entry so the next lookup goes to the delegate.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private CachedHost lookup(String host, CachedHost previous, long now) throws UnknownHostException {
+        InetAddress[] addresses;
+        try {
+            addresses = delegate.resolve(host);
+        } catch (UnknownHostException e) {
+            if (previous != null) {
+                return stale(host, previous, now);
+            }
+            throw e;
+        }
+        if (addresses == null || addresses.length == 0) {
+            if (previous != null) {
+                return stale(host, previous, now);
+            }
+            throw new UnknownHostException(host);
+        }
+        CachedHost fresh = new CachedHost(addresses.clone(), now, previous);
+        cache.put(host, fresh);
+        return fresh;
+    }
+
+    /**
+     * Keep serving the previous addresses, stamped so that they expire again
+     * {@code errorRetry} from now.
+     */
+    private CachedHost stale(String host, CachedHost previous, long now) {
+        CachedHost stale = new CachedHost(previous.addresses, now - ttlNanos + errorRetryNanos, previous);
+        cache.put(host, stale);
+        return stale;
+    }
+
+    private void refreshAll() {
+        long now = clock.getAsLong();
+        for (Map.Entry<String, CachedHost> entry : cache.entrySet()) {
+            CachedHost cached = entry.getValue();
+            if (now - cached.lastAccess >= idleExpiryNanos) {
+                cache.remove(entry.getKey(), cached);
+                continue;
+            }
+            try {
+                lookup(entry.getKey(), cached, now);
+            } catch (UnknownHostException | RuntimeException e) {
+                // keep serving the previous addresses until a refresh succeeds
+            }
+        }
+    }
+
+    private static final class CachedHost {
+        private final InetAddress[] addresses;
+        private final long resolvedAt;
+        private final AtomicInteger cursor;
+        private volatile long lastAccess;
+
+        private CachedHost(InetAddress[] addresses, long resolvedAt, CachedHost previous) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+            // keep rotating from where the previous entry stopped instead of restarting at the first address
+            this.cursor = previous != null ? previous.cursor : new AtomicInteger();
+            this.lastAccess = previous != null ? previous.lastAccess : resolvedAt;
+        }
+
+        private InetAddress[] next() {
+            int length = addresses.length;
+            if (length == 1) {
+                return addresses.clone();
+            }
+            int start = Math.floorMod(cursor.getAndIncrement(), length);
+            InetAddress[] rotated = new InetAddress[length];
+            System.arraycopy(addresses, start, rotated, 0, length - start);
+            System.arraycopy(addresses, 0, rotated, length - start, start);
+            return rotated;
+        }
+    }
+}
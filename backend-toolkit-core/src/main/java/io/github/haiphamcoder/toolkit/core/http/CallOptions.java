@@ -0,0 +1,250 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.time.Duration;
+
+/**
+ * Per-call overrides for {@link HttpCaller}: a deadline and individual
+ * connection lease, connect and response timeouts.
+ * <p>
+ * Options apply to every call made on the current thread while they are in
+ * scope, so a deadline set once at the edge of a request handler reaches every
+ * downstream call without changing their signatures:
+ *
+ * <pre>{@code
+ * try (CallOptions.Scope scope = CallOptions.withTimeout(Duration.ofMillis(250)).makeCurrent()) {
+ *     String user = caller.get(usersUrl, null, null);
+ *     String orders = caller.get(ordersUrl, null, null);
+ * }
+ * }</pre>
+ * <p>
+ * With a deadline, each timeout becomes the smaller of its configured value
+ * and the time left, and a call whose deadline has passed fails before it
+ * waits for a concurrency permit or leases a pool connection. The response
+ * timeout bounds each wait for data, not the whole transfer. Scopes nest: an
+ * inner scope can shorten the deadline of the outer one but not extend it.
+ */
+public final class CallOptions {
+
+    private static final ThreadLocal<CallOptions> CURRENT = new ThreadLocal<>();
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final Duration connectionRequestTimeout;
+    private final Duration connectTimeout;
+    private final Duration responseTimeout;
+    private final String deadlineHeader;
+
+    private CallOptions(long deadlineNanos, Duration connectionRequestTimeout, Duration connectTimeout,
+            Duration responseTimeout, String deadlineHeader) {
+        this.deadlineNanos = deadlineNanos;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        this.connectTimeout = connectTimeout;
+        this.responseTimeout = responseTimeout;
+        this.deadlineHeader = deadlineHeader;
+    }
+
+    /**
+     * Options with only a deadline, {@code timeout} from now.
+     *
+     * @param timeout time budget of the calls
+     * @return options
+     */
+    public static CallOptions withTimeout(Duration timeout) {
+        return new Builder().timeout(timeout).build();
+    }
+
+    /**
+     * @return options in scope on the current thread, or null
+     */
+    public static CallOptions current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Put these options in scope on the current thread until the returned
+     * scope is closed, merged with the options already in scope: the earlier
+     * deadline wins, and timeouts not set here are inherited.
+     *
+     * @return scope restoring the previous options on close
+     */
+    public Scope makeCurrent() {
+        CallOptions previous = CURRENT.get();
+        CURRENT.set(previous == null ? this : previous.mergedWith(this));
+        return new Scope(previous);
+    }
+
+    private CallOptions mergedWith(CallOptions inner) {
+        return new CallOptions(Math.min(deadlineNanos, inner.deadlineNanos),
+                inner.connectionRequestTimeout != null ? inner.connectionRequestTimeout : connectionRequestTimeout,
+                inner.connectTimeout != null ? inner.connectTimeout : connectTimeout,
+                inner.responseTimeout != null ? inner.responseTimeout : responseTimeout,
+                inner.deadlineHeader != null ? inner.deadlineHeader : deadlineHeader);
+    }
+
+    /**
+     * @return true if a deadline is set
+     */
+    public boolean hasDeadline() {
+        return deadlineNanos != NO_DEADLINE;
+    }
+
+    /**
+     * @return time left until the deadline, negative once it has passed, or
+     *         null without a deadline
+     */
+    public Duration remaining() {
+        return hasDeadline() ? Duration.ofNanos(deadlineNanos - System.nanoTime()) : null;
+    }
+
+    /**
+     * @return true if a deadline is set and has passed
+     */
+    public boolean isExpired() {
+        return hasDeadline() && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return connection lease timeout override, or null
+     */
+    public Duration connectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    /**
+     * @return connect timeout override, or null
+     */
+    public Duration connectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @return response timeout override, or null
+     */
+    public Duration responseTimeout() {
+        return responseTimeout;
+    }
+
+    /**
+     * @return name of the header carrying the remaining budget, or null
+     */
+    public String deadlineHeader() {
+        return deadlineHeader;
+    }
+
+    /**
+     * Restores the options that were in scope before {@link #makeCurrent()}.
+     * Must be closed on the thread that opened it.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final CallOptions previous;
+
+        private Scope(CallOptions previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link CallOptions}. Nothing is overridden by default.
+     */
+    public static class Builder {
+        private long deadlineNanos = NO_DEADLINE;
+        private Duration connectionRequestTimeout;
+        private Duration connectTimeout;
+        private Duration responseTimeout;
+        private String deadlineHeader;
+
+        /**
+         * Set the deadline {@code timeout} from now.
+         *
+         * @param timeout time budget, zero or negative for an already expired
+         *                deadline
+         * @return this builder
+         */
+        public Builder timeout(Duration timeout) {
+            if (timeout == null) {
+                throw new IllegalArgumentException("timeout must not be null");
+            }
+            this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+            return this;
+        }
+
+        /**
+         * Set the deadline as a {@link System#nanoTime()} value, e.g. one
+         * derived from an inbound request's budget.
+         *
+         * @param deadlineNanos deadline on the {@code System.nanoTime()} clock
+         * @return this builder
+         */
+        public Builder deadlineNanos(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+            return this;
+        }
+
+        /**
+         * @param timeout maximum wait for a pooled connection
+         * @return this builder
+         */
+        public Builder connectionRequestTimeout(Duration timeout) {
+            this.connectionRequestTimeout = positive(timeout, "connectionRequestTimeout");
+            return this;
+        }
+
+        /**
+         * @param timeout maximum time to establish a new connection
+         * @return this builder
+         */
+        public Builder connectTimeout(Duration timeout) {
+            this.connectTimeout = positive(timeout, "connectTimeout");
+            return this;
+        }
+
+        /**
+         * @param timeout maximum wait for response data
+         * @return this builder
+         */
+        public Builder responseTimeout(Duration timeout) {
+            this.responseTimeout = positive(timeout, "responseTimeout");
+            return this;
+        }
+
+        /**
+         * Send the remaining budget in milliseconds downstream in this header
+         * (e.g. {@code X-Request-Timeout-Ms}) on calls with a deadline.
+         *
+         * @param name header name
+         * @return this builder
+         */
+        public Builder deadlineHeader(String name) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("deadlineHeader must not be blank");
+            }
+            this.deadlineHeader = name;
+            return this;
+        }
+
+        /**
+         * @return call options
+         */
+        public CallOptions build() {
+            return new CallOptions(deadlineNanos, connectionRequestTimeout, connectTimeout, responseTimeout,
+                    deadlineHeader);
+        }
+
+        private static Duration positive(Duration timeout, String name) {
+            if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+                throw new IllegalArgumentException(name + " must be > 0");
+            }
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.Method;
+
+/**
+ * Uploads a file in fixed-size parts sent in parallel, for files too large
+ * for one {@link HttpCaller#upload} request: the parts spread over several
+ * pooled connections, a failed part is retried on its own, and an upload
+ * interrupted by a crash or a longer outage resumes from a local manifest
+ * instead of starting over.
+ * <p>
+ * Parts are read from the file with positional {@link FileChannel} reads
+ * while they are sent, through one pooled buffer at a time, so neither the
+ * file nor a part is copied onto the heap. The server side of the exchange is
+ * a {@link Protocol}; {@link Protocol#rest(String)} is a minimal one.
+ *
+ * <pre>{@code
+ * ChunkedUploader uploader = new ChunkedUploader.Builder()
+ *         .caller(caller)
+ *         .protocol(ChunkedUploader.Protocol.rest("https://files.example.com/uploads"))
+ *         .partSize(16 * 1024 * 1024)
+ *         .concurrency(4)
+ *         .build();
+ * // rerun with the same manifest after a failure to send only the missing parts
+ * String result = uploader.upload(Paths.get("backup.tar"), Paths.get("backup.tar.upload"));
+ * }</pre>
+ */
+public final class ChunkedUploader {
+
+    private final HttpCaller caller;
+    private final Protocol protocol;
+    private final int partSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    private ChunkedUploader(Builder builder) {
+        this.caller = builder.caller;
+        this.protocol = builder.protocol;
+        this.partSize = builder.partSize;
+        this.concurrency = builder.concurrency;
+        this.maxAttempts = builder.maxAttempts;
+        this.backoff = builder.backoff;
+    }
+
+    /**
+     * Server side of a chunked upload: open an upload, send one part, and
+     * assemble the parts. Calls go through the given caller, so its pool,
+     * retries, limits and interceptors apply.
+     */
+    public interface Protocol {
+        /**
+         * Open an upload.
+         *
+         * @param caller   client to call with
+         * @param fileName name of the uploaded file
+         * @param size     file size in bytes
+         * @param partSize size of every part but the last
+         * @return upload ID identifying the upload in later calls, also after
+         *         a resume; must not contain line breaks
+         * @throws HttpCaller.APIException if the upload cannot be opened
+         */
+        String start(HttpCaller caller, String fileName, long size, int partSize) throws HttpCaller.APIException;
+
+        /**
+         * Send one part. May be called again for the same part after a
+         * failure, and concurrently for different parts.
+         *
+         * @param caller   client to call with
+         * @param uploadId ID returned by {@link #start}
+         * @param part     part to send
+         * @return tag the server returned for the part, e.g. an ETag, handed
+         *         to {@link #complete}; must not contain line breaks
+         * @throws HttpCaller.APIException if the part was not accepted
+         */
+        String uploadPart(HttpCaller caller, String uploadId, Part part) throws HttpCaller.APIException;
+
+        /**
+         * Assemble the uploaded parts.
+         *
+         * @param caller   client to call with
+         * @param uploadId ID returned by {@link #start}
+         * @param partTags tags of all parts, in part order
+         * @return response of the server
+         * @throws HttpCaller.APIException if the upload cannot be completed
+         */
+        String complete(HttpCaller caller, String uploadId, List<String> partTags) throws HttpCaller.APIException;
+
+        /**
+         * A plain REST protocol:
+         * <ul>
+         * <li>{@code POST <baseUrl>} with headers {@code X-Upload-Name},
+         * {@code X-Upload-Length} and {@code X-Upload-Part-Size} answers the
+         * upload ID as its body;</li>
+         * <li>{@code PUT <baseUrl>/<id>/parts/<number>} with the part as an
+         * octet stream answers the part tag as its body; part numbers start
+         * at 1;</li>
+         * <li>{@code POST <baseUrl>/<id>/complete} with one
+         * {@code <number> <tag>} line per part answers the result.</li>
+         * </ul>
+         *
+         * @param baseUrl URL of the upload collection, without a trailing
+         *                slash
+         * @return REST protocol
+         */
+        static Protocol rest(String baseUrl) {
+            UriTemplate uploads = UriTemplate.compile(baseUrl);
+            UriTemplate part = UriTemplate.compile(baseUrl + "/{id}/parts/{number}");
+            UriTemplate complete = UriTemplate.compile(baseUrl + "/{id}/complete");
+            return new Protocol() {
+                @Override
+                public String start(HttpCaller caller, String fileName, long size, int partSize)
+                        throws HttpCaller.APIException {
+                    HeaderSet headers = HeaderSet.of(Map.of("X-Upload-Name", fileName, "X-Upload-Length",
+                            Long.toString(size), "X-Upload-Part-Size", Integer.toString(partSize)));
+                    return caller.execute(RequestSpec.of(Method.POST, uploads, headers), BodyDecoder.ofString())
+                            .trim();
+                }
+
+                @Override
+                public String uploadPart(HttpCaller caller, String uploadId, Part p) throws HttpCaller.APIException {
+                    RequestSpec spec = RequestSpec.of(Method.PUT, part, null, uploadId, Integer.toString(p.number()))
+                            .withBody(p.entity());
+                    return caller.execute(spec, BodyDecoder.ofString()).trim();
+                }
+
+                @Override
+                public String complete(HttpCaller caller, String uploadId, List<String> partTags)
+                        throws HttpCaller.APIException {
+                    StringBuilder body = new StringBuilder();
+                    for (int i = 0; i < partTags.size(); i++) {
+                        body.append(i + 1).append(' ').append(partTags.get(i)).append('\n');
+                    }
+                    RequestSpec spec = RequestSpec.of(Method.POST, complete, null, uploadId)
+                            .withBody(body.toString().getBytes(StandardCharsets.UTF_8),
+                                    ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8));
+                    return caller.execute(spec, BodyDecoder.ofString());
+                }
+            };
+        }
+    }
+
+    /**
+     * One part of the file being uploaded.
+     */
+    public static final class Part {
+        private final int number;
+        private final long offset;
+        private final long length;
+        private final HttpEntity entity;
+
+        private Part(int number, long offset, long length, HttpEntity entity) {
+            this.number = number;
+            this.offset = offset;
+            this.length = length;
+            this.entity = entity;
+        }
+
+        /**
+         * @return part number, starting at 1
+         */
+        public int number() {
+            return number;
+        }
+
+        /**
+         * @return position of the part in the file
+         */
+        public long offset() {
+            return offset;
+        }
+
+        /**
+         * @return part size in bytes
+         */
+        public long length() {
+            return length;
+        }
+
+        /**
+         * @return repeatable octet-stream entity reading the part from the
+         *         file, e.g. for {@link RequestSpec#withBody(HttpEntity)}
+         */
+        public HttpEntity entity() {
+            return entity;
+        }
+    }
+
+    /**
+     * Upload a file in one go; a failure loses the parts sent so far.
+     *
+     * @param file file to upload
+     * @return response of {@link Protocol#complete}
+     * @throws HttpCaller.APIException if the file cannot be read or a part
+     *                                 failed on every attempt
+     */
+    public String upload(Path file) throws HttpCaller.APIException {
+        return upload(file, null);
+    }
+
+    /**
+     * Upload a file, recording every accepted part in {@code manifest}. When
+     * the manifest already describes an upload of the same file (same size,
+     * modification time and part size), that upload is continued and only
+     * its missing parts are sent. The manifest is deleted once the upload is
+     * complete.
+     *
+     * @param file     file to upload
+     * @param manifest local progress file (nullable for no resume)
+     * @return response of {@link Protocol#complete}
+     * @throws HttpCaller.APIException if a file cannot be read or written, or
+     *                                 a part failed on every attempt; the
+     *                                 manifest keeps the accepted parts
+     */
+    public String upload(Path file, Path manifest) throws HttpCaller.APIException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            int parts = (int) Math.max(1, (size + partSize - 1) / partSize);
+            String[] tags = new String[parts];
+            try (Manifest progress = manifest != null ? Manifest.open(manifest, size, modified, partSize) : null) {
+                String uploadId = progress != null ? progress.uploadId : null;
+                if (uploadId == null) {
+                    uploadId = checkLine(protocol.start(caller, file.getFileName().toString(), size, partSize));
+                    if (progress != null) {
+                        progress.begin(uploadId);
+                    }
+                } else {
+                    progress.completed.forEach((number, tag) -> {
+                        if (number <= parts) {
+                            tags[number - 1] = tag;
+                        }
+                    });
+                }
+                uploadParts(channel, size, uploadId, tags, progress);
+                String result = protocol.complete(caller, uploadId, Arrays.asList(tags));
+                if (progress != null) {
+                    progress.delete();
+                }
+                return result;
+            }
+        } catch (IOException e) {
+            throw new HttpCaller.APIException("Chunked upload of " + file + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void uploadParts(FileChannel channel, long size, String uploadId, String[] tags, Manifest progress)
+            throws HttpCaller.APIException {
+        int missing = 0;
+        for (String tag : tags) {
+            if (tag == null) {
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return;
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(concurrency, missing),
+                PoolWarmer.daemonThreads("chunked-upload"));
+        CompletionService<Void> done = new ExecutorCompletionService<>(workers);
+        try {
+            for (int i = 0; i < tags.length; i++) {
+                if (tags[i] == null) {
+                    long offset = (long) i * partSize;
+                    long length = Math.min(partSize, size - offset);
+                    Part part = new Part(i + 1, offset, length,
+                            new FileRegionEntity(channel, offset, length, caller.bufferPool()));
+                    done.submit(() -> {
+                        String tag = checkLine(sendWithRetries(uploadId, part));
+                        tags[part.number - 1] = tag;
+                        if (progress != null) {
+                            progress.record(part.number, tag);
+                        }
+                        return null;
+                    });
+                }
+            }
+            for (int i = 0; i < missing; i++) {
+                done.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpCaller.APIException("Interrupted while uploading parts", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpCaller.APIException) {
+                throw (HttpCaller.APIException) cause;
+            }
+            throw new HttpCaller.APIException(cause.getMessage(), cause);
+        } finally {
+            // the first failure stops the remaining parts
+            workers.shutdownNow();
+        }
+    }
+
+    private String sendWithRetries(String uploadId, Part part) throws HttpCaller.APIException, InterruptedException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return protocol.uploadPart(caller, uploadId, part);
+            } catch (HttpCaller.APIException e) {
+                if (attempt >= maxAttempts) {
+                    throw new HttpCaller.APIException("Part " + part.number + " failed after " + attempt
+                            + " attempts: " + e.getMessage(), e);
+                }
+                Thread.sleep(backoff.toMillis() << Math.min(attempt - 1, 16));
+            }
+        }
+    }
+
+    private static String checkLine(String value) throws HttpCaller.APIException {
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new HttpCaller.APIException("Upload IDs and part tags must be single lines: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Append-only text file: a header line
+     * {@code v1 <size> <modified> <partSize> <uploadId>}, then one
+     * {@code <number> <tag>} line per accepted part, each forced to disk
+     * before the part counts as done. A line torn by a crash is cut off.
+     */
+    private static final class Manifest implements AutoCloseable {
+        private final Path path;
+        private final FileChannel channel;
+        private final String header;
+        private final Map<Integer, String> completed = new HashMap<>();
+        private String uploadId;
+
+        private Manifest(Path path, String header) throws IOException {
+            this.path = path;
+            this.header = header;
+            long valid = 0;
+            if (Files.exists(path)) {
+                // one char per byte keeps offsets exact; IDs and tags are decoded as UTF-8 below
+                String text = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1);
+                int end = text.indexOf('\n');
+                if (end > 0 && text.startsWith(header + " ")) {
+                    uploadId = utf8(text.substring(header.length() + 1, end));
+                    valid = end + 1;
+                    int next;
+                    while ((next = text.indexOf('\n', (int) valid)) >= 0) {
+                        String line = text.substring((int) valid, next);
+                        int space = line.indexOf(' ');
+                        try {
+                            completed.put(Integer.parseInt(line.substring(0, space)), utf8(line.substring(space + 1)));
+                        } catch (RuntimeException e) {
+                            break;
+                        }
+                        valid = next + 1;
+                    }
+                    if (uploadId.isEmpty()) {
+                        uploadId = null;
+                        completed.clear();
+                        valid = 0;
+                    }
+                }
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // drop a torn tail, or all of a manifest of another upload
+            channel.truncate(valid);
+            channel.position(valid);
+        }
+
+        private static String utf8(String latin1) {
+            return new String(latin1.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+        }
+
+        static Manifest open(Path path, long size, long modified, int partSize) throws IOException {
+            return new Manifest(path, "v1 " + size + " " + modified + " " + partSize);
+        }
+
+        void begin(String uploadId) throws IOException {
+            this.uploadId = uploadId;
+            append(header + " " + uploadId);
+        }
+
+        synchronized void record(int number, String tag) throws IOException {
+            append(number + " " + tag);
+        }
+
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void append(String line) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Builder of {@link ChunkedUploader}.
+     */
+    public static class Builder {
+        private HttpCaller caller;
+        private Protocol protocol;
+        private int partSize = 8 * 1024 * 1024;
+        private int concurrency = 4;
+        private int maxAttempts = 3;
+        private Duration backoff = Duration.ofMillis(500);
+
+        /**
+         * @param caller client sending the parts; its pool should allow
+         *               {@code concurrency} connections per route
+         * @return this builder
+         */
+        public Builder caller(HttpCaller caller) {
+            this.caller = caller;
+            return this;
+        }
+
+        /**
+         * @param protocol server side of the upload
+         * @return this builder
+         */
+        public Builder protocol(Protocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * @param partSize bytes per part; the last part may be smaller
+         * @return this builder
+         */
+        public Builder partSize(int partSize) {
+            if (partSize <= 0) {
+                throw new IllegalArgumentException("partSize must be > 0");
+            }
+            this.partSize = partSize;
+            return this;
+        }
+
+        /**
+         * @param concurrency parts sent at once
+         * @return this builder
+         */
+        public Builder concurrency(int concurrency) {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("concurrency must be > 0");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Attempts per part, with exponential backoff between them.
+         *
+         * @param maxAttempts attempts per part, &gt;= 1
+         * @param backoff     wait before the second attempt, doubled for each
+         *                    further one
+         * @return this builder
+         */
+        public Builder retry(int maxAttempts, Duration backoff) {
+            if (maxAttempts < 1 || backoff == null || backoff.isNegative()) {
+                throw new IllegalArgumentException("maxAttempts must be >= 1 and backoff >= 0");
+            }
+            this.maxAttempts = maxAttempts;
+            this.backoff = backoff;
+            return this;
+        }
+
+        /**
+         * @return uploader
+         */
+        public ChunkedUploader build() {
+            if (caller == null || protocol == null) {
+                throw new IllegalArgumentException("caller and protocol are required");
+            }
+            return new ChunkedUploader(this);
+        }
+    }
+}
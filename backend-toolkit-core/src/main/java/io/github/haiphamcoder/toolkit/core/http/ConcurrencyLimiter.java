@@ -0,0 +1,48 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead for an {@link HttpCaller}: bounds the number of calls in flight,
+ * from sending the request until the response body has been consumed.
+ * <p>
+ * Callers over the limit wait up to {@code maxWaitMs} for a permit and then
+ * fail fast instead of queueing on the connection pool, so a slow downstream
+ * cannot absorb every thread of the application.
+ */
+final class ConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+
+    ConcurrencyLimiter(int maxConcurrent, long maxWaitMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * @param remaining time left until the caller's deadline, or null; the
+     *                  wait never outlasts it
+     */
+    void acquire(Duration remaining) throws HttpCaller.APIException {
+        long waitMs = remaining != null ? Math.min(maxWaitMs, remaining.toMillis()) : maxWaitMs;
+        boolean acquired;
+        try {
+            acquired = waitMs > 0 ? permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS) : permits.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpCaller.APIException("Interrupted while waiting for a concurrency permit", e);
+        }
+        if (!acquired) {
+            throw new HttpCaller.APIException("Concurrency limit of " + maxConcurrent + " requests reached");
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,425 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Durable fire-and-forget delivery of JSON payloads, e.g. webhooks.
+ * <p>
+ * {@link #enqueue} appends the target URL and body to a segmented,
+ * memory-mapped append-only log and returns without any network or disk
+ * wait. Appends are forced to disk together every {@code syncInterval} (group
+ * commit), or on {@link #sync()}. A dispatcher thread reads the log in order
+ * and hands each message to {@code concurrency} workers, which deliver it with
+ * {@link HttpCaller#postJson} and retry failures with exponential backoff. A
+ * message that exhausts its attempts goes to the failure handler.
+ * <p>
+ * The read checkpoint, persisted with each sync, is the position below which
+ * every message has been delivered or given up on. After a crash or restart on
+ * the same directory delivery resumes from there, so messages are delivered at
+ * least once: those in flight or appended after the last sync of the
+ * checkpoint may be sent again. Messages appended but not yet synced when the
+ * machine (not just the process) goes down are lost.
+ *
+ * <pre>{@code
+ * DeliverySpool webhooks = new DeliverySpool.Builder()
+ *         .caller(caller)
+ *         .directory(Path.of("/var/spool/webhooks"))
+ *         .concurrency(16)
+ *         .retry(8, Duration.ofSeconds(1))
+ *         .build();
+ * webhooks.enqueue("https://hooks.example.com/orders", "{\"order\":42,\"state\":\"paid\"}");
+ * }</pre>
+ */
+public final class DeliverySpool implements Closeable {
+
+    private final SpoolLog log;
+    private final HttpCaller caller;
+    private final Map<String, String> headers;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final BiConsumer<Message, HttpCaller.APIException> failureHandler;
+    private final Semaphore slots;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final Thread dispatcher;
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final AtomicReference<IOException> syncError = new AtomicReference<>();
+    private volatile long readPosition;
+    private volatile boolean closed;
+    private volatile boolean idle;
+
+    private DeliverySpool(Builder builder, SpoolLog log) {
+        this.log = log;
+        this.caller = builder.caller;
+        this.headers = builder.headers;
+        this.maxAttempts = builder.maxAttempts;
+        this.backoffMillis = builder.backoff.toMillis();
+        this.failureHandler = builder.failureHandler;
+        this.slots = new Semaphore(builder.concurrency);
+        this.workers = Executors.newFixedThreadPool(builder.concurrency, PoolWarmer.daemonThreads("spool-delivery"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(PoolWarmer.daemonThreads("spool-sync"));
+        this.readPosition = log.checkpoint();
+        long syncMillis = builder.syncInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        this.dispatcher = PoolWarmer.daemonThreads("spool-dispatcher").newThread(this::dispatchLoop);
+        dispatcher.start();
+    }
+
+    /**
+     * A spooled message.
+     */
+    public static final class Message {
+        private final long position;
+        private final String url;
+        private final String body;
+
+        private Message(long position, String url, String body) {
+            this.position = position;
+            this.url = url;
+            this.body = body;
+        }
+
+        /**
+         * @return log position, unique within one spool directory
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * @return target URL
+         */
+        public String url() {
+            return url;
+        }
+
+        /**
+         * @return JSON body
+         */
+        public String body() {
+            return body;
+        }
+    }
+
+    /**
+     * Append a message for delivery. Returns once it is in the log's page
+     * cache; call {@link #sync()} to wait for the disk.
+     *
+     * @param url      target URL
+     * @param jsonBody JSON body
+     * @return log position of the message
+     * @throws IOException if the log cannot grow, or the last background sync
+     *                     failed
+     */
+    public long enqueue(String url, String jsonBody) throws IOException {
+        if (url == null || url.isBlank() || jsonBody == null) {
+            throw new IllegalArgumentException("url and jsonBody are required");
+        }
+        if (closed) {
+            throw new IllegalStateException("DeliverySpool is closed");
+        }
+        IOException error = syncError.get();
+        if (error != null) {
+            throw error;
+        }
+        byte[] urlBytes = url.getBytes(StandardCharsets.UTF_8);
+        byte[] bodyBytes = jsonBody.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(4 + urlBytes.length + bodyBytes.length)
+                .putInt(urlBytes.length).put(urlBytes).put(bodyBytes).array();
+        long position = log.append(payload);
+        // the dispatcher publishes idle before its last look at the log, so one of the two sees the other
+        if (idle) {
+            LockSupport.unpark(dispatcher);
+        }
+        return position;
+    }
+
+    /**
+     * Force every enqueued message to disk and persist the read checkpoint.
+     *
+     * @throws IOException if the log cannot be forced
+     */
+    public void sync() throws IOException {
+        log.sync();
+    }
+
+    /**
+     * @return bytes of log not yet delivered or given up on
+     */
+    public long backlogBytes() {
+        return log.writePosition() - log.checkpoint();
+    }
+
+    /**
+     * Stop reading the log, let deliveries in flight finish and sync. Messages
+     * waiting for a retry are not delivered now; they stay in the log for the
+     * next spool opened on the directory. The {@link HttpCaller} is not closed.
+     *
+     * @throws IOException if the final sync fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        dispatcher.interrupt();
+        scheduler.shutdownNow();
+        try {
+            dispatcher.join();
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        log.close();
+    }
+
+    private void dispatchLoop() {
+        while (!closed) {
+            SpoolLog.Entry entry = log.read(readPosition);
+            if (entry == null) {
+                idle = true;
+                if (log.read(readPosition) == null && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Message message = decode(entry);
+            // registered before the read position moves past it, see complete()
+            inFlight.add(entry.position);
+            readPosition = entry.next;
+            if (!submit(() -> deliver(message, 1))) {
+                return;
+            }
+        }
+    }
+
+    private static Message decode(SpoolLog.Entry entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(entry.payload);
+        int urlLength = buffer.getInt();
+        String url = new String(entry.payload, 4, urlLength, StandardCharsets.UTF_8);
+        String body = new String(entry.payload, 4 + urlLength, entry.payload.length - 4 - urlLength,
+                StandardCharsets.UTF_8);
+        return new Message(entry.position, url, body);
+    }
+
+    private void deliver(Message message, int attempt) {
+        HttpCaller.APIException error;
+        try {
+            caller.postJson(message.url, message.body, null, headers);
+            error = null;
+        } catch (HttpCaller.APIException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            // a closed caller or a throwing interceptor is a failed attempt too, or the slot leaks
+            error = new HttpCaller.APIException(e.getMessage(), e);
+        }
+        if (error != null) {
+            if (attempt < maxAttempts && !closed) {
+                long delay = backoffMillis << Math.min(attempt - 1, 20);
+                try {
+                    scheduler.schedule(() -> submit(() -> deliver(message, attempt + 1)), delay,
+                            TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException closing) {
+                    // left in the log for the next open; the slot no longer matters
+                    return;
+                }
+            }
+            if (closed) {
+                return;
+            }
+            try {
+                failureHandler.accept(message, error);
+            } catch (RuntimeException ignored) {
+                // a throwing handler must not stall the log
+            }
+        }
+        complete(message.position);
+    }
+
+    private boolean submit(Runnable task) {
+        try {
+            workers.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void complete(long position) {
+        // read the position first: anything below it is either in flight or done
+        long read = readPosition;
+        inFlight.remove(position);
+        Long oldest = inFlight.isEmpty() ? null : inFlight.first();
+        log.commit(oldest == null ? read : Math.min(oldest, read));
+        slots.release();
+    }
+
+    private void syncQuietly() {
+        try {
+            log.sync();
+            syncError.set(null);
+        } catch (IOException e) {
+            // surfaced to producers on their next enqueue
+            syncError.set(e);
+        }
+    }
+
+    /**
+     * Builder for {@link DeliverySpool}.
+     * <p>
+     * Defaults:
+     * - Segment size: 64 MiB
+     * - Group commit: every 10ms
+     * - Concurrency: 4 deliveries in flight
+     * - Retry: 5 attempts, backoff from 1s doubling per attempt
+     * - Failure handler: drops the message
+     */
+    public static class Builder {
+        private HttpCaller caller;
+        private Path directory;
+        private Map<String, String> headers;
+        private int segmentSize = 64 * 1024 * 1024;
+        private Duration syncInterval = Duration.ofMillis(10);
+        private int concurrency = 4;
+        private int maxAttempts = 5;
+        private Duration backoff = Duration.ofSeconds(1);
+        private BiConsumer<Message, HttpCaller.APIException> failureHandler = (message, error) -> {
+        };
+
+        /**
+         * @param caller client delivering the messages
+         * @return this builder
+         */
+        public Builder caller(HttpCaller caller) {
+            this.caller = caller;
+            return this;
+        }
+
+        /**
+         * @param directory directory holding the log segments and checkpoint,
+         *                  owned by one spool at a time
+         * @return this builder
+         */
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * @param headers headers sent with every delivery (nullable)
+         * @return this builder
+         */
+        public Builder headers(Map<String, String> headers) {
+            this.headers = headers == null ? null : new LinkedHashMap<>(headers);
+            return this;
+        }
+
+        /**
+         * @param segmentSize bytes per log segment file, also the upper bound of
+         *                    one message; keep it across restarts
+         * @return this builder
+         */
+        public Builder segmentSize(int segmentSize) {
+            if (segmentSize < 4096) {
+                throw new IllegalArgumentException("segmentSize must be >= 4096");
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * @param syncInterval how often appended messages are forced to disk
+         *                     together
+         * @return this builder
+         */
+        public Builder syncInterval(Duration syncInterval) {
+            if (syncInterval == null || syncInterval.toMillis() <= 0) {
+                throw new IllegalArgumentException("syncInterval must be >= 1ms");
+            }
+            this.syncInterval = syncInterval;
+            return this;
+        }
+
+        /**
+         * @param concurrency deliveries in flight, including those waiting for
+         *                    a retry
+         * @return this builder
+         */
+        public Builder concurrency(int concurrency) {
+            if (concurrency <= 0) {
+                throw new IllegalArgumentException("concurrency must be > 0");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param maxAttempts attempts per message, including the first
+         * @param backoff     wait before the first retry, doubled for each
+         *                    further one
+         * @return this builder
+         */
+        public Builder retry(int maxAttempts, Duration backoff) {
+            if (maxAttempts <= 0 || backoff == null || backoff.isNegative()) {
+                throw new IllegalArgumentException("maxAttempts must be > 0 and backoff >= 0");
+            }
+            this.maxAttempts = maxAttempts;
+            this.backoff = backoff;
+            return this;
+        }
+
+        /**
+         * @param failureHandler called with each message that exhausted its
+         *                       attempts, e.g. to park it elsewhere
+         * @return this builder
+         */
+        public Builder failureHandler(BiConsumer<Message, HttpCaller.APIException> failureHandler) {
+            if (failureHandler == null) {
+                throw new IllegalArgumentException("failureHandler must not be null");
+            }
+            this.failureHandler = failureHandler;
+            return this;
+        }
+
+        /**
+         * Open the log, recovering it if it exists, and start delivering.
+         *
+         * @return running spool
+         * @throws IOException if the directory or log cannot be opened
+         */
+        public DeliverySpool build() throws IOException {
+            if (caller == null || directory == null) {
+                throw new IllegalArgumentException("caller and directory are required");
+            }
+            return new DeliverySpool(this, SpoolLog.open(directory, segmentSize));
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Client-side load balancing over replicas of one service, given as base URLs.
+ * <p>
+ * Each call goes to the cheaper of two randomly chosen endpoints
+ * (power-of-two-choices), where the cost is the endpoint's latency EWMA times
+ * its calls in flight plus one. The EWMA follows latency increases at once and
+ * decays towards zero while an endpoint is idle, so a replica that was slow
+ * gets retried once it has been left alone for a while. Selection reads only
+ * atomics and volatile fields, without locks.
+ * <p>
+ * Endpoints are ejected, never more than {@code maxEjectionPercent} of them at
+ * a time, after a number of consecutive failed calls and, when enabled, when
+ * their latency exceeds a multiple of the group median. An ejected endpoint
+ * gets no traffic for the ejection time; with health checks it returns only
+ * once a {@link HttpCaller#head} probe answers 2xx or 3xx, and probes also
+ * eject endpoints that fail them.
+ *
+ * <pre>{@code
+ * EndpointGroup users = new EndpointGroup.Builder()
+ *         .endpoints("http://users-1:8080", "http://users-2:8080", "http://users-3:8080")
+ *         .healthCheck(caller, "/health", Duration.ofSeconds(5))
+ *         .build();
+ * String user = users.call(baseUrl -> caller.get(baseUrl + "/v1/users/42", null, null));
+ * }</pre>
+ */
+public final class EndpointGroup implements Closeable {
+
+    // cost of an endpoint with calls in flight but no latency sample yet: try it, but only one call at a time
+    private static final double UNMEASURED_PENALTY = 1e15;
+
+    private final Endpoint[] endpoints;
+    private final int maxEjected;
+    private final AtomicInteger ejectedCount = new AtomicInteger();
+    private final int consecutiveFailures;
+    private final double latencyFactor;
+    private final long ejectionNanos;
+    private final Predicate<HttpCaller.APIException> failureClassifier;
+    private final HttpCaller healthCaller;
+    private final String healthPath;
+    private final Duration healthInterval;
+    private final ScheduledExecutorService scheduler;
+
+    private EndpointGroup(Builder builder) {
+        double decayNanos = builder.latencyDecay.toNanos();
+        this.endpoints = builder.baseUrls.stream()
+                .map(baseUrl -> new Endpoint(baseUrl, decayNanos))
+                .toArray(Endpoint[]::new);
+        this.maxEjected = endpoints.length * builder.maxEjectionPercent / 100;
+        this.consecutiveFailures = builder.consecutiveFailures;
+        this.latencyFactor = builder.latencyFactor;
+        this.ejectionNanos = builder.ejectionTime.toNanos();
+        this.failureClassifier = builder.failureClassifier;
+        this.healthCaller = builder.healthCaller;
+        this.healthPath = builder.healthPath;
+        this.healthInterval = builder.healthInterval;
+
+        boolean outlierDetection = latencyFactor > 0;
+        if (outlierDetection || healthCaller != null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(PoolWarmer.daemonThreads("endpoint-group"));
+            if (outlierDetection) {
+                long millis = builder.outlierInterval.toMillis();
+                scheduler.scheduleWithFixedDelay(this::ejectLatencyOutliers, millis, millis, TimeUnit.MILLISECONDS);
+            }
+            if (healthCaller != null) {
+                long millis = healthInterval.toMillis();
+                scheduler.scheduleWithFixedDelay(this::probe, 0, millis, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * A call against the base URL of the selected endpoint.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        /**
+         * @param baseUrl base URL of the selected endpoint, as configured
+         * @return call result
+         * @throws HttpCaller.APIException on failure
+         */
+        T call(String baseUrl) throws HttpCaller.APIException;
+    }
+
+    /**
+     * Run {@code call} against a selected endpoint and record its latency and
+     * outcome. Failures are rethrown; the call is not retried elsewhere.
+     *
+     * @param call call to run
+     * @param <T>  result type
+     * @return result of the call
+     * @throws HttpCaller.APIException if the call fails
+     */
+    public <T> T call(Call<T> call) throws HttpCaller.APIException {
+        Endpoint endpoint = select();
+        endpoint.inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            T result = call.call(endpoint.baseUrl);
+            long end = System.nanoTime();
+            endpoint.recordLatency(end - start, end);
+            endpoint.failures.set(0);
+            return result;
+        } catch (HttpCaller.APIException e) {
+            long end = System.nanoTime();
+            endpoint.recordLatency(end - start, end);
+            if (failureClassifier.test(e)) {
+                if (endpoint.failures.incrementAndGet() >= consecutiveFailures) {
+                    eject(endpoint, end);
+                }
+            } else {
+                endpoint.failures.set(0);
+            }
+            throw e;
+        } finally {
+            endpoint.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Pick an endpoint without running a call, e.g. to inspect the choice.
+     * Calls made this way are not recorded; prefer {@link #call(Call)}.
+     *
+     * @return selected endpoint
+     */
+    public Endpoint select() {
+        Endpoint[] all = endpoints;
+        int n = all.length;
+        if (n == 1) {
+            return all[0];
+        }
+        long now = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(n);
+        int j = random.nextInt(n - 1);
+        if (j >= i) {
+            j++;
+        }
+        Endpoint a = all[i];
+        Endpoint b = all[j];
+        boolean aAvailable = isAvailable(a, now);
+        boolean bAvailable = isAvailable(b, now);
+        if (aAvailable && bAvailable) {
+            return a.cost(now) <= b.cost(now) ? a : b;
+        }
+        if (aAvailable || bAvailable) {
+            return aAvailable ? a : b;
+        }
+        for (int k = 1; k < n; k++) {
+            Endpoint candidate = all[(i + k) % n];
+            if (isAvailable(candidate, now)) {
+                return candidate;
+            }
+        }
+        // everything is ejected, which the ejection cap only allows at 100%
+        return a;
+    }
+
+    /**
+     * @return endpoints in configuration order, with their current state
+     */
+    public List<Endpoint> endpoints() {
+        return List.of(endpoints);
+    }
+
+    /**
+     * Stop health checks and outlier detection.
+     */
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private boolean isAvailable(Endpoint endpoint, long now) {
+        if (!endpoint.ejected.get()) {
+            return true;
+        }
+        // without health checks an endpoint returns on its own once the ejection time is over
+        if (healthCaller == null && now - endpoint.ejectedUntil >= 0) {
+            restore(endpoint);
+            return true;
+        }
+        return false;
+    }
+
+    private void eject(Endpoint endpoint, long now) {
+        int ejected;
+        do {
+            ejected = ejectedCount.get();
+            if (ejected >= maxEjected) {
+                return;
+            }
+        } while (!ejectedCount.compareAndSet(ejected, ejected + 1));
+        // set before the flag so a concurrent selection never sees the flag with a stale end time;
+        // extending an ejection that another thread just started is harmless
+        endpoint.ejectedUntil = now + ejectionNanos;
+        if (!endpoint.ejected.compareAndSet(false, true)) {
+            ejectedCount.decrementAndGet();
+            return;
+        }
+        endpoint.ejections.incrementAndGet();
+    }
+
+    private void restore(Endpoint endpoint) {
+        if (endpoint.ejected.compareAndSet(true, false)) {
+            endpoint.failures.set(0);
+            ejectedCount.decrementAndGet();
+        }
+    }
+
+    private void ejectLatencyOutliers() {
+        long now = System.nanoTime();
+        List<Endpoint> measured = new ArrayList<>(endpoints.length);
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.ejected.get() && endpoint.latencyNanos(now) > 0) {
+                measured.add(endpoint);
+            }
+        }
+        if (measured.size() < 2) {
+            return;
+        }
+        double[] latencies = new double[measured.size()];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = measured.get(i).latencyNanos(now);
+        }
+        double[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double median = sorted[(sorted.length - 1) / 2];
+        for (int i = 0; i < latencies.length; i++) {
+            if (latencies[i] > latencyFactor * median) {
+                eject(measured.get(i), now);
+            }
+        }
+    }
+
+    private void probe() {
+        for (Endpoint endpoint : endpoints) {
+            long now = System.nanoTime();
+            if (endpoint.ejected.get() && now - endpoint.ejectedUntil < 0) {
+                continue;
+            }
+            boolean healthy;
+            // a probe never outlives the probe interval
+            try (CallOptions.Scope scope = CallOptions.withTimeout(healthInterval).makeCurrent()) {
+                int status = healthCaller.head(endpoint.baseUrl + healthPath, null, null);
+                healthy = status >= 200 && status < 400;
+            } catch (HttpCaller.APIException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                restore(endpoint);
+            } else if (endpoint.ejected.get()) {
+                endpoint.ejectedUntil = System.nanoTime() + ejectionNanos;
+            } else {
+                eject(endpoint, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * One replica of the group and its load balancing state.
+     */
+    public static final class Endpoint {
+
+        private final String baseUrl;
+        private final double decayNanos;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger ejections = new AtomicInteger();
+        private final AtomicBoolean ejected = new AtomicBoolean();
+        private volatile long ejectedUntil;
+        // updated without synchronization: a lost update under contention only slows convergence
+        private volatile double ewmaNanos;
+        private volatile long ewmaStamp = System.nanoTime();
+
+        Endpoint(String baseUrl, double decayNanos) {
+            this.baseUrl = baseUrl;
+            this.decayNanos = decayNanos;
+        }
+
+        double latencyNanos(long now) {
+            double ewma = ewmaNanos;
+            if (ewma == 0) {
+                return 0;
+            }
+            long elapsed = now - ewmaStamp;
+            return elapsed > 0 ? ewma * Math.exp(-elapsed / decayNanos) : ewma;
+        }
+
+        private double cost(long now) {
+            double latency = latencyNanos(now);
+            int pending = inFlight.get();
+            if (latency == 0) {
+                return pending == 0 ? 0 : UNMEASURED_PENALTY + pending;
+            }
+            return latency * (pending + 1);
+        }
+
+        void recordLatency(long sampleNanos, long now) {
+            double current = latencyNanos(now);
+            double sample = Math.max(1, sampleNanos);
+            if (sample > current) {
+                // peak sensitive: a slower response is adopted at once
+                ewmaNanos = sample;
+            } else {
+                // current already carries the idle decay, so the sample only fills the decayed share
+                double weight = Math.exp(-Math.max(0, now - ewmaStamp) / decayNanos);
+                ewmaNanos = current + sample * (1 - weight);
+            }
+            ewmaStamp = now;
+        }
+
+        /**
+         * @return base URL as configured
+         */
+        public String baseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * @return calls currently running against this endpoint
+         */
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * @return current latency EWMA, decayed for idle time; zero before the
+         *         first call
+         */
+        public Duration latency() {
+            return Duration.ofNanos((long) latencyNanos(System.nanoTime()));
+        }
+
+        /**
+         * @return true while the endpoint is ejected
+         */
+        public boolean isEjected() {
+            return ejected.get();
+        }
+
+        /**
+         * @return number of times the endpoint was ejected
+         */
+        public int ejections() {
+            return ejections.get();
+        }
+
+        @Override
+        public String toString() {
+            return baseUrl + (isEjected() ? " (ejected)" : "") + " in-flight=" + inFlight() + " latency="
+                    + latency().toNanos() / 1_000_000.0 + "ms";
+        }
+    }
+
+    /**
+     * Builder for {@link EndpointGroup}.
+     * <p>
+     * Defaults:
+     * - Ejection after 5 consecutive failures, for 30s, at most 50% of the
+     * endpoints at a time
+     * - Latency outliers: disabled
+     * - Latency EWMA decay time: 10s
+     * - Failures: every {@link HttpCaller.APIException}
+     * - Health checks: disabled
+     */
+    public static class Builder {
+        private final List<String> baseUrls = new ArrayList<>();
+        private int consecutiveFailures = 5;
+        private Duration ejectionTime = Duration.ofSeconds(30);
+        private int maxEjectionPercent = 50;
+        private double latencyFactor;
+        private Duration outlierInterval = Duration.ofSeconds(10);
+        private Duration latencyDecay = Duration.ofSeconds(10);
+        private Predicate<HttpCaller.APIException> failureClassifier = e -> true;
+        private HttpCaller healthCaller;
+        private String healthPath;
+        private Duration healthInterval;
+
+        /**
+         * Add endpoints.
+         *
+         * @param baseUrls base URLs, e.g. {@code "http://10.0.0.7:8080"}
+         * @return this builder
+         */
+        public Builder endpoints(String... baseUrls) {
+            for (String baseUrl : baseUrls) {
+                if (baseUrl == null || baseUrl.isBlank()) {
+                    throw new IllegalArgumentException("baseUrl must not be blank");
+                }
+                this.baseUrls.add(baseUrl);
+            }
+            return this;
+        }
+
+        /**
+         * Eject an endpoint after this many failed calls in a row.
+         *
+         * @param failures consecutive failures, at least 1
+         * @return this builder
+         */
+        public Builder ejectOnConsecutiveFailures(int failures) {
+            if (failures <= 0) {
+                throw new IllegalArgumentException("failures must be > 0");
+            }
+            this.consecutiveFailures = failures;
+            return this;
+        }
+
+        /**
+         * Eject endpoints whose latency EWMA exceeds {@code factor} times the
+         * median of the available endpoints, checked every {@code interval}.
+         *
+         * @param factor   latency multiple over the median, above 1
+         * @param interval how often latencies are compared
+         * @return this builder
+         */
+        public Builder ejectOnLatency(double factor, Duration interval) {
+            if (!(factor > 1) || interval == null || interval.toMillis() <= 0) {
+                throw new IllegalArgumentException("factor must be > 1 and interval >= 1ms");
+            }
+            this.latencyFactor = factor;
+            this.outlierInterval = interval;
+            return this;
+        }
+
+        /**
+         * @param ejectionTime       how long an ejected endpoint gets no traffic
+         * @param maxEjectionPercent upper bound of ejected endpoints, in percent
+         * @return this builder
+         */
+        public Builder ejection(Duration ejectionTime, int maxEjectionPercent) {
+            if (ejectionTime == null || ejectionTime.isNegative() || maxEjectionPercent < 0
+                    || maxEjectionPercent > 100) {
+                throw new IllegalArgumentException("ejectionTime must be >= 0 and maxEjectionPercent in 0..100");
+            }
+            this.ejectionTime = ejectionTime;
+            this.maxEjectionPercent = maxEjectionPercent;
+            return this;
+        }
+
+        /**
+         * @param decay time for an idle endpoint's latency EWMA to fall to
+         *              1/e of its value; also the averaging window
+         * @return this builder
+         */
+        public Builder latencyDecay(Duration decay) {
+            if (decay == null || decay.isZero() || decay.isNegative()) {
+                throw new IllegalArgumentException("decay must be > 0");
+            }
+            this.latencyDecay = decay;
+            return this;
+        }
+
+        /**
+         * Decide which failed calls count towards ejection, e.g. to ignore
+         * client errors.
+         *
+         * @param classifier true for failures of the endpoint
+         * @return this builder
+         */
+        public Builder failureClassifier(Predicate<HttpCaller.APIException> classifier) {
+            if (classifier == null) {
+                throw new IllegalArgumentException("classifier must not be null");
+            }
+            this.failureClassifier = classifier;
+            return this;
+        }
+
+        /**
+         * Probe every endpoint with a HEAD request to {@code baseUrl + path}
+         * each {@code interval}.
+         *
+         * @param caller   client sending the probes
+         * @param path     health path, e.g. "/health"
+         * @param interval probe interval, also the probe timeout
+         * @return this builder
+         */
+        public Builder healthCheck(HttpCaller caller, String path, Duration interval) {
+            if (caller == null || path == null || interval == null || interval.toMillis() <= 0) {
+                throw new IllegalArgumentException("caller and path are required and interval must be >= 1ms");
+            }
+            this.healthCaller = caller;
+            this.healthPath = path;
+            this.healthInterval = interval;
+            return this;
+        }
+
+        /**
+         * @return endpoint group
+         */
+        public EndpointGroup build() {
+            if (baseUrls.isEmpty()) {
+                throw new IllegalArgumentException("at least one endpoint is required");
+            }
+            return new EndpointGroup(this);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.IOException;
+
+/**
+ * Turns the lines of a streaming response into records, one at a time.
+ *
+ * @param <T> record type
+ */
+interface EventParser<T> {
+
+    /**
+     * @param reader line source positioned inside the response body
+     * @return next record, or null at end of stream
+     * @throws IOException on read errors
+     */
+    T next(LineReader reader) throws IOException;
+
+    /**
+     * @return ID to resume from after a reconnect, or null
+     */
+    default String lastEventId() {
+        return null;
+    }
+
+    /**
+     * @return reconnect delay requested by the server in milliseconds, or -1
+     */
+    default long retryMillis() {
+        return -1;
+    }
+
+    /**
+     * Parser of the {@code text/event-stream} format. Comment lines (heartbeats)
+     * are skipped, and an event cut off by the end of the stream is dropped
+     * together with its {@code id}: as in the WHATWG algorithm, an ID only
+     * becomes the last event ID once its event is dispatched.
+     */
+    final class Sse implements EventParser<ServerSentEvent> {
+
+        private final StringBuilder data = new StringBuilder();
+        private String lastEventId;
+        private String pendingEventId;
+        private long retryMillis = -1;
+
+        Sse(String lastEventId) {
+            this.lastEventId = lastEventId;
+        }
+
+        @Override
+        public ServerSentEvent next(LineReader reader) throws IOException {
+            data.setLength(0);
+            // a new call starts after a dispatch or on a new connection; an ID read before a cut is dropped
+            pendingEventId = lastEventId;
+            boolean hasData = false;
+            String eventType = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    lastEventId = pendingEventId;
+                    if (hasData) {
+                        return new ServerSentEvent(lastEventId, eventType != null ? eventType : "message",
+                                data.toString());
+                    }
+                    eventType = null;
+                    continue;
+                }
+                if (line.charAt(0) == ':') {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                String field = colon < 0 ? line : line.substring(0, colon);
+                String value = "";
+                if (colon >= 0) {
+                    int start = colon + 1 < line.length() && line.charAt(colon + 1) == ' ' ? colon + 2 : colon + 1;
+                    value = line.substring(start);
+                }
+                switch (field) {
+                    case "data" -> {
+                        if (hasData) {
+                            data.append('\n');
+                        }
+                        data.append(value);
+                        hasData = true;
+                    }
+                    case "event" -> eventType = value;
+                    case "id" -> {
+                        if (value.indexOf('\0') < 0) {
+                            pendingEventId = value;
+                        }
+                    }
+                    case "retry" -> {
+                        if (!value.isEmpty() && value.length() <= 18 && value.chars().allMatch(Character::isDigit)) {
+                            retryMillis = Long.parseLong(value);
+                        }
+                    }
+                    default -> {
+                        // unknown fields are ignored
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String lastEventId() {
+            return lastEventId;
+        }
+
+        @Override
+        public long retryMillis() {
+            return retryMillis;
+        }
+    }
+
+    /**
+     * Parser of newline-delimited records (NDJSON, JSON Lines); blank lines are
+     * skipped.
+     */
+    final class Ndjson implements EventParser<String> {
+
+        @Override
+        public String next(LineReader reader) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    return line;
+                }
+            }
+            return null;
+        }
+    }
+}
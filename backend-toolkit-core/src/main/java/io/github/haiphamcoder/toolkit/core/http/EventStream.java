@@ -0,0 +1,283 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * A long-lived streaming response (Server-Sent Events or newline-delimited
+ * records), read incrementally and reconnected when it drops.
+ * <p>
+ * Records are parsed only when the consumer asks for the next one, through
+ * {@link #next()}, {@link #iterator()} or {@link #subscribe}; until then unread
+ * data stays in the socket buffers and TCP flow control slows the server down.
+ * While waiting for data, a connection silent for longer than the heartbeat
+ * timeout is considered dead. SSE streams reconnect after failures and after
+ * the server closes the stream, sending {@code Last-Event-ID}; NDJSON streams
+ * reconnect after failures only, and start over unless the server resumes by
+ * other means.
+ * <p>
+ * Each stream runs on its own dedicated connection, outside the
+ * {@link HttpCaller} pool and its concurrency limit, so a stream open for
+ * hours never takes a slot from regular calls. Instances are not thread-safe,
+ * except for {@link #close()}, which may be called from any thread to stop a
+ * blocked reader.
+ *
+ * @param <T> record type: {@link ServerSentEvent} or String
+ */
+public final class EventStream<T> implements Closeable, Iterable<T> {
+
+    private final CloseableHttpClient client;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final EventStreamOptions options;
+    private final EventParser<T> parser;
+    private final boolean reconnectOnEnd;
+    private final LineReader reader;
+    private final Consumer<EventStream<?>> onClose;
+    private final CountDownLatch closedSignal = new CountDownLatch(1);
+
+    private volatile boolean closed;
+    private volatile HttpGet request;
+    private ClassicHttpResponse response;
+    private EventStreamListener<T> listener;
+    private boolean ended;
+    private int failures;
+
+    EventStream(CloseableHttpClient client, URI uri, Map<String, String> headers, EventStreamOptions options,
+            EventParser<T> parser, boolean reconnectOnEnd, Consumer<EventStream<?>> onClose) {
+        this.client = client;
+        this.uri = uri;
+        this.headers = headers;
+        this.options = options;
+        this.parser = parser;
+        this.reconnectOnEnd = reconnectOnEnd;
+        this.reader = new LineReader(options.bufferSize(), options.maxLineLength());
+        this.onClose = onClose;
+    }
+
+    /**
+     * Open the first connection, failing fast on unreachable hosts and
+     * non-2xx responses.
+     */
+    void open() throws HttpCaller.APIException {
+        try {
+            connect();
+        } catch (IOException e) {
+            close();
+            throw new HttpCaller.APIException(e.getMessage(), e);
+        } catch (HttpCaller.APIException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Block until the next record arrives, reconnecting as configured.
+     *
+     * @return next record, or null once the stream has ended or was closed
+     * @throws HttpCaller.APIException on a non-2xx response or when the
+     *                                 reconnect attempts are exhausted
+     */
+    public T next() throws HttpCaller.APIException {
+        while (!closed && !ended) {
+            Exception cause = null;
+            try {
+                if (response == null) {
+                    connect();
+                    if (ended) {
+                        break;
+                    }
+                }
+                T record = parser.next(reader);
+                if (record != null) {
+                    failures = 0;
+                    return record;
+                }
+                disconnect();
+                if (!reconnectOnEnd) {
+                    ended = true;
+                    break;
+                }
+            } catch (IOException e) {
+                disconnect();
+                if (closed) {
+                    break;
+                }
+                cause = e;
+            }
+            if (++failures > options.maxReconnects()) {
+                ended = true;
+                throw new HttpCaller.APIException("Event stream " + uri + " failed after "
+                        + options.maxReconnects() + " reconnect attempts", cause);
+            }
+            if (listener != null) {
+                listener.onReconnect(failures, cause);
+            }
+            pauseBeforeReconnect();
+        }
+        return null;
+    }
+
+    /**
+     * Deliver every record to {@code listener} on the calling thread until the
+     * stream ends, fails or is closed.
+     *
+     * @param listener record listener
+     */
+    public void subscribe(EventStreamListener<T> listener) {
+        this.listener = listener;
+        try {
+            T record;
+            while ((record = next()) != null) {
+                listener.onEvent(record);
+            }
+            listener.onComplete();
+        } catch (HttpCaller.APIException e) {
+            listener.onError(e);
+        } finally {
+            this.listener = null;
+        }
+    }
+
+    /**
+     * Iterate over the records; {@code hasNext()} blocks like {@link #next()}
+     * and throws {@link IllegalStateException} wrapping the
+     * {@link HttpCaller.APIException} when the stream fails.
+     *
+     * @return blocking iterator
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private T pending;
+            private boolean fetched;
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    try {
+                        pending = EventStream.this.next();
+                    } catch (HttpCaller.APIException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                    fetched = true;
+                }
+                return pending != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                fetched = false;
+                T record = pending;
+                pending = null;
+                return record;
+            }
+        };
+    }
+
+    /**
+     * @return ID of the last SSE event seen, sent as {@code Last-Event-ID} on
+     *         reconnect; null for NDJSON streams or before any ID arrived
+     */
+    public String lastEventId() {
+        return parser.lastEventId();
+    }
+
+    /**
+     * Close the stream and its connection. A thread blocked in {@link #next()}
+     * returns null.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closedSignal.countDown();
+        HttpGet current = request;
+        if (current != null) {
+            // aborts the exchange instead of draining an endless body
+            current.cancel();
+        }
+        try {
+            client.close();
+        } catch (IOException e) {
+            // the connection is gone either way
+        }
+        onClose.accept(this);
+    }
+
+    private void connect() throws IOException, HttpCaller.APIException {
+        HttpGet get = new HttpGet(uri);
+        headers.forEach(get::addHeader);
+        String lastEventId = parser.lastEventId();
+        if (lastEventId != null) {
+            get.setHeader("Last-Event-ID", lastEventId);
+        }
+        // the socket timeout applies to every read, which turns it into a heartbeat timeout
+        get.setConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.of(options.heartbeatTimeout()))
+                .build());
+        this.request = get;
+        if (closed) {
+            return;
+        }
+        ClassicHttpResponse opened = client.executeOpen(null, get, null);
+        int code = opened.getCode();
+        HttpEntity entity = opened.getEntity();
+        if (code == 204 || entity == null) {
+            opened.close();
+            ended = true;
+            return;
+        }
+        if (code < 200 || code >= 300) {
+            EntityUtils.consume(entity);
+            opened.close();
+            ended = true;
+            throw new HttpCaller.APIException("HTTP request failed with status code: " + code);
+        }
+        reader.reset(entity.getContent());
+        this.response = opened;
+    }
+
+    private void disconnect() {
+        ClassicHttpResponse current = response;
+        response = null;
+        if (current != null) {
+            request.cancel();
+            try {
+                current.close();
+            } catch (IOException e) {
+                // already aborted
+            }
+        }
+    }
+
+    private void pauseBeforeReconnect() {
+        long delay = parser.retryMillis() >= 0 ? parser.retryMillis() : options.reconnectDelay().toMillis();
+        try {
+            closedSignal.await(delay, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+    }
+}
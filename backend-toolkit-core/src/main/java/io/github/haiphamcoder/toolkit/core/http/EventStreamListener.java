@@ -0,0 +1,45 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+/**
+ * Receives the records of an {@link EventStream} consumed with
+ * {@link EventStream#subscribe(EventStreamListener)}. Callbacks run on the
+ * subscribing thread; the next record is read only after {@link #onEvent}
+ * returns.
+ *
+ * @param <T> record type
+ */
+public interface EventStreamListener<T> {
+
+    /**
+     * Called for every record.
+     *
+     * @param record the record
+     */
+    void onEvent(T record);
+
+    /**
+     * Called before each reconnect attempt.
+     *
+     * @param attempt consecutive attempt number, starting at 1
+     * @param cause   failure that ended the previous connection, or null when
+     *                the server closed the stream
+     */
+    default void onReconnect(int attempt, Exception cause) {
+    }
+
+    /**
+     * Called once when the stream fails for good: a non-2xx response or too
+     * many consecutive reconnect attempts.
+     *
+     * @param error failure cause
+     */
+    default void onError(HttpCaller.APIException error) {
+    }
+
+    /**
+     * Called once when the stream ends without error: the stream was closed,
+     * the server answered 204 No Content, or an NDJSON body ended.
+     */
+    default void onComplete() {
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.time.Duration;
+
+/**
+ * Reconnect, heartbeat and buffering settings of an {@link EventStream}.
+ * <p>
+ * Defaults:
+ * - Heartbeat timeout: 60s without any data, comments included
+ * - Reconnect delay: 3s, unless the server sends a {@code retry:} field
+ * - Reconnect attempts: 10 consecutive, reset by every record received
+ * - Read buffer: 8 KiB, maximum line length 1 MiB
+ */
+public final class EventStreamOptions {
+
+    private static final EventStreamOptions DEFAULTS = new Builder().build();
+
+    private final Duration heartbeatTimeout;
+    private final Duration reconnectDelay;
+    private final int maxReconnects;
+    private final String lastEventId;
+    private final int bufferSize;
+    private final int maxLineLength;
+
+    private EventStreamOptions(Builder builder) {
+        this.heartbeatTimeout = builder.heartbeatTimeout;
+        this.reconnectDelay = builder.reconnectDelay;
+        this.maxReconnects = builder.maxReconnects;
+        this.lastEventId = builder.lastEventId;
+        this.bufferSize = builder.bufferSize;
+        this.maxLineLength = builder.maxLineLength;
+    }
+
+    /**
+     * @return the default options
+     */
+    public static EventStreamOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public Duration heartbeatTimeout() {
+        return heartbeatTimeout;
+    }
+
+    public Duration reconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public int maxReconnects() {
+        return maxReconnects;
+    }
+
+    public String lastEventId() {
+        return lastEventId;
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    public int maxLineLength() {
+        return maxLineLength;
+    }
+
+    /**
+     * Builder for {@link EventStreamOptions}.
+     */
+    public static class Builder {
+        private Duration heartbeatTimeout = Duration.ofSeconds(60);
+        private Duration reconnectDelay = Duration.ofSeconds(3);
+        private int maxReconnects = 10;
+        private String lastEventId;
+        private int bufferSize = 8 * 1024;
+        private int maxLineLength = 1024 * 1024;
+
+        /**
+         * Treat the connection as dead, and reconnect, when no data at all
+         * arrives for this long while waiting for the next record. Servers
+         * usually send comment lines as heartbeats.
+         *
+         * @param timeout heartbeat timeout
+         * @return this builder
+         */
+        public Builder heartbeatTimeout(Duration timeout) {
+            if (timeout.isZero() || timeout.isNegative()) {
+                throw new IllegalArgumentException("heartbeatTimeout must be > 0");
+            }
+            this.heartbeatTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Configure reconnects after a failure or, for SSE, after the server
+         * closes the stream.
+         *
+         * @param maxAttempts consecutive attempts before giving up, 0 to disable
+         * @param delay       pause before each attempt unless the server set one
+         * @return this builder
+         */
+        public Builder reconnect(int maxAttempts, Duration delay) {
+            if (maxAttempts < 0) {
+                throw new IllegalArgumentException("maxAttempts must be >= 0");
+            }
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("delay must be >= 0");
+            }
+            this.maxReconnects = maxAttempts;
+            this.reconnectDelay = delay;
+            return this;
+        }
+
+        /**
+         * Resume an SSE stream: the first request already carries
+         * {@code Last-Event-ID}.
+         *
+         * @param lastEventId ID of the last event processed
+         * @return this builder
+         */
+        public Builder lastEventId(String lastEventId) {
+            this.lastEventId = lastEventId;
+            return this;
+        }
+
+        /**
+         * Size the read buffer and bound the length of a single line.
+         *
+         * @param bufferSize    read buffer size in bytes
+         * @param maxLineLength maximum line length in bytes
+         * @return this builder
+         */
+        public Builder buffer(int bufferSize, int maxLineLength) {
+            if (bufferSize <= 0 || maxLineLength <= 0) {
+                throw new IllegalArgumentException("bufferSize and maxLineLength must be > 0");
+            }
+            this.bufferSize = bufferSize;
+            this.maxLineLength = maxLineLength;
+            return this;
+        }
+
+        /**
+         * Build the options.
+         *
+         * @return options
+         */
+        public EventStreamOptions build() {
+            return new EventStreamOptions(this);
+        }
+    }
+}
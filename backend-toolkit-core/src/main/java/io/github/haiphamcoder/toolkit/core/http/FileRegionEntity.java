@@ -0,0 +1,114 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+
+/**
+ * Repeatable entity over a region of a file, read with positional
+ * {@link FileChannel} reads through one pooled buffer at a time, so the
+ * region is never held on the heap and one channel can serve several regions
+ * concurrently. The channel is owned by the caller.
+ */
+final class FileRegionEntity extends AbstractHttpEntity {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long offset;
+    private final long length;
+    private final BufferPool pool;
+
+    FileRegionEntity(FileChannel channel, long offset, long length, BufferPool pool) {
+        super(ContentType.APPLICATION_OCTET_STREAM, null);
+        this.channel = channel;
+        this.offset = offset;
+        this.length = length;
+        this.pool = pool;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public InputStream getContent() {
+        return new RegionStream();
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] buffer = pool.acquire(CHUNK_SIZE);
+        try {
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                int read = readAt(buffer, 0, (int) Math.min(buffer.length, end - position), position);
+                out.write(buffer, 0, read);
+                position += read;
+            }
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    @Override
+    public void close() {
+        // the channel is shared by every region of the file
+    }
+
+    private int readAt(byte[] buffer, int from, int count, long position) throws IOException {
+        int read = channel.read(ByteBuffer.wrap(buffer, from, count), position);
+        if (read < 0) {
+            throw new IOException("File ended at " + position + ", inside the region [" + offset + ", "
+                    + (offset + length) + ")");
+        }
+        return read;
+    }
+
+    private final class RegionStream extends InputStream {
+
+        private long position = offset;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long remaining = offset + length - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int read = readAt(b, off, (int) Math.min(len, remaining), position);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, offset + length - position);
+        }
+    }
+}
@@ -4,22 +4,36 @@ import java.io.Closeable;
 import java.io.InputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.Credentials;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpHead;
 import org.apache.hc.client5.http.classic.methods.HttpOptions;
@@ -31,24 +45,44 @@ import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
 import org.apache.hc.client5.http.entity.mime.HttpMultipartMode;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.BasicHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
+import org.apache.hc.client5.http.impl.routing.DefaultRoutePlanner;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
 import org.apache.hc.client5.http.routing.HttpRoutePlanner;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
 import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpVersion;
 import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.Lookup;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.HttpConnectionFactory;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
 import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 
@@ -68,8 +102,16 @@ public class HttpCaller implements Closeable {
     private static final int RESPONSE_TIMEOUT_MS = 15_000;
     private static final int CONNECTION_REQUEST_TIMEOUT_MS = 15_000;
 
-    private final CloseableHttpClient httpClient;
+    private final Supplier<Pool> pools;
+    private final int maxTotalConnections;
+    private volatile Pool pool;
+    private boolean closed;
     private final RequestConfig requestConfig;
+    private final Timeout connectTimeout;
+    private final ConcurrencyLimiter limiter;
+    private final BufferPool bufferPool;
+    private final Supplier<CloseableHttpClient> streamClients;
+    private final Set<EventStream<?>> openStreams = ConcurrentHashMap.newKeySet();
 
     private HttpCaller(Builder builder) {
         ConnectionConfig connectionConfig = ConnectionConfig.custom()
@@ -77,12 +119,16 @@ public class HttpCaller implements Closeable {
                 .setConnectTimeout(Timeout.ofMilliseconds(builder.connectionTimeoutMs))
                 .build();
 
-        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
-                .setMaxConnTotal(builder.maxTotalConnections)
-                .setMaxConnPerRoute(builder.maxConnectionsPerRoute)
-                .setDefaultConnectionConfig(connectionConfig)
+        // the request line version comes from the connection's HTTP/1 config
+        HttpConnectionFactory<ManagedHttpClientConnection> connectionFactory = ManagedHttpClientConnectionFactory
+                .builder()
+                .http1Config(Http1Config.custom().setVersion(builder.httpVersion).build())
                 .build();
+        TlsSocketStrategy tlsSocketStrategy = builder.tlsSocketStrategy();
+        DnsResolver dnsResolver = builder.dnsResolver;
 
+        this.connectTimeout = Timeout.ofMilliseconds(builder.connectionTimeoutMs);
+        this.bufferPool = builder.bufferPool != null ? builder.bufferPool : BufferPool.striped();
         this.requestConfig = RequestConfig.custom()
                 .setResponseTimeout(Timeout.ofMilliseconds(builder.responseTimeoutMs))
                 .setConnectionRequestTimeout(Timeout.ofMilliseconds(builder.connectionRequestTimeoutMs))
@@ -101,25 +147,145 @@ public class HttpCaller implements Closeable {
             }
         }
 
-        HttpClientBuilder httpClientBuilder = HttpClients.custom()
-                .setConnectionManager(connectionManager)
-                .setDefaultRequestConfig(requestConfig)
-                .setUserAgent(Optional.ofNullable(builder.userAgent).orElse("HttpCaller/1.0.0 (+httpclient5)"))
-                .evictExpiredConnections()
-                .evictIdleConnections(TimeValue.ofMinutes(1));
+        // shared by the pooled client and the per-stream clients
+        String userAgent = Optional.ofNullable(builder.userAgent).orElse("HttpCaller/1.0.0 (+httpclient5)");
+        List<HttpRequestInterceptor> requestInterceptors = List.copyOf(builder.requestInterceptors);
+        Map<String, ExecChainHandler> execInterceptors = new LinkedHashMap<>(builder.execInterceptors);
+        HttpRoutePlanner clientRoutePlanner = routePlanner;
+        BasicCredentialsProvider clientCredentialsProvider = credentialsProvider;
+        Supplier<HttpClientBuilder> clientBuilders = () -> {
+            HttpClientBuilder clientBuilder = HttpClients.custom()
+                    .setDefaultRequestConfig(requestConfig)
+                    .setUserAgent(userAgent);
+            for (HttpRequestInterceptor interceptor : requestInterceptors) {
+                clientBuilder.addRequestInterceptorLast(interceptor);
+            }
+            // each interceptor added later wraps the ones added before it
+            for (Map.Entry<String, ExecChainHandler> entry : execInterceptors.entrySet()) {
+                clientBuilder.addExecInterceptorFirst(entry.getKey(), entry.getValue());
+            }
+            if (clientRoutePlanner != null) {
+                clientBuilder.setRoutePlanner(clientRoutePlanner);
+            }
+            if (clientCredentialsProvider != null) {
+                clientBuilder.setDefaultCredentialsProvider(clientCredentialsProvider);
+            }
+            return clientBuilder;
+        };
+
+        // event streams get a single dedicated connection each, so they never hold a pool slot;
+        // they reconnect on their own and skip the retry strategy
+        this.streamClients = () -> {
+            Lookup<TlsSocketStrategy> tlsStrategies = RegistryBuilder.<TlsSocketStrategy>create()
+                    .register(URIScheme.HTTPS.id, tlsSocketStrategy != null ? tlsSocketStrategy : DefaultTls.STRATEGY)
+                    .build();
+            BasicHttpClientConnectionManager streamConnectionManager = BasicHttpClientConnectionManager.create(
+                    null, dnsResolver, tlsStrategies, connectionFactory);
+            streamConnectionManager.setConnectionConfig(connectionConfig);
+            return clientBuilders.get()
+                    .setConnectionManager(streamConnectionManager)
+                    .disableAutomaticRetries()
+                    .build();
+        };
+        this.limiter = builder.maxConcurrentRequests > 0
+                ? new ConcurrencyLimiter(builder.maxConcurrentRequests, builder.maxConcurrencyWaitMs)
+                : null;
 
-        if (!builder.enableAutoRetry) {
-            httpClientBuilder.disableAutomaticRetries();
+        HttpRoutePlanner warmUpPlanner = routePlanner != null ? routePlanner : new DefaultRoutePlanner(null);
+        List<PoolWarmer.Target> warmUpTargets = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : builder.warmUpRoutes.entrySet()) {
+            HttpRoute route = resolveRoute(warmUpPlanner, entry.getKey());
+            // tunnelled routes need a CONNECT exchange through the proxy, which only a real request performs
+            if (!route.isTunnelled()) {
+                warmUpTargets.add(new PoolWarmer.Target(route, entry.getValue()));
+            }
         }
 
-        if (routePlanner != null) {
-            httpClientBuilder.setRoutePlanner(routePlanner);
+        // a deferred pool, its client and the default TLS context are built by the first request;
+        // declared warm-up routes need them up front
+        boolean autoRetry = builder.enableAutoRetry;
+        int maxRetries = builder.maxRetries;
+        long retryIntervalMs = builder.retryIntervalMs;
+        int maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+        TimeValue minIdleRefreshInterval = builder.minIdleRefreshInterval;
+        this.maxTotalConnections = builder.maxTotalConnections;
+        this.pools = () -> {
+            PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxTotalConnections)
+                    .setMaxConnPerRoute(maxConnectionsPerRoute)
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .setDnsResolver(dnsResolver)
+                    .setConnectionFactory(connectionFactory)
+                    .setTlsSocketStrategy(tlsSocketStrategy)
+                    .build();
+            HttpClientBuilder httpClientBuilder = clientBuilders.get()
+                    .setConnectionManager(connectionManager)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofMinutes(1));
+            if (!autoRetry) {
+                httpClientBuilder.disableAutomaticRetries();
+            } else if (maxRetries >= 0) {
+                httpClientBuilder.setRetryStrategy(new DefaultHttpRequestRetryStrategy(maxRetries,
+                        TimeValue.ofMilliseconds(retryIntervalMs)));
+            }
+            return new Pool(connectionManager, httpClientBuilder.build(), new PoolWarmer(connectionManager,
+                    warmUpTargets, connectTimeout, minIdleRefreshInterval));
+        };
+        if (!builder.deferPoolCreation || !warmUpTargets.isEmpty()) {
+            Pool created = pool();
+            if (builder.warmUpOnBuild) {
+                created.warmer.warmUp();
+            }
         }
-        if (credentialsProvider != null) {
-            httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+    }
+
+    /**
+     * Pooled connection manager and client, created together on first use.
+     */
+    private static final class Pool {
+
+        final PoolingHttpClientConnectionManager connectionManager;
+        final CloseableHttpClient client;
+        final PoolWarmer warmer;
+
+        Pool(PoolingHttpClientConnectionManager connectionManager, CloseableHttpClient client, PoolWarmer warmer) {
+            this.connectionManager = connectionManager;
+            this.client = client;
+            this.warmer = warmer;
         }
+    }
 
-        this.httpClient = httpClientBuilder.build();
+    /**
+     * JDK default TLS context of event streams, loaded by the first stream
+     * that needs it and shared by all callers.
+     */
+    private static final class DefaultTls {
+
+        static final TlsSocketStrategy STRATEGY = DefaultClientTlsStrategy.createDefault();
+    }
+
+    private Pool pool() {
+        Pool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("HttpCaller is closed");
+            }
+            if (pool == null) {
+                pool = pools.get();
+            }
+            return pool;
+        }
+    }
+
+    private static HttpRoute resolveRoute(HttpRoutePlanner routePlanner, String url) {
+        try {
+            return routePlanner.determineRoute(HttpHost.create(new URI(url)), HttpClientContext.create());
+        } catch (URISyntaxException | HttpException e) {
+            throw new IllegalArgumentException("Invalid warm-up URL: " + url, e);
+        }
     }
 
     /**
@@ -129,6 +295,12 @@ public class HttpCaller implements Closeable {
      * - Connection timeout: 3s, Response timeout: 15s, Request timeout: 15s
      * - Pool: 200 total, 50 per route
      * - User-Agent: "HttpCaller/1.0.0 (+httpclient5)"
+     * - HTTP version: HTTP/1.1
+     * - TLS: JDK default trust store, protocols, cipher suites and session cache
+     * - Warm-up: no routes; when routes are declared, warmed on build and
+     * topped up every 30s
+     * - Connection pool: created on build
+     * - Body buffers: {@link BufferPool#striped()}
      */
     public static class Builder {
         private int connectionTimeoutMs = CONNECTION_TIMEOUT_MS;
@@ -147,6 +319,33 @@ public class HttpCaller implements Closeable {
         private String proxyPassword;
 
         private boolean enableAutoRetry = false;
+        private int maxRetries = -1;
+        private long retryIntervalMs;
+
+        private int maxConcurrentRequests;
+        private long maxConcurrencyWaitMs;
+
+        private DnsResolver dnsResolver;
+
+        private SSLContext sslContext;
+        private KeyStore trustStore;
+        private KeyStore keyStore;
+        private char[] keyPassword;
+        private String[] tlsVersions;
+        private String[] cipherSuites;
+        private int tlsSessionCacheSize = -1;
+        private int tlsSessionTimeoutSeconds;
+
+        private HttpVersion httpVersion = HttpVersion.HTTP_1_1;
+        private final Map<String, ExecChainHandler> execInterceptors = new LinkedHashMap<>();
+        private final List<HttpRequestInterceptor> requestInterceptors = new ArrayList<>();
+
+        private final Map<String, Integer> warmUpRoutes = new LinkedHashMap<>();
+        private boolean warmUpOnBuild = true;
+        private boolean deferPoolCreation;
+        private TimeValue minIdleRefreshInterval = TimeValue.ofSeconds(30);
+
+        private BufferPool bufferPool;
 
         /**
          * Set connection timeout.
@@ -233,6 +432,279 @@ public class HttpCaller implements Closeable {
             return this;
         }
 
+        /**
+         * Enable automatic retries with an explicit policy: idempotent requests are
+         * retried up to {@code maxRetries} times after I/O errors, and after 429 and
+         * 503 responses honouring {@code Retry-After}, waiting {@code interval}
+         * between attempts.
+         *
+         * @param maxRetries maximum number of retries, 0 or more
+         * @param interval   pause between attempts when the server gives none
+         * @return this builder
+         */
+        public Builder retry(int maxRetries, Duration interval) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("maxRetries must be >= 0");
+            }
+            this.enableAutoRetry = true;
+            this.maxRetries = maxRetries;
+            this.retryIntervalMs = interval.toMillis();
+            return this;
+        }
+
+        /**
+         * Limit the number of calls in flight through this client. A call holds
+         * its permit from sending the request until the response has been
+         * consumed, retries included; calls over the limit wait up to
+         * {@code maxWait} and then fail with {@link APIException}.
+         *
+         * @param maxConcurrent maximum concurrent calls, 0 to disable (default)
+         * @param maxWait       how long to wait for a permit, zero to fail
+         *                      immediately
+         * @return this builder
+         */
+        public Builder concurrencyLimit(int maxConcurrent, Duration maxWait) {
+            if (maxConcurrent < 0) {
+                throw new IllegalArgumentException("maxConcurrent must be >= 0");
+            }
+            this.maxConcurrentRequests = maxConcurrent;
+            this.maxConcurrencyWaitMs = maxWait.toMillis();
+            return this;
+        }
+
+        /**
+         * Set the DNS resolver used when opening connections, e.g. a
+         * {@link CachingDnsResolver} to cache lookups independently of the JVM and
+         * spread connections across every address of a host.
+         *
+         * @param dnsResolver resolver, or null for the system resolver
+         * @return this builder
+         */
+        public Builder dnsResolver(DnsResolver dnsResolver) {
+            this.dnsResolver = dnsResolver;
+            return this;
+        }
+
+        /**
+         * Use a fully configured {@link SSLContext} for HTTPS connections instead
+         * of the JDK default. Cannot be combined with {@link #trustMaterial} or
+         * {@link #keyMaterial}.
+         *
+         * @param sslContext initialized SSL context
+         * @return this builder
+         */
+        public Builder sslContext(SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * Trust the certificates in {@code trustStore} instead of the JDK default
+         * CAs, e.g. for an internal PKI.
+         *
+         * @param trustStore trusted certificates
+         * @return this builder
+         */
+        public Builder trustMaterial(KeyStore trustStore) {
+            this.trustStore = trustStore;
+            return this;
+        }
+
+        /**
+         * Present a client certificate (mutual TLS) from {@code keyStore} when the
+         * server asks for one.
+         *
+         * @param keyStore    private key and certificate chain
+         * @param keyPassword password of the private key
+         * @return this builder
+         */
+        public Builder keyMaterial(KeyStore keyStore, char[] keyPassword) {
+            this.keyStore = keyStore;
+            this.keyPassword = keyPassword;
+            return this;
+        }
+
+        /**
+         * Restrict the TLS protocol versions offered, e.g. {@code "TLSv1.3"}.
+         *
+         * @param versions protocol names as known to JSSE
+         * @return this builder
+         */
+        public Builder tlsVersions(String... versions) {
+            this.tlsVersions = versions == null || versions.length == 0 ? null : versions.clone();
+            return this;
+        }
+
+        /**
+         * Restrict the cipher suites offered, in order of preference.
+         *
+         * @param suites cipher suite names as known to JSSE
+         * @return this builder
+         */
+        public Builder cipherSuites(String... suites) {
+            this.cipherSuites = suites == null || suites.length == 0 ? null : suites.clone();
+            return this;
+        }
+
+        /**
+         * Tune the client-side TLS session cache, so connections opened after idle
+         * eviction or a server-side close resume the previous session instead of
+         * running a full handshake. Sessions are cached per SSL context; with
+         * {@link #sslContext(SSLContext)} the given context's cache is changed.
+         *
+         * @param size    maximum number of cached sessions, 0 for unlimited
+         * @param timeout lifetime of a cached session, zero for unlimited
+         * @return this builder
+         */
+        public Builder tlsSessionCache(int size, Duration timeout) {
+            if (size < 0) {
+                throw new IllegalArgumentException("size must be >= 0");
+            }
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("timeout must be >= 0");
+            }
+            this.tlsSessionCacheSize = size;
+            this.tlsSessionTimeoutSeconds = (int) Math.min(Integer.MAX_VALUE, timeout.toSeconds());
+            return this;
+        }
+
+        /**
+         * Set the protocol version of outgoing requests. The classic client speaks
+         * HTTP/1.x only; HTTP/1.0 disables chunked request bodies and persistent
+         * connections unless the server opts in.
+         *
+         * @param httpVersion {@link HttpVersion#HTTP_1_1} (default) or
+         *                    {@link HttpVersion#HTTP_1_0}
+         * @return this builder
+         * @throws IllegalArgumentException for any other version
+         */
+        public Builder httpVersion(HttpVersion httpVersion) {
+            if (!HttpVersion.HTTP_1_1.equals(httpVersion) && !HttpVersion.HTTP_1_0.equals(httpVersion)) {
+                throw new IllegalArgumentException("Unsupported HTTP version: " + httpVersion
+                        + " (the classic client speaks HTTP/1.0 and HTTP/1.1 only)");
+            }
+            this.httpVersion = httpVersion;
+            return this;
+        }
+
+        /**
+         * Add an interceptor that may modify every outgoing request right before it
+         * is sent, e.g. to copy correlation headers from the current thread's
+         * context. It runs once per attempt, after the standard protocol
+         * interceptors, in the order added.
+         *
+         * @param interceptor request interceptor
+         * @return this builder
+         */
+        public Builder addRequestInterceptor(HttpRequestInterceptor interceptor) {
+            if (interceptor == null) {
+                throw new IllegalArgumentException("interceptor must not be null");
+            }
+            this.requestInterceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Add an execution interceptor around every request, e.g. to time calls or
+         * record exchanges. The interceptor sees each logical call once, including
+         * automatic retries and redirects; interceptors added later wrap the ones
+         * added before them.
+         *
+         * @param name    unique interceptor name
+         * @param handler interceptor
+         * @return this builder
+         */
+        public Builder addExecInterceptor(String name, ExecChainHandler handler) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("name must not be blank");
+            }
+            if (handler == null) {
+                throw new IllegalArgumentException("handler must not be null");
+            }
+            if (this.execInterceptors.putIfAbsent(name, handler) != null) {
+                throw new IllegalArgumentException("Duplicate exec interceptor: " + name);
+            }
+            return this;
+        }
+
+        /**
+         * Declare a route whose connections are opened before traffic arrives.
+         * <p>
+         * Only scheme, host and port of the URL are used. The pool keeps at least
+         * {@code minIdle} idle connections to the route (bounded by the per-route
+         * limit), opening them in parallel on {@link #build()} and/or on
+         * {@link HttpCaller#warmUp()}, then topping them up periodically.
+         *
+         * @param url     any URL on the target route, e.g. "https://api.example.com"
+         * @param minIdle minimum number of idle connections to keep, must be positive
+         * @return this builder
+         */
+        public Builder warmUp(String url, int minIdle) {
+            if (url == null || url.isBlank()) {
+                throw new IllegalArgumentException("url must not be blank");
+            }
+            if (minIdle <= 0) {
+                throw new IllegalArgumentException("minIdle must be > 0");
+            }
+            this.warmUpRoutes.put(url, minIdle);
+            return this;
+        }
+
+        /**
+         * Whether {@link #build()} opens the warm-up connections before returning.
+         * When disabled, call {@link HttpCaller#warmUp()} explicitly.
+         *
+         * @param warmUpOnBuild true to warm the pool on build (default)
+         * @return this builder
+         */
+        public Builder warmUpOnBuild(boolean warmUpOnBuild) {
+            this.warmUpOnBuild = warmUpOnBuild;
+            return this;
+        }
+
+        /**
+         * Create the connection pool, its client and the default TLS context
+         * on the first request instead of on build, keeping them off the
+         * startup path of short-lived processes such as CLI tools and
+         * serverless functions. The first request then pays for them, within
+         * its deadline. Ignored when warm-up routes are declared.
+         *
+         * @param deferPoolCreation true to create the pool on first use
+         * @return this builder
+         */
+        public Builder deferPoolCreation(boolean deferPoolCreation) {
+            this.deferPoolCreation = deferPoolCreation;
+            return this;
+        }
+
+        /**
+         * Set how often the minimum idle connections are topped up. Keep it below
+         * the one minute idle eviction so the minimum set is never evicted.
+         *
+         * @param interval refresh interval, zero or negative to disable
+         * @return this builder
+         */
+        public Builder minIdleRefreshInterval(Duration interval) {
+            this.minIdleRefreshInterval = TimeValue.ofMilliseconds(interval.toMillis());
+            return this;
+        }
+
+        /**
+         * Set the pool of scratch buffers used to read response bodies into
+         * String/byte[], download files and stream multipart file parts.
+         *
+         * @param bufferPool buffer pool, e.g. {@link BufferPool#threadLocal()}
+         *                   or {@link BufferPool#unpooled()}
+         * @return this builder
+         */
+        public Builder bufferPool(BufferPool bufferPool) {
+            if (bufferPool == null) {
+                throw new IllegalArgumentException("bufferPool must not be null");
+            }
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
         /**
          * Build a new {@link HttpCaller} instance.
          *
@@ -242,6 +714,46 @@ public class HttpCaller implements Closeable {
             return new HttpCaller(this);
         }
 
+        // null keeps the connection manager's default TLS setup
+        private TlsSocketStrategy tlsSocketStrategy() {
+            if (sslContext == null && trustStore == null && keyStore == null && tlsVersions == null
+                    && cipherSuites == null && tlsSessionCacheSize < 0) {
+                return null;
+            }
+            if (sslContext != null && (trustStore != null || keyStore != null)) {
+                throw new IllegalArgumentException("sslContext cannot be combined with trust or key material");
+            }
+            SSLContext context = sslContext != null ? sslContext : buildSslContext();
+            if (tlsSessionCacheSize >= 0) {
+                SSLSessionContext sessions = context.getClientSessionContext();
+                sessions.setSessionCacheSize(tlsSessionCacheSize);
+                sessions.setSessionTimeout(tlsSessionTimeoutSeconds);
+            }
+            ClientTlsStrategyBuilder tls = ClientTlsStrategyBuilder.create().setSslContext(context);
+            if (tlsVersions != null) {
+                tls.setTlsVersions(tlsVersions);
+            }
+            if (cipherSuites != null) {
+                tls.setCiphers(cipherSuites);
+            }
+            return tls.buildClassic();
+        }
+
+        private SSLContext buildSslContext() {
+            try {
+                SSLContextBuilder context = SSLContextBuilder.create();
+                if (trustStore != null) {
+                    context.loadTrustMaterial(trustStore, null);
+                }
+                if (keyStore != null) {
+                    context.loadKeyMaterial(keyStore, keyPassword);
+                }
+                return context.build();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalArgumentException("Invalid TLS key or trust material", e);
+            }
+        }
+
     }
 
     /**
@@ -264,6 +776,30 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    /**
+     * Execute a HTTP GET request and decode the response body from the entity
+     * stream, without buffering it as a String first.
+     *
+     * @param endpointUrl absolute or base URL
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @param decoder     body decoder
+     * @param <T>         decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors or non-2xx responses
+     */
+    public <T> T get(String endpointUrl, Map<String, String> params, Map<String, String> headers,
+            BodyDecoder<T> decoder) throws APIException {
+        try {
+            URI uri = buildUri(endpointUrl, params);
+            HttpGet request = new HttpGet(uri);
+            applyHeaders(request, headers);
+            return executeAndDecode(request, decoder);
+        } catch (URISyntaxException e) {
+            throw new APIException(e);
+        }
+    }
+
     /**
      * POST JSON payload.
      *
@@ -290,6 +826,34 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    /**
+     * POST JSON payload and decode the response body from the entity stream.
+     *
+     * @param endpointUrl target URL
+     * @param jsonBody    JSON payload (nullable/blank allowed)
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @param decoder     body decoder
+     * @param <T>         decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors or non-2xx responses
+     */
+    public <T> T postJson(String endpointUrl, String jsonBody, Map<String, String> params,
+            Map<String, String> headers, BodyDecoder<T> decoder) throws APIException {
+        try {
+            URI uri = buildUri(endpointUrl, params);
+            HttpPost request = new HttpPost(uri);
+            applyHeaders(request, headers);
+            if (jsonBody != null && !jsonBody.isBlank()) {
+                request.setEntity(
+                        new StringEntity(jsonBody, ContentType.APPLICATION_JSON.withCharset(StandardCharsets.UTF_8)));
+            }
+            return executeAndDecode(request, decoder);
+        } catch (URISyntaxException e) {
+            throw new APIException(e);
+        }
+    }
+
     /**
      * PUT JSON payload.
      *
@@ -316,6 +880,34 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    /**
+     * PUT JSON payload and decode the response body from the entity stream.
+     *
+     * @param endpointUrl target URL
+     * @param jsonBody    JSON payload (nullable/blank allowed)
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @param decoder     body decoder
+     * @param <T>         decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors or non-2xx responses
+     */
+    public <T> T putJson(String endpointUrl, String jsonBody, Map<String, String> params,
+            Map<String, String> headers, BodyDecoder<T> decoder) throws APIException {
+        try {
+            URI uri = buildUri(endpointUrl, params);
+            HttpPut request = new HttpPut(uri);
+            applyHeaders(request, headers);
+            if (jsonBody != null && !jsonBody.isBlank()) {
+                request.setEntity(
+                        new StringEntity(jsonBody, ContentType.APPLICATION_JSON.withCharset(StandardCharsets.UTF_8)));
+            }
+            return executeAndDecode(request, decoder);
+        } catch (URISyntaxException e) {
+            throw new APIException(e);
+        }
+    }
+
     /**
      * PATCH JSON payload.
      *
@@ -343,6 +935,34 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    /**
+     * PATCH JSON payload and decode the response body from the entity stream.
+     *
+     * @param endpointUrl target URL
+     * @param jsonBody    JSON payload (nullable/blank allowed)
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @param decoder     body decoder
+     * @param <T>         decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors or non-2xx responses
+     */
+    public <T> T patchJson(String endpointUrl, String jsonBody, Map<String, String> params,
+            Map<String, String> headers, BodyDecoder<T> decoder) throws APIException {
+        try {
+            URI uri = buildUri(endpointUrl, params);
+            HttpPatch request = new HttpPatch(uri);
+            applyHeaders(request, headers);
+            if (jsonBody != null && !jsonBody.isBlank()) {
+                request.setEntity(
+                        new StringEntity(jsonBody, ContentType.APPLICATION_JSON.withCharset(StandardCharsets.UTF_8)));
+            }
+            return executeAndDecode(request, decoder);
+        } catch (URISyntaxException e) {
+            throw new APIException(e);
+        }
+    }
+
     /**
      * DELETE request.
      *
@@ -436,7 +1056,9 @@ public class HttpCaller implements Closeable {
     }
 
     /**
-     * Multipart upload of a single file under form field name "file".
+     * Multipart upload of a single file under form field name "file". Large
+     * files are better sent in parallel, resumable parts with
+     * {@link ChunkedUploader}.
      *
      * @param endpointUrl target URL
      * @param file        file to upload
@@ -485,12 +1107,170 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    /**
+     * Execute a precompiled {@link RequestSpec} and decode the response body.
+     * The spec already carries the encoded request target and compiled headers,
+     * so no URI building or header map iteration happens here.
+     *
+     * @param spec    request spec
+     * @param decoder body decoder
+     * @param <T>     decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors or non-2xx responses
+     */
+    public <T> T execute(RequestSpec spec, BodyDecoder<T> decoder) throws APIException {
+        return executeAndDecode(spec.toRequest(), decoder);
+    }
+
+    /**
+     * Execute a precompiled {@link RequestSpec} with per-call options, on top
+     * of any {@link CallOptions} already in scope on this thread.
+     *
+     * @param spec    request spec
+     * @param decoder body decoder
+     * @param options deadline and timeout overrides
+     * @param <T>     decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors, non-2xx responses or an
+     *                      expired deadline
+     */
+    public <T> T execute(RequestSpec spec, BodyDecoder<T> decoder, CallOptions options) throws APIException {
+        try (CallOptions.Scope scope = options.makeCurrent()) {
+            return execute(spec, decoder);
+        }
+    }
+
+    /**
+     * Bind a {@link RequestTemplate} and execute it.
+     *
+     * @param template request template
+     * @param decoder  body decoder
+     * @param values   template values in positional order
+     * @param <T>      decoded type
+     * @return decoded response body
+     * @throws APIException on IO/decoding errors or non-2xx responses
+     */
+    public <T> T execute(RequestTemplate template, BodyDecoder<T> decoder, String... values) throws APIException {
+        return executeAndDecode(template.bind(values).toRequest(), decoder);
+    }
+
+    /**
+     * Open a Server-Sent Events stream with a GET request. Events are parsed
+     * incrementally as they are read; see {@link EventStream} for reconnect,
+     * heartbeat and backpressure behavior. The stream uses its own connection
+     * outside the pool and the concurrency limit, and is closed together with
+     * this caller.
+     *
+     * @param endpointUrl absolute or base URL
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable); {@code Accept} defaults to
+     *                    {@code text/event-stream}
+     * @param options     stream options (nullable for defaults)
+     * @return connected stream
+     * @throws APIException on IO errors or a non-2xx response to the first
+     *                      request
+     */
+    public EventStream<ServerSentEvent> openEventStream(String endpointUrl, Map<String, String> params,
+            Map<String, String> headers, EventStreamOptions options) throws APIException {
+        EventStreamOptions resolved = options != null ? options : EventStreamOptions.defaults();
+        return openStream(endpointUrl, params, headers, resolved, "text/event-stream",
+                new EventParser.Sse(resolved.lastEventId()), true);
+    }
+
+    /**
+     * Open a newline-delimited stream (NDJSON, JSON Lines) with a GET request
+     * and read it one record per line. Blank lines are skipped. Unlike SSE, the
+     * stream ends when the server closes it and is reopened only after
+     * failures.
+     *
+     * @param endpointUrl absolute or base URL
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable); {@code Accept} defaults to
+     *                    {@code application/x-ndjson}
+     * @param options     stream options (nullable for defaults)
+     * @return connected stream
+     * @throws APIException on IO errors or a non-2xx response to the first
+     *                      request
+     */
+    public EventStream<String> openNdjsonStream(String endpointUrl, Map<String, String> params,
+            Map<String, String> headers, EventStreamOptions options) throws APIException {
+        return openStream(endpointUrl, params, headers, options != null ? options : EventStreamOptions.defaults(),
+                "application/x-ndjson", new EventParser.Ndjson(), false);
+    }
+
+    private <T> EventStream<T> openStream(String endpointUrl, Map<String, String> params, Map<String, String> headers,
+            EventStreamOptions options, String accept, EventParser<T> parser, boolean reconnectOnEnd)
+            throws APIException {
+        URI uri;
+        try {
+            uri = buildUri(endpointUrl, params);
+        } catch (URISyntaxException e) {
+            throw new APIException(e);
+        }
+        Map<String, String> streamHeaders = new LinkedHashMap<>();
+        if (headers != null) {
+            headers.forEach((name, value) -> {
+                if (name != null && value != null) {
+                    streamHeaders.put(name, value);
+                }
+            });
+        }
+        if (streamHeaders.keySet().stream().noneMatch("Accept"::equalsIgnoreCase)) {
+            streamHeaders.put("Accept", accept);
+        }
+        EventStream<T> stream = new EventStream<>(streamClients.get(), uri, streamHeaders, options, parser,
+                reconnectOnEnd, openStreams::remove);
+        openStreams.add(stream);
+        stream.open();
+        return stream;
+    }
+
+    /**
+     * Open connections to the routes declared with {@link Builder#warmUp} until
+     * each has its minimum number of idle connections. Connections are opened in
+     * parallel; failures are ignored so a slow route never blocks the others.
+     *
+     * @return number of new connections opened
+     */
+    public int warmUp() {
+        return pool().warmer.warmUp();
+    }
+
+    /**
+     * Snapshot of the connection pool totals across all routes: leased,
+     * available (idle), pending (threads waiting for a connection) and max.
+     * Until the first request creates a deferred pool, all counts but max are
+     * zero.
+     *
+     * @return pool statistics
+     */
+    public PoolStats poolStats() {
+        Pool current = pool;
+        return current != null ? current.connectionManager.getTotalStats()
+                : new PoolStats(0, 0, 0, maxTotalConnections);
+    }
+
+    BufferPool bufferPool() {
+        return bufferPool;
+    }
+
     /**
      * Close underlying {@link CloseableHttpClient} and free resources.
      */
     @Override
     public void close() throws IOException {
-        httpClient.close();
+        for (EventStream<?> stream : openStreams) {
+            stream.close();
+        }
+        Pool current;
+        synchronized (this) {
+            closed = true;
+            current = pool;
+        }
+        if (current != null) {
+            current.warmer.close();
+            current.client.close();
+        }
     }
 
     private static URI buildUri(String endpointUrl, Map<String, String> params) throws URISyntaxException {
@@ -515,12 +1295,80 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    private <T> T send(ClassicHttpRequest request, HttpClientResponseHandler<T> handler)
+            throws IOException, APIException {
+        CallOptions options = CallOptions.current();
+        if (options == null) {
+            return send(request, null, handler);
+        }
+        if (options.isExpired()) {
+            throw new APIException("Deadline exceeded before the request was sent");
+        }
+        return send(request, options, handler);
+    }
+
+    private <T> T send(ClassicHttpRequest request, CallOptions options, HttpClientResponseHandler<T> handler)
+            throws IOException, APIException {
+        if (limiter == null) {
+            return pool().client.execute(request, callContext(request, options), handler);
+        }
+        limiter.acquire(options != null ? options.remaining() : null);
+        try {
+            return pool().client.execute(request, callContext(request, options), handler);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    /**
+     * Derive the request config of one call from the options in scope; null
+     * keeps the client defaults.
+     */
+    @SuppressWarnings("deprecation") // the per-request connect timeout still overrides the connection config
+    private HttpClientContext callContext(ClassicHttpRequest request, CallOptions options) throws APIException {
+        if (options == null) {
+            return null;
+        }
+        Timeout lease = options.connectionRequestTimeout() != null
+                ? Timeout.of(options.connectionRequestTimeout())
+                : requestConfig.getConnectionRequestTimeout();
+        Timeout connect = options.connectTimeout() != null ? Timeout.of(options.connectTimeout()) : connectTimeout;
+        Timeout response = options.responseTimeout() != null
+                ? Timeout.of(options.responseTimeout())
+                : requestConfig.getResponseTimeout();
+        if (options.hasDeadline()) {
+            long remainingNanos = options.remaining().toNanos();
+            if (remainingNanos <= 0) {
+                throw new APIException("Deadline exceeded before the request was sent");
+            }
+            // a zero timeout means no timeout, so never round the budget down to it
+            long remainingMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+            lease = capped(lease, remainingMs);
+            connect = capped(connect, remainingMs);
+            response = capped(response, remainingMs);
+            if (options.deadlineHeader() != null) {
+                request.setHeader(options.deadlineHeader(), Long.toString(remainingMs));
+            }
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.copy(requestConfig)
+                .setConnectionRequestTimeout(lease)
+                .setConnectTimeout(connect)
+                .setResponseTimeout(response)
+                .build());
+        return context;
+    }
+
+    private static Timeout capped(Timeout timeout, long maxMs) {
+        return timeout.isDisabled() || timeout.toMilliseconds() > maxMs ? Timeout.ofMilliseconds(maxMs) : timeout;
+    }
+
     private String executeToString(ClassicHttpRequest request) throws APIException {
         try {
-            return httpClient.execute(request, response -> {
+            return send(request, response -> {
                 int code = response.getCode();
                 HttpEntity entity = response.getEntity();
-                String responseBody = (entity != null) ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+                String responseBody = (entity != null) ? PooledIO.toString(entity, charsetOf(entity), bufferPool) : "";
                 if (code >= 200 && code < 300) {
                     return responseBody;
                 }
@@ -531,9 +1379,35 @@ public class HttpCaller implements Closeable {
         }
     }
 
+    private <T> T executeAndDecode(ClassicHttpRequest request, BodyDecoder<T> decoder) throws APIException {
+        try {
+            return send(request, response -> {
+                int code = response.getCode();
+                HttpEntity entity = response.getEntity();
+                if (code < 200 || code >= 300) {
+                    EntityUtils.consume(entity);
+                    throw new IOException("HTTP request failed with status code: " + code);
+                }
+                if (entity == null) {
+                    return decoder.decode(InputStream.nullInputStream(), StandardCharsets.UTF_8);
+                }
+                try (InputStream in = entity.getContent()) {
+                    return decoder.decode(in, charsetOf(entity));
+                }
+            });
+        } catch (IOException e) {
+            throw new APIException(e.getMessage(), e);
+        }
+    }
+
+    private static Charset charsetOf(HttpEntity entity) {
+        ContentType contentType = ContentType.parseLenient(entity.getContentType());
+        return contentType != null ? contentType.getCharset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+    }
+
     private int executeStatusCode(ClassicHttpRequest request) throws APIException {
         try {
-            return httpClient.execute(request, HttpResponse::getCode);
+            return send(request, HttpResponse::getCode);
         } catch (IOException e) {
             throw new APIException(e.getMessage(), e);
         }
@@ -583,10 +1457,10 @@ public class HttpCaller implements Closeable {
 
     private byte[] executeToBytes(ClassicHttpRequest request) throws APIException {
         try {
-            return httpClient.execute(request, response -> {
+            return send(request, response -> {
                 int code = response.getCode();
                 HttpEntity entity = response.getEntity();
-                byte[] bytes = (entity != null) ? EntityUtils.toByteArray(entity) : new byte[0];
+                byte[] bytes = PooledIO.toByteArray(entity, bufferPool);
                 if (code >= 200 && code < 300) {
                     return bytes;
                 }
@@ -599,7 +1473,7 @@ public class HttpCaller implements Closeable {
 
     private void executeToFile(ClassicHttpRequest request, Path target) throws APIException {
         try {
-            httpClient.execute(request, response -> {
+            send(request, response -> {
                 int code = response.getCode();
                 HttpEntity entity = response.getEntity();
                 if (code >= 200 && code < 300) {
@@ -614,7 +1488,8 @@ public class HttpCaller implements Closeable {
     }
 
     private void addFilePart(MultipartEntityBuilder builder, String fieldName, File file) {
-        builder.addBinaryBody(fieldName, file, ContentType.APPLICATION_OCTET_STREAM, file.getName());
+        builder.addPart(fieldName,
+                new PooledIO.PooledFileBody(file, ContentType.APPLICATION_OCTET_STREAM, file.getName(), bufferPool));
     }
 
     private void writeEntityToFile(HttpEntity entity, Path target) throws IOException {
@@ -625,7 +1500,9 @@ public class HttpCaller implements Closeable {
             if (target.getParent() != null) {
                 Files.createDirectories(target.getParent());
             }
-            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            try (OutputStream out = Files.newOutputStream(target)) {
+                PooledIO.copy(in, out, bufferPool);
+            }
         }
     }
 
@@ -0,0 +1,465 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Combines single JSON documents submitted from many threads into bulk
+ * requests to an endpoint that accepts a JSON array.
+ * <p>
+ * {@link #submit} appends the document to a lock-free queue and returns at
+ * once. A flusher thread sends the queued documents as one
+ * {@link HttpCaller#postJson} array body when {@code maxBatchSize} documents
+ * (or {@code maxBatchChars} characters) are waiting, or when the oldest one
+ * has waited for the linger time, whichever comes first. The bulk response is
+ * split back into one result per document, by default as the elements of a
+ * JSON array in submission order, and each submitter's future completes with
+ * its own element. A failed bulk request fails the future of every document in
+ * it.
+ * <p>
+ * At most {@code maxPending} documents wait in the queue; beyond that
+ * {@link #submit} returns an already failed future rather than blocking, so a
+ * stalled endpoint cannot exhaust the heap.
+ *
+ * <pre>{@code
+ * JsonBatcher events = new JsonBatcher.Builder()
+ *         .caller(caller)
+ *         .url("https://collector.example.com/v1/events/bulk")
+ *         .maxBatchSize(500)
+ *         .linger(Duration.ofMillis(20))
+ *         .build();
+ * events.submit("{\"type\":\"click\",\"user\":42}")
+ *         .thenAccept(result -> ...);
+ * }</pre>
+ */
+public final class JsonBatcher implements Closeable {
+
+    private final HttpCaller caller;
+    private final String url;
+    private final Map<String, String> headers;
+    private final int maxBatchSize;
+    private final int maxBatchChars;
+    private final long lingerNanos;
+    private final int maxPending;
+    private final ResponseSplitter splitter;
+    private final ConcurrentLinkedQueue<Item> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    // queued documents plus one separator each, so a full body is this plus the opening bracket
+    private final AtomicLong pendingChars = new AtomicLong();
+    private final Semaphore batchSlots;
+    private final ExecutorService senders;
+    private final Thread flusher;
+    private volatile boolean closed;
+    private volatile boolean idle;
+
+    private JsonBatcher(Builder builder) {
+        this.caller = builder.caller;
+        this.url = builder.url;
+        this.headers = builder.headers;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxBatchChars = builder.maxBatchChars;
+        this.lingerNanos = builder.linger.toNanos();
+        this.maxPending = builder.maxPending;
+        this.splitter = builder.splitter;
+        this.batchSlots = new Semaphore(builder.maxInFlightBatches);
+        this.senders = Executors.newFixedThreadPool(builder.maxInFlightBatches, PoolWarmer.daemonThreads("json-batch"));
+        this.flusher = PoolWarmer.daemonThreads("json-batch-flusher").newThread(this::flushLoop);
+        flusher.start();
+    }
+
+    /**
+     * Splits a bulk response body into one result per submitted document.
+     */
+    @FunctionalInterface
+    public interface ResponseSplitter {
+        /**
+         * @param body  bulk response body
+         * @param items number of documents in the bulk request
+         * @return results in submission order, exactly {@code items} of them
+         * @throws IOException if the body cannot be split
+         */
+        List<String> split(String body, int items) throws IOException;
+
+        /**
+         * Splitter for a JSON array response with one element per document.
+         * Elements are returned as raw JSON text, e.g. {@code {"id":"a1"}} or
+         * {@code "ok"} with its quotes.
+         *
+         * @return JSON array splitter
+         */
+        static ResponseSplitter jsonArray() {
+            return (body, items) -> splitJsonArray(body);
+        }
+
+        /**
+         * Splitter handing the whole body to every document, for endpoints
+         * that answer a bulk request with a single summary.
+         *
+         * @return splitter repeating the body
+         */
+        static ResponseSplitter wholeBody() {
+            return (body, items) -> Collections.nCopies(items, body);
+        }
+    }
+
+    /**
+     * Queue one JSON document for the next bulk request.
+     *
+     * @param json JSON document, sent verbatim as one array element
+     * @return future completed with this document's part of the bulk response,
+     *         or failed with an {@link HttpCaller.APIException}
+     */
+    public CompletableFuture<String> submit(String json) {
+        if (json == null || json.isBlank()) {
+            throw new IllegalArgumentException("json must not be blank");
+        }
+        if (closed) {
+            return CompletableFuture.failedFuture(new HttpCaller.APIException("JsonBatcher is closed"));
+        }
+        int size = pending.incrementAndGet();
+        if (size > maxPending) {
+            pending.decrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new HttpCaller.APIException("JsonBatcher queue is full (" + maxPending + " pending)"));
+        }
+        Item item = new Item(json, System.nanoTime());
+        long chars = pendingChars.addAndGet(json.length() + 1);
+        queue.add(item);
+        // the flusher publishes idle before its last look at the queue, so one of the two sees the other
+        if (idle || size >= maxBatchSize || chars + 1 >= maxBatchChars) {
+            LockSupport.unpark(flusher);
+        } else if (closed && !flusher.isAlive()) {
+            // raced with close after its final drain
+            failAll(drain(Integer.MAX_VALUE), new HttpCaller.APIException("JsonBatcher is closed"));
+        }
+        return item.future;
+    }
+
+    /**
+     * @return documents waiting for a bulk request
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Send every queued document, wait for the bulk requests in flight and
+     * stop the flusher. Later submissions fail. The {@link HttpCaller} is not
+     * closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+            senders.shutdown();
+            senders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            senders.shutdownNow();
+        }
+        // a submission that raced with close
+        failAll(drain(Integer.MAX_VALUE), new HttpCaller.APIException("JsonBatcher is closed"));
+    }
+
+    private void flushLoop() {
+        while (true) {
+            Item head = queue.peek();
+            if (head == null) {
+                if (closed) {
+                    return;
+                }
+                idle = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            long wait = head.enqueuedNanos + lingerNanos - System.nanoTime();
+            if (wait > 0 && pending.get() < maxBatchSize && pendingChars.get() + 1 < maxBatchChars && !closed) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            batchSlots.acquireUninterruptibly();
+            List<Item> batch = drain(maxBatchSize);
+            try {
+                senders.execute(() -> send(batch));
+            } catch (RuntimeException e) {
+                batchSlots.release();
+                failAll(batch, new HttpCaller.APIException(e.getMessage(), e));
+            }
+        }
+    }
+
+    private List<Item> drain(int limit) {
+        List<Item> batch = new ArrayList<>(Math.min(limit, Math.max(1, pending.get())));
+        // the opening bracket, then each document with its comma or closing bracket
+        long chars = 1;
+        Item item;
+        while (batch.size() < limit && (item = queue.peek()) != null) {
+            if (!batch.isEmpty() && chars + item.json.length() + 1 > maxBatchChars) {
+                break;
+            }
+            chars += item.json.length() + 1;
+            batch.add(queue.poll());
+        }
+        pending.addAndGet(-batch.size());
+        pendingChars.addAndGet(1 - chars);
+        return batch;
+    }
+
+    private void send(List<Item> batch) {
+        try {
+            StringBuilder body = new StringBuilder(batch.size() * (batch.get(0).json.length() + 1) + 2).append('[');
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append(batch.get(i).json);
+            }
+            body.append(']');
+            String response = caller.postJson(url, body.toString(), null, headers);
+            List<String> results;
+            try {
+                results = splitter.split(response, batch.size());
+            } catch (IOException | RuntimeException e) {
+                throw new HttpCaller.APIException("Cannot split bulk response: " + e.getMessage(), e);
+            }
+            if (results == null || results.size() != batch.size()) {
+                throw new HttpCaller.APIException("Bulk response has " + (results == null ? 0 : results.size())
+                        + " results for " + batch.size() + " documents");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        } catch (HttpCaller.APIException e) {
+            failAll(batch, e);
+        } catch (RuntimeException e) {
+            failAll(batch, new HttpCaller.APIException(e.getMessage(), e));
+        } finally {
+            batchSlots.release();
+        }
+    }
+
+    private static void failAll(List<Item> batch, HttpCaller.APIException error) {
+        for (Item item : batch) {
+            item.future.completeExceptionally(error);
+        }
+    }
+
+    private static List<String> splitJsonArray(String body) throws IOException {
+        int length = body.length();
+        int i = skipWhitespace(body, 0);
+        if (i == length || body.charAt(i) != '[') {
+            throw new IOException("expected a JSON array");
+        }
+        List<String> elements = new ArrayList<>();
+        int depth = 0;
+        boolean inString = false;
+        int start = i + 1;
+        for (i = start; i < length; i++) {
+            char c = body.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '[' || c == '{') {
+                depth++;
+            } else if (c == ']' || c == '}') {
+                if (depth == 0) {
+                    String last = body.substring(start, i).strip();
+                    if (!last.isEmpty() || !elements.isEmpty()) {
+                        elements.add(last);
+                    }
+                    if (skipWhitespace(body, i + 1) != length) {
+                        throw new IOException("unexpected content after the JSON array");
+                    }
+                    return elements;
+                }
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                elements.add(body.substring(start, i).strip());
+                start = i + 1;
+            }
+        }
+        throw new IOException("unterminated JSON array");
+    }
+
+    private static int skipWhitespace(String s, int from) {
+        int i = from;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Item {
+        private final String json;
+        private final long enqueuedNanos;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private Item(String json, long enqueuedNanos) {
+            this.json = json;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * Builder for {@link JsonBatcher}.
+     * <p>
+     * Defaults:
+     * - Batch: up to 100 documents or 1M characters, linger 10ms
+     * - Bulk requests in flight: 2
+     * - Queue bound: 10,000 documents
+     * - Response: a JSON array with one element per document
+     */
+    public static class Builder {
+        private HttpCaller caller;
+        private String url;
+        private Map<String, String> headers;
+        private int maxBatchSize = 100;
+        private int maxBatchChars = 1024 * 1024;
+        private Duration linger = Duration.ofMillis(10);
+        private int maxInFlightBatches = 2;
+        private int maxPending = 10_000;
+        private ResponseSplitter splitter = ResponseSplitter.jsonArray();
+
+        /**
+         * @param caller client sending the bulk requests
+         * @return this builder
+         */
+        public Builder caller(HttpCaller caller) {
+            this.caller = caller;
+            return this;
+        }
+
+        /**
+         * @param url bulk endpoint accepting a JSON array
+         * @return this builder
+         */
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        /**
+         * @param headers headers sent with every bulk request (nullable)
+         * @return this builder
+         */
+        public Builder headers(Map<String, String> headers) {
+            this.headers = headers == null ? null : new LinkedHashMap<>(headers);
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize documents per bulk request
+         * @return this builder
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be > 0");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Upper bound of a bulk body, counted in characters. A single larger
+         * document is still sent, alone.
+         *
+         * @param maxBatchChars body length limit
+         * @return this builder
+         */
+        public Builder maxBatchChars(int maxBatchChars) {
+            if (maxBatchChars <= 2) {
+                throw new IllegalArgumentException("maxBatchChars must be > 2");
+            }
+            this.maxBatchChars = maxBatchChars;
+            return this;
+        }
+
+        /**
+         * @param linger how long the oldest queued document waits for others
+         *               before a partial batch is sent
+         * @return this builder
+         */
+        public Builder linger(Duration linger) {
+            if (linger == null || linger.isNegative()) {
+                throw new IllegalArgumentException("linger must be >= 0");
+            }
+            this.linger = linger;
+            return this;
+        }
+
+        /**
+         * @param maxInFlightBatches bulk requests running at once; the
+         *                           flusher waits for a free one
+         * @return this builder
+         */
+        public Builder maxInFlightBatches(int maxInFlightBatches) {
+            if (maxInFlightBatches <= 0) {
+                throw new IllegalArgumentException("maxInFlightBatches must be > 0");
+            }
+            this.maxInFlightBatches = maxInFlightBatches;
+            return this;
+        }
+
+        /**
+         * @param maxPending queued documents above which submissions fail
+         * @return this builder
+         */
+        public Builder maxPending(int maxPending) {
+            if (maxPending <= 0) {
+                throw new IllegalArgumentException("maxPending must be > 0");
+            }
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * @param splitter how a bulk response maps back to the documents
+         * @return this builder
+         */
+        public Builder responseSplitter(ResponseSplitter splitter) {
+            if (splitter == null) {
+                throw new IllegalArgumentException("splitter must not be null");
+            }
+            this.splitter = splitter;
+            return this;
+        }
+
+        /**
+         * @return batcher with a running flusher thread
+         */
+        public JsonBatcher build() {
+            if (caller == null || url == null || url.isBlank()) {
+                throw new IllegalArgumentException("caller and url are required");
+            }
+            return new JsonBatcher(this);
+        }
+    }
+}
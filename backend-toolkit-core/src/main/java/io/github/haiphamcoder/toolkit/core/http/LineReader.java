@@ -0,0 +1,94 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits a byte stream into UTF-8 lines terminated by LF, CR or CRLF.
+ * <p>
+ * The read buffer and the line buffer belong to the reader and are reused for
+ * every line and across reconnects ({@link #reset(InputStream)}), so parsing
+ * allocates only the resulting strings.
+ */
+final class LineReader {
+
+    private final byte[] buffer;
+    private final int maxLineLength;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private InputStream in;
+
+    LineReader(int bufferSize, int maxLineLength) {
+        this.buffer = new byte[bufferSize];
+        this.maxLineLength = maxLineLength;
+    }
+
+    void reset(InputStream in) {
+        this.in = in;
+        this.position = 0;
+        this.limit = 0;
+        this.lineLength = 0;
+        this.skipLineFeed = false;
+    }
+
+    /**
+     * @return next line without its terminator; an unterminated last line is
+     *         returned as is; null at end of stream
+     * @throws IOException on read errors or a line over the maximum length
+     */
+    String readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (position == limit) {
+                int read = in.read(buffer);
+                if (read < 0) {
+                    return lineLength > 0 ? decode() : null;
+                }
+                position = 0;
+                limit = read;
+                continue;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int start = position;
+            while (position < limit) {
+                byte b = buffer[position];
+                if (b == '\n' || b == '\r') {
+                    append(start, position);
+                    position++;
+                    skipLineFeed = b == '\r';
+                    return decode();
+                }
+                position++;
+            }
+            append(start, limit);
+        }
+    }
+
+    private void append(int from, int to) throws IOException {
+        int length = to - from;
+        if (lineLength + length > maxLineLength) {
+            throw new IOException("Stream line exceeds " + maxLineLength + " bytes");
+        }
+        if (lineLength + length > line.length) {
+            byte[] grown = new byte[Math.min(maxLineLength, Math.max(line.length * 2, lineLength + length))];
+            System.arraycopy(line, 0, grown, 0, lineLength);
+            line = grown;
+        }
+        System.arraycopy(buffer, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private String decode() {
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+    }
+}
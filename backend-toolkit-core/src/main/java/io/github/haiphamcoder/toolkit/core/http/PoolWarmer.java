@@ -0,0 +1,197 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Pre-opens pooled connections for a fixed set of routes and keeps a minimum
+ * number of them idle.
+ * <p>
+ * Warming leases up to {@code minIdle} endpoints per route at the same time,
+ * connects the ones that are not connected yet (TCP connect and, for
+ * {@code https}, the TLS handshake) and hands them all back to the pool. Because
+ * every lease/release refreshes the connection's idle timestamp, the periodic
+ * top-up also keeps the minimum set from being closed by the idle evictor while
+ * connections above the minimum still expire normally.
+ */
+final class PoolWarmer implements Closeable {
+
+    private static final int MAX_PARALLELISM = 64;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final List<Target> targets;
+    private final Timeout connectTimeout;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+
+    PoolWarmer(PoolingHttpClientConnectionManager connectionManager, List<Target> targets, Timeout connectTimeout,
+            TimeValue refreshInterval) {
+        this.connectionManager = connectionManager;
+        this.targets = List.copyOf(targets);
+        this.connectTimeout = connectTimeout;
+        if (this.targets.isEmpty()) {
+            this.executor = null;
+        } else {
+            // shared by every warm-up and top-up; threads start on demand and exit after a minute idle
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), daemonThreads("http-pool-warmup"));
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+        if (TimeValue.isPositive(refreshInterval) && !this.targets.isEmpty()) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("http-pool-topup"));
+            long millis = refreshInterval.toMilliseconds();
+            this.scheduler.scheduleWithFixedDelay(this::warmUp, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Tops up every declared route to its minimum idle connection count.
+     *
+     * @return number of new connections opened
+     */
+    int warmUp() {
+        if (targets.isEmpty() || executor.isShutdown() || connectionManager.isClosed()) {
+            return 0;
+        }
+        List<HttpRoute> leases = new ArrayList<>();
+        for (Target target : targets) {
+            PoolStats stats = connectionManager.getStats(target.route);
+            int free = connectionManager.getMaxPerRoute(target.route) - stats.getLeased() - stats.getPending();
+            for (int i = 0; i < Math.min(target.minIdle, free); i++) {
+                leases.add(target.route);
+            }
+        }
+        if (leases.isEmpty()) {
+            return 0;
+        }
+
+        // Phase 1: hold every endpoint until all are connected so that no lease gets
+        // back a connection another task has just returned.
+        List<Future<Opened>> futures = new ArrayList<>(leases.size());
+        try {
+            for (HttpRoute route : leases) {
+                futures.add(executor.submit(() -> open(route)));
+            }
+        } catch (RejectedExecutionException e) {
+            // closed meanwhile: the endpoints leased so far are still returned below
+        }
+        try {
+            List<Opened> opened = new ArrayList<>(futures.size());
+            for (Future<Opened> future : futures) {
+                Opened result = await(future);
+                if (result != null) {
+                    opened.add(result);
+                }
+            }
+            // Phase 2: return everything to the pool as reusable idle connections.
+            int created = 0;
+            for (Opened result : opened) {
+                boolean connected = result.endpoint.isConnected();
+                connectionManager.release(result.endpoint, null, connected ? TimeValue.NEG_ONE_MILLISECOND : null);
+                if (connected && result.created) {
+                    created++;
+                }
+            }
+            return created;
+        } finally {
+            for (Future<Opened> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Opened open(HttpRoute route) throws InterruptedException {
+        ConnectionEndpoint endpoint;
+        try {
+            endpoint = connectionManager.lease("warmup", route, connectTimeout, null).get(connectTimeout);
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+        boolean created = !endpoint.isConnected();
+        if (created) {
+            try {
+                connectionManager.connect(endpoint, connectTimeout, HttpClientContext.create());
+            } catch (Exception e) {
+                // best effort: the endpoint is released as non-reusable below
+            }
+        }
+        return new Opened(endpoint, created);
+    }
+
+    private static Opened await(Future<Opened> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Route to keep warm together with its minimum idle connection count.
+     */
+    static final class Target {
+        private final HttpRoute route;
+        private final int minIdle;
+
+        Target(HttpRoute route, int minIdle) {
+            this.route = route;
+            this.minIdle = minIdle;
+        }
+    }
+
+    private static final class Opened {
+        private final ConnectionEndpoint endpoint;
+        private final boolean created;
+
+        private Opened(ConnectionEndpoint endpoint, boolean created) {
+            this.endpoint = endpoint;
+            this.created = created;
+        }
+    }
+}
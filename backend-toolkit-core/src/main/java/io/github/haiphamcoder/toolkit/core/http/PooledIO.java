@@ -0,0 +1,120 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.apache.hc.client5.http.entity.mime.FileBody;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+
+/**
+ * Body transfers on {@link BufferPool} buffers, replacing
+ * {@code EntityUtils.toByteArray}/{@code toString}, {@code Files.copy} and
+ * {@link FileBody#writeTo}, which allocate a fresh buffer per call.
+ * <p>
+ * A body is read into one pooled buffer sized from the Content-Length when
+ * known, moved to the next size class only when it fills up, so the only
+ * allocation left per response is the returned array or string.
+ */
+final class PooledIO {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final byte[] EMPTY = new byte[0];
+
+    @FunctionalInterface
+    private interface BytesDecoder<T> {
+        T decode(byte[] buffer, int length);
+    }
+
+    private PooledIO() {
+    }
+
+    static byte[] toByteArray(HttpEntity entity, BufferPool pool) throws IOException {
+        return read(entity, pool, (buffer, length) -> Arrays.copyOf(buffer, length));
+    }
+
+    static String toString(HttpEntity entity, Charset charset, BufferPool pool) throws IOException {
+        return read(entity, pool, (buffer, length) -> new String(buffer, 0, length, charset));
+    }
+
+    static void copy(InputStream in, OutputStream out, BufferPool pool) throws IOException {
+        byte[] buffer = pool.acquire(CHUNK_SIZE);
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private static <T> T read(HttpEntity entity, BufferPool pool, BytesDecoder<T> decoder) throws IOException {
+        InputStream in = entity != null ? entity.getContent() : null;
+        if (in == null) {
+            return decoder.decode(EMPTY, 0);
+        }
+        try (in) {
+            long contentLength = entity.getContentLength();
+            byte[] buffer = pool.acquire(contentLength >= 0 && contentLength <= MAX_ARRAY_SIZE
+                    ? (int) contentLength
+                    : CHUNK_SIZE);
+            int length = 0;
+            try {
+                while (true) {
+                    if (length == buffer.length) {
+                        // full: probe for the end before growing, so an exact Content-Length never grows
+                        int next = in.read();
+                        if (next < 0) {
+                            break;
+                        }
+                        if (length == MAX_ARRAY_SIZE) {
+                            throw new IOException("Response body exceeds " + MAX_ARRAY_SIZE + " bytes");
+                        }
+                        byte[] larger = pool.acquire((int) Math.min(MAX_ARRAY_SIZE, Math.max(CHUNK_SIZE,
+                                2L * buffer.length)));
+                        System.arraycopy(buffer, 0, larger, 0, length);
+                        pool.release(buffer);
+                        buffer = larger;
+                        buffer[length++] = (byte) next;
+                    }
+                    int read = in.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        break;
+                    }
+                    length += read;
+                }
+                return decoder.decode(buffer, length);
+            } finally {
+                pool.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Multipart file part that streams the file through a pooled buffer.
+     */
+    static final class PooledFileBody extends FileBody {
+
+        private final BufferPool pool;
+
+        PooledFileBody(File file, ContentType contentType, String filename, BufferPool pool) {
+            super(file, contentType, filename);
+            this.pool = pool;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = new FileInputStream(getFile())) {
+                copy(in, out, pool);
+                out.flush();
+            }
+        }
+    }
+}
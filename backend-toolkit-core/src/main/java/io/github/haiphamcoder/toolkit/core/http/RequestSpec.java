@@ -0,0 +1,150 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+
+/**
+ * A single, fully resolved request: method, target host, encoded request
+ * target, precompiled headers and an optional body.
+ * <p>
+ * Specs are cheap value objects meant to be produced in bulk from a reusable
+ * {@link UriTemplate} and {@link HeaderSet}, e.g. for {@link BatchExecutor}.
+ *
+ * <pre>{@code
+ * UriTemplate user = UriTemplate.compile("https://api.example.com/v1/users/{id}");
+ * HeaderSet auth = HeaderSet.of(Map.of("Authorization", token));
+ * Stream<RequestSpec> specs = ids.stream().map(id -> RequestSpec.get(user, auth, id));
+ * }</pre>
+ */
+public final class RequestSpec {
+
+    private static final ContentType JSON = ContentType.APPLICATION_JSON.withCharset(StandardCharsets.UTF_8);
+
+    private final Method method;
+    private final HttpHost host;
+    private final String path;
+    private final HeaderSet headers;
+    private final byte[] body;
+    private final ContentType contentType;
+    private final HttpEntity entity;
+
+    private RequestSpec(Method method, HttpHost host, String path, HeaderSet headers, byte[] body,
+            ContentType contentType, HttpEntity entity) {
+        this.method = method;
+        this.host = host;
+        this.path = path;
+        this.headers = headers;
+        this.body = body;
+        this.contentType = contentType;
+        this.entity = entity;
+    }
+
+    /**
+     * Create a spec by expanding a template.
+     *
+     * @param method   HTTP method
+     * @param template URI template
+     * @param headers  precompiled headers (nullable)
+     * @param values   template values in positional order
+     * @return request spec
+     */
+    public static RequestSpec of(Method method, UriTemplate template, HeaderSet headers, String... values) {
+        return new RequestSpec(method, template.host(), template.expandPath(values),
+                headers != null ? headers : HeaderSet.empty(), null, null, null);
+    }
+
+    /**
+     * Create a GET spec by expanding a template.
+     *
+     * @param template URI template
+     * @param headers  precompiled headers (nullable)
+     * @param values   template values in positional order
+     * @return request spec
+     */
+    public static RequestSpec get(UriTemplate template, HeaderSet headers, String... values) {
+        return of(Method.GET, template, headers, values);
+    }
+
+    /**
+     * Return a copy of this spec carrying a UTF-8 JSON body.
+     *
+     * @param json JSON payload
+     * @return new request spec
+     */
+    public RequestSpec withJsonBody(String json) {
+        return withBody(json.getBytes(StandardCharsets.UTF_8), JSON);
+    }
+
+    /**
+     * Return a copy of this spec carrying the given body.
+     *
+     * @param body        payload bytes (not copied)
+     * @param contentType payload content type
+     * @return new request spec
+     */
+    public RequestSpec withBody(byte[] body, ContentType contentType) {
+        return new RequestSpec(method, host, path, headers, body, contentType, null);
+    }
+
+    /**
+     * Return a copy of this spec carrying a streamed body, e.g. a file region
+     * that should not be read onto the heap. The entity should be repeatable
+     * if the call may be retried.
+     *
+     * @param entity request entity, sent as is
+     * @return new request spec
+     */
+    public RequestSpec withBody(HttpEntity entity) {
+        return new RequestSpec(method, host, path, headers, null, null, entity);
+    }
+
+    /**
+     * HTTP method.
+     *
+     * @return method
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Target host.
+     *
+     * @return host
+     */
+    public HttpHost host() {
+        return host;
+    }
+
+    /**
+     * Encoded request target (path and query).
+     *
+     * @return request target
+     */
+    public String path() {
+        return path;
+    }
+
+    ClassicHttpRequest toRequest() {
+        BasicClassicHttpRequest request = new BasicClassicHttpRequest(method, host, path);
+        headers.applyTo(request);
+        if (entity != null) {
+            request.setEntity(entity);
+        } else if (body != null) {
+            request.setEntity(new ByteArrayEntity(body, contentType));
+        }
+        return request;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + host.toURI() + path;
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hc.core5.http.Method;
+
+/**
+ * Precompiled request shape: method, base URI, path template and default
+ * headers are parsed once, only the variable parts are filled in per call.
+ * <p>
+ * Binding a template expands the {@link UriTemplate} (string appends plus
+ * percent-encoding of the values) and reuses the compiled {@link HeaderSet}, so
+ * neither {@code URIBuilder} nor header map iteration runs on the hot path.
+ * Templates are immutable and thread-safe; keep them in static or singleton
+ * fields.
+ *
+ * <pre>{@code
+ * RequestTemplate getUser = RequestTemplate.builder(Method.GET, "https://api.example.com", "/v1/users/{id}")
+ *         .header("Accept", "application/json")
+ *         .build();
+ * User user = caller.execute(getUser, decoder, "42");
+ * }</pre>
+ */
+public final class RequestTemplate {
+
+    private final Method method;
+    private final UriTemplate uriTemplate;
+    private final HeaderSet headers;
+
+    private RequestTemplate(Method method, UriTemplate uriTemplate, HeaderSet headers) {
+        this.method = method;
+        this.uriTemplate = uriTemplate;
+        this.headers = headers;
+    }
+
+    /**
+     * Start building a template.
+     *
+     * @param method       HTTP method
+     * @param baseUri      absolute base URI, e.g. "https://api.example.com/api"
+     * @param pathTemplate path (and optional query) template appended to the
+     *                     base, e.g. "/v1/users/{id}?expand={expand}"
+     * @return template builder
+     */
+    public static Builder builder(Method method, String baseUri, String pathTemplate) {
+        return new Builder(method, baseUri, pathTemplate);
+    }
+
+    /**
+     * Bind variable values, producing a request spec.
+     *
+     * @param values template values in positional order
+     * @return request spec
+     */
+    public RequestSpec bind(String... values) {
+        return RequestSpec.of(method, uriTemplate, headers, values);
+    }
+
+    /**
+     * Bind variable values and add per-call headers after the default ones.
+     *
+     * @param extraHeaders precompiled per-call headers
+     * @param values       template values in positional order
+     * @return request spec
+     */
+    public RequestSpec bind(HeaderSet extraHeaders, String... values) {
+        return RequestSpec.of(method, uriTemplate, headers.and(extraHeaders), values);
+    }
+
+    /**
+     * HTTP method of this template.
+     *
+     * @return method
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Compiled URI template.
+     *
+     * @return URI template
+     */
+    public UriTemplate uriTemplate() {
+        return uriTemplate;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uriTemplate;
+    }
+
+    /**
+     * Builder for {@link RequestTemplate}.
+     */
+    public static class Builder {
+        private final Method method;
+        private final String baseUri;
+        private final String pathTemplate;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        private Builder(Method method, String baseUri, String pathTemplate) {
+            if (method == null) {
+                throw new IllegalArgumentException("method must not be null");
+            }
+            if (baseUri == null || baseUri.isBlank()) {
+                throw new IllegalArgumentException("baseUri must not be blank");
+            }
+            this.method = method;
+            this.baseUri = baseUri;
+            this.pathTemplate = pathTemplate == null ? "" : pathTemplate;
+        }
+
+        /**
+         * Add a default header sent with every request of this template.
+         *
+         * @param name  header name
+         * @param value header value
+         * @return this builder
+         */
+        public Builder header(String name, String value) {
+            this.headers.put(name, value);
+            return this;
+        }
+
+        /**
+         * Add default headers sent with every request of this template.
+         *
+         * @param headers header name to value
+         * @return this builder
+         */
+        public Builder headers(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        /**
+         * Compile the template.
+         *
+         * @return request template
+         * @throws IllegalArgumentException if the base URI or path template is
+         *                                  invalid
+         */
+        public RequestTemplate build() {
+            return new RequestTemplate(method, UriTemplate.compile(join(baseUri, pathTemplate)), HeaderSet.of(headers));
+        }
+
+        private static String join(String base, String path) {
+            if (path.isEmpty()) {
+                return base;
+            }
+            boolean baseSlash = base.endsWith("/");
+            boolean pathSlash = path.startsWith("/") || path.startsWith("?");
+            if (baseSlash && path.startsWith("/")) {
+                return base + path.substring(1);
+            }
+            if (!baseSlash && !pathSlash) {
+                return base + "/" + path;
+            }
+            return base + path;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.util.Objects;
+
+/**
+ * One event of a {@code text/event-stream} response, as read by
+ * {@link EventStream}.
+ */
+public final class ServerSentEvent {
+
+    private final String id;
+    private final String event;
+    private final String data;
+
+    /**
+     * @param id    last event ID in effect when the event was dispatched (nullable)
+     * @param event event type, "message" when the server sent none
+     * @param data  data lines joined with '\n'
+     */
+    public ServerSentEvent(String id, String event, String data) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+    }
+
+    /**
+     * @return last event ID in effect for this event, or null
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * @return event type
+     */
+    public String event() {
+        return event;
+    }
+
+    /**
+     * @return event data
+     */
+    public String data() {
+        return data;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServerSentEvent)) {
+            return false;
+        }
+        ServerSentEvent other = (ServerSentEvent) o;
+        return Objects.equals(id, other.id) && event.equals(other.event) && data.equals(other.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, event, data);
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent[id=" + id + ", event=" + event + ", data=" + data + "]";
+    }
+}
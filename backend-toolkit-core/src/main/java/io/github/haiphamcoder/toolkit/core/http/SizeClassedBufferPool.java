@@ -0,0 +1,66 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+/**
+ * Size class arithmetic shared by the {@link BufferPool} implementations:
+ * class {@code i} holds buffers of {@code 4 KiB << i} bytes.
+ */
+abstract class SizeClassedBufferPool implements BufferPool {
+
+    private static final int MIN_SHIFT = 12;
+    private static final int MIN_SIZE = 1 << MIN_SHIFT;
+
+    static final BufferPool UNPOOLED = new BufferPool() {
+        @Override
+        public byte[] acquire(int minSize) {
+            return new byte[minSize];
+        }
+
+        @Override
+        public void release(byte[] buffer) {
+        }
+    };
+
+    final int classes;
+
+    SizeClassedBufferPool(int maxBufferSize) {
+        if (maxBufferSize < MIN_SIZE || maxBufferSize > 1 << 30) {
+            throw new IllegalArgumentException("maxBufferSize must be between 4 KiB and 1 GiB");
+        }
+        this.classes = sizeClass(maxBufferSize) + (Integer.bitCount(maxBufferSize) == 1 ? 1 : 0);
+    }
+
+    @Override
+    public final byte[] acquire(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("minSize must be >= 0");
+        }
+        int sizeClass = sizeClass(Math.max(minSize, MIN_SIZE));
+        if (sizeClass >= classes) {
+            return new byte[minSize];
+        }
+        return acquire(sizeClass, MIN_SIZE << sizeClass);
+    }
+
+    @Override
+    public final void release(byte[] buffer) {
+        int length = buffer.length;
+        if (length < MIN_SIZE || Integer.bitCount(length) != 1) {
+            return;
+        }
+        int sizeClass = sizeClass(length);
+        if (sizeClass < classes) {
+            release(sizeClass, buffer);
+        }
+    }
+
+    /**
+     * @return a buffer of exactly {@code size} bytes
+     */
+    abstract byte[] acquire(int sizeClass, int size);
+
+    abstract void release(int sizeClass, byte[] buffer);
+
+    private static int sizeClass(int size) {
+        return Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT);
+    }
+}
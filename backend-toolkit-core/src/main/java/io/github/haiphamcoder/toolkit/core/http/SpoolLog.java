@@ -0,0 +1,313 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only record log over fixed-size memory-mapped segment files, with a
+ * checkpointed read offset. Backs {@link DeliverySpool}.
+ * <p>
+ * Positions are global: segment {@code i} covers
+ * {@code [i * segmentSize, (i + 1) * segmentSize)} and is stored as
+ * {@code <i>.seg}. A record is {@code [int length][int crc32c][payload]}; a
+ * length of -1, or too little room left for a header, ends a segment early.
+ * Appends write to the page cache only; {@link #sync()} forces everything
+ * appended since the previous sync in one go (group commit) and then persists
+ * the checkpoint. Segments entirely below the checkpoint are deleted.
+ * <p>
+ * On open the tail segment is scanned from its start and cut at the first
+ * record that is incomplete or fails its checksum, which is where a crash
+ * during an append leaves it. The segment size must stay the same across
+ * restarts of one directory.
+ */
+final class SpoolLog implements Closeable {
+
+    private static final int HEADER = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel checkpointChannel;
+    private final AtomicLong checkpoint;
+    private final Object syncLock = new Object();
+    private MappedByteBuffer tail;
+    private long tailIndex;
+    private volatile long writePosition;
+    private long syncedPosition;
+    private long syncedCheckpoint;
+
+    /**
+     * A record read back from the log.
+     */
+    static final class Entry {
+        final long position;
+        final long next;
+        final byte[] payload;
+
+        private Entry(long position, long next, byte[] payload) {
+            this.position = position;
+            this.next = next;
+            this.payload = payload;
+        }
+    }
+
+    private SpoolLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long stored = readCheckpoint();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    long index = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                    segments.put(index, map(file));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            tailIndex = Math.max(0, stored) / segmentSize;
+            tail = map(segmentFile(tailIndex));
+            segments.put(tailIndex, tail);
+        } else {
+            Map.Entry<Long, MappedByteBuffer> last = segments.lastEntry();
+            tailIndex = last.getKey();
+            tail = last.getValue();
+        }
+        this.writePosition = tailIndex * segmentSize + recoverTail();
+        long first = segments.firstKey() * (long) segmentSize;
+        // an unreadable checkpoint replays whatever is left, a stale one skips deleted segments
+        long start = stored < 0 ? first : Math.min(Math.max(stored, first), writePosition);
+        this.checkpoint = new AtomicLong(start);
+        this.syncedPosition = writePosition;
+        this.syncedCheckpoint = stored;
+    }
+
+    static SpoolLog open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 4 * HEADER) {
+            throw new IllegalArgumentException("segmentSize must be >= " + 4 * HEADER);
+        }
+        return new SpoolLog(directory, segmentSize);
+    }
+
+    /**
+     * @return largest payload a single record can hold
+     */
+    int maxPayload() {
+        return segmentSize - HEADER;
+    }
+
+    /**
+     * Append one record.
+     *
+     * @return position of the record
+     * @throws IOException if a new segment file cannot be created
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        if (payload.length > maxPayload()) {
+            throw new IllegalArgumentException("record of " + payload.length + " bytes exceeds " + maxPayload());
+        }
+        long position = writePosition;
+        int offset = (int) (position - tailIndex * segmentSize);
+        if (segmentSize - offset < HEADER + payload.length) {
+            if (segmentSize - offset >= 4) {
+                tail.putInt(offset, END_OF_SEGMENT);
+            }
+            MappedByteBuffer next = map(segmentFile(tailIndex + 1));
+            segments.put(tailIndex + 1, next);
+            tailIndex++;
+            tail = next;
+            offset = 0;
+            position = tailIndex * segmentSize;
+        }
+        tail.put(offset + HEADER, payload);
+        tail.putInt(offset + 4, checksum(payload));
+        tail.putInt(offset, payload.length);
+        // publishes the record to readers
+        writePosition = position + HEADER + payload.length;
+        return position;
+    }
+
+    /**
+     * Read the record at {@code position}, skipping to the next segment at an
+     * end marker.
+     *
+     * @return the record, or null if nothing has been appended there yet
+     */
+    Entry read(long position) {
+        while (position < writePosition) {
+            long index = position / segmentSize;
+            int offset = (int) (position - index * segmentSize);
+            MappedByteBuffer segment = segments.get(index);
+            if (segment == null) {
+                throw new IllegalStateException("segment " + index + " is gone");
+            }
+            int length = segmentSize - offset >= HEADER ? segment.getInt(offset) : END_OF_SEGMENT;
+            byte[] payload = length > 0 && length <= segmentSize - offset - HEADER ? new byte[length] : null;
+            if (payload != null) {
+                segment.get(offset + HEADER, payload);
+            }
+            if (payload == null || !matches(payload, segment.getInt(offset + 4))) {
+                // an end marker, or the torn end of a segment that was rolled over during a crash
+                position = (index + 1) * segmentSize;
+                continue;
+            }
+            return new Entry(position, position + HEADER + length, payload);
+        }
+        return null;
+    }
+
+    /**
+     * @return position after the last appended record
+     */
+    long writePosition() {
+        return writePosition;
+    }
+
+    /**
+     * @return position below which every record has been consumed
+     */
+    long checkpoint() {
+        return checkpoint.get();
+    }
+
+    /**
+     * Move the checkpoint forward; never moves it back. Persisted on the next
+     * {@link #sync()}.
+     */
+    void commit(long position) {
+        checkpoint.accumulateAndGet(position, Math::max);
+    }
+
+    /**
+     * Force appended records to disk, persist the checkpoint and delete
+     * consumed segments.
+     */
+    void sync() throws IOException {
+        synchronized (syncLock) {
+            long target = writePosition;
+            long from = syncedPosition;
+            for (long index = from / segmentSize; index <= (target - 1) / segmentSize && target > from; index++) {
+                MappedByteBuffer segment = segments.get(index);
+                if (segment != null) {
+                    int start = (int) Math.max(0, from - index * segmentSize);
+                    int end = (int) Math.min(segmentSize, target - index * segmentSize);
+                    segment.force(start, end - start);
+                }
+            }
+            syncedPosition = target;
+
+            long consumed = checkpoint.get();
+            if (consumed != syncedCheckpoint) {
+                writeCheckpoint(consumed);
+                syncedCheckpoint = consumed;
+                deleteConsumedSegments(consumed);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            checkpointChannel.close();
+        }
+    }
+
+    private void deleteConsumedSegments(long consumed) throws IOException {
+        Map.Entry<Long, MappedByteBuffer> first;
+        while ((first = segments.firstEntry()) != null && first.getKey() < tailIndexSnapshot()
+                && (first.getKey() + 1) * segmentSize <= consumed) {
+            // the mapping stays valid until collected; the file is gone from the directory at once
+            segments.remove(first.getKey());
+            Files.deleteIfExists(segmentFile(first.getKey()));
+        }
+    }
+
+    private synchronized long tailIndexSnapshot() {
+        return tailIndex;
+    }
+
+    private int recoverTail() {
+        int offset = 0;
+        while (segmentSize - offset >= HEADER) {
+            int length = tail.getInt(offset);
+            if (length == END_OF_SEGMENT) {
+                // the next segment was never created, so nothing follows
+                return offset;
+            }
+            if (length <= 0 || length > segmentSize - offset - HEADER) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            tail.get(offset + HEADER, payload);
+            if (!matches(payload, tail.getInt(offset + 4))) {
+                break;
+            }
+            offset += HEADER + length;
+        }
+        // clear a torn record so a later scan does not mistake it for data
+        for (int i = offset; i < Math.min(segmentSize, offset + HEADER); i++) {
+            tail.put(i, (byte) 0);
+        }
+        return offset;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static boolean matches(byte[] payload, int checksum) {
+        return checksum(payload) == checksum;
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        if (checkpointChannel.read(buffer, 0) < 12) {
+            return -1;
+        }
+        long value = buffer.getLong(0);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, 8);
+        return (int) crc.getValue() == buffer.getInt(8) ? value : -1;
+    }
+
+    private void writeCheckpoint(long value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(12).putLong(0, value);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, 8);
+        buffer.putInt(8, (int) crc.getValue());
+        checkpointChannel.write(buffer, 0);
+        checkpointChannel.force(false);
+    }
+
+    private Path segmentFile(long index) {
+        return directory.resolve(String.format("%020d%s", index, SUFFIX));
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+}
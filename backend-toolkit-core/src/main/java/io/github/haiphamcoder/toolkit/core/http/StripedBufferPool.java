@@ -0,0 +1,56 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link BufferPool} of fixed slots, grouped by stripe and size class. A thread
+ * only touches the slots of its own stripe, chosen from its ID, and claims or
+ * fills a slot with a single compare-and-set; when every slot is empty it
+ * allocates, and when every slot is full the released buffer is dropped.
+ */
+final class StripedBufferPool extends SizeClassedBufferPool {
+
+    private final AtomicReferenceArray<byte[]> slots;
+    private final int stripeMask;
+    private final int depth;
+
+    StripedBufferPool(int stripes, int buffersPerClass, int maxBufferSize) {
+        super(maxBufferSize);
+        if (stripes <= 0 || stripes > 1 << 16 || buffersPerClass <= 0) {
+            throw new IllegalArgumentException("stripes must be in 1..65536 and buffersPerClass > 0");
+        }
+        int stripeCount = Integer.highestOneBit(stripes * 2 - 1);
+        this.stripeMask = stripeCount - 1;
+        this.depth = buffersPerClass;
+        this.slots = new AtomicReferenceArray<>(stripeCount * classes * depth);
+    }
+
+    @Override
+    byte[] acquire(int sizeClass, int size) {
+        int base = base(sizeClass);
+        for (int i = base; i < base + depth; i++) {
+            byte[] buffer = slots.get(i);
+            if (buffer != null && slots.compareAndSet(i, buffer, null)) {
+                return buffer;
+            }
+        }
+        return new byte[size];
+    }
+
+    @Override
+    void release(int sizeClass, byte[] buffer) {
+        int base = base(sizeClass);
+        for (int i = base; i < base + depth; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private int base(int sizeClass) {
+        long id = Thread.currentThread().getId();
+        // spread sequential thread IDs over the stripes
+        int stripe = (int) (id * 0x9E3779B97F4A7C15L >>> 40) & stripeMask;
+        return (stripe * classes + sizeClass) * depth;
+    }
+}
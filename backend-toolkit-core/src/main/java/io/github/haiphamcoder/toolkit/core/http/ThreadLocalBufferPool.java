@@ -0,0 +1,35 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+/**
+ * {@link BufferPool} caching one buffer per size class in each thread. No
+ * synchronization at all, at the cost of memory held by every thread that ever
+ * made a call.
+ */
+final class ThreadLocalBufferPool extends SizeClassedBufferPool {
+
+    private final ThreadLocal<byte[][]> cache;
+
+    ThreadLocalBufferPool(int maxBufferSize) {
+        super(maxBufferSize);
+        this.cache = ThreadLocal.withInitial(() -> new byte[classes][]);
+    }
+
+    @Override
+    byte[] acquire(int sizeClass, int size) {
+        byte[][] buffers = cache.get();
+        byte[] buffer = buffers[sizeClass];
+        if (buffer == null) {
+            return new byte[size];
+        }
+        buffers[sizeClass] = null;
+        return buffer;
+    }
+
+    @Override
+    void release(int sizeClass, byte[] buffer) {
+        byte[][] buffers = cache.get();
+        if (buffers[sizeClass] == null) {
+            buffers[sizeClass] = buffer;
+        }
+    }
+}
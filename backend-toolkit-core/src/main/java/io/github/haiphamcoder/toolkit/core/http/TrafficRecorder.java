@@ -0,0 +1,267 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * Execution interceptor that writes every exchange of an {@link HttpCaller} to
+ * a compact binary file, for {@link TrafficRecording} to read back, e.g. to
+ * replay production traffic against a local stub.
+ * <p>
+ * Each record holds the start offset from the recorder's creation, the time
+ * until the response body was read, method, target host, request target,
+ * headers and bodies, and the response status. The response body passes
+ * through to the caller unchanged while up to {@code maxBodyBytes} of it are
+ * kept, so streams and large downloads still work; the record is written when
+ * the caller reaches the end of the body or closes it. Request bodies are
+ * recorded when their entity is repeatable, which covers the JSON and form
+ * helpers. Exchanges that fail without a response are not recorded.
+ *
+ * <pre>{@code
+ * try (TrafficRecorder recorder = new TrafficRecorder(Path.of("traffic.rec"), 64 * 1024);
+ *         HttpCaller caller = new HttpCaller.Builder().addExecInterceptor("recorder", recorder).build()) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class TrafficRecorder implements ExecChainHandler, Closeable {
+
+    static final int MAGIC = 0x48545243;
+    static final int VERSION = 1;
+
+    private final DataOutputStream out;
+    private final int maxBodyBytes;
+    private final long origin = System.nanoTime();
+    private volatile boolean closed;
+
+    /**
+     * Create a recorder keeping bodies up to 64 KiB.
+     *
+     * @param file recording file, replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    public TrafficRecorder(Path file) throws IOException {
+        this(file, 64 * 1024);
+    }
+
+    /**
+     * @param file         recording file, replaced if it exists
+     * @param maxBodyBytes request and response body bytes kept per exchange
+     * @throws IOException if the file cannot be created
+     */
+    public TrafficRecorder(Path file, int maxBodyBytes) throws IOException {
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("maxBodyBytes must be >= 0");
+        }
+        this.maxBodyBytes = maxBodyBytes;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+            throws IOException, HttpException {
+        long start = System.nanoTime();
+        byte[] requestBody = requestBody(request.getEntity());
+        ClassicHttpResponse response = chain.proceed(request, scope);
+        if (closed) {
+            return response;
+        }
+        HttpHost target = scope.route.getTargetHost();
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            write(start, request, target, requestBody, response, null, false);
+        } else {
+            response.setEntity(new HttpEntityWrapper(entity) {
+                // callers may ask again for the content, e.g. to consume what is left
+                private final AtomicBoolean wrapped = new AtomicBoolean();
+
+                @Override
+                public InputStream getContent() throws IOException {
+                    InputStream content = super.getContent();
+                    return wrapped.compareAndSet(false, true)
+                            ? new RecordingStream(content, start, request, target, requestBody, response)
+                            : content;
+                }
+
+                @Override
+                public void writeTo(OutputStream outStream) throws IOException {
+                    try (InputStream in = getContent()) {
+                        in.transferTo(outStream);
+                    }
+                }
+            });
+        }
+        return response;
+    }
+
+    /**
+     * Write buffered records to the file.
+     *
+     * @throws IOException on write errors
+     */
+    public void flush() throws IOException {
+        synchronized (out) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Stop recording and close the file. Calls still running are passed
+     * through unrecorded.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        synchronized (out) {
+            out.close();
+        }
+    }
+
+    /**
+     * Passes the body through to the caller, keeping up to
+     * {@code maxBodyBytes}, and writes the record at the end of the body or
+     * when it is closed early.
+     */
+    private final class RecordingStream extends FilterInputStream {
+        private final long start;
+        private final ClassicHttpRequest request;
+        private final HttpHost target;
+        private final byte[] requestBody;
+        private final ClassicHttpResponse response;
+        private final ByteArrayOutputStream kept = new ByteArrayOutputStream();
+        private boolean truncated;
+        private boolean recorded;
+
+        private RecordingStream(InputStream in, long start, ClassicHttpRequest request, HttpHost target,
+                byte[] requestBody, ClassicHttpResponse response) {
+            super(in);
+            this.start = start;
+            this.request = request;
+            this.target = target;
+            this.requestBody = requestBody;
+            this.response = response;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                record();
+            } else {
+                keep(new byte[] { (byte) b }, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read < 0) {
+                record();
+            } else {
+                keep(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                record();
+            }
+        }
+
+        private void keep(byte[] buffer, int offset, int length) {
+            int room = maxBodyBytes - kept.size();
+            if (length > room) {
+                truncated = true;
+            }
+            kept.write(buffer, offset, Math.min(room, length));
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                write(start, request, target, requestBody, response, kept.toByteArray(), truncated);
+            }
+        }
+    }
+
+    private byte[] requestBody(HttpEntity entity) throws IOException {
+        if (entity == null) {
+            return null;
+        }
+        if (!entity.isRepeatable() || entity.getContentLength() < 0 || entity.getContentLength() > maxBodyBytes) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) entity.getContentLength());
+        entity.writeTo(buffer);
+        return buffer.toByteArray();
+    }
+
+    private void write(long start, ClassicHttpRequest request, HttpHost target, byte[] requestBody,
+            ClassicHttpResponse response, byte[] responseBody, boolean truncated) {
+        long duration = System.nanoTime() - start;
+        synchronized (out) {
+            if (closed) {
+                return;
+            }
+            try {
+                out.writeLong(start - origin);
+                out.writeLong(duration);
+                out.writeUTF(request.getMethod());
+                out.writeUTF(target.toURI());
+                out.writeUTF(request.getRequestUri());
+                writeHeaders(request.getHeaders());
+                writeBody(requestBody);
+                out.writeShort(response.getCode());
+                writeHeaders(response.getHeaders());
+                writeBody(responseBody);
+                out.writeBoolean(truncated);
+            } catch (IOException e) {
+                // a broken recording must not fail the call; stop recording instead
+                closed = true;
+            }
+        }
+    }
+
+    private void writeHeaders(Header[] headers) throws IOException {
+        out.writeShort(headers.length);
+        for (Header header : headers) {
+            out.writeUTF(header.getName());
+            out.writeUTF(header.getValue() != null ? header.getValue() : "");
+        }
+    }
+
+    private void writeBody(byte[] body) throws IOException {
+        if (body == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(body.length);
+        out.write(body);
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+
+/**
+ * Exchanges read back from a file written by {@link TrafficRecorder}, ordered
+ * by start time.
+ * <p>
+ * A record cut short at the end of the file, e.g. by a crash while
+ * recording, is dropped.
+ */
+public final class TrafficRecording {
+
+    private final List<Exchange> exchanges;
+
+    private TrafficRecording(List<Exchange> exchanges) {
+        this.exchanges = Collections.unmodifiableList(exchanges);
+    }
+
+    /**
+     * Read a recording.
+     *
+     * @param file file written by {@link TrafficRecorder}
+     * @return recording
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public static TrafficRecording read(Path file) throws IOException {
+        List<Exchange> exchanges = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+                64 * 1024))) {
+            if (in.readInt() != TrafficRecorder.MAGIC) {
+                throw new IOException(file + " is not a traffic recording");
+            }
+            int version = in.readUnsignedShort();
+            if (version != TrafficRecorder.VERSION) {
+                throw new IOException("Unsupported traffic recording version " + version);
+            }
+            while (true) {
+                try {
+                    exchanges.add(readExchange(in));
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        // records are written when the response body ends, not when the call starts
+        exchanges.sort((a, b) -> Long.compare(a.startNanos, b.startNanos));
+        return new TrafficRecording(exchanges);
+    }
+
+    /**
+     * @return exchanges by start time
+     */
+    public List<Exchange> exchanges() {
+        return exchanges;
+    }
+
+    /**
+     * @return time from the first start to the last start
+     */
+    public Duration span() {
+        return exchanges.isEmpty() ? Duration.ZERO
+                : Duration.ofNanos(exchanges.get(exchanges.size() - 1).startNanos - exchanges.get(0).startNanos);
+    }
+
+    private static Exchange readExchange(DataInputStream in) throws IOException {
+        long start = in.readLong();
+        long duration = in.readLong();
+        String method = in.readUTF();
+        String host = in.readUTF();
+        String requestUri = in.readUTF();
+        List<Header> requestHeaders = readHeaders(in);
+        byte[] requestBody = readBody(in);
+        int status = in.readUnsignedShort();
+        List<Header> responseHeaders = readHeaders(in);
+        byte[] responseBody = readBody(in);
+        boolean truncated = in.readBoolean();
+        return new Exchange(start, duration, method, host, requestUri, requestHeaders, requestBody, status,
+                responseHeaders, responseBody, truncated);
+    }
+
+    private static List<Header> readHeaders(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<Header> headers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            headers.add(new BasicHeader(in.readUTF(), in.readUTF()));
+        }
+        return Collections.unmodifiableList(headers);
+    }
+
+    private static byte[] readBody(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return body;
+    }
+
+    /**
+     * One recorded request and response.
+     */
+    public static final class Exchange {
+        private final long startNanos;
+        private final long durationNanos;
+        private final String method;
+        private final String host;
+        private final String requestUri;
+        private final List<Header> requestHeaders;
+        private final byte[] requestBody;
+        private final int status;
+        private final List<Header> responseHeaders;
+        private final byte[] responseBody;
+        private final boolean truncated;
+
+        private Exchange(long startNanos, long durationNanos, String method, String host, String requestUri,
+                List<Header> requestHeaders, byte[] requestBody, int status, List<Header> responseHeaders,
+                byte[] responseBody, boolean truncated) {
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.method = method;
+            this.host = host;
+            this.requestUri = requestUri;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+            this.status = status;
+            this.responseHeaders = responseHeaders;
+            this.responseBody = responseBody;
+            this.truncated = truncated;
+        }
+
+        /**
+         * @return start offset from the beginning of the recording
+         */
+        public Duration start() {
+            return Duration.ofNanos(startNanos);
+        }
+
+        /**
+         * @return time from sending the request to the end of the response body
+         */
+        public Duration duration() {
+            return Duration.ofNanos(durationNanos);
+        }
+
+        public String method() {
+            return method;
+        }
+
+        /**
+         * @return target, e.g. "https://api.example.com:443"
+         */
+        public String host() {
+            return host;
+        }
+
+        /**
+         * @return path and query as sent
+         */
+        public String requestUri() {
+            return requestUri;
+        }
+
+        public List<Header> requestHeaders() {
+            return requestHeaders;
+        }
+
+        /**
+         * @return request body, empty if it was not repeatable or too large,
+         *         null without one
+         */
+        public byte[] requestBody() {
+            return requestBody;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public List<Header> responseHeaders() {
+            return responseHeaders;
+        }
+
+        /**
+         * @return response body, null without one
+         */
+        public byte[] responseBody() {
+            return responseBody;
+        }
+
+        /**
+         * @return true if the response body was longer than the recorder kept
+         */
+        public boolean truncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + host + requestUri + " -> " + status + " in " + durationNanos / 1_000_000.0 + "ms";
+        }
+    }
+}
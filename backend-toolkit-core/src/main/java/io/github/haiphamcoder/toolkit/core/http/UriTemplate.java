@@ -0,0 +1,218 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hc.core5.http.HttpHost;
+
+/**
+ * URI template with {@code {name}} placeholders, parsed once and expanded many
+ * times.
+ * <p>
+ * The scheme and authority are resolved to an {@link HttpHost} at compile time
+ * and the path/query is split into literal fragments and variable slots, so an
+ * expansion only appends strings and percent-encodes the variable values; no
+ * {@code URIBuilder} and no URI re-parsing happens per call. Placeholders may
+ * appear in the path and in the query, but not in the scheme or authority.
+ * <p>
+ * Values are positional, in order of first appearance of each name; a name used
+ * more than once refers to the same value. Values are UTF-8 percent-encoded
+ * except for RFC 3986 unreserved characters.
+ *
+ * <pre>{@code
+ * UriTemplate users = UriTemplate.compile("https://api.example.com/v1/users/{id}?fields={fields}");
+ * String target = users.expandPath("42", "name,email"); // "/v1/users/42?fields=name%2Cemail"
+ * }</pre>
+ */
+public final class UriTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String template;
+    private final HttpHost host;
+    private final String[] literals;
+    private final int[] slots;
+    private final List<String> variableNames;
+    private final int literalLength;
+
+    private UriTemplate(String template, HttpHost host, String[] literals, int[] slots, List<String> variableNames) {
+        this.template = template;
+        this.host = host;
+        this.literals = literals;
+        this.slots = slots;
+        this.variableNames = variableNames;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse a template such as {@code "https://host:8443/v1/users/{id}"}.
+     *
+     * @param template absolute URL template
+     * @return compiled template
+     * @throws IllegalArgumentException if the template is not an absolute http(s)
+     *                                  URL or has malformed placeholders
+     */
+    public static UriTemplate compile(String template) {
+        if (template == null || template.isBlank()) {
+            throw new IllegalArgumentException("template must not be blank");
+        }
+        int schemeEnd = template.indexOf("://");
+        if (schemeEnd <= 0) {
+            throw new IllegalArgumentException("template must be an absolute URL: " + template);
+        }
+        int pathStart = indexOfAny(template, "/?", schemeEnd + 3);
+        String origin = pathStart < 0 ? template : template.substring(0, pathStart);
+        if (origin.indexOf('{') >= 0) {
+            throw new IllegalArgumentException("placeholders are not allowed in scheme or authority: " + template);
+        }
+        HttpHost host;
+        try {
+            host = HttpHost.create(URI.create(origin));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid template origin: " + template, e);
+        }
+
+        String rest = pathStart < 0 ? "/" : template.substring(pathStart);
+        if (rest.charAt(0) == '?') {
+            rest = "/" + rest;
+        }
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = rest.indexOf('{', pos);
+            if (open < 0) {
+                literals.add(rest.substring(pos));
+                break;
+            }
+            int close = rest.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template: " + template);
+            }
+            String name = rest.substring(open + 1, close);
+            if (name.isEmpty() || name.indexOf('{') >= 0) {
+                throw new IllegalArgumentException("Invalid placeholder in template: " + template);
+            }
+            literals.add(rest.substring(pos, open));
+            int index = names.indexOf(name);
+            if (index < 0) {
+                index = names.size();
+                names.add(name);
+            }
+            slots.add(index);
+            pos = close + 1;
+        }
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new UriTemplate(template, host, literals.toArray(new String[0]), slotArray,
+                Collections.unmodifiableList(names));
+    }
+
+    /**
+     * Target host (scheme, name and port) of this template.
+     *
+     * @return target host
+     */
+    public HttpHost host() {
+        return host;
+    }
+
+    /**
+     * Placeholder names in positional order.
+     *
+     * @return variable names
+     */
+    public List<String> variableNames() {
+        return variableNames;
+    }
+
+    /**
+     * Expand the path and query part (the HTTP request target).
+     *
+     * @param values one value per variable name, in positional order
+     * @return encoded request target starting with '/'
+     * @throws IllegalArgumentException if the number of values does not match or a
+     *                                  value is null
+     */
+    public String expandPath(String... values) {
+        if (values.length != variableNames.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + variableNames.size() + " values but got " + values.length + " for " + template);
+        }
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            String value = values[slots[i]];
+            if (value == null) {
+                throw new IllegalArgumentException("Value for '" + variableNames.get(slots[i]) + "' is null");
+            }
+            appendEncoded(sb, value);
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    /**
+     * Expand into an absolute {@link URI}.
+     *
+     * @param values one value per variable name, in positional order
+     * @return expanded URI
+     */
+    public URI expand(String... values) {
+        return URI.create(host.toURI() + expandPath(values));
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    static void appendEncoded(StringBuilder sb, String value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length && isUnreserved(value.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            sb.append(value);
+            return;
+        }
+        sb.append(value, 0, i);
+        byte[] bytes = value.substring(i).getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            char c = (char) (b & 0xFF);
+            if (isUnreserved(c)) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static int indexOfAny(String s, String chars, int from) {
+        for (int i = from; i < s.length(); i++) {
+            if (chars.indexOf(s.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
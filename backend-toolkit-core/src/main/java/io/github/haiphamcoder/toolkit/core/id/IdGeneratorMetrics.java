@@ -0,0 +1,103 @@
+package io.github.haiphamcoder.toolkit.core.id;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of an ID generator: IDs generated, and the stalls that otherwise
+ * show up only as unexplained latency, i.e. waits for the next millisecond
+ * after a millisecond's sequence space ran out and waits for the clock to
+ * catch up after it moved backwards.
+ * <p>
+ * Generators record into an instance only when one is passed to them, e.g.
+ * {@link SnowflakeGenerator#SnowflakeGenerator(long, long, long, SnowflakeLease, IdGeneratorMetrics)};
+ * without one they skip recording entirely. Counters are {@link LongAdder}s,
+ * so several generators may share an instance.
+ */
+public final class IdGeneratorMetrics {
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder sequenceExhaustions = new LongAdder();
+    private final LongAdder clockRegressions = new LongAdder();
+    private final LongAdder sequenceWaitNanos = new LongAdder();
+    private final LongAdder clockWaitNanos = new LongAdder();
+    private final LongAccumulator maxClockRegressionMillis = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record one generated ID.
+     */
+    public void recordGenerated() {
+        generated.increment();
+    }
+
+    /**
+     * Record a wait for the next millisecond after the sequence ran out.
+     *
+     * @param waitNanos time spent waiting
+     */
+    public void recordSequenceExhaustion(long waitNanos) {
+        sequenceExhaustions.increment();
+        sequenceWaitNanos.add(waitNanos);
+    }
+
+    /**
+     * Record a wait for the clock after it moved backwards.
+     *
+     * @param backwardMillis how far the clock was behind the last timestamp
+     * @param waitNanos      time spent waiting
+     */
+    public void recordClockRegression(long backwardMillis, long waitNanos) {
+        clockRegressions.increment();
+        clockWaitNanos.add(waitNanos);
+        maxClockRegressionMillis.accumulate(backwardMillis);
+    }
+
+    /**
+     * @return IDs generated
+     */
+    public long generated() {
+        return generated.sum();
+    }
+
+    /**
+     * @return waits for the next millisecond after the sequence ran out
+     */
+    public long sequenceExhaustions() {
+        return sequenceExhaustions.sum();
+    }
+
+    /**
+     * @return waits for the clock after it moved backwards
+     */
+    public long clockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    /**
+     * @return time spent waiting after the sequence ran out, in nanoseconds
+     */
+    public long sequenceWaitNanos() {
+        return sequenceWaitNanos.sum();
+    }
+
+    /**
+     * @return time spent waiting for the clock, in nanoseconds
+     */
+    public long clockWaitNanos() {
+        return clockWaitNanos.sum();
+    }
+
+    /**
+     * @return total time spent in both kinds of wait, in nanoseconds
+     */
+    public long waitNanos() {
+        return sequenceWaitNanos() + clockWaitNanos();
+    }
+
+    /**
+     * @return largest backward clock jump seen, in milliseconds
+     */
+    public long maxClockRegressionMillis() {
+        return maxClockRegressionMillis.get();
+    }
+}
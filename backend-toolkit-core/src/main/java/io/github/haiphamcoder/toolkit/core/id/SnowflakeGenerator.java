@@ -1,5 +1,11 @@
 package io.github.haiphamcoder.toolkit.core.id;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
 /**
  * @author haiphamcoder
  * @since 1.0.0
@@ -10,24 +16,30 @@ package io.github.haiphamcoder.toolkit.core.id;
  */
 public final class SnowflakeGenerator implements IdGenerator {
 
-    private static final long DEFAULT_EPOCH_MILLIS = 1577836800000L; // 2020-01-01T00:00:00Z
-    private static final long WORKER_ID_BITS = 5L;
-    private static final long DATACENTER_ID_BITS = 5L;
-    private static final long SEQUENCE_BITS = 12L;
+    // layout shared with SnowflakeIds
+    static final long DEFAULT_EPOCH_MILLIS = 1577836800000L; // 2020-01-01T00:00:00Z
+    static final long WORKER_ID_BITS = 5L;
+    static final long DATACENTER_ID_BITS = 5L;
+    static final long SEQUENCE_BITS = 12L;
 
-    private static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS); // 31
-    private static final long MAX_DATACENTER_ID = ~(-1L << DATACENTER_ID_BITS); // 31
-    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS); // 4095
+    static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS); // 31
+    static final long MAX_DATACENTER_ID = ~(-1L << DATACENTER_ID_BITS); // 31
+    static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS); // 4095
 
-    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
-    private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
-    private static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS;
+    static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
+    static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+    static final long TIMESTAMP_LEFT_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS;
 
     private final long workerId;
     private final long datacenterId;
     private final long epochMillis;
+    private final SnowflakeLease lease;
+    private final IdGeneratorMetrics metrics;
+    private final LongSupplier clock;
 
     private long lastTimestamp = -1L;
+    // reservation of the lease to start past, -1 once the first ID is issued
+    private long resumeAfter = -1L;
     private long sequence = 0L;
 
     public SnowflakeGenerator() {
@@ -43,10 +55,50 @@ public final class SnowflakeGenerator implements IdGenerator {
      * 
      * @param datacenterId 0..31
      * @param workerId     0..31
-     * @param epochMillis  custom epoch in milliseconds (must be >= 0 and <= current
+     * @param epochMillis  custom epoch in milliseconds (must be >= 0 and &lt;= current
      *                     time)
      */
     public SnowflakeGenerator(long datacenterId, long workerId, long epochMillis) {
+        this(datacenterId, workerId, epochMillis, null);
+    }
+
+    /**
+     * Creates a generator whose high-water mark is persisted, so that it never
+     * reissues IDs handed out before a restart. The first ID waits until the
+     * clock passes the reservation left in the lease file. Closing the lease
+     * persists the last timestamp issued, so a restart after an orderly
+     * shutdown only waits if the clock went backwards.
+     *
+     * @param datacenterId 0..31
+     * @param workerId     0..31
+     * @param epochMillis  custom epoch in milliseconds (must be >= 0 and &lt;= current
+     *                     time)
+     * @param lease        persisted reservation of timestamps, used by this
+     *                     generator only (nullable)
+     */
+    public SnowflakeGenerator(long datacenterId, long workerId, long epochMillis, SnowflakeLease lease) {
+        this(datacenterId, workerId, epochMillis, lease, null);
+    }
+
+    /**
+     * Creates a generator that records its output and waits into
+     * {@code metrics}.
+     *
+     * @param datacenterId 0..31
+     * @param workerId     0..31
+     * @param epochMillis  custom epoch in milliseconds (must be >= 0 and &lt;= current
+     *                     time)
+     * @param lease        persisted reservation of timestamps, used by this
+     *                     generator only (nullable)
+     * @param metrics      counters to record into; null to skip recording
+     */
+    public SnowflakeGenerator(long datacenterId, long workerId, long epochMillis, SnowflakeLease lease,
+            IdGeneratorMetrics metrics) {
+        this(datacenterId, workerId, epochMillis, lease, metrics, System::currentTimeMillis);
+    }
+
+    SnowflakeGenerator(long datacenterId, long workerId, long epochMillis, SnowflakeLease lease,
+            IdGeneratorMetrics metrics, LongSupplier clock) {
         if (workerId < 0 || workerId > MAX_WORKER_ID) {
             throw new IllegalArgumentException("workerId out of range: " + workerId);
         }
@@ -56,6 +108,7 @@ public final class SnowflakeGenerator implements IdGenerator {
         if (epochMillis < 0) {
             throw new IllegalArgumentException("epochMillis must be >= 0");
         }
+        this.clock = clock;
         long now = currentTime();
         if (epochMillis > now) {
             throw new IllegalArgumentException("epochMillis must be <= current time");
@@ -63,6 +116,12 @@ public final class SnowflakeGenerator implements IdGenerator {
         this.workerId = workerId;
         this.datacenterId = datacenterId;
         this.epochMillis = epochMillis;
+        this.lease = lease;
+        this.metrics = metrics;
+        if (lease != null) {
+            this.resumeAfter = lease.resumeAfter();
+            lease.attach(this);
+        }
     }
 
     @Override
@@ -80,21 +139,51 @@ public final class SnowflakeGenerator implements IdGenerator {
     public synchronized long nextId() {
         long timestamp = currentTime();
 
+        if (resumeAfter >= 0) {
+            // IDs up to the reservation may have been issued before the restart: start past it. This wait is
+            // expected after every quick restart, so unlike a clock regression it is not recorded
+            if (timestamp <= resumeAfter) {
+                timestamp = sleepUntil(resumeAfter + 1);
+            }
+            resumeAfter = -1L;
+        }
+
         if (timestamp < lastTimestamp) {
             // Clock moved backwards: block until we catch up to the last seen timestamp
+            long behind = lastTimestamp - timestamp;
+            long waitStart = System.nanoTime();
             timestamp = waitUntil(lastTimestamp);
+            if (metrics != null) {
+                metrics.recordClockRegression(behind, System.nanoTime() - waitStart);
+            }
         }
 
         if (timestamp == lastTimestamp) {
             sequence = (sequence + 1) & SEQUENCE_MASK;
             if (sequence == 0) {
+                long waitStart = System.nanoTime();
                 timestamp = waitNextMillis(lastTimestamp);
+                if (metrics != null) {
+                    metrics.recordSequenceExhaustion(System.nanoTime() - waitStart);
+                }
             }
         } else {
             sequence = 0L;
         }
 
+        if (lease != null && timestamp > lease.reservedUntil()) {
+            // the renewal fell behind
+            try {
+                lease.extend(timestamp);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot extend the Snowflake lease", e);
+            }
+        }
+
         lastTimestamp = timestamp;
+        if (metrics != null) {
+            metrics.recordGenerated();
+        }
 
         return ((timestamp - epochMillis) << TIMESTAMP_LEFT_SHIFT)
                 | (datacenterId << DATACENTER_ID_SHIFT)
@@ -102,6 +191,38 @@ public final class SnowflakeGenerator implements IdGenerator {
                 | sequence;
     }
 
+    /**
+     * Persist the last timestamp issued as the lease's final reservation. Called
+     * by {@link SnowflakeLease#close()}; IDs are issued under the same lock, so
+     * none can be issued past the persisted timestamp afterwards.
+     */
+    synchronized void releaseLease() throws IOException {
+        // nothing issued since the restart: the previous reservation still covers every ID
+        lease.release(Math.max(lastTimestamp, resumeAfter));
+    }
+
+    public long workerId() {
+        return workerId;
+    }
+
+    public long datacenterId() {
+        return datacenterId;
+    }
+
+    /**
+     * @return counters this generator records into, or null
+     */
+    public IdGeneratorMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return epoch of the timestamp field, for {@link SnowflakeIds}
+     */
+    public long epochMillis() {
+        return epochMillis;
+    }
+
     private long waitNextMillis(long lastTs) {
         long ts = currentTime();
         while (ts <= lastTs) {
@@ -110,11 +231,24 @@ public final class SnowflakeGenerator implements IdGenerator {
         return ts;
     }
 
-    private static long currentTime() {
-        return System.currentTimeMillis();
+    private long currentTime() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Sleep rather than spin: the wait past a lease reservation can last
+     * longer than a lease.
+     */
+    private long sleepUntil(long targetTs) {
+        long ts = currentTime();
+        while (ts < targetTs) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(targetTs - ts));
+            ts = currentTime();
+        }
+        return ts;
     }
 
-    private static long waitUntil(long targetTs) {
+    private long waitUntil(long targetTs) {
         long ts;
         do {
             ts = currentTime();
@@ -0,0 +1,211 @@
+package io.github.haiphamcoder.toolkit.core.id;
+
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.DATACENTER_ID_SHIFT;
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.DEFAULT_EPOCH_MILLIS;
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.MAX_DATACENTER_ID;
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.MAX_WORKER_ID;
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.SEQUENCE_MASK;
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.TIMESTAMP_LEFT_SHIFT;
+import static io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator.WORKER_ID_SHIFT;
+
+import java.time.Instant;
+
+/**
+ * Static helpers over the bit layout of {@link SnowflakeGenerator} IDs, so
+ * that callers do not repeat the shifts and masks: ID bounds of a time range
+ * for index range scans and partition pruning, field extraction, and shard
+ * routing.
+ * <p>
+ * Methods without an epoch argument assume the default epoch of
+ * {@link SnowflakeGenerator}; pass {@link SnowflakeGenerator#epochMillis()}
+ * for generators created with a custom one. Every method works on primitives
+ * and allocates nothing. The {@code long[]} variants are plain counted loops
+ * over the arrays; the field extractions in them are simple enough for the JIT
+ * to vectorize.
+ *
+ * <pre>
+ * // all IDs generated in [from, to)
+ * WHERE id &gt;= SnowflakeIds.minId(from) AND id &lt; SnowflakeIds.minId(to)
+ * </pre>
+ *
+ * @see SnowflakeGenerator
+ */
+public final class SnowflakeIds {
+
+    // largest timestamp offset that keeps IDs positive
+    private static final long MAX_TIMESTAMP = -1L >>> (TIMESTAMP_LEFT_SHIFT + 1);
+    private static final long NON_TIMESTAMP_BITS = (1L << TIMESTAMP_LEFT_SHIFT) - 1;
+
+    private SnowflakeIds() {
+    }
+
+    /**
+     * @param time instant, truncated to milliseconds
+     * @return smallest ID a default-epoch generator can produce at {@code time}
+     * @throws IllegalArgumentException if {@code time} is outside the ID range
+     */
+    public static long minId(Instant time) {
+        return minId(time, DEFAULT_EPOCH_MILLIS);
+    }
+
+    /**
+     * @param time        instant, truncated to milliseconds
+     * @param epochMillis epoch of the generator
+     * @return smallest ID the generator can produce at {@code time}
+     * @throws IllegalArgumentException if {@code time} is outside the ID range
+     */
+    public static long minId(Instant time, long epochMillis) {
+        return timestampOffset(time, epochMillis) << TIMESTAMP_LEFT_SHIFT;
+    }
+
+    /**
+     * @param time instant, truncated to milliseconds
+     * @return largest ID a default-epoch generator can produce at {@code time}
+     * @throws IllegalArgumentException if {@code time} is outside the ID range
+     */
+    public static long maxId(Instant time) {
+        return maxId(time, DEFAULT_EPOCH_MILLIS);
+    }
+
+    /**
+     * @param time        instant, truncated to milliseconds
+     * @param epochMillis epoch of the generator
+     * @return largest ID the generator can produce at {@code time}
+     * @throws IllegalArgumentException if {@code time} is outside the ID range
+     */
+    public static long maxId(Instant time, long epochMillis) {
+        return minId(time, epochMillis) | NON_TIMESTAMP_BITS;
+    }
+
+    /**
+     * @param id ID of a default-epoch generator
+     * @return generation time in epoch milliseconds
+     */
+    public static long timestampMillis(long id) {
+        return timestampMillis(id, DEFAULT_EPOCH_MILLIS);
+    }
+
+    /**
+     * @param id          ID
+     * @param epochMillis epoch of the generator
+     * @return generation time in epoch milliseconds
+     */
+    public static long timestampMillis(long id, long epochMillis) {
+        return (id >>> TIMESTAMP_LEFT_SHIFT) + epochMillis;
+    }
+
+    /**
+     * Bulk {@link #timestampMillis(long, long)}.
+     *
+     * @param ids         IDs
+     * @param epochMillis epoch of the generator
+     * @param out         receives the timestamp of {@code ids[i]} at index
+     *                    {@code i}; at least as long as {@code ids}
+     */
+    public static void timestampMillis(long[] ids, long epochMillis, long[] out) {
+        checkLength(ids.length, out.length);
+        for (int i = 0; i < ids.length; i++) {
+            out[i] = (ids[i] >>> TIMESTAMP_LEFT_SHIFT) + epochMillis;
+        }
+    }
+
+    /**
+     * @param id ID
+     * @return datacenter field, 0..31
+     */
+    public static int datacenterId(long id) {
+        return (int) ((id >>> DATACENTER_ID_SHIFT) & MAX_DATACENTER_ID);
+    }
+
+    /**
+     * @param id ID
+     * @return worker field, 0..31
+     */
+    public static int workerId(long id) {
+        return (int) ((id >>> WORKER_ID_SHIFT) & MAX_WORKER_ID);
+    }
+
+    /**
+     * @param id ID
+     * @return sequence within the millisecond, 0..4095
+     */
+    public static int sequence(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+
+    /**
+     * Route an ID to one of {@code shards} shards with jump consistent hashing
+     * (Lamping and Veach): when the shard count grows from {@code n} to
+     * {@code n + 1}, only about {@code 1 / (n + 1)} of the IDs move, all of
+     * them to the new shard. Shards are numbered, so removing one other than
+     * the last is not supported.
+     *
+     * @param id     ID, or any other long key
+     * @param shards shard count, &gt; 0
+     * @return shard in {@code [0, shards)}
+     */
+    public static int shard(long id, int shards) {
+        checkShards(shards);
+        return jumpHash(mix(id), shards);
+    }
+
+    /**
+     * Bulk {@link #shard(long, int)}, e.g. to group a batch of IDs by shard.
+     *
+     * @param ids    IDs
+     * @param shards shard count, &gt; 0
+     * @param out    receives the shard of {@code ids[i]} at index {@code i};
+     *               at least as long as {@code ids}
+     */
+    public static void shards(long[] ids, int shards, int[] out) {
+        checkShards(shards);
+        checkLength(ids.length, out.length);
+        for (int i = 0; i < ids.length; i++) {
+            out[i] = jumpHash(mix(ids[i]), shards);
+        }
+    }
+
+    private static long timestampOffset(Instant time, long epochMillis) {
+        long offset;
+        try {
+            offset = time.toEpochMilli() - epochMillis;
+        } catch (ArithmeticException e) {
+            offset = -1;
+        }
+        if (offset < 0 || offset > MAX_TIMESTAMP) {
+            throw new IllegalArgumentException(time + " is outside the ID range of epoch " + epochMillis);
+        }
+        return offset;
+    }
+
+    // IDs of one millisecond differ only in their low bits; spread them over
+    // the whole key first (murmur3 finalizer)
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    private static void checkShards(int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be > 0");
+        }
+    }
+
+    private static void checkLength(int ids, int out) {
+        if (out < ids) {
+            throw new IllegalArgumentException("out has " + out + " elements for " + ids + " IDs");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.haiphamcoder.toolkit.core.id;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Persisted high-water mark for a {@link SnowflakeGenerator}, so that a
+ * restarted node never reissues IDs even if its clock stepped backwards in
+ * between.
+ * <p>
+ * The lease reserves timestamps ahead of time: a background thread persists
+ * {@code now + 1.5 * lease} to a small memory-mapped file whenever less than
+ * half a lease is left, and the generator only issues IDs with timestamps up
+ * to the persisted reservation, so its hot path reads a volatile field and
+ * never touches the disk. Only if the renewal falls behind does the generator
+ * extend the reservation itself. After a restart the generator resumes after
+ * the reservation found in the file: a process that comes back within one and
+ * a half leases of a crash waits out the rest, as does one whose clock stepped
+ * backwards; any other restart starts at once. Closing the lease ends the
+ * reservation at the last timestamp its generator issued, so a rolling restart
+ * does not wait at all.
+ * <p>
+ * The file holds two slots of {@code [long timestamp][int crc32c]} written
+ * alternately, so a write torn by a crash leaves the previous reservation
+ * readable. Use one file per generator.
+ *
+ * <pre>
+ * SnowflakeLease lease = SnowflakeLease.open(Paths.get("/var/lib/app/snowflake.lease"), Duration.ofSeconds(2));
+ * SnowflakeGenerator generator = new SnowflakeGenerator(datacenterId, workerId, epochMillis, lease);
+ * </pre>
+ *
+ * @see SnowflakeGenerator#SnowflakeGenerator(long, long, long, SnowflakeLease)
+ */
+public final class SnowflakeLease implements Closeable {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int FILE_SIZE = 2 * SLOT_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long leaseMillis;
+    private final long resumeAfter;
+    private final ScheduledExecutorService renewer;
+    private volatile long reservedUntil;
+    private int nextSlot;
+    private boolean closed;
+    private SnowflakeGenerator generator;
+
+    private SnowflakeLease(Path file, long leaseMillis) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.leaseMillis = leaseMillis;
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            long first = readSlot(0);
+            long second = readSlot(1);
+            this.resumeAfter = Math.max(first, second);
+            this.reservedUntil = resumeAfter;
+            // overwrite the older slot first
+            this.nextSlot = first <= second ? 0 : 1;
+            extend(System.currentTimeMillis());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snowflake-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, leaseMillis / 4);
+        renewer.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open or create a lease file.
+     *
+     * @param file  lease file, created if missing
+     * @param lease how far ahead timestamps are reserved; checked every
+     *              quarter of it
+     * @return the lease, with its first reservation persisted
+     * @throws IOException if the file cannot be opened or written
+     */
+    public static SnowflakeLease open(Path file, Duration lease) throws IOException {
+        if (lease.toMillis() < 1) {
+            throw new IllegalArgumentException("lease must be >= 1ms");
+        }
+        return new SnowflakeLease(file, lease.toMillis());
+    }
+
+    /**
+     * @return reservation found in the file when it was opened, in epoch
+     *         milliseconds; -1 for a new file
+     */
+    public long resumeAfter() {
+        return resumeAfter;
+    }
+
+    /**
+     * @return largest timestamp, in epoch milliseconds, that is persisted as
+     *         reserved
+     */
+    public long reservedUntil() {
+        return reservedUntil;
+    }
+
+    /**
+     * Persist a reservation covering {@code timestamp}, unless one already
+     * does.
+     *
+     * @param timestamp timestamp to cover, in epoch milliseconds
+     * @return the reservation, &gt;= {@code timestamp}
+     * @throws IOException           if the reservation cannot be written
+     * @throws IllegalStateException if the lease is closed
+     */
+    synchronized long extend(long timestamp) throws IOException {
+        if (timestamp <= reservedUntil) {
+            return reservedUntil;
+        }
+        if (closed) {
+            throw new IllegalStateException("SnowflakeLease is closed");
+        }
+        long until = timestamp + leaseMillis;
+        writeSlot(until);
+        reservedUntil = until;
+        return until;
+    }
+
+    /**
+     * Bind the generator whose last timestamp {@link #close()} persists.
+     */
+    synchronized void attach(SnowflakeGenerator owner) {
+        if (generator != null && generator != owner) {
+            throw new IllegalArgumentException("SnowflakeLease is already used by another generator");
+        }
+        generator = owner;
+    }
+
+    /**
+     * Replace the reservation with {@code timestamp}, the last one issued, and
+     * stop extending it.
+     *
+     * @param timestamp last timestamp issued, in epoch milliseconds; -1 if none
+     * @throws IOException if the reservation cannot be written
+     */
+    synchronized void release(long timestamp) throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // both slots, older first: a crash in between still leaves the higher reservation readable
+        long value = Math.max(timestamp, 0);
+        writeSlot(value);
+        writeSlot(value);
+        reservedUntil = value;
+    }
+
+    /**
+     * Stop renewing. With a generator attached, the reservation is cut back to
+     * the last timestamp it issued, which a restart resumes after, and the
+     * generator can no longer issue IDs past it. Without one, IDs can still be
+     * issued up to {@link #reservedUntil()}.
+     */
+    @Override
+    public void close() throws IOException {
+        renewer.shutdownNow();
+        SnowflakeGenerator owner;
+        synchronized (this) {
+            owner = generator;
+        }
+        try {
+            if (owner != null) {
+                // through the generator, which takes its own lock before this one, as nextId() does
+                owner.releaseLease();
+            }
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            channel.close();
+        }
+    }
+
+    private void writeSlot(long value) throws IOException {
+        int offset = nextSlot * SLOT_SIZE;
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, value));
+        buffer.putLong(offset, value);
+        buffer.putInt(offset + 8, (int) crc.getValue());
+        try {
+            buffer.force(offset, SLOT_SIZE);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        nextSlot ^= 1;
+    }
+
+    private void renew() {
+        try {
+            extend(System.currentTimeMillis() + leaseMillis / 2);
+        } catch (IOException | IllegalStateException e) {
+            // retried on the next period; the generator extends itself if needed
+        }
+    }
+
+    private long readSlot(int slot) {
+        int offset = slot * SLOT_SIZE;
+        long value = buffer.getLong(offset);
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(0, value));
+        return value != 0 && (int) crc.getValue() == buffer.getInt(offset + 8) ? value : -1;
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class BatchExecutorTest {
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void setUpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(32));
+        // echoes the last path segment after a small random delay so completions interleave
+        server.createContext("/items", exchange -> {
+            int current = IN_FLIGHT.incrementAndGet();
+            MAX_IN_FLIGHT.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+                String path = exchange.getRequestURI().getPath();
+                String id = path.substring(path.lastIndexOf('/') + 1);
+                respond(exchange, id.startsWith("bad") ? 500 : 200, id + ":" + exchange.getRequestHeaders().getFirst("X-Job"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDownServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void forEachOrdered_shouldDeliverInInputOrderWithBoundedConcurrency() throws Exception {
+        UriTemplate template = UriTemplate.compile(baseUrl + "/items/{id}");
+        HeaderSet headers = HeaderSet.of(Map.of("X-Job", "sync"));
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        MAX_IN_FLIGHT.set(0);
+
+        HttpCaller caller = new HttpCaller.Builder().build();
+        try (BatchExecutor executor = new BatchExecutor(caller, 4)) {
+            BatchExecutor.Summary summary = executor.forEachOrdered(
+                    IntStream.range(0, 200).mapToObj(i -> RequestSpec.get(template, headers, String.valueOf(i))),
+                    BodyDecoder.ofString(), new Collecting(results));
+
+            assertEquals(200, summary.submitted());
+            assertEquals(200, summary.succeeded());
+            assertEquals(0, summary.failed());
+        }
+        caller.close();
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i + ":" + i + ":sync", results.get(i));
+        }
+        assertTrue(MAX_IN_FLIGHT.get() <= 4, "in flight exceeded concurrency: " + MAX_IN_FLIGHT.get());
+    }
+
+    @Test
+    void forEachCompleted_shouldReportFailuresSeparately() throws Exception {
+        UriTemplate template = UriTemplate.compile(baseUrl + "/items/{id}");
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+
+        HttpCaller caller = new HttpCaller.Builder().build();
+        try (BatchExecutor executor = new BatchExecutor(caller, 8)) {
+            BatchExecutor.Summary summary = executor.forEachCompleted(
+                    IntStream.range(0, 50).mapToObj(i -> RequestSpec.get(template, HeaderSet.empty(),
+                            i % 10 == 0 ? "bad" + i : String.valueOf(i))),
+                    BodyDecoder.ofString(), new Collecting(results));
+
+            assertEquals(50, summary.submitted());
+            assertEquals(45, summary.succeeded());
+            assertEquals(5, summary.failed());
+        }
+        caller.close();
+
+        assertEquals(50, results.size());
+        assertEquals(5, results.stream().filter(r -> r.contains("failed")).count());
+    }
+
+    @Test
+    void forEachOrdered_shouldReportErrorsFromTheDecoderAsFailures() throws Exception {
+        UriTemplate template = UriTemplate.compile(baseUrl + "/items/{id}");
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        BodyDecoder<String> decoder = (body, charset) -> {
+            String value = new String(body.readAllBytes(), charset);
+            if (value.startsWith("error")) {
+                throw new AssertionError("decoder broke");
+            }
+            return value;
+        };
+
+        HttpCaller caller = new HttpCaller.Builder().build();
+        try (BatchExecutor executor = new BatchExecutor(caller, 4)) {
+            BatchExecutor.Summary summary = assertTimeoutPreemptively(Duration.ofSeconds(30),
+                    () -> executor.forEachOrdered(
+                            IntStream.range(0, 50).mapToObj(i -> RequestSpec.get(template, HeaderSet.empty(),
+                                    i % 10 == 0 ? "error" + i : String.valueOf(i))),
+                            decoder, new Collecting(results)));
+
+            assertEquals(50, summary.submitted());
+            assertEquals(45, summary.succeeded());
+            assertEquals(5, summary.failed());
+        }
+        caller.close();
+
+        assertEquals(50, results.size());
+        assertEquals("0:failed:decoder broke", results.get(0));
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, data.length);
+        exchange.getResponseBody().write(data);
+        exchange.close();
+    }
+
+    private static final class Collecting implements BatchListener<String> {
+        private final List<String> results;
+
+        private Collecting(List<String> results) {
+            this.results = results;
+        }
+
+        @Override
+        public void onSuccess(long index, RequestSpec spec, String result) {
+            results.add(index + ":" + result);
+        }
+
+        @Override
+        public void onFailure(long index, RequestSpec spec, HttpCaller.APIException error) {
+            results.add(index + ":failed:" + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class BufferPoolTest {
+
+    @Test
+    void roundsUpToSizeClassesAndReusesReleasedBuffers() {
+        for (BufferPool pool : List.of(BufferPool.striped(1, 1, 64 * 1024), BufferPool.threadLocal(64 * 1024))) {
+            byte[] small = pool.acquire(10);
+            assertEquals(4096, small.length);
+            byte[] medium = pool.acquire(5000);
+            assertEquals(8192, medium.length);
+            assertEquals(65536, pool.acquire(65536).length);
+
+            pool.release(small);
+            pool.release(medium);
+            assertSame(small, pool.acquire(4096));
+            assertSame(medium, pool.acquire(6000));
+            // the slot was emptied by the previous acquire
+            assertNotSame(medium, pool.acquire(8192));
+        }
+    }
+
+    @Test
+    void allocatesExactlyAboveTheLargestClassAndDropsForeignBuffers() {
+        BufferPool pool = BufferPool.striped(1, 1, 100_000);
+        byte[] large = pool.acquire(70_000);
+        assertEquals(70_000, large.length);
+        pool.release(large);
+        pool.release(new byte[12_345]);
+        assertEquals(4096, pool.acquire(1).length);
+
+        assertEquals(7, BufferPool.unpooled().acquire(7).length);
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.striped(0, 1, 8192));
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.threadLocal(1024));
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire(-1));
+    }
+
+    @Test
+    void stripedPoolNeverHandsOutTheSameBufferTwice() throws Exception {
+        BufferPool pool = BufferPool.striped(2, 4, 8192);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                byte marker = (byte) t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        byte[] buffer = pool.acquire(8192);
+                        buffer[0] = marker;
+                        Thread.onSpinWait();
+                        if (buffer[0] != marker) {
+                            throw new AssertionError("buffer shared between threads");
+                        }
+                        pool.release(buffer);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Set<byte[]> held = new HashSet<>();
+        for (int i = 0; i < 16; i++) {
+            held.add(pool.acquire(8192));
+        }
+        assertEquals(16, held.size());
+    }
+}
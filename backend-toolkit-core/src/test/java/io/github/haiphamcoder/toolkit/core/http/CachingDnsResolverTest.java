@@ -0,0 +1,172 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.junit.jupiter.api.Test;
+
+class CachingDnsResolverTest {
+
+    private static final InetAddress A = address(10, 0, 0, 1);
+    private static final InetAddress B = address(10, 0, 0, 2);
+    private static final InetAddress C = address(10, 0, 0, 3);
+
+    @Test
+    void resolve_shouldCacheWithinTtl() throws Exception {
+        CountingResolver delegate = new CountingResolver(A, B);
+        AtomicLong now = new AtomicLong();
+        try (CachingDnsResolver resolver = new CachingDnsResolver.Builder()
+                .delegate(delegate)
+                .ttl(Duration.ofSeconds(10))
+                .backgroundRefresh(false)
+                .clock(now::get)
+                .build()) {
+            resolver.resolve("svc");
+            now.addAndGet(Duration.ofSeconds(9).toNanos());
+            resolver.resolve("svc");
+            assertEquals(1, delegate.calls.get());
+
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+            resolver.resolve("svc");
+            assertEquals(2, delegate.calls.get());
+        }
+    }
+
+    @Test
+    void resolve_shouldRotateAcrossAllAddresses() throws Exception {
+        try (CachingDnsResolver resolver = new CachingDnsResolver.Builder()
+                .delegate(new CountingResolver(A, B, C))
+                .backgroundRefresh(false)
+                .build()) {
+            assertArrayEquals(new InetAddress[] { A, B, C }, resolver.resolve("svc"));
+            assertArrayEquals(new InetAddress[] { B, C, A }, resolver.resolve("svc"));
+            assertArrayEquals(new InetAddress[] { C, A, B }, resolver.resolve("svc"));
+            assertArrayEquals(new InetAddress[] { A, B, C }, resolver.resolve("svc"));
+        }
+    }
+
+    @Test
+    void resolve_shouldServeStaleEntryWhenLookupFails() throws Exception {
+        CountingResolver delegate = new CountingResolver(A);
+        AtomicLong now = new AtomicLong();
+        try (CachingDnsResolver resolver = new CachingDnsResolver.Builder()
+                .delegate(delegate)
+                .ttl(Duration.ofSeconds(1))
+                .backgroundRefresh(false)
+                .clock(now::get)
+                .build()) {
+            resolver.resolve("svc");
+            delegate.failing = true;
+            now.addAndGet(Duration.ofSeconds(5).toNanos());
+            assertArrayEquals(new InetAddress[] { A }, resolver.resolve("svc"));
+            assertThrows(UnknownHostException.class, () -> resolver.resolve("other"));
+        }
+    }
+
+    @Test
+    void resolve_shouldRetryFailedLookupOncePerErrorRetry() throws Exception {
+        CountingResolver delegate = new CountingResolver(A);
+        AtomicLong now = new AtomicLong();
+        try (CachingDnsResolver resolver = new CachingDnsResolver.Builder()
+                .delegate(delegate)
+                .ttl(Duration.ofSeconds(30))
+                .errorRetry(Duration.ofSeconds(5))
+                .backgroundRefresh(false)
+                .clock(now::get)
+                .build()) {
+            resolver.resolve("svc");
+            delegate.failing = true;
+            now.addAndGet(Duration.ofSeconds(30).toNanos());
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(new InetAddress[] { A }, resolver.resolve("svc"));
+            }
+            assertEquals(2, delegate.calls.get());
+
+            now.addAndGet(Duration.ofSeconds(5).toNanos());
+            resolver.resolve("svc");
+            assertEquals(3, delegate.calls.get());
+
+            delegate.failing = false;
+            delegate.addresses = new InetAddress[] { B };
+            now.addAndGet(Duration.ofSeconds(5).toNanos());
+            assertArrayEquals(new InetAddress[] { B }, resolver.resolve("svc"));
+            assertEquals(4, delegate.calls.get());
+        }
+    }
+
+    @Test
+    void backgroundRefresh_shouldPickUpNewAddresses() throws Exception {
+        CountingResolver delegate = new CountingResolver(A);
+        try (CachingDnsResolver resolver = new CachingDnsResolver.Builder()
+                .delegate(delegate)
+                .ttl(Duration.ofMillis(100))
+                .build()) {
+            resolver.resolve("svc");
+            delegate.addresses = new InetAddress[] { B };
+            await().atMost(Duration.ofSeconds(2)).until(() -> delegate.calls.get() >= 2);
+            assertArrayEquals(new InetAddress[] { B }, resolver.resolve("svc"));
+        }
+    }
+
+    @Test
+    void httpCaller_shouldConnectThroughCustomResolver() throws Exception {
+        try (CachingDnsResolver resolver = new CachingDnsResolver.Builder()
+                .delegate(new CountingResolver(InetAddress.getLoopbackAddress()))
+                .backgroundRefresh(false)
+                .build()) {
+            HttpCaller caller = new HttpCaller.Builder()
+                    .dnsResolver(resolver)
+                    .connectionTimeoutMs(Duration.ofMillis(200))
+                    .build();
+            // "unresolvable.invalid" only resolves through the custom resolver; port 1 refuses the connection
+            HttpCaller.APIException e = assertThrows(HttpCaller.APIException.class,
+                    () -> caller.get("http://unresolvable.invalid:1/", Collections.emptyMap(),
+                            Collections.emptyMap()));
+            assertFalse(e.getCause() instanceof UnknownHostException);
+            caller.close();
+        }
+    }
+
+    private static InetAddress address(int a, int b, int c, int d) {
+        try {
+            return InetAddress.getByAddress(new byte[] { (byte) a, (byte) b, (byte) c, (byte) d });
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CountingResolver implements DnsResolver {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile InetAddress[] addresses;
+        private volatile boolean failing;
+
+        private CountingResolver(InetAddress... addresses) {
+            this.addresses = addresses;
+        }
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            calls.incrementAndGet();
+            if (failing) {
+                throw new UnknownHostException(host);
+            }
+            return addresses;
+        }
+
+        @Override
+        public String resolveCanonicalHostname(String host) {
+            return host;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class ChunkedUploaderTest {
+
+    private static final int PART_SIZE = 128 * 1024;
+
+    // stub of the REST protocol: parts are kept per upload and assembled on completion
+    private static final Map<String, Map<Integer, byte[]>> UPLOADS = new ConcurrentHashMap<>();
+    private static final AtomicInteger STARTS = new AtomicInteger();
+    private static final AtomicInteger PART_REQUESTS = new AtomicInteger();
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+    // parts failing once, and parts failing until removed
+    private static final Set<Integer> FAIL_ONCE = ConcurrentHashMap.newKeySet();
+    private static final Set<Integer> FAIL_ALWAYS = ConcurrentHashMap.newKeySet();
+
+    private static HttpServer server;
+    private static HttpCaller caller;
+    private static ChunkedUploader uploader;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/uploads", ChunkedUploaderTest::handle);
+        server.start();
+        // retries come from the uploader only
+        caller = new HttpCaller.Builder().pool(8, 8).enableAutoRetry(false).build();
+        uploader = new ChunkedUploader.Builder()
+                .caller(caller)
+                .protocol(ChunkedUploader.Protocol.rest(
+                        "http://127.0.0.1:" + server.getAddress().getPort() + "/uploads"))
+                .partSize(PART_SIZE)
+                .concurrency(4)
+                .retry(2, Duration.ofMillis(10))
+                .build();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        caller.close();
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void reset() {
+        STARTS.set(0);
+        PART_REQUESTS.set(0);
+        MAX_IN_FLIGHT.set(0);
+        FAIL_ONCE.clear();
+        FAIL_ALWAYS.clear();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        if (path.length == 2) {
+            String id = "u" + STARTS.incrementAndGet() + "-" + exchange.getRequestHeaders().getFirst("X-Upload-Name");
+            UPLOADS.put(id, new ConcurrentHashMap<>());
+            respond(exchange, 200, id);
+        } else if (path[3].equals("parts")) {
+            PART_REQUESTS.incrementAndGet();
+            int number = Integer.parseInt(path[4]);
+            int inFlight = IN_FLIGHT.incrementAndGet();
+            MAX_IN_FLIGHT.accumulateAndGet(inFlight, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            IN_FLIGHT.decrementAndGet();
+            if (FAIL_ALWAYS.contains(number) || FAIL_ONCE.remove(number)) {
+                respond(exchange, 500, "try again");
+                return;
+            }
+            UPLOADS.get(path[2]).put(number, body);
+            respond(exchange, 200, "tag-" + number + "\n");
+        } else {
+            Map<Integer, byte[]> parts = UPLOADS.get(path[2]);
+            MessageDigest digest = sha256();
+            String[] lines = new String(body, StandardCharsets.UTF_8).split("\n");
+            for (String line : lines) {
+                String[] fields = line.split(" ");
+                if (!fields[1].equals("tag-" + fields[0])) {
+                    respond(exchange, 400, "bad tag " + line);
+                    return;
+                }
+                digest.update(parts.get(Integer.parseInt(fields[0])));
+            }
+            respond(exchange, 200, lines.length + " " + HexFormat.of().formatHex(digest.digest()));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Connection", "close");
+        exchange.sendResponseHeaders(status, data.length);
+        exchange.getResponseBody().write(data);
+        exchange.close();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path randomFile(int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return Files.write(directory.resolve("data.bin"), data);
+    }
+
+    private static String expected(Path file, int parts) throws IOException {
+        return parts + " " + HexFormat.of().formatHex(sha256().digest(Files.readAllBytes(file)));
+    }
+
+    @Test
+    void uploadsPartsInParallelAndRetriesFailedParts() throws Exception {
+        Path file = randomFile(8 * PART_SIZE + 123);
+        FAIL_ONCE.add(2);
+        FAIL_ONCE.add(9);
+
+        assertEquals(expected(file, 9), uploader.upload(file));
+        assertEquals(1, STARTS.get());
+        assertEquals(11, PART_REQUESTS.get());
+        assertTrue(MAX_IN_FLIGHT.get() > 1 && MAX_IN_FLIGHT.get() <= 4, "in flight " + MAX_IN_FLIGHT.get());
+
+        Path empty = Files.write(directory.resolve("empty.bin"), new byte[0]);
+        assertEquals(expected(empty, 1), uploader.upload(empty));
+    }
+
+    @Test
+    void resumesAnInterruptedUploadFromItsManifest() throws Exception {
+        Path file = randomFile(5 * PART_SIZE);
+        Path manifest = directory.resolve("data.bin.upload");
+        FAIL_ALWAYS.add(3);
+
+        HttpCaller.APIException e = assertThrows(HttpCaller.APIException.class, () -> uploader.upload(file, manifest));
+        assertTrue(e.getMessage().contains("Part 3"), e.getMessage());
+        assertTrue(Files.exists(manifest));
+        // a crash in the middle of recording a part leaves a torn line
+        Files.write(manifest, "4 tag".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        FAIL_ALWAYS.clear();
+        int before = PART_REQUESTS.get();
+        assertEquals(expected(file, 5), uploader.upload(file, manifest));
+        assertEquals(1, STARTS.get());
+        // only the parts missing from the manifest were sent again
+        int resent = PART_REQUESTS.get() - before;
+        assertTrue(resent >= 1 && resent < 5, "resent " + resent);
+        assertFalse(Files.exists(manifest));
+
+        // a manifest of another file version starts a new upload
+        Files.writeString(manifest, "v1 1 2 3 stale\n1 tag-1\n");
+        assertEquals(expected(file, 5), uploader.upload(file, manifest));
+        assertEquals(2, STARTS.get());
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+class DeliverySpoolTest {
+
+    private static final Queue<String> RECEIVED = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger FAILURES_LEFT = new AtomicInteger();
+    private static final AtomicBoolean DOWN = new AtomicBoolean();
+
+    private static HttpServer server;
+    private static String baseUrl;
+    private static HttpCaller caller;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        // records each body; answers 503 while down or for the next FAILURES_LEFT calls
+        server.createContext("/hook", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            boolean fail = DOWN.get() || FAILURES_LEFT.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+            if (!fail) {
+                RECEIVED.add(body);
+            }
+            exchange.sendResponseHeaders(fail ? 503 : 200, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        caller = new HttpCaller.Builder().build();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        caller.close();
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void reset() {
+        RECEIVED.clear();
+        FAILURES_LEFT.set(0);
+        DOWN.set(false);
+    }
+
+    private DeliverySpool.Builder spool() {
+        return new DeliverySpool.Builder()
+                .caller(caller)
+                .directory(directory)
+                .segmentSize(4096)
+                .concurrency(8)
+                .retry(3, Duration.ofMillis(10));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void deliversAcrossSegmentsAndDeletesConsumedOnes() throws Exception {
+        try (DeliverySpool spool = spool().build()) {
+            for (int i = 0; i < 500; i++) {
+                spool.enqueue(baseUrl + "/hook", "{\"n\":" + i + "}");
+            }
+            await().atMost(Duration.ofSeconds(10)).until(() -> RECEIVED.size() == 500);
+            await().atMost(Duration.ofSeconds(5)).until(() -> spool.backlogBytes() == 0);
+            spool.sync();
+            assertEquals(1, segmentFiles());
+        }
+        Set<String> distinct = new HashSet<>(RECEIVED);
+        assertEquals(500, distinct.size());
+        assertTrue(distinct.contains("{\"n\":499}"));
+    }
+
+    @Test
+    void retriesWithBackoffThenHandsOverToTheFailureHandler() throws Exception {
+        List<DeliverySpool.Message> failed = new CopyOnWriteArrayList<>();
+        FAILURES_LEFT.set(2);
+        try (DeliverySpool spool = spool().failureHandler((message, error) -> failed.add(message)).build()) {
+            spool.enqueue(baseUrl + "/hook", "{\"retried\":true}");
+            await().atMost(Duration.ofSeconds(5)).until(() -> RECEIVED.contains("{\"retried\":true}"));
+
+            DOWN.set(true);
+            long position = spool.enqueue(baseUrl + "/hook", "{\"lost\":true}");
+            await().atMost(Duration.ofSeconds(5)).until(() -> failed.size() == 1);
+            assertEquals(position, failed.get(0).position());
+            assertEquals("{\"lost\":true}", failed.get(0).body());
+            await().atMost(Duration.ofSeconds(5)).until(() -> spool.backlogBytes() == 0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new DeliverySpool.Builder().caller(caller).build());
+    }
+
+    @Test
+    void treatsAThrowingInterceptorAsAFailedAttemptAndKeepsDelivering() throws Exception {
+        List<DeliverySpool.Message> failed = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        try (HttpCaller throwing = new HttpCaller.Builder()
+                .addExecInterceptor("boom", (request, scope, chain) -> {
+                    if (request.getRequestUri().contains("boom")) {
+                        attempts.incrementAndGet();
+                        throw new IllegalStateException("boom");
+                    }
+                    return chain.proceed(request, scope);
+                })
+                .build();
+                DeliverySpool spool = spool().caller(throwing)
+                        .failureHandler((message, error) -> failed.add(message))
+                        .build()) {
+            // more poisoned messages than slots: a leaked slot per message would stall the spool
+            for (int i = 0; i < 20; i++) {
+                spool.enqueue(baseUrl + "/hook?boom", "{\"boom\":" + i + "}");
+            }
+            spool.enqueue(baseUrl + "/hook", "{\"after\":true}");
+
+            await().atMost(Duration.ofSeconds(10)).until(() -> failed.size() == 20);
+            await().atMost(Duration.ofSeconds(5)).until(() -> RECEIVED.contains("{\"after\":true}"));
+            await().atMost(Duration.ofSeconds(5)).until(() -> spool.backlogBytes() == 0);
+            assertEquals(60, attempts.get());
+        }
+    }
+
+    @Test
+    void resumesFromTheCheckpointAndIgnoresATornTail() throws Exception {
+        DOWN.set(true);
+        long last;
+        DeliverySpool first = spool().retry(2, Duration.ofMinutes(1)).build();
+        for (int i = 0; i < 20; i++) {
+            first.enqueue(baseUrl + "/hook", "{\"pending\":" + i + "}");
+        }
+        last = first.enqueue(baseUrl + "/hook", "{\"pending\":20}");
+        // every message fails once and then waits for a retry that close() drops
+        Thread.sleep(300);
+        first.close();
+
+        // a crash half way through the next append: a header whose payload never made it
+        Path tail;
+        try (Stream<Path> files = Files.list(directory)) {
+            tail = files.filter(file -> file.toString().endsWith(".seg")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        int payloadLength = 4 + (baseUrl + "/hook").length() + "{\"pending\":20}".length();
+        long torn = (last + 8 + payloadLength) % 4096;
+        try (FileChannel channel = FileChannel.open(tail, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(0, 100).putInt(4, 12345), torn);
+        }
+
+        DOWN.set(false);
+        try (DeliverySpool second = spool().build()) {
+            second.enqueue(baseUrl + "/hook", "{\"after\":true}");
+            await().atMost(Duration.ofSeconds(10)).until(() -> RECEIVED.size() == 22);
+            await().atMost(Duration.ofSeconds(5)).until(() -> second.backlogBytes() == 0);
+        }
+        Set<String> distinct = new HashSet<>(RECEIVED);
+        assertEquals(22, distinct.size());
+        assertTrue(distinct.contains("{\"pending\":0}") && distinct.contains("{\"after\":true}"));
+
+        // everything was checkpointed, so a third open has nothing to replay
+        RECEIVED.clear();
+        try (DeliverySpool third = spool().build()) {
+            assertEquals(0, third.backlogBytes());
+            Thread.sleep(100);
+        }
+        assertTrue(RECEIVED.isEmpty());
+    }
+}
@@ -0,0 +1,240 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * {@link EndpointGroup} over JDK server stand-ins, one per replica, each
+ * counting its hits and optionally slow or unhealthy.
+ */
+class EndpointGroupTest {
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private HttpCaller caller;
+
+    @BeforeEach
+    void setUp() {
+        caller = new HttpCaller.Builder().build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        caller.close();
+        for (Replica replica : replicas) {
+            replica.server.stop(0);
+            replica.executor.shutdownNow();
+        }
+    }
+
+    private Replica replica(long delayMs) throws IOException {
+        Replica replica = new Replica(delayMs);
+        replicas.add(replica);
+        return replica;
+    }
+
+    private static final class Replica {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+        private Replica(long delayMs) throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/work", exchange -> {
+                hits.incrementAndGet();
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // a fresh connection per call: on a kept-alive one the body write waits for the
+                // client's delayed ACK of the headers (~40ms on Linux)
+                exchange.getResponseHeaders().add("Connection", "close");
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            });
+            server.createContext("/health", exchange -> {
+                exchange.getResponseHeaders().add("Connection", "close");
+                exchange.sendResponseHeaders(healthy.get() ? 200 : 503, -1);
+                exchange.close();
+            });
+            server.start();
+        }
+
+        private String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+    }
+
+    private int work(EndpointGroup group) throws HttpCaller.APIException {
+        return group.call(baseUrl -> caller.head(baseUrl + "/work", null, null));
+    }
+
+    @Test
+    void prefersTheFasterReplica() throws Exception {
+        Replica fast = replica(0);
+        Replica slow = replica(40);
+        try (EndpointGroup group = new EndpointGroup.Builder()
+                .endpoints(fast.baseUrl(), slow.baseUrl())
+                .build()) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(200, work(group));
+            }
+            // the slow replica is tried while unmeasured, then only while its EWMA decays
+            assertTrue(slow.hits.get() <= 3, "slow replica got " + slow.hits.get() + " calls");
+            assertTrue(group.endpoints().get(1).latency().toMillis() >= 30);
+            assertEquals(0, group.endpoints().get(0).inFlight());
+        }
+    }
+
+    @Test
+    void blendsFasterSamplesIntoTheDecayedLatencyOnce() {
+        long millis = 1_000_000L;
+        long halfLife = (long) (1_000 * millis * Math.log(2));
+        EndpointGroup.Endpoint endpoint = new EndpointGroup.Endpoint("http://replica", 1_000 * millis);
+        long now = System.nanoTime();
+        endpoint.recordLatency(100 * millis, now);
+        assertEquals(100 * millis, endpoint.latencyNanos(now), 1);
+
+        // half of the 100ms decayed away, the other half is filled by the 10ms sample
+        now += halfLife;
+        endpoint.recordLatency(10 * millis, now);
+        assertEquals(55 * millis, endpoint.latencyNanos(now), 1_000);
+
+        for (int i = 0; i < 20; i++) {
+            now += halfLife;
+            endpoint.recordLatency(10 * millis, now);
+        }
+        assertEquals(10 * millis, endpoint.latencyNanos(now), 1_000);
+    }
+
+    @Test
+    void spreadsConcurrentCallsByInFlightCount() throws Exception {
+        Replica first = replica(20);
+        Replica second = replica(20);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (EndpointGroup group = new EndpointGroup.Builder()
+                .endpoints(first.baseUrl(), second.baseUrl())
+                .build()) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 80; i++) {
+                futures.add(executor.submit(() -> work(group)));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(200, future.get());
+            }
+            assertTrue(Math.min(first.hits.get(), second.hits.get()) >= 20,
+                    first.hits.get() + " vs " + second.hits.get());
+            assertEquals(0, group.endpoints().get(0).inFlight() + group.endpoints().get(1).inFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresAndReturnsAfterEjectionTime() throws Exception {
+        Replica live = replica(0);
+        String dead;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            dead = "http://127.0.0.1:" + socket.getLocalPort();
+        }
+        try (EndpointGroup group = new EndpointGroup.Builder()
+                .endpoints(live.baseUrl(), dead)
+                .ejectOnConsecutiveFailures(2)
+                .ejection(Duration.ofSeconds(2), 50)
+                .build()) {
+            EndpointGroup.Endpoint deadEndpoint = group.endpoints().get(1);
+            for (int i = 0; i < 20 && !deadEndpoint.isEjected(); i++) {
+                try {
+                    work(group);
+                } catch (HttpCaller.APIException e) {
+                    // connection refused
+                }
+            }
+            assertTrue(deadEndpoint.isEjected());
+            assertEquals(1, deadEndpoint.ejections());
+            int before = live.hits.get();
+            for (int i = 0; i < 20; i++) {
+                assertEquals(200, work(group));
+            }
+            assertEquals(before + 20, live.hits.get());
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> {
+                group.select();
+                return !deadEndpoint.isEjected();
+            });
+        }
+    }
+
+    @Test
+    void healthChecksEjectAndRestore() throws Exception {
+        Replica first = replica(0);
+        Replica second = replica(0);
+        try (EndpointGroup group = new EndpointGroup.Builder()
+                .endpoints(first.baseUrl(), second.baseUrl())
+                .ejection(Duration.ofMillis(100), 50)
+                .healthCheck(caller, "/health", Duration.ofMillis(50))
+                .build()) {
+            EndpointGroup.Endpoint secondEndpoint = group.endpoints().get(1);
+            second.healthy.set(false);
+            await().atMost(Duration.ofSeconds(3)).until(secondEndpoint::isEjected);
+            int before = second.hits.get();
+            for (int i = 0; i < 20; i++) {
+                work(group);
+            }
+            assertEquals(before, second.hits.get());
+
+            // the cap keeps the last healthy endpoint in rotation
+            first.healthy.set(false);
+            Thread.sleep(200);
+            assertFalse(group.endpoints().get(0).isEjected());
+
+            first.healthy.set(true);
+            second.healthy.set(true);
+            await().atMost(Duration.ofSeconds(3)).until(() -> !secondEndpoint.isEjected());
+        }
+    }
+
+    @Test
+    void ejectsLatencyOutliers() throws Exception {
+        Replica fast = replica(0);
+        Replica alsoFast = replica(0);
+        Replica slow = replica(100);
+        try (EndpointGroup group = new EndpointGroup.Builder()
+                .endpoints(fast.baseUrl(), alsoFast.baseUrl(), slow.baseUrl())
+                .ejectOnLatency(3, Duration.ofMillis(50))
+                .build()) {
+            // unmeasured endpoints win the comparison, so each one is measured early
+            await().atMost(Duration.ofSeconds(5)).until(() -> {
+                work(group);
+                return group.endpoints().get(2).isEjected();
+            });
+            assertFalse(group.endpoints().get(0).isEjected());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new EndpointGroup.Builder().build());
+        assertThrows(IllegalArgumentException.class, () -> new EndpointGroup.Builder().ejectOnLatency(1, null));
+    }
+}
@@ -0,0 +1,279 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * SSE and NDJSON streams of {@link HttpCaller} against a JDK server stand-in
+ * whose handlers write and flush chunks on their own schedule.
+ */
+class EventStreamTest {
+
+    private static HttpServer server;
+    private static ExecutorService handlers;
+    private static String baseUrl;
+
+    private static final AtomicInteger sseRequests = new AtomicInteger();
+    private static final List<String> sseLastEventIds = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger cutRequests = new AtomicInteger();
+    private static final List<String> cutLastEventIds = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger silentRequests = new AtomicInteger();
+    private static final AtomicInteger flakyRequests = new AtomicInteger();
+    private static final List<String> ndjsonAccept = new CopyOnWriteArrayList<>();
+    private static final CountDownLatch hangReleased = new CountDownLatch(1);
+
+    @BeforeAll
+    static void setUpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // streaming handlers block, so each exchange needs its own thread
+        handlers = Executors.newCachedThreadPool();
+        server.setExecutor(handlers);
+
+        // two events split over several chunks, then the server closes; the reconnect resumes, then 204 stops it
+        server.createContext("/sse", exchange -> {
+            sseLastEventIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+            switch (sseRequests.incrementAndGet()) {
+                case 1 -> stream(exchange, ": welcome\n\nid: 1\nevent: greet\n", "data: hello\ndata: world\n\n",
+                        "retry: 20\nid: 2\r\ndata: second\r\n\r\n");
+                case 2 -> stream(exchange, "id: 3\ndata: third\n\n");
+                default -> {
+                    exchange.sendResponseHeaders(204, -1);
+                    exchange.close();
+                }
+            }
+        });
+
+        // the first connection is cut right after the id of its second event
+        server.createContext("/cut", exchange -> {
+            cutLastEventIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("Last-Event-ID")));
+            switch (cutRequests.incrementAndGet()) {
+                case 1 -> stream(exchange, "id: 1\ndata: one\n\n", "id: 2\n");
+                case 2 -> stream(exchange, "id: 3\ndata: three\n\n");
+                default -> {
+                    exchange.sendResponseHeaders(204, -1);
+                    exchange.close();
+                }
+            }
+        });
+
+        // the first connection goes quiet after one event, the second one finishes the stream
+        server.createContext("/silent", exchange -> {
+            int request = silentRequests.incrementAndGet();
+            if (request == 1) {
+                exchange.sendResponseHeaders(200, 0);
+                write(exchange.getResponseBody(), "data: a\n\n");
+                sleep(3_000);
+                exchange.close();
+            } else if (request == 2) {
+                stream(exchange, "data: b\n\n");
+            } else {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        });
+
+        // one event, then only empty responses
+        server.createContext("/flaky", exchange -> {
+            stream(exchange, flakyRequests.incrementAndGet() == 1 ? "data: x\n\n" : "");
+        });
+
+        server.createContext("/ndjson", exchange -> {
+            ndjsonAccept.add(exchange.getRequestHeaders().getFirst("Accept"));
+            stream(exchange, "{\"n\":1}\n", "\n{\"n\":2}", "\n{\"n\":3}\n");
+        });
+
+        server.createContext("/hang", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().flush();
+            try {
+                hangReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+
+        server.createContext("/missing", exchange -> {
+            byte[] data = "nope".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDownServer() {
+        hangReleased.countDown();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private static void stream(HttpExchange exchange, String... chunks) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        for (String chunk : chunks) {
+            write(out, chunk);
+        }
+        exchange.close();
+    }
+
+    private static void write(OutputStream out, String chunk) throws IOException {
+        out.write(chunk.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static HttpCaller newCaller() {
+        return new HttpCaller.Builder().pool(4, 2).build();
+    }
+
+    @Test
+    void parsesEventsAndResumesFromLastEventIdOutsideThePool() throws Exception {
+        try (HttpCaller caller = newCaller();
+                EventStream<ServerSentEvent> stream = caller.openEventStream(baseUrl + "/sse", null, null,
+                        new EventStreamOptions.Builder().reconnect(3, Duration.ofSeconds(5)).build())) {
+            assertEquals(0, caller.poolStats().getLeased());
+
+            assertEquals(new ServerSentEvent("1", "greet", "hello\nworld"), stream.next());
+            assertEquals(new ServerSentEvent("2", "message", "second"), stream.next());
+            // the retry field overrides the 5s reconnect delay
+            assertEquals(new ServerSentEvent("3", "message", "third"), stream.next());
+            assertNull(stream.next());
+
+            assertEquals(List.of("null", "2", "3"), sseLastEventIds);
+            assertEquals("3", stream.lastEventId());
+            assertEquals(0, caller.poolStats().getLeased());
+        }
+    }
+
+    @Test
+    void resumesFromLastDispatchedIdWhenCutAfterAnIdLine() throws Exception {
+        try (HttpCaller caller = newCaller();
+                EventStream<ServerSentEvent> stream = caller.openEventStream(baseUrl + "/cut", null, null,
+                        new EventStreamOptions.Builder().reconnect(3, Duration.ofMillis(10)).build())) {
+            assertEquals(new ServerSentEvent("1", "message", "one"), stream.next());
+            assertEquals(new ServerSentEvent("3", "message", "three"), stream.next());
+            assertNull(stream.next());
+
+            // event 2 never arrived, so the reconnect asks for everything after 1
+            assertEquals(List.of("null", "1", "3"), cutLastEventIds);
+        }
+    }
+
+    @Test
+    void reconnectsWhenHeartbeatTimesOut() throws Exception {
+        List<String> data = new ArrayList<>();
+        List<Exception> causes = new ArrayList<>();
+        AtomicInteger completed = new AtomicInteger();
+        try (HttpCaller caller = newCaller();
+                EventStream<ServerSentEvent> stream = caller.openEventStream(baseUrl + "/silent", null, null,
+                        new EventStreamOptions.Builder()
+                                .heartbeatTimeout(Duration.ofMillis(300))
+                                .reconnect(2, Duration.ofMillis(10))
+                                .build())) {
+            stream.subscribe(new EventStreamListener<>() {
+                @Override
+                public void onEvent(ServerSentEvent event) {
+                    data.add(event.data());
+                }
+
+                @Override
+                public void onReconnect(int attempt, Exception cause) {
+                    causes.add(cause);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        assertEquals(List.of("a", "b"), data);
+        // a timed-out read, then the orderly end of the second connection
+        assertEquals(2, causes.size());
+        assertInstanceOf(SocketTimeoutException.class, causes.get(0));
+        assertNull(causes.get(1));
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    void readsNdjsonRecordsAndEndsWithTheResponse() throws Exception {
+        List<String> records = new ArrayList<>();
+        try (HttpCaller caller = newCaller();
+                EventStream<String> stream = caller.openNdjsonStream(baseUrl + "/ndjson", null, null, null)) {
+            stream.forEach(records::add);
+        }
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}", "{\"n\":3}"), records);
+        assertEquals(List.of("application/x-ndjson"), ndjsonAccept);
+    }
+
+    @Test
+    void failsOnErrorStatusAndExhaustedReconnects() throws Exception {
+        try (HttpCaller caller = newCaller()) {
+            HttpCaller.APIException missing = assertThrows(HttpCaller.APIException.class,
+                    () -> caller.openEventStream(baseUrl + "/missing", null, null, null));
+            assertTrue(missing.getMessage().contains("404"));
+
+            EventStream<ServerSentEvent> stream = caller.openEventStream(baseUrl + "/flaky", null, null,
+                    new EventStreamOptions.Builder().reconnect(2, Duration.ofMillis(10)).build());
+            assertEquals("x", stream.next().data());
+            assertThrows(HttpCaller.APIException.class, stream::next);
+            assertEquals(3, flakyRequests.get());
+            stream.close();
+        }
+    }
+
+    @Test
+    void closeUnblocksReaderAndCallerClosesOpenStreams() throws Exception {
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            HttpCaller caller = newCaller();
+            EventStream<ServerSentEvent> stream = caller.openEventStream(baseUrl + "/hang", null, null, null);
+            Future<ServerSentEvent> next = reader.submit(stream::next);
+            sleep(200);
+
+            caller.close();
+            assertNull(next.get(2, TimeUnit.SECONDS));
+            assertNull(stream.next());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+}
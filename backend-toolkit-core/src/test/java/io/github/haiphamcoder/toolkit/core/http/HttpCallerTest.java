@@ -1,20 +1,37 @@
 package io.github.haiphamcoder.toolkit.core.http;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.pool.PoolStats;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -56,6 +73,8 @@ class HttpCallerTest {
         server.createContext("/head", exchange -> {
             Headers h = exchange.getResponseHeaders();
             h.add("X-Head-Test", "1");
+            // the JDK server drops the connection after a body-less HEAD reply
+            h.add("Connection", "close");
             exchange.sendResponseHeaders(200, -1);
             exchange.close();
         });
@@ -86,6 +105,15 @@ class HttpCallerTest {
         // Form handler (no parsing required for test)
         server.createContext("/form", new EchoBodyHandler());
 
+        // Protocol handler: echoes the request line version
+        server.createContext("/protocol", exchange -> respond(exchange, 200, exchange.getProtocol()));
+
+        // Header echo handler
+        server.createContext("/echo-header", exchange -> {
+            String value = exchange.getRequestHeaders().getFirst("X-Request-Id");
+            respond(exchange, 200, value == null ? "" : value);
+        });
+
         // Upload handler (no multipart parsing; just 200 OK)
         server.createContext("/upload", exchange -> {
             // consume request body to avoid client hang
@@ -250,6 +278,316 @@ class HttpCallerTest {
         }
     }
 
+    @Test
+    void testDecodedResponses() throws Exception {
+        HttpCaller caller = new HttpCaller.Builder().build();
+        Map<String, String> empty = Collections.emptyMap();
+
+        assertEquals("get-ok", caller.get(baseUrl + "/get", empty, empty, BodyDecoder.ofString()));
+        assertArrayEquals("{\"a\":1}".getBytes(StandardCharsets.UTF_8),
+                caller.postJson(baseUrl + "/post-json", "{\"a\":1}", empty, empty, BodyDecoder.ofByteArray()));
+        Integer length = caller.putJson(baseUrl + "/put-json", "[1,2]", empty, empty,
+                (body, charset) -> body.readAllBytes().length);
+        assertEquals(5, length);
+
+        addContext("/decode-error", 500, "boom");
+        HttpCaller.APIException e = assertThrows(HttpCaller.APIException.class,
+                () -> caller.get(baseUrl + "/decode-error", empty, empty, BodyDecoder.ofString()));
+        assertTrue(e.getMessage().contains("HTTP request failed with status code: 500"));
+        caller.close();
+    }
+
+    @Test
+    void testWarmUpOpensMinIdleConnections() throws Exception {
+        try (ServerSocket listener = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            AtomicInteger accepted = new AtomicInteger();
+            List<Socket> sockets = new CopyOnWriteArrayList<>();
+            Thread acceptor = new Thread(() -> {
+                while (!listener.isClosed()) {
+                    try {
+                        sockets.add(listener.accept());
+                        accepted.incrementAndGet();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            String target = "http://127.0.0.1:" + listener.getLocalPort();
+            HttpCaller caller = new HttpCaller.Builder()
+                    .warmUp(target, 4)
+                    .build();
+            try {
+                // connect() returns once the kernel queued the connection, before accept() does
+                await().atMost(Duration.ofSeconds(2)).until(() -> accepted.get() == 4);
+                // all four are idle in the pool already, nothing new to open
+                assertEquals(0, caller.warmUp());
+                assertEquals(4, accepted.get());
+            } finally {
+                caller.close();
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testWarmUpExplicitAndReusedByRequests() throws Exception {
+        HttpCaller caller = new HttpCaller.Builder()
+                .warmUp(baseUrl, 2)
+                .warmUpOnBuild(false)
+                .build();
+        assertEquals(2, caller.warmUp());
+        assertEquals("get-ok", caller.get(baseUrl + "/get", Collections.emptyMap(), Collections.emptyMap()));
+        caller.close();
+    }
+
+    @Test
+    void testWarmUpValidatesArguments() {
+        HttpCaller.Builder builder = new HttpCaller.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.warmUp(baseUrl, 0));
+        assertThrows(IllegalArgumentException.class, () -> builder.warmUp(" ", 1));
+    }
+
+    @Test
+    void testHttpVersionExecInterceptorAndPoolStats() throws Exception {
+        List<String> seen = new CopyOnWriteArrayList<>();
+        HttpCaller caller = new HttpCaller.Builder()
+                .httpVersion(HttpVersion.HTTP_1_0)
+                .pool(20, 5)
+                .addExecInterceptor("probe", (request, scope, chain) -> {
+                    seen.add(request.getMethod() + " " + request.getPath());
+                    return chain.proceed(request, scope);
+                })
+                .build();
+        try {
+            assertEquals("HTTP/1.0", caller.get(baseUrl + "/protocol", Collections.emptyMap(), Collections.emptyMap()));
+            assertEquals(List.of("GET /protocol"), seen);
+            PoolStats stats = caller.poolStats();
+            assertEquals(0, stats.getLeased());
+            assertEquals(20, stats.getMax());
+        } finally {
+            caller.close();
+        }
+    }
+
+    @Test
+    void testDeferredPoolIsCreatedByTheFirstRequest() throws Exception {
+        HttpCaller caller = new HttpCaller.Builder().pool(20, 5).deferPoolCreation(true).build();
+        PoolStats stats = caller.poolStats();
+        assertEquals(0, stats.getAvailable() + stats.getLeased() + stats.getPending());
+        assertEquals(20, stats.getMax());
+
+        assertEquals("get-ok", caller.get(baseUrl + "/get", Collections.emptyMap(), Collections.emptyMap()));
+        assertEquals(20, caller.poolStats().getMax());
+        caller.close();
+        assertThrows(IllegalStateException.class,
+                () -> caller.get(baseUrl + "/get", Collections.emptyMap(), Collections.emptyMap()));
+
+        // closing a caller that never sent a request has nothing to release
+        new HttpCaller.Builder().deferPoolCreation(true).build().close();
+    }
+
+    @Test
+    void testRequestInterceptorAddsHeaderUnlessPresent() throws Exception {
+        HttpCaller caller = new HttpCaller.Builder()
+                .addRequestInterceptor((request, entity, context) -> {
+                    if (!request.containsHeader("X-Request-Id")) {
+                        request.setHeader("X-Request-Id", "from-context");
+                    }
+                })
+                .build();
+        try {
+            assertEquals("from-context",
+                    caller.get(baseUrl + "/echo-header", Collections.emptyMap(), Collections.emptyMap()));
+            assertEquals("explicit", caller.get(baseUrl + "/echo-header", Collections.emptyMap(),
+                    Collections.singletonMap("X-Request-Id", "explicit")));
+        } finally {
+            caller.close();
+        }
+    }
+
+    @Test
+    void testHttpVersionRejectsHttp2() {
+        HttpCaller.Builder builder = new HttpCaller.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.httpVersion(HttpVersion.HTTP_2));
+        assertThrows(IllegalArgumentException.class, () -> builder.addExecInterceptor("x", null));
+    }
+
+    @Test
+    void testRetryPolicyRetriesServiceUnavailable() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        server.createContext("/flaky", exchange -> {
+            if (attempts.incrementAndGet() < 3) {
+                respond(exchange, 503, "busy");
+            } else {
+                respond(exchange, 200, "recovered");
+            }
+        });
+        HttpCaller caller = new HttpCaller.Builder()
+                .retry(2, Duration.ofMillis(10))
+                .build();
+        try {
+            assertEquals("recovered", caller.get(baseUrl + "/flaky", Collections.emptyMap(), Collections.emptyMap()));
+            assertEquals(3, attempts.get());
+        } finally {
+            caller.close();
+        }
+    }
+
+    @Test
+    void testConcurrencyLimitRejectsExcessCalls() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/held", exchange -> {
+            received.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "held-ok");
+        });
+        HttpCaller caller = new HttpCaller.Builder()
+                .concurrencyLimit(1, Duration.ZERO)
+                .build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(
+                    () -> caller.get(baseUrl + "/held", Collections.emptyMap(), Collections.emptyMap()));
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            HttpCaller.APIException e = assertThrows(HttpCaller.APIException.class,
+                    () -> caller.get(baseUrl + "/get", Collections.emptyMap(), Collections.emptyMap()));
+            assertTrue(e.getMessage().contains("Concurrency limit of 1"));
+
+            release.countDown();
+            assertEquals("held-ok", first.get(5, TimeUnit.SECONDS));
+            // the permit is back once the first call completed
+            assertEquals("get-ok", caller.get(baseUrl + "/get", Collections.emptyMap(), Collections.emptyMap()));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            caller.close();
+        }
+    }
+
+    @Test
+    void testExpiredDeadlineFailsBeforeLeasingConnection() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/counted", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 200, "counted");
+        });
+        HttpCaller caller = new HttpCaller.Builder().build();
+        try (CallOptions.Scope scope = CallOptions.withTimeout(Duration.ZERO).makeCurrent()) {
+            HttpCaller.APIException e = assertThrows(HttpCaller.APIException.class,
+                    () -> caller.get(baseUrl + "/counted", Collections.emptyMap(), Collections.emptyMap()));
+            assertTrue(e.getMessage().contains("Deadline exceeded"));
+            assertEquals(0, hits.get());
+            assertEquals(0, caller.poolStats().getAvailable() + caller.poolStats().getLeased());
+        } finally {
+            caller.close();
+        }
+        assertNull(CallOptions.current());
+    }
+
+    @Test
+    void testDeadlineCapsResponseTimeoutAndIsSentDownstream() throws Exception {
+        List<String> budgets = new CopyOnWriteArrayList<>();
+        server.createContext("/slow", exchange -> {
+            budgets.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Request-Timeout-Ms")));
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow-ok");
+        });
+        HttpCaller caller = new HttpCaller.Builder().build();
+        CallOptions options = new CallOptions.Builder()
+                .timeout(Duration.ofMillis(300))
+                .deadlineHeader("X-Request-Timeout-Ms")
+                .build();
+        try (CallOptions.Scope scope = options.makeCurrent()) {
+            long start = System.nanoTime();
+            assertThrows(HttpCaller.APIException.class,
+                    () -> caller.get(baseUrl + "/slow", Collections.emptyMap(), Collections.emptyMap()));
+            // fails on the deadline, not on the 15s default response timeout
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            // an inner scope cannot extend the outer deadline
+            try (CallOptions.Scope inner = CallOptions.withTimeout(Duration.ofSeconds(10)).makeCurrent()) {
+                assertTrue(CallOptions.current().remaining().toMillis() <= 300);
+            }
+        } finally {
+            caller.close();
+        }
+        long budget = Long.parseLong(budgets.get(0));
+        assertTrue(budget > 0 && budget <= 300, "budget " + budget);
+    }
+
+    @Test
+    void testCallOptionsOverrideResponseTimeoutPerCall() throws Exception {
+        server.createContext("/slower", exchange -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slower-ok");
+        });
+        HttpCaller caller = new HttpCaller.Builder()
+                .responseTimeoutMs(Duration.ofMillis(100))
+                .build();
+        try {
+            UriTemplate slower = UriTemplate.compile(baseUrl + "/slower");
+            assertThrows(HttpCaller.APIException.class,
+                    () -> caller.execute(RequestSpec.get(slower, null), BodyDecoder.ofString()));
+            CallOptions patient = new CallOptions.Builder().responseTimeout(Duration.ofSeconds(5)).build();
+            assertEquals("slower-ok", caller.execute(RequestSpec.get(slower, null), BodyDecoder.ofString(), patient));
+        } finally {
+            caller.close();
+        }
+    }
+
+    @Test
+    void testPooledBuffersReadBodiesOfUnknownLength() throws Exception {
+        byte[] payload = new byte[200_000];
+        new Random(42).nextBytes(payload);
+        String text = "ü".repeat(50_000);
+        server.createContext("/chunked", exchange -> {
+            // length 0 makes the JDK server use chunked transfer coding
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write(payload);
+            exchange.close();
+        });
+        server.createContext("/chunked-text", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write(text.getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        HttpCaller caller = new HttpCaller.Builder()
+                .bufferPool(BufferPool.threadLocal(16 * 1024))
+                .build();
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertArrayEquals(payload, caller.getBytes(baseUrl + "/chunked", null, null));
+                assertEquals(text, caller.get(baseUrl + "/chunked-text", null, null));
+            }
+            Path target = tempDir.resolve("chunked.bin");
+            caller.downloadToFile(baseUrl + "/chunked", null, null, target);
+            assertArrayEquals(payload, Files.readAllBytes(target));
+            assertArrayEquals(new byte[0], caller.getBytes(baseUrl + "/head", null, null));
+        } finally {
+            caller.close();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HttpCaller.Builder().bufferPool(null));
+    }
+
     private static void addContext(String path, int status, String body) {
         try {
             server.removeContext(path);
@@ -0,0 +1,141 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsExchange;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+
+/**
+ * TLS options of {@link HttpCaller.Builder} against JDK HTTPS stand-ins. The
+ * PKCS12 fixtures in {@code src/test/resources/tls} are self-signed (server:
+ * CN=localhost with 127.0.0.1 SAN, client: CN=client; {@code trust.p12} holds
+ * both certificates), password "changeit".
+ */
+class HttpCallerTlsTest {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+    private static final String CIPHER = "TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256";
+
+    private static HttpsServer server;
+    private static HttpsServer mtlsServer;
+
+    @BeforeAll
+    static void setUpServers() throws Exception {
+        server = start(false);
+        mtlsServer = start(true);
+    }
+
+    @AfterAll
+    static void tearDownServers() {
+        server.stop(0);
+        mtlsServer.stop(0);
+    }
+
+    private static HttpsServer start(boolean needClientAuth) throws IOException, GeneralSecurityException {
+        SSLContext context = SSLContextBuilder.create()
+                .loadKeyMaterial(keyStore("server.p12"), PASSWORD)
+                .loadTrustMaterial(keyStore("trust.p12"), null)
+                .build();
+        HttpsServer https = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        https.setHttpsConfigurator(new HttpsConfigurator(context) {
+            @Override
+            public void configure(HttpsParameters params) {
+                SSLParameters parameters = getSSLContext().getDefaultSSLParameters();
+                parameters.setNeedClientAuth(needClientAuth);
+                params.setSSLParameters(parameters);
+            }
+        });
+        // answers with connection port, session ID, protocol and cipher, then closes the connection
+        https.createContext("/session", exchange -> {
+            HttpsExchange httpsExchange = (HttpsExchange) exchange;
+            String body = exchange.getRemoteAddress().getPort() + " "
+                    + HexFormat.of().formatHex(httpsExchange.getSSLSession().getId()) + " "
+                    + httpsExchange.getSSLSession().getProtocol() + " "
+                    + httpsExchange.getSSLSession().getCipherSuite();
+            byte[] data = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Connection", "close");
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        https.start();
+        return https;
+    }
+
+    private static KeyStore keyStore(String name) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = HttpCallerTlsTest.class.getResourceAsStream("/tls/" + name)) {
+            keyStore.load(in, PASSWORD);
+        }
+        return keyStore;
+    }
+
+    private static String url(HttpsServer https) {
+        return "https://localhost:" + https.getAddress().getPort() + "/session";
+    }
+
+    @Test
+    void resumesSessionOnNewConnectionWithChosenProtocolAndCipher() throws Exception {
+        try (HttpCaller caller = new HttpCaller.Builder()
+                .trustMaterial(keyStore("trust.p12"))
+                .tlsVersions("TLSv1.2")
+                .cipherSuites(CIPHER)
+                .tlsSessionCache(64, Duration.ofMinutes(5))
+                .build()) {
+            String[] first = caller.get(url(server), null, null).split(" ");
+            String[] second = caller.get(url(server), null, null).split(" ");
+
+            assertNotEquals(first[0], second[0], "expected a new connection");
+            assertEquals(first[1], second[1], "expected the TLS session to be resumed");
+            assertEquals("TLSv1.2", second[2]);
+            assertEquals(CIPHER, second[3]);
+        }
+    }
+
+    @Test
+    void presentsClientCertificateForMutualTls() throws Exception {
+        try (HttpCaller withCertificate = new HttpCaller.Builder()
+                .trustMaterial(keyStore("trust.p12"))
+                .keyMaterial(keyStore("client.p12"), PASSWORD)
+                .build();
+                HttpCaller withoutCertificate = new HttpCaller.Builder()
+                        .trustMaterial(keyStore("trust.p12"))
+                        .build()) {
+            withCertificate.get(url(mtlsServer), null, null);
+            assertThrows(HttpCaller.APIException.class, () -> withoutCertificate.get(url(mtlsServer), null, null));
+        }
+    }
+
+    @Test
+    void rejectsUntrustedServerAndConflictingOptions() throws Exception {
+        try (HttpCaller caller = new HttpCaller.Builder().build()) {
+            assertThrows(HttpCaller.APIException.class, () -> caller.get(url(server), null, null));
+        }
+        HttpCaller.Builder conflicting = new HttpCaller.Builder()
+                .sslContext(SSLContext.getDefault())
+                .trustMaterial(keyStore("trust.p12"));
+        assertThrows(IllegalArgumentException.class, conflicting::build);
+    }
+}
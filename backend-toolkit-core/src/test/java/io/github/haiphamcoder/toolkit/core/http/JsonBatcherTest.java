@@ -0,0 +1,199 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class JsonBatcherTest {
+
+    private static final AtomicInteger BULK_REQUESTS = new AtomicInteger();
+
+    private static HttpServer server;
+    private static String baseUrl;
+    private static HttpCaller caller;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        // wraps every element of the posted array: [1,"a"] -> [{"echo":1},{"echo":"a"}]
+        server.createContext("/events", exchange -> {
+            BULK_REQUESTS.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            List<String> echoed = new ArrayList<>();
+            for (String element : JsonBatcher.ResponseSplitter.jsonArray().split(body, -1)) {
+                echoed.add("{\"echo\":" + element + "}");
+            }
+            respond(exchange, 200, "[" + String.join(",", echoed) + "]");
+        });
+        server.createContext("/short", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, "[{\"ok\":true}]");
+        });
+        server.createContext("/down", exchange -> respond(exchange, 503, "unavailable"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        caller = new HttpCaller.Builder().build();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        caller.close();
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void resetCounters() {
+        BULK_REQUESTS.set(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, data.length);
+        exchange.getResponseBody().write(data);
+        exchange.close();
+    }
+
+    @Test
+    void batchesSubmissionsFromManyThreadsAndSplitsTheResponse() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        try (JsonBatcher batcher = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/events")
+                .maxBatchSize(100)
+                .linger(Duration.ofMillis(50))
+                .build()) {
+            List<Future<List<CompletableFuture<String>>>> submitted = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                submitted.add(producers.submit(() -> {
+                    List<CompletableFuture<String>> futures = new ArrayList<>();
+                    for (int i = 0; i < 250; i++) {
+                        futures.add(batcher.submit("{\"n\":" + (thread * 1000 + i) + ",\"s\":\"a,]\\\"\"}"));
+                    }
+                    return futures;
+                }));
+            }
+            for (int t = 0; t < 8; t++) {
+                List<CompletableFuture<String>> futures = submitted.get(t).get();
+                for (int i = 0; i < futures.size(); i++) {
+                    assertEquals("{\"echo\":{\"n\":" + (t * 1000 + i) + ",\"s\":\"a,]\\\"\"}}",
+                            futures.get(i).get(5, TimeUnit.SECONDS));
+                }
+            }
+            // 2000 documents in batches of up to 100
+            assertTrue(BULK_REQUESTS.get() >= 20 && BULK_REQUESTS.get() <= 60, BULK_REQUESTS.get() + " requests");
+            assertEquals(0, batcher.pending());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    void lingerSendsPartialBatchesAndCloseFlushes() throws Exception {
+        JsonBatcher batcher = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/events")
+                .linger(Duration.ofMillis(20))
+                .build();
+        assertEquals("{\"echo\":\"single\"}", batcher.submit("\"single\"").get(5, TimeUnit.SECONDS));
+        assertEquals(1, BULK_REQUESTS.get());
+
+        JsonBatcher lingering = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/events")
+                .linger(Duration.ofMinutes(1))
+                .build();
+        CompletableFuture<String> first = lingering.submit("1");
+        CompletableFuture<String> second = lingering.submit("2");
+        lingering.close();
+        assertEquals("{\"echo\":1}", first.getNow(null));
+        assertEquals("{\"echo\":2}", second.getNow(null));
+        assertEquals(2, BULK_REQUESTS.get());
+
+        CompletableFuture<String> late = lingering.submit("3");
+        assertInstanceOf(HttpCaller.APIException.class, assertThrows(ExecutionException.class, late::get).getCause());
+        batcher.close();
+    }
+
+    @Test
+    void charLimitSendsBeforeTheLinger() throws Exception {
+        JsonBatcher batcher = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/events")
+                .linger(Duration.ofMinutes(1))
+                .maxBatchChars(20)
+                .build();
+        // "[" plus two 10-character documents with their separators is 23 characters
+        CompletableFuture<String> first = batcher.submit("\"aaaaaaaa\"");
+        CompletableFuture<String> second = batcher.submit("\"bbbbbbbb\"");
+        assertEquals("{\"echo\":\"aaaaaaaa\"}", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, BULK_REQUESTS.get());
+        // the rest fits in a batch, so it waits for the linger or close
+        assertEquals(1, batcher.pending());
+        batcher.close();
+        assertEquals("{\"echo\":\"bbbbbbbb\"}", second.getNow(null));
+        assertEquals(2, BULK_REQUESTS.get());
+    }
+
+    @Test
+    void failuresReachEveryDocumentOfTheBatch() throws Exception {
+        try (JsonBatcher down = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/down")
+                .linger(Duration.ofMillis(10))
+                .build()) {
+            CompletableFuture<String> a = down.submit("{}");
+            CompletableFuture<String> b = down.submit("{}");
+            for (CompletableFuture<String> future : List.of(a, b)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(HttpCaller.APIException.class, e.getCause());
+            }
+        }
+        try (JsonBatcher mismatched = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/short")
+                .linger(Duration.ofMillis(10))
+                .build()) {
+            CompletableFuture<String> a = mismatched.submit("{}");
+            CompletableFuture<String> b = mismatched.submit("{}");
+            ExecutionException e = assertThrows(ExecutionException.class, () -> a.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause().getMessage().contains("1 results for 2 documents"), e.getCause().getMessage());
+            assertThrows(ExecutionException.class, () -> b.get(5, TimeUnit.SECONDS));
+        }
+        try (JsonBatcher bounded = new JsonBatcher.Builder()
+                .caller(caller)
+                .url(baseUrl + "/events")
+                .linger(Duration.ofMinutes(1))
+                .maxPending(1)
+                .build()) {
+            bounded.submit("1");
+            assertThrows(ExecutionException.class, () -> bounded.submit("2").get());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new JsonBatcher.Builder().url(baseUrl).build());
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class NativeImageMetadataTest {
+
+    private static final String RESOURCE_CONFIG =
+            "META-INF/native-image/io.github.haiphamcoder/backend-toolkit-core/resource-config.json";
+
+    @Test
+    void resourceConfigNamesResourcesOnTheClasspath() throws IOException {
+        String config;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(RESOURCE_CONFIG)) {
+            assertNotNull(in, RESOURCE_CONFIG);
+            config = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> resources = new ArrayList<>();
+        Matcher matcher = Pattern.compile("\\\\\\\\Q(.+?)\\\\\\\\E").matcher(config);
+        while (matcher.find()) {
+            resources.add(matcher.group(1));
+        }
+        assertFalse(resources.isEmpty(), config);
+        // a dependency upgrade that moves one of them would otherwise only show up in a native build
+        for (String resource : resources) {
+            assertNotNull(getClass().getClassLoader().getResource(resource), resource);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.hc.core5.http.Method;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+class RequestTemplateTest {
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void setUpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        // echoes method, raw request target and the two test headers
+        server.createContext("/", exchange -> {
+            String body = exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : "")
+                    + " " + exchange.getRequestHeaders().getFirst("X-Default")
+                    + " " + exchange.getRequestHeaders().getFirst("X-Extra");
+            byte[] data = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDownServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void bind_shouldExpandPathAndKeepDefaultHeaders() {
+        RequestTemplate template = RequestTemplate.builder(Method.GET, "https://api.example.com/api/", "/v1/users/{id}")
+                .header("Accept", "application/json")
+                .build();
+        RequestSpec spec = template.bind("a b");
+        assertEquals(Method.GET, spec.method());
+        assertEquals("api.example.com", spec.host().getHostName());
+        assertEquals("/api/v1/users/a%20b", spec.path());
+    }
+
+    @Test
+    void execute_shouldSendTemplateRequest() throws Exception {
+        RequestTemplate template = RequestTemplate.builder(Method.DELETE, baseUrl, "v1/users/{id}?reason={reason}")
+                .header("X-Default", "d")
+                .build();
+        HttpCaller caller = new HttpCaller.Builder().build();
+
+        assertEquals("DELETE /v1/users/42?reason=dup%20entry d null",
+                caller.execute(template, BodyDecoder.ofString(), "42", "dup entry"));
+        assertEquals("DELETE /v1/users/7?reason=x d e",
+                caller.execute(template.bind(HeaderSet.of(Map.of("X-Extra", "e")), "7", "x"), BodyDecoder.ofString()));
+        caller.close();
+    }
+}
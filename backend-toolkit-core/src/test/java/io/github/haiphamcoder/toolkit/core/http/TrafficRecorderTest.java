@@ -0,0 +1,99 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class TrafficRecorderTest {
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/echo", exchange -> respond(exchange, 201,
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+        server.createContext("/large", exchange -> respond(exchange, 200, "x".repeat(10_000)));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "{\"error\":\"not found\"}"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-Served-By", "stub");
+        exchange.sendResponseHeaders(status, data.length);
+        exchange.getResponseBody().write(data);
+        exchange.close();
+    }
+
+    @Test
+    void recordsExchangesWithTimingAndBodies() throws Exception {
+        Path file = directory.resolve("traffic.rec");
+        try (TrafficRecorder recorder = new TrafficRecorder(file, 1024);
+                HttpCaller caller = new HttpCaller.Builder().addExecInterceptor("recorder", recorder).build()) {
+            assertEquals("{\"a\":1}", caller.postJson(baseUrl + "/echo", "{\"a\":1}", Map.of("q", "v"),
+                    Map.of("X-Tenant", "t1")));
+            // the caller still sees the whole body beyond the recording limit
+            assertEquals(10_000, caller.getBytes(baseUrl + "/large", null, null).length);
+            assertThrows(HttpCaller.APIException.class, () -> caller.get(baseUrl + "/missing", null, null));
+            assertEquals(200, caller.head(baseUrl + "/large", null, null));
+        }
+
+        List<TrafficRecording.Exchange> exchanges = TrafficRecording.read(file).exchanges();
+        assertEquals(4, exchanges.size());
+        TrafficRecording.Exchange post = exchanges.get(0);
+        assertEquals("POST", post.method());
+        assertEquals(baseUrl, post.host());
+        assertEquals("/echo?q=v", post.requestUri());
+        assertArrayEquals("{\"a\":1}".getBytes(StandardCharsets.UTF_8), post.requestBody());
+        assertTrue(post.requestHeaders().stream().anyMatch(h -> h.getName().equals("X-Tenant")));
+        assertEquals(201, post.status());
+        assertEquals("{\"a\":1}", new String(post.responseBody(), StandardCharsets.UTF_8));
+        assertTrue(post.responseHeaders().stream().anyMatch(h -> h.getName().equalsIgnoreCase("X-Served-By")));
+        assertTrue(post.duration().toNanos() > 0);
+
+        TrafficRecording.Exchange large = exchanges.get(1);
+        assertNull(large.requestBody());
+        assertEquals(1024, large.responseBody().length);
+        assertTrue(large.truncated());
+        assertTrue(large.start().compareTo(post.start()) > 0);
+
+        assertEquals(404, exchanges.get(2).status());
+        assertFalse(exchanges.get(2).truncated());
+        assertEquals("HEAD", exchanges.get(3).method());
+        assertNull(exchanges.get(3).responseBody());
+
+        Files.writeString(file, "not a recording");
+        assertThrows(IOException.class, () -> TrafficRecording.read(file));
+    }
+}
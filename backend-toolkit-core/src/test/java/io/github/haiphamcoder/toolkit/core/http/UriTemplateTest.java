@@ -0,0 +1,52 @@
+package io.github.haiphamcoder.toolkit.core.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class UriTemplateTest {
+
+    @Test
+    void expandPath_shouldFillPathAndQueryVariables() {
+        UriTemplate template = UriTemplate.compile("https://api.example.com:8443/v1/users/{id}/orders?limit={limit}");
+        assertEquals("https", template.host().getSchemeName());
+        assertEquals("api.example.com", template.host().getHostName());
+        assertEquals(8443, template.host().getPort());
+        assertEquals(List.of("id", "limit"), template.variableNames());
+        assertEquals("/v1/users/42/orders?limit=10", template.expandPath("42", "10"));
+    }
+
+    @Test
+    void expandPath_shouldPercentEncodeReservedAndNonAsciiCharacters() {
+        UriTemplate template = UriTemplate.compile("http://localhost/search/{q}");
+        assertEquals("/search/a%2Fb%20c%3F%26%C3%A9~", template.expandPath("a/b c?&é~"));
+    }
+
+    @Test
+    void expandPath_shouldReuseValueForRepeatedName() {
+        UriTemplate template = UriTemplate.compile("http://localhost/{id}/copy/{id}");
+        assertEquals(List.of("id"), template.variableNames());
+        assertEquals("/7/copy/7", template.expandPath("7"));
+    }
+
+    @Test
+    void expand_shouldBuildAbsoluteUriAndDefaultRootPath() {
+        assertEquals(URI.create("http://localhost:8080/"), UriTemplate.compile("http://localhost:8080").expand());
+        assertEquals(URI.create("http://localhost/?x=1"), UriTemplate.compile("http://localhost?x={x}").expand("1"));
+    }
+
+    @Test
+    void compile_shouldRejectInvalidTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> UriTemplate.compile("/relative/{id}"));
+        assertThrows(IllegalArgumentException.class, () -> UriTemplate.compile("http://{host}/x"));
+        assertThrows(IllegalArgumentException.class, () -> UriTemplate.compile("http://localhost/{id"));
+        assertThrows(IllegalArgumentException.class, () -> UriTemplate.compile("http://localhost/{}"));
+        UriTemplate template = UriTemplate.compile("http://localhost/{a}/{b}");
+        assertThrows(IllegalArgumentException.class, () -> template.expandPath("1"));
+        assertThrows(IllegalArgumentException.class, () -> template.expandPath("1", null));
+    }
+}
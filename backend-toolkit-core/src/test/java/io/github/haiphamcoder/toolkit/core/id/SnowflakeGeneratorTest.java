@@ -2,13 +2,20 @@ package io.github.haiphamcoder.toolkit.core.id;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class SnowflakeGeneratorTest {
 
+    @TempDir
+    Path directory;
+
     @Test
     void nextId_shouldIncreaseAndBeUnique() {
         SnowflakeGenerator generator = new SnowflakeGenerator(0, 0, 1577836800000L);
@@ -43,4 +50,68 @@ class SnowflakeGeneratorTest {
         assertThrows(IllegalArgumentException.class, () -> new SnowflakeGenerator(32, 0, 0));
         assertThrows(IllegalArgumentException.class, () -> new SnowflakeGenerator(0, 32, 0));
     }
+
+    @Test
+    void accessors_shouldReturnLayoutIds() {
+        SnowflakeGenerator generator = new SnowflakeGenerator(3, 7, 1577836800000L);
+        assertEquals(3, generator.datacenterId());
+        assertEquals(7, generator.workerId());
+    }
+
+    @Test
+    void metrics_shouldCountGeneratedIdsAndSequenceExhaustions() {
+        IdGeneratorMetrics metrics = new IdGeneratorMetrics();
+        SnowflakeGenerator generator = new SnowflakeGenerator(0, 0, 1577836800000L, null, metrics);
+        assertSame(metrics, generator.metrics());
+        assertNull(new SnowflakeGenerator().metrics());
+
+        // more than 4096 IDs within one millisecond exhaust its sequence
+        long generated = 0;
+        while (metrics.sequenceExhaustions() == 0 && generated < 10_000_000) {
+            generator.nextId();
+            generated++;
+        }
+        assertTrue(metrics.sequenceExhaustions() > 0);
+        assertTrue(metrics.waitNanos() > 0);
+        assertEquals(generated, metrics.generated());
+        assertEquals(0, metrics.clockRegressions());
+    }
+
+    @Test
+    void metrics_shouldRecordClockRegressions() {
+        IdGeneratorMetrics metrics = new IdGeneratorMetrics();
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        SnowflakeGenerator generator = new SnowflakeGenerator(0, 0, 1577836800000L, null, metrics,
+                now::getAndIncrement);
+        long first = generator.nextId();
+        // the clock steps 100ms back, then advances by a millisecond per read
+        now.addAndGet(-101);
+        long second = generator.nextId();
+
+        assertTrue(second > first);
+        assertEquals(1, metrics.clockRegressions());
+        assertEquals(100, metrics.maxClockRegressionMillis());
+        assertEquals(0, metrics.sequenceExhaustions());
+        assertEquals(2, metrics.generated());
+    }
+
+    @Test
+    void metrics_shouldNotCountTheWaitPastTheLeaseAfterARestart() throws Exception {
+        IdGeneratorMetrics metrics = new IdGeneratorMetrics();
+        long reserved;
+        try (SnowflakeLease lease = SnowflakeLease.open(directory.resolve("snowflake.lease"), Duration.ofMillis(50))) {
+            // as if a generator had crashed: a restart resumes after this reservation, ahead of the clock
+            reserved = lease.extend(System.currentTimeMillis() + 100);
+        }
+        try (SnowflakeLease lease = SnowflakeLease.open(directory.resolve("snowflake.lease"), Duration.ofMillis(50))) {
+            SnowflakeGenerator generator = new SnowflakeGenerator(0, 0, 1577836800000L, lease, metrics);
+            long id = generator.nextId();
+            assertTrue(SnowflakeIds.timestampMillis(id, 1577836800000L) > reserved);
+            assertEquals(0, SnowflakeIds.sequence(id));
+        }
+        assertEquals(0, metrics.clockRegressions());
+        assertEquals(0, metrics.sequenceExhaustions());
+        assertEquals(0, metrics.waitNanos());
+        assertEquals(1, metrics.generated());
+    }
 }
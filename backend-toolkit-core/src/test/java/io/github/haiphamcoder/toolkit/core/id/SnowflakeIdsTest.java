@@ -0,0 +1,79 @@
+package io.github.haiphamcoder.toolkit.core.id;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class SnowflakeIdsTest {
+
+    @Test
+    void idsShouldFallInsideTheRangeOfTheirMillisecond() {
+        SnowflakeGenerator generator = new SnowflakeGenerator(3, 7, 1600000000000L);
+        long before = System.currentTimeMillis();
+        long id = generator.nextId();
+        long after = System.currentTimeMillis();
+
+        long timestamp = SnowflakeIds.timestampMillis(id, generator.epochMillis());
+        assertTrue(timestamp >= before && timestamp <= after);
+        assertEquals(3, SnowflakeIds.datacenterId(id));
+        assertEquals(7, SnowflakeIds.workerId(id));
+        assertEquals(0, SnowflakeIds.sequence(id));
+
+        Instant at = Instant.ofEpochMilli(timestamp);
+        assertTrue(SnowflakeIds.minId(at, 1600000000000L) <= id);
+        assertTrue(SnowflakeIds.maxId(at, 1600000000000L) >= id);
+        assertTrue(SnowflakeIds.maxId(at.minusMillis(1), 1600000000000L) < id);
+        assertTrue(SnowflakeIds.minId(at.plusMillis(1), 1600000000000L) > id);
+        assertEquals(SnowflakeIds.maxId(at, 1600000000000L) + 1, SnowflakeIds.minId(at.plusMillis(1), 1600000000000L));
+
+        assertEquals(0, SnowflakeIds.minId(Instant.parse("2020-01-01T00:00:00Z")));
+        assertEquals(Instant.parse("2020-01-01T00:00:01Z").toEpochMilli(),
+                SnowflakeIds.timestampMillis(SnowflakeIds.maxId(Instant.parse("2020-01-01T00:00:01.000900Z"))));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIds.minId(Instant.parse("2019-12-31T23:59:59Z")));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIds.maxId(Instant.MAX));
+    }
+
+    @Test
+    void bulkVariantsShouldMatchTheScalarOnes() {
+        SnowflakeGenerator generator = new SnowflakeGenerator(1, 2, 1577836800000L);
+        long[] ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+        long[] timestamps = new long[ids.length];
+        int[] shards = new int[ids.length];
+        SnowflakeIds.timestampMillis(ids, generator.epochMillis(), timestamps);
+        SnowflakeIds.shards(ids, 16, shards);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(SnowflakeIds.timestampMillis(ids[i]), timestamps[i]);
+            assertEquals(SnowflakeIds.shard(ids[i], 16), shards[i]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIds.shards(ids, 16, new int[10]));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIds.shard(1, 0));
+    }
+
+    @Test
+    void shardsShouldBeBalancedAndMoveOnlyToANewShard() {
+        SnowflakeGenerator generator = new SnowflakeGenerator(0, 0, 1577836800000L);
+        int[] counts = new int[10];
+        int moved = 0;
+        int ids = 100_000;
+        for (int i = 0; i < ids; i++) {
+            long id = generator.nextId();
+            int shard = SnowflakeIds.shard(id, 10);
+            counts[shard]++;
+            int grown = SnowflakeIds.shard(id, 11);
+            if (grown != shard) {
+                assertEquals(10, grown);
+                moved++;
+            }
+        }
+        for (int count : counts) {
+            assertTrue(Math.abs(count - ids / 10) < ids / 100, "unbalanced: " + count);
+        }
+        // about 1/11 of the keys move to the new shard
+        assertTrue(Math.abs(moved - ids / 11) < ids / 100, "moved " + moved);
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.haiphamcoder.toolkit.core.id;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnowflakeLeaseTest {
+
+    private static final long EPOCH = 1577836800000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartAfterACrashShouldResumeAfterTheReservation() throws Exception {
+        Path file = directory.resolve("snowflake.lease");
+        SnowflakeLease crashed = SnowflakeLease.open(file, Duration.ofMillis(200));
+        try {
+            assertEquals(-1, crashed.resumeAfter());
+            assertTrue(crashed.reservedUntil() > System.currentTimeMillis());
+            long lastId = new SnowflakeGenerator(1, 1, EPOCH, crashed).nextId();
+            // as if the clock had been ahead: IDs up to this reservation may exist
+            long reserved = crashed.extend(System.currentTimeMillis() + 300);
+
+            // reopened while the first lease is still open, as if its process had died
+            try (SnowflakeLease lease = SnowflakeLease.open(file, Duration.ofMillis(200))) {
+                assertEquals(reserved, lease.resumeAfter());
+                SnowflakeGenerator generator = new SnowflakeGenerator(1, 1, EPOCH, lease);
+                long id = generator.nextId();
+                assertTrue(id > lastId);
+                assertTrue(SnowflakeIds.timestampMillis(id, EPOCH) > reserved);
+                assertTrue(lease.reservedUntil() >= SnowflakeIds.timestampMillis(id, EPOCH));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void orderlyCloseShouldPersistTheLastIssuedTimestamp() throws Exception {
+        Path file = directory.resolve("snowflake.lease");
+        long lastId;
+        try (SnowflakeLease lease = SnowflakeLease.open(file, Duration.ofSeconds(10))) {
+            SnowflakeGenerator generator = new SnowflakeGenerator(1, 1, EPOCH, lease);
+            lastId = generator.nextId();
+            lease.close();
+            assertEquals(SnowflakeIds.timestampMillis(lastId, EPOCH), lease.reservedUntil());
+            // IDs past the persisted timestamp can no longer be issued
+            Thread.sleep(2);
+            assertThrows(IllegalStateException.class, generator::nextId);
+        }
+
+        long started = System.nanoTime();
+        try (SnowflakeLease lease = SnowflakeLease.open(file, Duration.ofSeconds(10))) {
+            assertEquals(SnowflakeIds.timestampMillis(lastId, EPOCH), lease.resumeAfter());
+            long id = new SnowflakeGenerator(1, 1, EPOCH, lease).nextId();
+            assertTrue(id > lastId);
+        }
+        // the 15s reservation of the first run was released, so nothing is waited out
+        assertTrue(System.nanoTime() - started < 5_000_000_000L);
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (SnowflakeLease lease = SnowflakeLease.open(file, Duration.ofSeconds(10))) {
+                new SnowflakeGenerator(1, 1, EPOCH, lease);
+                new SnowflakeGenerator(1, 2, EPOCH, lease);
+            }
+        });
+    }
+
+    @Test
+    void tornWriteShouldFallBackToThePreviousReservation() throws Exception {
+        Path file = directory.resolve("snowflake.lease");
+        long first;
+        try (SnowflakeLease lease = SnowflakeLease.open(file, Duration.ofSeconds(10))) {
+            first = lease.reservedUntil();
+            lease.extend(first + 1);
+        }
+        // the second reservation went to slot 1; damage its checksum
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(16 + 8);
+            raf.writeInt(0x12345678);
+        }
+        try (SnowflakeLease lease = SnowflakeLease.open(file, Duration.ofSeconds(10))) {
+            assertEquals(first, lease.resumeAfter());
+        }
+    }
+
+    @Test
+    void reservationShouldBeRenewedAheadOfTheClock() throws Exception {
+        try (SnowflakeLease lease = SnowflakeLease.open(directory.resolve("snowflake.lease"),
+                Duration.ofMillis(100))) {
+            long initial = lease.reservedUntil();
+            await().atMost(Duration.ofSeconds(5)).until(() -> lease.reservedUntil() > initial + 100);
+            assertTrue(lease.reservedUntil() >= System.currentTimeMillis());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> SnowflakeLease.open(directory.resolve("other.lease"), Duration.ZERO));
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.haiphamcoder.toolkit.core.id;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void nextUuid_shouldBeVersion7WithCurrentTimestamp() {
+        UuidV7Generator generator = new UuidV7Generator();
+        long before = System.currentTimeMillis();
+        UUID uuid = generator.nextUuid();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    void generateId_shouldProduceValidUniqueUuids() {
+        IdGenerator generator = new UuidV7Generator();
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            String id = generator.generateId();
+            assertEquals(7, UUID.fromString(id).version());
+            assertTrue(seen.add(id), "Duplicate UUID generated");
+        }
+    }
+}
@@ -1,9 +1,76 @@
 package io.github.haiphamcoder.toolkit.examples;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.http.TrafficRecorder;
+import io.github.haiphamcoder.toolkit.examples.loadgen.LoadGenerator;
+import io.github.haiphamcoder.toolkit.examples.loadgen.LoadOptions;
+import io.github.haiphamcoder.toolkit.examples.loadgen.LoadReport;
+import io.github.haiphamcoder.toolkit.examples.loadgen.StubServer;
+
+/**
+ * Command-line load generator built on {@link HttpCaller}; run with
+ * {@code --help} for the options. Without {@code --url} it targets a bundled
+ * stub server on the loopback interface.
+ *
+ * <pre>
+ * # closed loop, 64 workers against a pool of 32
+ * Main --concurrency=64 --pool-per-route=32 --duration=60s
+ * # 5000 req/s against a 2ms service, latency corrected for coordinated omission
+ * Main --mode=open --rate=5000 --concurrency=64 --stub-delay=2ms --hgrm=open.hgrm
+ * # record the exchanges for ReplayMain
+ * Main --method=POST --duration=60s --record=traffic.rec
+ * </pre>
+ */
 public class Main {
 
-    public static void main(String[] args) {
-        // do nothing
-    }
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.usage());
+            System.exit(2);
+            return;
+        }
+        if (options.help()) {
+            System.out.println(LoadOptions.usage());
+            return;
+        }
 
+        StubServer stub = options.url() == null ? StubServer.start(options.stubDelay()) : null;
+        String url = stub != null ? stub.baseUrl() + "/" : options.url();
+        TrafficRecorder recorder = options.recordPath() != null ? new TrafficRecorder(Paths.get(options.recordPath()))
+                : null;
+        // retries would hide failures and skew latency
+        HttpCaller.Builder builder = new HttpCaller.Builder()
+                .pool(options.poolTotal(), options.poolPerRoute())
+                .connectionTimeoutMs(options.connectTimeout())
+                .responseTimeoutMs(options.responseTimeout())
+                .enableAutoRetry(false);
+        if (recorder != null) {
+            builder.addExecInterceptor("recorder", recorder);
+        }
+        try (HttpCaller caller = builder.build()) {
+            LoadReport report = new LoadGenerator(options, caller, url, System.out).run();
+            report.print(System.out);
+            if (options.hgrmPath() != null) {
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(Paths.get(options.hgrmPath())))) {
+                    report.writePercentiles(hgrm);
+                }
+            }
+        } finally {
+            if (recorder != null) {
+                recorder.close();
+            }
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
 }
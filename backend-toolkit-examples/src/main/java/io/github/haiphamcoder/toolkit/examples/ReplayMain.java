@@ -0,0 +1,72 @@
+package io.github.haiphamcoder.toolkit.examples;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.HdrHistogram.Histogram;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.http.TrafficRecording;
+import io.github.haiphamcoder.toolkit.examples.replay.ReplayDriver;
+import io.github.haiphamcoder.toolkit.examples.replay.ReplayOptions;
+import io.github.haiphamcoder.toolkit.examples.replay.ReplayReport;
+import io.github.haiphamcoder.toolkit.examples.replay.ReplayServer;
+
+/**
+ * Replays a traffic recording and compares latency distributions; run with
+ * {@code --help} for the options. Without {@code --url} the recorded responses
+ * are served by a bundled replay server with their recorded latencies, so no
+ * network access is needed.
+ *
+ * <pre>
+ * # record a run, replay it at 4x and keep the result as a baseline
+ * Main --method=POST --duration=60s --record=traffic.rec
+ * ReplayMain --recording=traffic.rec --speed=4 --save=before.hist
+ * # after a change, replay the same traffic and compare
+ * ReplayMain --recording=traffic.rec --speed=4 --baseline=before.hist
+ * </pre>
+ */
+public class ReplayMain {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ReplayOptions options;
+        try {
+            options = ReplayOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(ReplayOptions.usage());
+            System.exit(2);
+            return;
+        }
+        if (options.help()) {
+            System.out.println(ReplayOptions.usage());
+            return;
+        }
+
+        TrafficRecording recording = TrafficRecording.read(Paths.get(options.recording()));
+        Histogram baseline = options.baselinePath() != null ? ReplayReport.load(Paths.get(options.baselinePath()))
+                : null;
+        System.out.printf("Replaying %d exchanges recorded over %ds at %sx%n", recording.exchanges().size(),
+                recording.span().toSeconds(), options.speed());
+        ReplayServer server = options.url() == null ? ReplayServer.start(recording, options.latencyScale()) : null;
+        // retries would hide failures and skew latency
+        try (HttpCaller caller = new HttpCaller.Builder()
+                .pool(options.concurrency() * 2, options.concurrency())
+                .enableAutoRetry(false)
+                .build()) {
+            ReplayReport report = new ReplayDriver(caller, server != null ? server.baseUrl() : options.url(),
+                    options.speed(), options.concurrency()).run(recording);
+            report.print(System.out, baseline);
+            if (server != null && server.misses() > 0) {
+                System.out.println("replay server had no recording for " + server.misses() + " requests");
+            }
+            if (options.savePath() != null) {
+                report.save(Paths.get(options.savePath()));
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.haiphamcoder.toolkit.examples.loadgen;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.hc.core5.pool.PoolStats;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.id.IdGenerator;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+import io.github.haiphamcoder.toolkit.core.id.UuidV7Generator;
+
+/**
+ * Drives an {@link HttpCaller} with a fixed number of worker threads and
+ * records latencies in HdrHistograms.
+ * <p>
+ * Closed loop: every worker sends its next request as soon as the previous one
+ * returns. Open loop: request {@code i} is due at {@code start + i / rate}, and
+ * workers pick up due requests in order; when the target falls behind, the
+ * delay until a request is actually sent counts toward its response time
+ * instead of silently lowering the offered load. Each request carries an
+ * {@code X-Request-Id} from the configured ID generator.
+ */
+public final class LoadGenerator {
+
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private final LoadOptions options;
+    private final HttpCaller caller;
+    private final String url;
+    private final IdGenerator idGenerator;
+    private final String jsonBody;
+    private final PrintStream out;
+    private volatile String lastError;
+
+    /**
+     * @param options run options
+     * @param caller  client under test
+     * @param url     target URL
+     * @param out     stream for progress lines
+     */
+    public LoadGenerator(LoadOptions options, HttpCaller caller, String url, PrintStream out) {
+        this.options = options;
+        this.caller = caller;
+        this.url = url;
+        this.out = out;
+        this.idGenerator = switch (options.idSource()) {
+            case UUIDV7 -> new UuidV7Generator();
+            case SNOWFLAKE -> new SnowflakeGenerator();
+            case NONE -> null;
+        };
+        this.jsonBody = "{\"payload\":\"" + "x".repeat(Math.max(0, options.bodySize() - 14)) + "\"}";
+    }
+
+    /**
+     * Run the warm-up, then the measured phase, printing one progress line per
+     * interval.
+     *
+     * @return measured results
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public LoadReport run() throws InterruptedException {
+        out.printf(Locale.ROOT, "%s loop, %d workers%s, %s %s, %ds (+%ds warm-up)%n",
+                options.mode() == LoadOptions.Mode.OPEN ? "Open" : "Closed", options.concurrency(),
+                options.mode() == LoadOptions.Mode.OPEN ? ", " + options.rate() + " req/s" : "",
+                options.method(), url, options.duration().toSeconds(), options.warmup().toSeconds());
+        if (!options.warmup().isZero()) {
+            runPhase(options.warmup().toNanos(), null);
+        }
+        LoadReport report = new LoadReport(options.mode());
+        runPhase(options.duration().toNanos(), report);
+        return report;
+    }
+
+    private void runPhase(long lengthNanos, LoadReport report) throws InterruptedException {
+        Recorder responseTimes = new Recorder(3);
+        Recorder serviceTimes = new Recorder(3);
+        LongAdder errors = new LongAdder();
+        AtomicLong sequence = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + lengthNanos;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "loadgen-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < options.concurrency(); i++) {
+            workers.execute(options.mode() == LoadOptions.Mode.OPEN
+                    ? () -> openLoop(start, end, sequence, responseTimes, serviceTimes, errors)
+                    : () -> closedLoop(end, responseTimes, serviceTimes, errors));
+        }
+        workers.shutdown();
+
+        long intervalNanos = options.interval().toNanos();
+        long nextTick = start + intervalNanos;
+        Histogram responseInterval = null;
+        Histogram serviceInterval = null;
+        long lastReport = start;
+        boolean done = false;
+        while (!done) {
+            done = workers.awaitTermination(Math.max(0, nextTick - System.nanoTime()), TimeUnit.NANOSECONDS);
+            nextTick += intervalNanos;
+            responseInterval = responseTimes.getIntervalHistogram(responseInterval);
+            serviceInterval = serviceTimes.getIntervalHistogram(serviceInterval);
+            long intervalErrors = errors.sumThenReset();
+            long now = System.nanoTime();
+            if (report != null) {
+                PoolStats stats = caller.poolStats();
+                report.addInterval(responseInterval, serviceInterval, intervalErrors, stats);
+                // skip the empty sliver between the last tick and the workers finishing
+                if (!done || responseInterval.getTotalCount() + intervalErrors > 0) {
+                    printProgress(now - start, now - lastReport, responseInterval, intervalErrors, stats);
+                }
+            }
+            lastReport = now;
+        }
+        if (report != null) {
+            long backlog = 0;
+            if (options.mode() == LoadOptions.Mode.OPEN) {
+                long scheduled = (lengthNanos + scheduleInterval() - 1) / scheduleInterval();
+                backlog = Math.max(0, scheduled - report.requests() - report.errors());
+            }
+            report.finish(System.nanoTime() - start, backlog, lastError);
+        }
+    }
+
+    private void closedLoop(long end, Recorder responseTimes, Recorder serviceTimes, LongAdder errors) {
+        while (System.nanoTime() < end) {
+            long sent = System.nanoTime();
+            if (send()) {
+                long latency = System.nanoTime() - sent;
+                responseTimes.recordValue(latency);
+                serviceTimes.recordValue(latency);
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    private void openLoop(long start, long end, AtomicLong sequence, Recorder responseTimes, Recorder serviceTimes,
+            LongAdder errors) {
+        long interval = scheduleInterval();
+        while (true) {
+            long due = start + sequence.getAndIncrement() * interval;
+            long now = System.nanoTime();
+            // requests still queued when the run ends are reported as backlog
+            if (due >= end || now >= end) {
+                return;
+            }
+            while (now < due) {
+                LockSupport.parkNanos(due - now);
+                now = System.nanoTime();
+            }
+            if (send()) {
+                long done = System.nanoTime();
+                responseTimes.recordValue(done - due);
+                serviceTimes.recordValue(done - now);
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    private long scheduleInterval() {
+        return Math.max(1, TimeUnit.SECONDS.toNanos(1) / options.rate());
+    }
+
+    private boolean send() {
+        Map<String, String> headers = idGenerator == null ? null
+                : Map.of(REQUEST_ID_HEADER, idGenerator.generateId());
+        try {
+            if (options.method().equals("POST")) {
+                caller.postJson(url, jsonBody, null, headers);
+            } else {
+                caller.getBytes(url, null, headers);
+            }
+            return true;
+        } catch (HttpCaller.APIException e) {
+            lastError = e.getMessage();
+            return false;
+        }
+    }
+
+    private void printProgress(long elapsedNanos, long intervalNanos, Histogram interval, long intervalErrors,
+            PoolStats stats) {
+        double seconds = Math.max(1, intervalNanos) / 1e9;
+        out.printf(Locale.ROOT,
+                "%7.1fs %9.1f req/s  p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms  errors %d  pool %d/%d pending %d%n",
+                elapsedNanos / 1e9, interval.getTotalCount() / seconds,
+                interval.getValueAtPercentile(50) / 1e6, interval.getValueAtPercentile(99) / 1e6,
+                interval.getMaxValue() / 1e6, intervalErrors, stats.getLeased(), stats.getMax(), stats.getPending());
+    }
+}
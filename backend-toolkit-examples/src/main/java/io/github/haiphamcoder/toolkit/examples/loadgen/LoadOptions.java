@@ -0,0 +1,237 @@
+package io.github.haiphamcoder.toolkit.examples.loadgen;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Command-line options of the load generator, given as {@code --name=value}.
+ * Every option has a default, so a bare run drives the bundled stub server
+ * closed-loop for 30 seconds.
+ */
+public final class LoadOptions {
+
+    /**
+     * How requests are issued.
+     */
+    public enum Mode {
+        /**
+         * Each worker sends its next request as soon as the previous one
+         * returns; throughput follows the server.
+         */
+        CLOSED,
+        /**
+         * Requests are scheduled at a fixed arrival rate regardless of how fast
+         * responses come back; latency is measured from the scheduled start.
+         */
+        OPEN
+    }
+
+    /**
+     * Source of the {@code X-Request-Id} header sent with every request.
+     */
+    public enum IdSource {
+        UUIDV7, SNOWFLAKE, NONE
+    }
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: io.github.haiphamcoder.toolkit.examples.Main [--name=value ...]",
+            "  --url=URL               target URL (default: bundled stub server on loopback)",
+            "  --mode=closed|open      closed loop or fixed arrival rate (default: closed)",
+            "  --concurrency=N         worker threads (default: 16)",
+            "  --rate=N                open loop: requests per second (default: 1000)",
+            "  --duration=30s          measured run length (ms, s, m suffixes)",
+            "  --warmup=5s             unrecorded run before measuring",
+            "  --interval=1s           progress line interval",
+            "  --method=GET|POST       POST sends a JSON body (default: GET)",
+            "  --body-size=N           approximate POST body size in bytes (default: 256)",
+            "  --pool-total=N          HttpCaller pool max total (default: 200)",
+            "  --pool-per-route=N      HttpCaller pool max per route (default: 50)",
+            "  --connect-timeout=3s    HttpCaller connect timeout",
+            "  --response-timeout=15s  HttpCaller response timeout",
+            "  --id=uuidv7|snowflake|none  X-Request-Id source (default: uuidv7)",
+            "  --stub-delay=0ms        service time of the bundled stub server",
+            "  --hgrm=PATH             also write the percentile distribution for HdrHistogram plotters",
+            "  --record=PATH           record every exchange for ReplayMain",
+            "  --help                  print this message");
+
+    private String url;
+    private Mode mode = Mode.CLOSED;
+    private int concurrency = 16;
+    private int rate = 1_000;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration interval = Duration.ofSeconds(1);
+    private String method = "GET";
+    private int bodySize = 256;
+    private int poolTotal = 200;
+    private int poolPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    private Duration responseTimeout = Duration.ofSeconds(15);
+    private IdSource idSource = IdSource.UUIDV7;
+    private Duration stubDelay = Duration.ZERO;
+    private String hgrmPath;
+    private String recordPath;
+    private boolean help;
+
+    LoadOptions() {
+    }
+
+    /**
+     * Parse command-line arguments.
+     *
+     * @param args arguments of the form {@code --name=value}
+     * @return parsed options
+     * @throws IllegalArgumentException on unknown options or invalid values
+     */
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                options.help = true;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.set(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        options.validate();
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "url" -> url = value;
+            case "mode" -> mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+            case "concurrency" -> concurrency = Integer.parseInt(value);
+            case "rate" -> rate = Integer.parseInt(value);
+            case "duration" -> duration = parseDuration(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "interval" -> interval = parseDuration(value);
+            case "method" -> method = value.toUpperCase(Locale.ROOT);
+            case "body-size" -> bodySize = Integer.parseInt(value);
+            case "pool-total" -> poolTotal = Integer.parseInt(value);
+            case "pool-per-route" -> poolPerRoute = Integer.parseInt(value);
+            case "connect-timeout" -> connectTimeout = parseDuration(value);
+            case "response-timeout" -> responseTimeout = parseDuration(value);
+            case "id" -> idSource = IdSource.valueOf(value.toUpperCase(Locale.ROOT));
+            case "stub-delay" -> stubDelay = parseDuration(value);
+            case "hgrm" -> hgrmPath = value;
+            case "record" -> recordPath = value;
+            default -> throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    private void validate() {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be > 0");
+        }
+        if (mode == Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("rate must be > 0 in open mode");
+        }
+        if (duration.isZero() || duration.isNegative() || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("duration and interval must be > 0");
+        }
+        if (!method.equals("GET") && !method.equals("POST")) {
+            throw new IllegalArgumentException("method must be GET or POST");
+        }
+    }
+
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            if (v.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(v));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value, e);
+        }
+    }
+
+    /**
+     * @return help text listing every option
+     */
+    public static String usage() {
+        return USAGE;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    public int rate() {
+        return rate;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    public Duration warmup() {
+        return warmup;
+    }
+
+    public Duration interval() {
+        return interval;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public int bodySize() {
+        return bodySize;
+    }
+
+    public int poolTotal() {
+        return poolTotal;
+    }
+
+    public int poolPerRoute() {
+        return poolPerRoute;
+    }
+
+    public Duration connectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration responseTimeout() {
+        return responseTimeout;
+    }
+
+    public IdSource idSource() {
+        return idSource;
+    }
+
+    public Duration stubDelay() {
+        return stubDelay;
+    }
+
+    public String hgrmPath() {
+        return hgrmPath;
+    }
+
+    public String recordPath() {
+        return recordPath;
+    }
+
+    public boolean help() {
+        return help;
+    }
+}
@@ -0,0 +1,150 @@
+package io.github.haiphamcoder.toolkit.examples.loadgen;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+import org.apache.hc.core5.pool.PoolStats;
+
+/**
+ * Outcome of a measured run: latency histograms in nanoseconds, counts and
+ * the connection pool state.
+ * <p>
+ * In open-loop runs the response time is measured from each request's
+ * scheduled start, so time spent queued behind a slow response is counted
+ * (correcting for coordinated omission), while the service time covers only
+ * the call itself. In closed-loop runs the two are the same.
+ */
+public final class LoadReport {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    private final LoadOptions.Mode mode;
+    private final Histogram responseTimes = new Histogram(3);
+    private final Histogram serviceTimes = new Histogram(3);
+    private long errors;
+    private long backlog;
+    private long elapsedNanos;
+    private int maxPending;
+    private PoolStats poolStats;
+    private String lastError;
+
+    LoadReport(LoadOptions.Mode mode) {
+        this.mode = mode;
+    }
+
+    void addInterval(Histogram intervalResponseTimes, Histogram intervalServiceTimes, long intervalErrors,
+            PoolStats stats) {
+        responseTimes.add(intervalResponseTimes);
+        serviceTimes.add(intervalServiceTimes);
+        errors += intervalErrors;
+        maxPending = Math.max(maxPending, stats.getPending());
+        poolStats = stats;
+    }
+
+    void finish(long elapsedNanos, long backlog, String lastError) {
+        this.elapsedNanos = elapsedNanos;
+        this.backlog = backlog;
+        this.lastError = lastError;
+    }
+
+    /**
+     * @return successful requests
+     */
+    public long requests() {
+        return responseTimes.getTotalCount();
+    }
+
+    /**
+     * @return failed requests
+     */
+    public long errors() {
+        return errors;
+    }
+
+    /**
+     * @return open loop: scheduled requests never sent because the run ended
+     *         behind schedule; always 0 in closed loop
+     */
+    public long backlog() {
+        return backlog;
+    }
+
+    /**
+     * @return successful requests per second
+     */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : requests() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return response times in nanoseconds
+     */
+    public Histogram responseTimes() {
+        return responseTimes;
+    }
+
+    /**
+     * @return service times in nanoseconds
+     */
+    public Histogram serviceTimes() {
+        return serviceTimes;
+    }
+
+    /**
+     * @return highest number of requests seen waiting for a pooled connection
+     */
+    public int maxPending() {
+        return maxPending;
+    }
+
+    /**
+     * Print the summary.
+     *
+     * @param out target stream
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nrequests   %d ok, %d failed in %.1fs%n", requests(), errors, elapsedNanos / 1e9);
+        out.printf(Locale.ROOT, "throughput %.1f req/s%n", throughput());
+        if (backlog > 0) {
+            out.printf(Locale.ROOT, "backlog    %d scheduled requests not sent, target rate not sustained%n", backlog);
+        }
+        if (lastError != null) {
+            out.println("last error " + lastError);
+        }
+        printPercentiles(out, mode == LoadOptions.Mode.OPEN ? "response time (from scheduled start)" : "latency",
+                responseTimes);
+        if (mode == LoadOptions.Mode.OPEN) {
+            printPercentiles(out, "service time", serviceTimes);
+        }
+        if (poolStats != null) {
+            out.printf(Locale.ROOT, "pool       leased %d, available %d, pending %d (max %d), max %d%n",
+                    poolStats.getLeased(), poolStats.getAvailable(), poolStats.getPending(), maxPending,
+                    poolStats.getMax());
+        }
+    }
+
+    /**
+     * Write the full response time percentile distribution in milliseconds, in
+     * the {@code .hgrm} format read by HdrHistogram plotters.
+     *
+     * @param out target stream
+     */
+    public void writePercentiles(PrintStream out) {
+        responseTimes.outputPercentileDistribution(out, NANOS_PER_MS);
+    }
+
+    private static void printPercentiles(PrintStream out, String title, Histogram histogram) {
+        out.println(title + " (ms)");
+        for (double percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, "  p%-6s %10.3f%n", format(percentile),
+                    histogram.getValueAtPercentile(percentile) / NANOS_PER_MS);
+        }
+        out.printf(Locale.ROOT, "  max     %10.3f%n", histogram.getMaxValue() / NANOS_PER_MS);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.haiphamcoder.toolkit.examples.loadgen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Loopback HTTP server for runs without a real target: every path answers 200
+ * with a small JSON body after an optional fixed service time, which makes
+ * pool sizing and queueing effects reproducible on a single box.
+ */
+public final class StubServer implements AutoCloseable {
+
+    private static final byte[] BODY = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a server on an ephemeral loopback port.
+     *
+     * @param delay service time added to every response
+     * @return running server
+     * @throws IOException if the socket cannot be bound
+     */
+    public static StubServer start(Duration delay) throws IOException {
+        // without TCP_NODELAY every response waits for the peer's delayed ACK (~40ms on Linux)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        // sleeping handlers must not hold back the others
+        ExecutorService executor = delay.isZero()
+                ? Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()))
+                : Executors.newCachedThreadPool();
+        long delayMs = delay.toMillis();
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.start();
+        return new StubServer(server, executor);
+    }
+
+    /**
+     * Base URL of the server, e.g. "http://127.0.0.1:41234".
+     *
+     * @return base URL
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.haiphamcoder.toolkit.examples.replay;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.Method;
+
+import io.github.haiphamcoder.toolkit.core.http.BodyDecoder;
+import io.github.haiphamcoder.toolkit.core.http.HeaderSet;
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.http.RequestSpec;
+import io.github.haiphamcoder.toolkit.core.http.TrafficRecording;
+import io.github.haiphamcoder.toolkit.core.http.UriTemplate;
+
+/**
+ * Re-issues the exchanges of a {@link TrafficRecording} through an
+ * {@link HttpCaller} on their recorded schedule, optionally sped up or slowed
+ * down, and measures the latencies.
+ * <p>
+ * Exchange {@code i} is due at {@code start + recordedStart(i) / speed}, and
+ * workers pick up due exchanges in order, as in the open-loop mode of the load
+ * generator: when the target falls behind, the time an exchange waits past its
+ * due time counts toward its response time. Requests go to their recorded
+ * host, or all to {@code baseUrl} when given, with the recorded method,
+ * headers and body.
+ */
+public final class ReplayDriver {
+
+    // set by the client for the new connection and body
+    private static final Set<String> SKIPPED_HEADERS = Set.of("host", "content-length", "transfer-encoding",
+            "connection", "keep-alive", "content-type");
+
+    private final HttpCaller caller;
+    private final String baseUrl;
+    private final double speed;
+    private final int concurrency;
+
+    /**
+     * @param caller      client under test
+     * @param baseUrl     target for every request, e.g. a {@link ReplayServer};
+     *                    null for the recorded hosts
+     * @param speed       replay rate relative to the recording, e.g. 2 for
+     *                    twice as fast
+     * @param concurrency worker threads, the upper bound of requests in flight
+     */
+    public ReplayDriver(HttpCaller caller, String baseUrl, double speed, int concurrency) {
+        if (!(speed > 0) || concurrency <= 0) {
+            throw new IllegalArgumentException("speed and concurrency must be > 0");
+        }
+        this.caller = caller;
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Replay every exchange and wait for the last one.
+     *
+     * @param recording traffic to replay
+     * @return latencies of the replay next to the recorded ones
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public ReplayReport run(TrafficRecording recording) throws InterruptedException {
+        List<TrafficRecording.Exchange> exchanges = recording.exchanges();
+        Histogram recorded = new Histogram(3);
+        List<RequestSpec> specs = new ArrayList<>(exchanges.size());
+        long recordedErrors = 0;
+        for (TrafficRecording.Exchange exchange : exchanges) {
+            recorded.recordValue(Math.max(1, exchange.duration().toNanos()));
+            if (exchange.status() < 200 || exchange.status() >= 300) {
+                recordedErrors++;
+            }
+            specs.add(toSpec(exchange));
+        }
+        long origin = exchanges.isEmpty() ? 0 : exchanges.get(0).start().toNanos();
+
+        Recorder responseTimes = new Recorder(3);
+        Recorder serviceTimes = new Recorder(3);
+        LongAdder errors = new LongAdder();
+        LongAdder skipped = new LongAdder();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "replay-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < specs.size()) {
+                    RequestSpec spec = specs.get(i);
+                    if (spec == null) {
+                        skipped.increment();
+                        continue;
+                    }
+                    long due = start + (long) ((exchanges.get(i).start().toNanos() - origin) / speed);
+                    long now = System.nanoTime();
+                    while (now < due) {
+                        LockSupport.parkNanos(due - now);
+                        now = System.nanoTime();
+                    }
+                    try {
+                        caller.execute(spec, BodyDecoder.ofByteArray());
+                        long done = System.nanoTime();
+                        responseTimes.recordValue(done - due);
+                        serviceTimes.recordValue(done - now);
+                    } catch (HttpCaller.APIException e) {
+                        errors.increment();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return new ReplayReport(recorded, responseTimes.getIntervalHistogram(), serviceTimes.getIntervalHistogram(),
+                errors.sum(), recordedErrors, skipped.sum(), System.nanoTime() - start);
+    }
+
+    private RequestSpec toSpec(TrafficRecording.Exchange exchange) {
+        Method method;
+        UriTemplate target;
+        try {
+            method = Method.normalizedValueOf(exchange.method());
+            // a recorded target is already encoded and has no placeholders
+            target = UriTemplate.compile((baseUrl != null ? baseUrl : exchange.host()) + exchange.requestUri());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        String contentType = null;
+        for (Header header : exchange.requestHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (name.equals("content-type")) {
+                contentType = header.getValue();
+            }
+            if (!SKIPPED_HEADERS.contains(name)) {
+                headers.put(header.getName(), header.getValue());
+            }
+        }
+        RequestSpec spec = RequestSpec.of(method, target, HeaderSet.of(headers));
+        byte[] body = exchange.requestBody();
+        if (body != null) {
+            spec = spec.withBody(body, contentType != null ? ContentType.parse(contentType)
+                    : ContentType.APPLICATION_OCTET_STREAM);
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.haiphamcoder.toolkit.examples.replay;
+
+/**
+ * Command-line options of the replay tool, given as {@code --name=value}.
+ * Only {@code --recording} is required; by default the recording is replayed
+ * at its original rate against a bundled {@link ReplayServer}.
+ */
+public final class ReplayOptions {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: io.github.haiphamcoder.toolkit.examples.ReplayMain --recording=PATH [--name=value ...]",
+            "  --recording=PATH        file written by TrafficRecorder (e.g. Main --record=PATH)",
+            "  --url=URL               send everything to this base URL (default: bundled replay server)",
+            "  --speed=1.0             replay rate relative to the recording",
+            "  --concurrency=N         worker threads (default: 64)",
+            "  --latency-scale=1.0     replay server: factor on the recorded latencies",
+            "  --save=PATH             write the replay response times, as a later --baseline",
+            "  --baseline=PATH         compare with response times saved by an earlier run",
+            "  --help                  print this message");
+
+    private String recording;
+    private String url;
+    private double speed = 1.0;
+    private int concurrency = 64;
+    private double latencyScale = 1.0;
+    private String savePath;
+    private String baselinePath;
+    private boolean help;
+
+    ReplayOptions() {
+    }
+
+    /**
+     * Parse command-line arguments.
+     *
+     * @param args arguments of the form {@code --name=value}
+     * @return parsed options
+     * @throws IllegalArgumentException on unknown options or invalid values
+     */
+    public static ReplayOptions parse(String... args) {
+        ReplayOptions options = new ReplayOptions();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                options.help = true;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.set(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        if (!options.help) {
+            options.validate();
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        try {
+            switch (name) {
+                case "recording" -> recording = value;
+                case "url" -> url = value;
+                case "speed" -> speed = Double.parseDouble(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "latency-scale" -> latencyScale = Double.parseDouble(value);
+                case "save" -> savePath = value;
+                case "baseline" -> baselinePath = value;
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value, e);
+        }
+    }
+
+    private void validate() {
+        if (recording == null) {
+            throw new IllegalArgumentException("--recording is required");
+        }
+        if (!(speed > 0) || concurrency <= 0 || latencyScale < 0) {
+            throw new IllegalArgumentException("speed and concurrency must be > 0, latency-scale >= 0");
+        }
+    }
+
+    /**
+     * @return help text listing every option
+     */
+    public static String usage() {
+        return USAGE;
+    }
+
+    public String recording() {
+        return recording;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public double speed() {
+        return speed;
+    }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    public double latencyScale() {
+        return latencyScale;
+    }
+
+    public String savePath() {
+        return savePath;
+    }
+
+    public String baselinePath() {
+        return baselinePath;
+    }
+
+    public boolean help() {
+        return help;
+    }
+}
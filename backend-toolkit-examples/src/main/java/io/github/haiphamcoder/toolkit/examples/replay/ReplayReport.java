@@ -0,0 +1,159 @@
+package io.github.haiphamcoder.toolkit.examples.replay;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of a replay: the latencies of the recording, of the replay, and
+ * optionally of an earlier replay saved with {@link #save(Path)}, so that two
+ * versions of a client or service can be compared on the same traffic.
+ * <p>
+ * Replay response times are measured from each exchange's due time, so
+ * queueing behind slow responses is included; service times cover only the
+ * call. All histograms are in nanoseconds.
+ */
+public final class ReplayReport {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    private final Histogram recorded;
+    private final Histogram responseTimes;
+    private final Histogram serviceTimes;
+    private final long errors;
+    private final long recordedErrors;
+    private final long skipped;
+    private final long elapsedNanos;
+
+    ReplayReport(Histogram recorded, Histogram responseTimes, Histogram serviceTimes, long errors,
+            long recordedErrors, long skipped, long elapsedNanos) {
+        this.recorded = recorded;
+        this.responseTimes = responseTimes;
+        this.serviceTimes = serviceTimes;
+        this.errors = errors;
+        this.recordedErrors = recordedErrors;
+        this.skipped = skipped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return recorded durations
+     */
+    public Histogram recorded() {
+        return recorded;
+    }
+
+    /**
+     * @return replay response times, from each exchange's due time
+     */
+    public Histogram responseTimes() {
+        return responseTimes;
+    }
+
+    /**
+     * @return replay service times
+     */
+    public Histogram serviceTimes() {
+        return serviceTimes;
+    }
+
+    /**
+     * @return successful replayed requests
+     */
+    public long requests() {
+        return responseTimes.getTotalCount();
+    }
+
+    /**
+     * @return failed replayed requests, including non-2xx answers
+     */
+    public long errors() {
+        return errors;
+    }
+
+    /**
+     * @return recorded exchanges that had a non-2xx status
+     */
+    public long recordedErrors() {
+        return recordedErrors;
+    }
+
+    /**
+     * @return recorded exchanges that could not be turned into a request
+     */
+    public long skipped() {
+        return skipped;
+    }
+
+    /**
+     * Save the replay response times, e.g. as the baseline for the next
+     * version.
+     *
+     * @param file target file
+     * @throws IOException on write errors
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(responseTimes.getNeededByteBufferCapacity());
+        int length = responseTimes.encodeIntoCompressedByteBuffer(buffer);
+        Files.write(file, Arrays.copyOf(buffer.array(), length));
+    }
+
+    /**
+     * Load response times saved with {@link #save(Path)}.
+     *
+     * @param file saved file
+     * @return response times in nanoseconds
+     * @throws IOException if the file cannot be read or decoded
+     */
+    public static Histogram load(Path file) throws IOException {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Files.readAllBytes(file)), 0);
+        } catch (DataFormatException e) {
+            throw new IOException(file + " is not a saved replay histogram", e);
+        }
+    }
+
+    /**
+     * Print the summary and a percentile table of recorded, replayed and,
+     * when given, baseline response times.
+     *
+     * @param out      target stream
+     * @param baseline earlier replay to compare with (nullable)
+     */
+    public void print(PrintStream out, Histogram baseline) {
+        out.printf(Locale.ROOT, "%nreplayed   %d ok, %d failed (%d non-2xx recorded), %d skipped in %.1fs%n",
+                requests(), errors, recordedErrors, skipped, elapsedNanos / 1e9);
+        out.printf(Locale.ROOT, "%-8s %12s %12s %12s%s%n", "(ms)", "recorded", "service", "response",
+                baseline != null ? String.format(Locale.ROOT, " %12s %8s", "baseline", "change") : "");
+        for (double percentile : PERCENTILES) {
+            row(out, "p" + format(percentile), recorded.getValueAtPercentile(percentile),
+                    serviceTimes.getValueAtPercentile(percentile), responseTimes.getValueAtPercentile(percentile),
+                    baseline != null ? baseline.getValueAtPercentile(percentile) : -1);
+        }
+        row(out, "max", recorded.getMaxValue(), serviceTimes.getMaxValue(), responseTimes.getMaxValue(),
+                baseline != null ? baseline.getMaxValue() : -1);
+    }
+
+    private static void row(PrintStream out, String label, long recorded, long service, long response,
+            long baseline) {
+        out.printf(Locale.ROOT, "%-8s %12.3f %12.3f %12.3f", label, recorded / NANOS_PER_MS, service / NANOS_PER_MS,
+                response / NANOS_PER_MS);
+        if (baseline >= 0) {
+            out.printf(Locale.ROOT, " %12.3f %+7.1f%%", baseline / NANOS_PER_MS,
+                    baseline == 0 ? 0 : (response - baseline) * 100.0 / baseline);
+        }
+        out.println();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.haiphamcoder.toolkit.examples.replay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.hc.core5.http.Header;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.haiphamcoder.toolkit.core.http.TrafficRecording;
+
+/**
+ * Loopback HTTP server answering from a {@link TrafficRecording}, so recorded
+ * traffic can be replayed without the original services.
+ * <p>
+ * Requests are matched on method and request target (path and query); the
+ * host is ignored. Repeated requests for the same target cycle through its
+ * recorded responses in order. Each response is held back for its recorded
+ * duration times {@code latencyScale}, which reproduces the original latency
+ * distribution, and carries the recorded status, headers and body. Unknown
+ * targets get a 404 with {@code X-Replay-Miss: true}.
+ */
+public final class ReplayServer implements AutoCloseable {
+
+    // framing is the server's own business, not the recording's
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "transfer-encoding", "connection",
+            "keep-alive", "date");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder misses = new LongAdder();
+
+    private ReplayServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Start a server on an ephemeral loopback port.
+     *
+     * @param recording    recorded exchanges to serve
+     * @param latencyScale factor applied to the recorded durations, 0 to
+     *                     answer at once
+     * @return running server
+     * @throws IOException if the socket cannot be bound
+     */
+    public static ReplayServer start(TrafficRecording recording, double latencyScale) throws IOException {
+        if (latencyScale < 0) {
+            throw new IllegalArgumentException("latencyScale must be >= 0");
+        }
+        Map<String, Responses> byTarget = new HashMap<>();
+        for (TrafficRecording.Exchange exchange : recording.exchanges()) {
+            byTarget.computeIfAbsent(key(exchange.method(), exchange.requestUri()), k -> new Responses())
+                    .add(exchange);
+        }
+
+        // without TCP_NODELAY every response waits for the peer's delayed ACK (~40ms on Linux)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        // sleeping handlers must not hold back the others
+        ExecutorService executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        ReplayServer replay = new ReplayServer(server, executor);
+        server.createContext("/", exchange -> replay.handle(exchange, byTarget, latencyScale));
+        server.start();
+        return replay;
+    }
+
+    /**
+     * Base URL of the server, e.g. "http://127.0.0.1:41234".
+     *
+     * @return base URL
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return requests that matched no recorded exchange
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, Map<String, Responses> byTarget, double latencyScale)
+            throws IOException {
+        long start = System.nanoTime();
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        Responses responses = byTarget.get(key(exchange.getRequestMethod(), exchange.getRequestURI().toString()));
+        if (responses == null) {
+            misses.increment();
+            exchange.getResponseHeaders().add("X-Replay-Miss", "true");
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        TrafficRecording.Exchange recorded = responses.next();
+        long remaining = (long) (recorded.duration().toNanos() * latencyScale) - (System.nanoTime() - start);
+        if (remaining > 0) {
+            try {
+                Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Header header : recorded.responseHeaders()) {
+            if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                exchange.getResponseHeaders().add(header.getName(), header.getValue());
+            }
+        }
+        byte[] body = recorded.responseBody();
+        boolean empty = body == null || body.length == 0 || exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(recorded.status(), empty ? -1 : body.length);
+        if (!empty) {
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+
+    private static String key(String method, String requestUri) {
+        return method + " " + requestUri;
+    }
+
+    private static final class Responses {
+        private final List<TrafficRecording.Exchange> exchanges = new ArrayList<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private void add(TrafficRecording.Exchange exchange) {
+            exchanges.add(exchange);
+        }
+
+        private TrafficRecording.Exchange next() {
+            return exchanges.get(Math.floorMod(next.getAndIncrement(), exchanges.size()));
+        }
+    }
+}
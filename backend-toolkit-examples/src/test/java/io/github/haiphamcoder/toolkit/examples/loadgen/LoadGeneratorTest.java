@@ -0,0 +1,56 @@
+package io.github.haiphamcoder.toolkit.examples.loadgen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+class LoadGeneratorTest {
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    @Test
+    void parsesOptions() {
+        LoadOptions options = LoadOptions.parse("--mode=open", "--rate=250", "--duration=500ms", "--id=snowflake");
+        assertEquals(LoadOptions.Mode.OPEN, options.mode());
+        assertEquals(250, options.rate());
+        assertEquals(Duration.ofMillis(500), options.duration());
+        assertEquals(LoadOptions.IdSource.SNOWFLAKE, options.idSource());
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--threads=4"));
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("--method=PUT"));
+    }
+
+    @Test
+    void closedLoopKeepsWorkersBusy() throws Exception {
+        LoadOptions options = LoadOptions.parse("--concurrency=4", "--duration=1s", "--warmup=0s", "--method=POST");
+        try (StubServer stub = StubServer.start(Duration.ZERO);
+                HttpCaller caller = new HttpCaller.Builder().build()) {
+            LoadReport report = new LoadGenerator(options, caller, stub.baseUrl() + "/", DISCARD).run();
+            assertTrue(report.requests() > 100, "requests " + report.requests());
+            assertEquals(0, report.errors());
+            assertEquals(0, report.backlog());
+        }
+    }
+
+    @Test
+    void openLoopCountsQueueingBehindSlowResponses() throws Exception {
+        // 2 workers x 20ms service time sustain ~100 req/s, half the offered rate
+        LoadOptions options = LoadOptions.parse("--mode=open", "--rate=200", "--concurrency=2", "--duration=1s",
+                "--warmup=0s");
+        try (StubServer stub = StubServer.start(Duration.ofMillis(20));
+                HttpCaller caller = new HttpCaller.Builder().build()) {
+            LoadReport report = new LoadGenerator(options, caller, stub.baseUrl() + "/", DISCARD).run();
+            long service = report.serviceTimes().getValueAtPercentile(50);
+            long response = report.responseTimes().getValueAtPercentile(99);
+            assertTrue(response > 10 * service, "p99 response " + response + " vs p50 service " + service);
+            assertTrue(report.backlog() > 0);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.haiphamcoder.toolkit.examples.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.http.TrafficRecorder;
+import io.github.haiphamcoder.toolkit.core.http.TrafficRecording;
+import io.github.haiphamcoder.toolkit.examples.loadgen.StubServer;
+
+class ReplayTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordedTrafficWithItsLatencyAndComparesRuns() throws Exception {
+        Path file = directory.resolve("traffic.rec");
+        try (StubServer stub = StubServer.start(Duration.ofMillis(20));
+                TrafficRecorder recorder = new TrafficRecorder(file);
+                HttpCaller caller = new HttpCaller.Builder().addExecInterceptor("recorder", recorder).build()) {
+            for (int i = 0; i < 20; i++) {
+                caller.postJson(stub.baseUrl() + "/v1/events", "{\"n\":" + i + "}", Map.of("page", "" + i % 3),
+                        Map.of("X-Tenant", "t1"));
+                Thread.sleep(5);
+            }
+        }
+        TrafficRecording recording = TrafficRecording.read(file);
+        assertEquals(20, recording.exchanges().size());
+        assertTrue(recording.span().toMillis() >= 19 * 25, "span " + recording.span());
+
+        ReplayReport report;
+        try (ReplayServer server = ReplayServer.start(recording, 1.0);
+                HttpCaller caller = new HttpCaller.Builder().build()) {
+            assertEquals("{\"ok\":true}", caller.postJson(server.baseUrl() + "/v1/events?page=1", "{}", null, null));
+            assertThrows(HttpCaller.APIException.class, () -> caller.get(server.baseUrl() + "/unknown", null, null));
+            assertEquals(1, server.misses());
+
+            // twice as fast: the schedule halves, the recorded 20ms service time stays
+            long start = System.nanoTime();
+            report = new ReplayDriver(caller, server.baseUrl(), 2.0, 8).run(recording);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(elapsedMs < recording.span().toMillis(), elapsedMs + "ms");
+            assertEquals(20, report.requests());
+            assertEquals(0, report.errors() + report.skipped());
+            assertTrue(report.serviceTimes().getValueAtPercentile(50) >= 20_000_000L);
+            assertTrue(report.recorded().getValueAtPercentile(50) >= 20_000_000L);
+        }
+
+        Path saved = directory.resolve("baseline.hist");
+        report.save(saved);
+        Histogram baseline = ReplayReport.load(saved);
+        assertEquals(report.responseTimes().getTotalCount(), baseline.getTotalCount());
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        report.print(new PrintStream(printed, true, StandardCharsets.UTF_8), baseline);
+        String table = printed.toString(StandardCharsets.UTF_8);
+        assertTrue(table.contains("baseline") && table.contains("+0.0%"), table);
+    }
+
+    @Test
+    void parsesOptions() {
+        ReplayOptions options = ReplayOptions.parse("--recording=a.rec", "--speed=2.5", "--latency-scale=0");
+        assertEquals(2.5, options.speed());
+        assertEquals(0.0, options.latencyScale());
+        assertThrows(IllegalArgumentException.class, () -> ReplayOptions.parse("--speed=2"));
+        assertThrows(IllegalArgumentException.class, () -> ReplayOptions.parse("--recording=a", "--speed=0"));
+    }
+}
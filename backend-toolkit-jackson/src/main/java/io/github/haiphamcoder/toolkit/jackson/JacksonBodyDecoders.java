@@ -0,0 +1,135 @@
+package io.github.haiphamcoder.toolkit.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.github.haiphamcoder.toolkit.core.http.BodyDecoder;
+
+/**
+ * Jackson based {@link BodyDecoder}s.
+ * <p>
+ * Decoders bind directly from the response stream: Jackson detects UTF-8/16/32
+ * from the raw bytes, so the body is never turned into a {@link String} first.
+ * Bodies declared in any other charset are read through a {@link java.io.Reader}.
+ *
+ * @author haiphamcoder
+ * @since 1.0.0
+ * @see BodyDecoder
+ */
+public final class JacksonBodyDecoders {
+
+    private JacksonBodyDecoders() {
+    }
+
+    /**
+     * Decoder binding the whole body to the given type.
+     *
+     * @param mapper object mapper
+     * @param type   target type
+     * @param <T>    decoded type
+     * @return body decoder
+     */
+    public static <T> BodyDecoder<T> of(ObjectMapper mapper, Class<T> type) {
+        return of(mapper.readerFor(type));
+    }
+
+    /**
+     * Decoder binding the whole body to the given generic type.
+     *
+     * @param mapper object mapper
+     * @param type   target type reference
+     * @param <T>    decoded type
+     * @return body decoder
+     */
+    public static <T> BodyDecoder<T> of(ObjectMapper mapper, TypeReference<T> type) {
+        return of(mapper.readerFor(type));
+    }
+
+    /**
+     * Decoder binding the whole body with a preconfigured reader.
+     *
+     * @param reader object reader, already bound to the target type
+     * @param <T>    decoded type
+     * @return body decoder
+     */
+    public static <T> BodyDecoder<T> of(ObjectReader reader) {
+        return (body, charset) -> {
+            try (JsonParser parser = createParser(reader, body, charset)) {
+                return reader.readValue(parser);
+            }
+        };
+    }
+
+    /**
+     * Streaming decoder for a top-level JSON array: each element is bound and
+     * handed to {@code consumer} as soon as it has been read, so only one
+     * element is held in memory at a time.
+     *
+     * @param mapper      object mapper
+     * @param elementType element type
+     * @param consumer    receives elements in document order
+     * @param <T>         element type
+     * @return decoder returning the number of elements consumed
+     */
+    public static <T> BodyDecoder<Long> forEachElement(ObjectMapper mapper, Class<T> elementType,
+            Consumer<? super T> consumer) {
+        return forEachElement(mapper.readerFor(elementType), consumer);
+    }
+
+    /**
+     * Streaming decoder for a top-level JSON array using a preconfigured reader.
+     *
+     * @param reader   object reader, already bound to the element type
+     * @param consumer receives elements in document order
+     * @param <T>      element type
+     * @return decoder returning the number of elements consumed
+     */
+    public static <T> BodyDecoder<Long> forEachElement(ObjectReader reader, Consumer<? super T> consumer) {
+        return (body, charset) -> {
+            try (JsonParser parser = createParser(reader, body, charset)) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    return 0L;
+                }
+                if (token != JsonToken.START_ARRAY) {
+                    throw new IOException("Expected a JSON array but found " + token);
+                }
+                long count = 0;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    T element = reader.readValue(parser);
+                    consumer.accept(element);
+                    count++;
+                }
+                return count;
+            }
+        };
+    }
+
+    private static JsonParser createParser(ObjectReader reader, InputStream body, Charset charset)
+            throws IOException {
+        if (isAutoDetected(charset)) {
+            return reader.createParser(body);
+        }
+        return reader.createParser(new InputStreamReader(body, charset));
+    }
+
+    private static boolean isAutoDetected(Charset charset) {
+        return charset == null
+                || StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.UTF_16.equals(charset)
+                || StandardCharsets.UTF_16BE.equals(charset)
+                || StandardCharsets.UTF_16LE.equals(charset)
+                || "UTF-32".equals(charset.name());
+    }
+
+}
@@ -0,0 +1,67 @@
+package io.github.haiphamcoder.toolkit.jackson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JacksonBodyDecodersTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void of_shouldBindWholeBody() throws Exception {
+        Item item = JacksonBodyDecoders.of(mapper, Item.class)
+                .decode(stream("{\"id\":7,\"name\":\"a\"}", StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        assertEquals(7, item.id);
+        assertEquals("a", item.name);
+    }
+
+    @Test
+    void of_shouldBindGenericTypeAndNonUnicodeCharset() throws Exception {
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        Map<String, String> map = JacksonBodyDecoders.of(mapper, new TypeReference<Map<String, String>>() {
+        }).decode(stream("{\"k\":\"café\"}", latin1), latin1);
+        assertEquals("café", map.get("k"));
+    }
+
+    @Test
+    void forEachElement_shouldStreamArrayElements() throws Exception {
+        List<Item> seen = new ArrayList<>();
+        long count = JacksonBodyDecoders.forEachElement(mapper, Item.class, seen::add)
+                .decode(stream("[{\"id\":1},{\"id\":2},{\"id\":3}]", StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8);
+        assertEquals(3, count);
+        assertEquals(3, seen.size());
+        assertEquals(2, seen.get(1).id);
+    }
+
+    @Test
+    void forEachElement_shouldHandleEmptyBodyAndRejectNonArray() throws Exception {
+        assertEquals(0L, JacksonBodyDecoders.forEachElement(mapper, Item.class, item -> {
+        }).decode(InputStream.nullInputStream(), StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> JacksonBodyDecoders.forEachElement(mapper, Item.class, item -> {
+        }).decode(stream("{\"id\":1}", StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    private static InputStream stream(String json, Charset charset) {
+        return new ByteArrayInputStream(json.getBytes(charset));
+    }
+
+    static final class Item {
+        public long id;
+        public String name;
+    }
+}
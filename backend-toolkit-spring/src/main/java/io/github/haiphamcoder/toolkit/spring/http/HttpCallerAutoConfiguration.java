@@ -0,0 +1,40 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Auto-configuration of a shared, pooled {@link HttpCaller} built from
+ * {@link HttpCallerProperties} and every {@link HttpCallerBuilderCustomizer}
+ * bean, and of the {@link HttpCallerRegistry} of named clients. Each backs off
+ * when the application defines its own bean; both are closed with the context.
+ */
+@AutoConfiguration
+@ConditionalOnClass(HttpCaller.class)
+@ConditionalOnProperty(prefix = "toolkit.http", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(HttpCallerProperties.class)
+public class HttpCallerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpCaller httpCaller(HttpCallerProperties properties,
+            ObjectProvider<HttpCallerBuilderCustomizer> customizers) {
+        HttpCaller.Builder builder = properties.applyTo(new HttpCaller.Builder());
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpCallerRegistry httpCallerRegistry(HttpCallerProperties properties,
+            ObjectProvider<HttpCallerRegistryCustomizer> customizers) {
+        return new HttpCallerRegistry(properties.getClients(), customizers.orderedStream().toList());
+    }
+}
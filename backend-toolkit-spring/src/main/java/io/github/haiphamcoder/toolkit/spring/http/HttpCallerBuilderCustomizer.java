@@ -0,0 +1,21 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Callback to customize the {@link HttpCaller.Builder} of the auto-configured
+ * {@link HttpCaller} after the {@code toolkit.http.*} properties have been
+ * applied, e.g. to add a DNS resolver, warm-up routes or interceptors.
+ * Customizers run in {@link org.springframework.core.annotation.Order} order.
+ */
+@FunctionalInterface
+public interface HttpCallerBuilderCustomizer {
+
+    /**
+     * Customize the builder.
+     *
+     * @param builder builder to customize
+     */
+    void customize(HttpCaller.Builder builder);
+
+}
@@ -0,0 +1,58 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Binds the auto-configured {@link HttpCaller} and the clients of the
+ * {@link HttpCallerRegistry} to Micrometer: a request timer through
+ * {@link HttpCallerMetricsInterceptor} and pool gauges through
+ * {@link HttpCallerPoolMetrics}, tagged {@code client=default} for the shared
+ * caller and with the client name for registry clients. Active when a
+ * {@link MeterRegistry} bean exists (e.g. from Spring Boot Actuator) and
+ * {@code toolkit.http.metrics.enabled} is not false.
+ */
+@AutoConfiguration(after = HttpCallerAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({ HttpCaller.class, MeterRegistry.class })
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "toolkit.http.metrics", name = "enabled", matchIfMissing = true)
+public class HttpCallerMetricsAutoConfiguration {
+
+    static final String DEFAULT_CLIENT = "default";
+
+    @Bean
+    public HttpCallerBuilderCustomizer httpCallerMetricsCustomizer(MeterRegistry registry) {
+        return builder -> builder.addExecInterceptor("metrics",
+                new HttpCallerMetricsInterceptor(registry, DEFAULT_CLIENT));
+    }
+
+    @Bean
+    @ConditionalOnBean(HttpCaller.class)
+    public HttpCallerPoolMetrics httpCallerPoolMetrics(HttpCaller httpCaller) {
+        return new HttpCallerPoolMetrics(httpCaller, DEFAULT_CLIENT);
+    }
+
+    @Bean
+    @ConditionalOnBean(HttpCallerRegistry.class)
+    public HttpCallerRegistryCustomizer httpCallerRegistryMetricsCustomizer(MeterRegistry registry) {
+        return new HttpCallerRegistryCustomizer() {
+            @Override
+            public void customize(String name, HttpCaller.Builder builder) {
+                builder.addExecInterceptor("metrics", new HttpCallerMetricsInterceptor(registry, name));
+            }
+
+            @Override
+            public void created(String name, HttpCaller caller) {
+                // registry clients are built lazily, after MeterBinder beans have been bound
+                new HttpCallerPoolMetrics(caller, name).bindTo(registry);
+            }
+        };
+    }
+}
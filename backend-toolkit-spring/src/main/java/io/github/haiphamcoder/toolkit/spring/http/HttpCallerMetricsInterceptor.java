@@ -0,0 +1,66 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+/**
+ * Records a {@code toolkit.http.client.requests} timer for every call made
+ * through an {@link io.github.haiphamcoder.toolkit.core.http.HttpCaller}.
+ * <p>
+ * The timer stops when the response head has been received, so it measures
+ * server latency plus connection acquisition, not body consumption. Tags are
+ * kept low-cardinality: client name, method, target host, status and outcome;
+ * the request path is deliberately left out.
+ */
+public class HttpCallerMetricsInterceptor implements ExecChainHandler {
+
+    /**
+     * Timer name.
+     */
+    public static final String METRIC_NAME = "toolkit.http.client.requests";
+
+    private final Meter.MeterProvider<Timer> timers;
+
+    /**
+     * @param registry meter registry
+     * @param client   client name tag, e.g. "default"
+     */
+    public HttpCallerMetricsInterceptor(MeterRegistry registry, String client) {
+        // built once; per request only the variable tags are added and the timer looked up
+        this.timers = Timer.builder(METRIC_NAME)
+                .description("Time to the response head of HttpCaller requests")
+                .tag("client", client)
+                .withRegistry(registry);
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+            throws IOException, HttpException {
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        Outcome outcome = Outcome.UNKNOWN;
+        try {
+            ClassicHttpResponse response = chain.proceed(request, scope);
+            status = Integer.toString(response.getCode());
+            outcome = Outcome.forStatus(response.getCode());
+            return response;
+        } finally {
+            timers.withTags("method", request.getMethod(),
+                    "target", scope.route.getTargetHost().toHostString(),
+                    "status", status,
+                    "outcome", outcome.name())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import java.util.function.ToDoubleFunction;
+
+import org.apache.hc.core5.pool.PoolStats;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Connection pool gauges of an {@link HttpCaller}:
+ * {@code toolkit.http.client.pool.leased}, {@code .available},
+ * {@code .pending} and {@code .max}, tagged with the client name. A pending
+ * count above zero means callers are queueing for connections and the pool is
+ * too small.
+ */
+public class HttpCallerPoolMetrics implements MeterBinder {
+
+    private final HttpCaller caller;
+    private final String client;
+
+    /**
+     * @param caller caller whose pool is observed
+     * @param client client name tag, e.g. "default"
+     */
+    public HttpCallerPoolMetrics(HttpCaller caller, String client) {
+        this.caller = caller;
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "leased", "Connections currently leased to requests", PoolStats::getLeased);
+        gauge(registry, "available", "Idle connections ready for reuse", PoolStats::getAvailable);
+        gauge(registry, "pending", "Requests waiting for a connection", PoolStats::getPending);
+        gauge(registry, "max", "Maximum number of connections", PoolStats::getMax);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("toolkit.http.client.pool." + name, caller, c -> value.applyAsDouble(c.poolStats()))
+                .description(description)
+                .tag("client", client)
+                .baseUnit("connections")
+                .register(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings bound from {@code toolkit.http.*}: the shared
+ * {@link io.github.haiphamcoder.toolkit.core.http.HttpCaller} bean, plus one
+ * entry per named client of the {@link HttpCallerRegistry}.
+ *
+ * <pre>
+ * toolkit.http.connect-timeout=2s
+ * toolkit.http.pool.max-total=400
+ *
+ * toolkit.http.clients.payments.response-timeout=30s
+ * toolkit.http.clients.payments.pool.max-per-route=20
+ * toolkit.http.clients.payments.retry.enabled=true
+ * toolkit.http.clients.search.limiter.max-concurrent=64
+ * </pre>
+ *
+ * Named clients start from the library defaults, not from the shared client's
+ * settings.
+ */
+@ConfigurationProperties(prefix = "toolkit.http")
+public class HttpCallerProperties extends HttpClientSettings {
+
+    /**
+     * Whether to auto-configure the shared HttpCaller and the client registry.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Named clients of the HttpCallerRegistry.
+     */
+    private final Map<String, HttpClientSettings> clients = new LinkedHashMap<>();
+
+    private final Metrics metrics = new Metrics();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, HttpClientSettings> getClients() {
+        return clients;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Micrometer binding settings.
+     */
+    public static class Metrics {
+
+        /**
+         * Whether to record request timers and pool gauges when Micrometer is
+         * available.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Named {@link HttpCaller}s, one per downstream service, each with its own
+ * pool, timeouts, HTTP version, retry policy and concurrency limit from
+ * {@code toolkit.http.clients.<name>.*}.
+ * <p>
+ * Clients are built on first use, so unused downstreams cost nothing, and are
+ * closed with the application context. Only configured names are available;
+ * asking for anything else is a programming error.
+ *
+ * <pre>{@code
+ * HttpCaller payments = registry.get("payments");
+ * }</pre>
+ */
+public class HttpCallerRegistry implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpCallerRegistry.class);
+
+    private final Map<String, HttpClientSettings> settings;
+    private final List<HttpCallerRegistryCustomizer> customizers;
+    private final ConcurrentMap<String, HttpCaller> clients = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * @param settings    client name to settings
+     * @param customizers customizers applied to every client, in order
+     */
+    public HttpCallerRegistry(Map<String, HttpClientSettings> settings,
+            List<HttpCallerRegistryCustomizer> customizers) {
+        this.settings = Collections.unmodifiableMap(new LinkedHashMap<>(settings));
+        this.customizers = List.copyOf(customizers);
+    }
+
+    /**
+     * Get the named client, building it on first use.
+     *
+     * @param name client name as configured under {@code toolkit.http.clients}
+     * @return client
+     * @throws IllegalArgumentException if no client of that name is configured
+     * @throws IllegalStateException    if the registry has been closed
+     */
+    public HttpCaller get(String name) {
+        HttpCaller caller = clients.get(name);
+        if (caller != null) {
+            return caller;
+        }
+        HttpClientSettings clientSettings = settings.get(name);
+        if (clientSettings == null) {
+            throw new IllegalArgumentException(
+                    "Unknown HTTP client '" + name + "'; configure it under toolkit.http.clients." + name);
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("HttpCallerRegistry is closed");
+            }
+            return clients.computeIfAbsent(name, n -> create(n, clientSettings));
+        }
+    }
+
+    /**
+     * Names of all configured clients, built or not.
+     *
+     * @return client names
+     */
+    public Set<String> names() {
+        return settings.keySet();
+    }
+
+    private HttpCaller create(String name, HttpClientSettings clientSettings) {
+        HttpCaller.Builder builder = clientSettings.applyTo(new HttpCaller.Builder());
+        for (HttpCallerRegistryCustomizer customizer : customizers) {
+            customizer.customize(name, builder);
+        }
+        HttpCaller caller = builder.build();
+        for (HttpCallerRegistryCustomizer customizer : customizers) {
+            customizer.created(name, caller);
+        }
+        return caller;
+    }
+
+    /**
+     * Close every client built so far.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        List<String> names = new ArrayList<>(clients.keySet());
+        for (String name : names) {
+            try {
+                clients.remove(name).close();
+            } catch (IOException e) {
+                log.warn("Failed to close HTTP client '{}'", name, e);
+            }
+        }
+    }
+}
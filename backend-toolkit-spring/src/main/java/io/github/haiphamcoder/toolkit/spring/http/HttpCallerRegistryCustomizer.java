@@ -0,0 +1,29 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Callback for the named clients of the {@link HttpCallerRegistry}, invoked
+ * when a client is first requested. Customizers run in
+ * {@link org.springframework.core.annotation.Order} order.
+ */
+public interface HttpCallerRegistryCustomizer {
+
+    /**
+     * Customize the builder of a named client after its properties have been
+     * applied.
+     *
+     * @param name    client name
+     * @param builder builder to customize
+     */
+    void customize(String name, HttpCaller.Builder builder);
+
+    /**
+     * Called once the named client has been built, e.g. to bind metrics.
+     *
+     * @param name   client name
+     * @param caller the new client
+     */
+    default void created(String name, HttpCaller caller) {
+    }
+}
@@ -0,0 +1,264 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import java.time.Duration;
+
+import org.apache.hc.core5.http.HttpVersion;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+
+/**
+ * Tuning of one {@link HttpCaller}: timeouts, pool, protocol version, retry
+ * policy and concurrency limit. Used for the shared client
+ * ({@code toolkit.http.*}) and for each named client of the
+ * {@link HttpCallerRegistry} ({@code toolkit.http.clients.<name>.*}).
+ */
+public class HttpClientSettings {
+
+    /**
+     * Time allowed to establish a TCP/TLS connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Maximum time of inactivity while waiting for response data.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(15);
+
+    /**
+     * Time to wait for a free connection from the pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(15);
+
+    /**
+     * Protocol version of outgoing requests.
+     */
+    private Version httpVersion = Version.HTTP_1_1;
+
+    /**
+     * User-Agent header; the HttpCaller default when not set.
+     */
+    private String userAgent;
+
+    private final Pool pool = new Pool();
+
+    private final Retry retry = new Retry();
+
+    private final Limiter limiter = new Limiter();
+
+    /**
+     * Apply these settings to a builder.
+     *
+     * @param builder builder to configure
+     * @return the same builder
+     */
+    public HttpCaller.Builder applyTo(HttpCaller.Builder builder) {
+        builder.connectionTimeoutMs(connectTimeout)
+                .responseTimeoutMs(responseTimeout)
+                .connectionRequestTimeoutMs(connectionRequestTimeout)
+                .pool(pool.maxTotal, pool.maxPerRoute)
+                .deferPoolCreation(pool.deferCreation)
+                .httpVersion(httpVersion.toHttpVersion())
+                .concurrencyLimit(limiter.maxConcurrent, limiter.maxWait);
+        if (retry.enabled) {
+            builder.retry(retry.maxRetries, retry.interval);
+        } else {
+            builder.enableAutoRetry(false);
+        }
+        if (userAgent != null && !userAgent.isBlank()) {
+            builder.userAgent(userAgent);
+        }
+        return builder;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    public void setHttpVersion(Version httpVersion) {
+        this.httpVersion = httpVersion;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Protocol versions supported by the classic HttpClient.
+     */
+    public enum Version {
+        HTTP_1_0(HttpVersion.HTTP_1_0),
+        HTTP_1_1(HttpVersion.HTTP_1_1);
+
+        private final HttpVersion httpVersion;
+
+        Version(HttpVersion httpVersion) {
+            this.httpVersion = httpVersion;
+        }
+
+        public HttpVersion toHttpVersion() {
+            return httpVersion;
+        }
+    }
+
+    /**
+     * Connection pool settings.
+     */
+    public static class Pool {
+
+        /**
+         * Maximum number of connections across all routes.
+         */
+        private int maxTotal = 200;
+
+        /**
+         * Maximum number of connections to a single host.
+         */
+        private int maxPerRoute = 50;
+
+        /**
+         * Create the pool on the first request instead of at startup.
+         */
+        private boolean deferCreation = false;
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public boolean isDeferCreation() {
+            return deferCreation;
+        }
+
+        public void setDeferCreation(boolean deferCreation) {
+            this.deferCreation = deferCreation;
+        }
+    }
+
+    /**
+     * Retry policy for idempotent requests (I/O errors, 429 and 503).
+     */
+    public static class Retry {
+
+        /**
+         * Whether to retry failed idempotent requests.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of retries per call.
+         */
+        private int maxRetries = 1;
+
+        /**
+         * Pause between attempts when the server sends no Retry-After.
+         */
+        private Duration interval = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Concurrency limit (bulkhead) settings.
+     */
+    public static class Limiter {
+
+        /**
+         * Maximum number of calls in flight; 0 for no limit.
+         */
+        private int maxConcurrent = 0;
+
+        /**
+         * How long a call waits for a free slot before failing.
+         */
+        private Duration maxWait = Duration.ZERO;
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases a worker ID by holding an exclusive OS file lock on one of the files
+ * {@code worker-0.lock} .. {@code worker-31.lock} in a shared directory.
+ * <p>
+ * The lock lives as long as this provider (i.e. the application context) and is
+ * released by the OS when the process dies, so crashed instances never leak
+ * IDs. Leases only coordinate processes that see the same directory: instances
+ * on one host, or on a shared volume whose filesystem supports locking.
+ */
+public final class FileLockWorkerIdProvider implements WorkerIdProvider {
+
+    /**
+     * Number of worker IDs available to a Snowflake datacenter.
+     */
+    public static final int MAX_WORKERS = 32;
+
+    // POSIX locks are per process: a second channel on a file we already lock would
+    // succeed, and closing it would drop our lock, so in-process leases are tracked here
+    private static final Set<Path> HELD = ConcurrentHashMap.newKeySet();
+
+    private final long workerId;
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private FileLockWorkerIdProvider(long workerId, Path file, FileChannel channel, FileLock lock) {
+        this.workerId = workerId;
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Lease the lowest free worker ID in the directory.
+     *
+     * @param directory lease directory, created if missing
+     * @return provider holding the lease
+     * @throws IOException           if the lock files cannot be opened
+     * @throws IllegalStateException if all worker IDs are leased
+     */
+    public static FileLockWorkerIdProvider acquire(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (int id = 0; id < MAX_WORKERS; id++) {
+            Path file = directory.resolve("worker-" + id + ".lock").toAbsolutePath().normalize();
+            if (!HELD.add(file)) {
+                continue;
+            }
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    return new FileLockWorkerIdProvider(id, file, channel, lock);
+                }
+                channel.close();
+                HELD.remove(file);
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) {
+                    channel.close();
+                }
+                HELD.remove(file);
+                throw e;
+            }
+        }
+        throw new IllegalStateException("All " + MAX_WORKERS + " worker IDs in " + directory + " are leased");
+    }
+
+    @Override
+    public long workerId() {
+        return workerId;
+    }
+
+    /**
+     * Release the lease.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            lock.release();
+            channel.close();
+        } finally {
+            HELD.remove(file);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileLockWorkerIdProvider{workerId=" + workerId + ", file=" + file + "}";
+    }
+}
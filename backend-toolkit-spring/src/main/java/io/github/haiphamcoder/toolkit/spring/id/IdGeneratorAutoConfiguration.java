@@ -0,0 +1,51 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import io.github.haiphamcoder.toolkit.core.id.IdGenerator;
+import io.github.haiphamcoder.toolkit.core.id.IdGeneratorMetrics;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+
+/**
+ * Auto-configuration of a {@link SnowflakeGenerator} bean whose worker ID comes
+ * from a {@link WorkerIdProvider}: the application's own bean, the fixed
+ * {@code toolkit.id.worker-id}, or a {@link FileLockWorkerIdProvider} lease.
+ * Backs off when the application defines its own {@link IdGenerator}.
+ */
+@AutoConfiguration
+@ConditionalOnClass(SnowflakeGenerator.class)
+@ConditionalOnProperty(prefix = "toolkit.id", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class IdGeneratorAutoConfiguration {
+
+    @Bean
+    // only needed by the generator below: no worker ID is leased for an application's own generator
+    @ConditionalOnMissingBean({ WorkerIdProvider.class, IdGenerator.class })
+    public WorkerIdProvider workerIdProvider(IdGeneratorProperties properties) {
+        if (properties.getWorkerId() != null) {
+            return WorkerIdProvider.fixed(properties.getWorkerId());
+        }
+        try {
+            return FileLockWorkerIdProvider.acquire(properties.getLease().getDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot lease a worker ID in " + properties.getLease().getDirectory(), e);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public SnowflakeGenerator snowflakeGenerator(IdGeneratorProperties properties, WorkerIdProvider workerIdProvider) {
+        // recording is skipped entirely when metrics are disabled
+        IdGeneratorMetrics metrics = properties.getMetrics().isEnabled() ? new IdGeneratorMetrics() : null;
+        return new SnowflakeGenerator(properties.getDatacenterId(), workerIdProvider.workerId(),
+                properties.getEpoch().toEpochMilli(), null, metrics);
+    }
+}
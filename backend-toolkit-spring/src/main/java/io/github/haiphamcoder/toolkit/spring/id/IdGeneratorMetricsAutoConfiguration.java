@@ -0,0 +1,28 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Binds the {@link SnowflakeGenerator} bean to Micrometer through
+ * {@link SnowflakeGeneratorMetrics} when a {@link MeterRegistry} bean exists and
+ * {@code toolkit.id.metrics.enabled} is not false.
+ */
+@AutoConfiguration(after = IdGeneratorAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass({ SnowflakeGenerator.class, MeterRegistry.class })
+@ConditionalOnBean({ SnowflakeGenerator.class, MeterRegistry.class })
+@ConditionalOnProperty(prefix = "toolkit.id.metrics", name = "enabled", matchIfMissing = true)
+public class IdGeneratorMetricsAutoConfiguration {
+
+    @Bean
+    public SnowflakeGeneratorMetrics snowflakeGeneratorMetrics(SnowflakeGenerator snowflakeGenerator) {
+        return new SnowflakeGeneratorMetrics(snowflakeGenerator);
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the auto-configured
+ * {@link io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator}, bound from
+ * {@code toolkit.id.*}.
+ * <p>
+ * The worker ID is taken from {@code toolkit.id.worker-id} when set, otherwise
+ * leased from {@code toolkit.id.lease.directory} (see
+ * {@link FileLockWorkerIdProvider}).
+ */
+@ConfigurationProperties(prefix = "toolkit.id")
+public class IdGeneratorProperties {
+
+    /**
+     * Whether to auto-configure the Snowflake generator.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Datacenter ID, 0..31.
+     */
+    private long datacenterId = 0;
+
+    /**
+     * Fixed worker ID, 0..31; leased from the lease directory when not set.
+     */
+    private Long workerId;
+
+    /**
+     * Custom epoch; must not change once IDs have been issued.
+     */
+    private Instant epoch = Instant.parse("2020-01-01T00:00:00Z");
+
+    private final Lease lease = new Lease();
+
+    private final Metrics metrics = new Metrics();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getDatacenterId() {
+        return datacenterId;
+    }
+
+    public void setDatacenterId(long datacenterId) {
+        this.datacenterId = datacenterId;
+    }
+
+    public Long getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(Long workerId) {
+        this.workerId = workerId;
+    }
+
+    public Instant getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(Instant epoch) {
+        this.epoch = epoch;
+    }
+
+    public Lease getLease() {
+        return lease;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * File-lock worker ID lease settings.
+     */
+    public static class Lease {
+
+        /**
+         * Directory shared by the instances that must not share a worker ID.
+         */
+        private Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "backend-toolkit", "worker-ids");
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Micrometer binding settings.
+     */
+    public static class Metrics {
+
+        /**
+         * Whether the generator records its waits and exports them with the
+         * generated-ID counter when Micrometer is available.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
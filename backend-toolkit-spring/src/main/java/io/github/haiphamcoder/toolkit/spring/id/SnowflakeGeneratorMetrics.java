@@ -0,0 +1,68 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.haiphamcoder.toolkit.core.id.IdGeneratorMetrics;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the {@link IdGeneratorMetrics} a {@link SnowflakeGenerator} records
+ * into, tagged with its datacenter and worker IDs; a generator without them
+ * exports nothing. The {@code toolkit.id.generated} counter's rate in the
+ * monitoring backend is the generation rate; near 4096 per millisecond per
+ * worker the generator starts waiting for the next millisecond.
+ * <p>
+ * The generator's stalls are exported too: the {@code toolkit.id.wait} timer, tagged
+ * {@code cause=sequence-exhausted} or {@code cause=clock-regression}, counts
+ * the waits and their total time, and the {@code toolkit.id.clock.regression.max}
+ * gauge is the largest backward clock jump seen.
+ */
+public class SnowflakeGeneratorMetrics implements MeterBinder {
+
+    private final SnowflakeGenerator generator;
+
+    /**
+     * @param generator generator to observe
+     */
+    public SnowflakeGeneratorMetrics(SnowflakeGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        IdGeneratorMetrics metrics = generator.metrics();
+        if (metrics == null) {
+            return;
+        }
+        Tags tags = Tags.of("generator", "snowflake", "datacenter", Long.toString(generator.datacenterId()),
+                "worker", Long.toString(generator.workerId()));
+        FunctionCounter.builder("toolkit.id.generated", metrics, IdGeneratorMetrics::generated)
+                .description("IDs generated")
+                .baseUnit("ids")
+                .tags(tags)
+                .register(registry);
+        FunctionTimer.builder("toolkit.id.wait", metrics, IdGeneratorMetrics::sequenceExhaustions,
+                IdGeneratorMetrics::sequenceWaitNanos, TimeUnit.NANOSECONDS)
+                .description("Waits for the next millisecond after its sequence space ran out")
+                .tags(tags)
+                .tag("cause", "sequence-exhausted")
+                .register(registry);
+        FunctionTimer.builder("toolkit.id.wait", metrics, IdGeneratorMetrics::clockRegressions,
+                IdGeneratorMetrics::clockWaitNanos, TimeUnit.NANOSECONDS)
+                .description("Waits for the clock to catch up after it moved backwards")
+                .tags(tags)
+                .tag("cause", "clock-regression")
+                .register(registry);
+        TimeGauge.builder("toolkit.id.clock.regression.max", metrics, TimeUnit.MILLISECONDS,
+                IdGeneratorMetrics::maxClockRegressionMillis)
+                .description("Largest backward clock jump seen")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Supplies the Snowflake worker ID of this instance. Define a bean of this type
+ * to derive it from the environment, e.g. a StatefulSet ordinal; otherwise
+ * {@code toolkit.id.worker-id} or a {@link FileLockWorkerIdProvider} lease is
+ * used.
+ * <p>
+ * Providers are {@link Closeable} so the context releases a leased ID on
+ * shutdown even when the bean is declared as this interface, which is all
+ * ahead-of-time processing sees when it infers destroy methods.
+ */
+@FunctionalInterface
+public interface WorkerIdProvider extends Closeable {
+
+    /**
+     * Worker ID of this instance.
+     *
+     * @return worker ID, 0..31
+     */
+    long workerId();
+
+    /**
+     * Release the worker ID; does nothing unless the ID is leased.
+     *
+     * @throws IOException if the lease cannot be released
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Provider returning a fixed worker ID.
+     *
+     * @param workerId worker ID
+     * @return provider
+     */
+    static WorkerIdProvider fixed(long workerId) {
+        return () -> workerId;
+    }
+}
@@ -0,0 +1,430 @@
+package io.github.haiphamcoder.toolkit.spring.reactive;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.config.Http1Config;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link HttpCaller} on the non-blocking httpclient5
+ * engine: results are {@link Mono}s and response bodies can be streamed as a
+ * {@link Flux} of {@link ByteBuffer}s. No thread is ever parked waiting for a
+ * response.
+ * <p>
+ * Streaming is backpressured end to end: the connection reads at most
+ * {@link Builder#windowSize(int)} bytes ahead of what the subscriber has
+ * requested, after which the socket is no longer read and the server is
+ * throttled by the TCP window. Cancelling a subscription aborts the exchange
+ * and closes its connection.
+ * <p>
+ * Failures are signalled as {@link HttpCaller.APIException}, like the blocking
+ * client. Requests use HTTP/1.1.
+ */
+public class ReactiveHttpCaller implements Closeable {
+
+    private static final int CONNECTION_TIMEOUT_MS = 3_000;
+    private static final int RESPONSE_TIMEOUT_MS = 15_000;
+    private static final int CONNECTION_REQUEST_TIMEOUT_MS = 15_000;
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    // exchanges whose subscribers are still waiting, cancelled by close()
+    private final Set<Future<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ReactiveHttpCaller(Builder builder) {
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(builder.maxTotalConnections)
+                .setMaxConnPerRoute(builder.maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(30))
+                        .setConnectTimeout(Timeout.ofMilliseconds(builder.connectionTimeoutMs))
+                        .build())
+                .build();
+
+        IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom();
+        if (builder.ioThreads > 0) {
+            ioReactorConfig.setIoThreadCount(builder.ioThreads);
+        }
+
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(ioReactorConfig.build())
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                .setHttp1Config(Http1Config.custom().setInitialWindowSize(builder.windowSize).build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(builder.responseTimeoutMs))
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(builder.connectionRequestTimeoutMs))
+                        .build())
+                .setUserAgent(Optional.ofNullable(builder.userAgent).orElse("HttpCaller/1.0.0 (+httpclient5)"))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMinutes(1))
+                .build();
+        this.httpClient.start();
+    }
+
+    /**
+     * Builder for {@link ReactiveHttpCaller}.
+     * <p>
+     * Defaults:
+     * - Connection timeout: 3s, Response timeout: 15s, Request timeout: 15s
+     * - Pool: 200 total, 50 per route
+     * - User-Agent: "HttpCaller/1.0.0 (+httpclient5)"
+     * - I/O threads: one per available processor
+     * - Read-ahead window: 64 KiB per streamed response
+     */
+    public static class Builder {
+        private int connectionTimeoutMs = CONNECTION_TIMEOUT_MS;
+        private int responseTimeoutMs = RESPONSE_TIMEOUT_MS;
+        private int connectionRequestTimeoutMs = CONNECTION_REQUEST_TIMEOUT_MS;
+        private int maxTotalConnections = 200;
+        private int maxConnectionsPerRoute = 50;
+        private String userAgent;
+        private int ioThreads;
+        private int windowSize = WINDOW_SIZE;
+
+        /**
+         * Set the TCP/TLS connect timeout.
+         *
+         * @param duration connect timeout
+         * @return this builder
+         */
+        public Builder connectionTimeoutMs(Duration duration) {
+            this.connectionTimeoutMs = (int) duration.toMillis();
+            return this;
+        }
+
+        /**
+         * Set the maximum time of inactivity while waiting for response data.
+         *
+         * @param duration response timeout
+         * @return this builder
+         */
+        public Builder responseTimeoutMs(Duration duration) {
+            this.responseTimeoutMs = (int) duration.toMillis();
+            return this;
+        }
+
+        /**
+         * Set the time to wait for a free connection from the pool.
+         *
+         * @param duration connection request timeout
+         * @return this builder
+         */
+        public Builder connectionRequestTimeoutMs(Duration duration) {
+            this.connectionRequestTimeoutMs = (int) duration.toMillis();
+            return this;
+        }
+
+        /**
+         * Configure the connection pool size.
+         *
+         * @param maxTotalConnections    max total connections
+         * @param maxConnectionsPerRoute max connections per route
+         * @return this builder
+         */
+        public Builder pool(int maxTotalConnections, int maxConnectionsPerRoute) {
+            this.maxTotalConnections = maxTotalConnections;
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Set the User-Agent header.
+         *
+         * @param userAgent user agent value
+         * @return this builder
+         */
+        public Builder userAgent(String userAgent) {
+            this.userAgent = userAgent;
+            return this;
+        }
+
+        /**
+         * Set the number of I/O dispatch threads; {@code 0} keeps one per
+         * available processor.
+         *
+         * @param ioThreads number of I/O threads
+         * @return this builder
+         */
+        public Builder ioThreads(int ioThreads) {
+            if (ioThreads < 0) {
+                throw new IllegalArgumentException("ioThreads must be >= 0");
+            }
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Set how many bytes of a streamed response body may be read ahead of
+         * subscriber demand before the connection stops reading.
+         *
+         * @param windowSize read-ahead window in bytes
+         * @return this builder
+         */
+        public Builder windowSize(int windowSize) {
+            if (windowSize <= 0) {
+                throw new IllegalArgumentException("windowSize must be > 0");
+            }
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Build and start a new {@link ReactiveHttpCaller}.
+         *
+         * @return reactive caller
+         */
+        public ReactiveHttpCaller build() {
+            return new ReactiveHttpCaller(this);
+        }
+    }
+
+    /**
+     * GET request emitting the response body as string.
+     *
+     * @param endpointUrl target URL
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @return response body, or an {@link HttpCaller.APIException} on IO errors
+     *         or non-2xx responses
+     */
+    public Mono<String> get(String endpointUrl, Map<String, String> params, Map<String, String> headers) {
+        return exchange(() -> applyHeaders(SimpleRequestBuilder.get(buildUri(endpointUrl, params)), headers).build())
+                .map(ReactiveHttpCaller::bodyAsString);
+    }
+
+    /**
+     * GET request emitting the response body as bytes.
+     *
+     * @param endpointUrl target URL
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @return response body bytes (empty if no entity)
+     */
+    public Mono<byte[]> getBytes(String endpointUrl, Map<String, String> params, Map<String, String> headers) {
+        return exchange(() -> applyHeaders(SimpleRequestBuilder.get(buildUri(endpointUrl, params)), headers).build())
+                .map(response -> Optional.ofNullable(response.getBodyBytes()).orElse(new byte[0]));
+    }
+
+    /**
+     * POST a JSON body and emit the response body as string.
+     *
+     * @param endpointUrl target URL
+     * @param jsonBody    JSON payload
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @return response body
+     */
+    public Mono<String> postJson(String endpointUrl, String jsonBody, Map<String, String> params,
+            Map<String, String> headers) {
+        return exchange(() -> applyHeaders(SimpleRequestBuilder.post(buildUri(endpointUrl, params)), headers)
+                .setBody(jsonBody, ContentType.APPLICATION_JSON)
+                .build())
+                .map(ReactiveHttpCaller::bodyAsString);
+    }
+
+    /**
+     * GET request streaming the response body as it arrives. Buffers are
+     * emitted only on demand and are owned by the subscriber.
+     *
+     * @param endpointUrl target URL
+     * @param params      query parameters (nullable)
+     * @param headers     request headers (nullable)
+     * @return body chunks, or an {@link HttpCaller.APIException} on IO errors
+     *         or non-2xx responses
+     */
+    public Flux<ByteBuffer> stream(String endpointUrl, Map<String, String> params, Map<String, String> headers) {
+        return Flux.create(sink -> {
+            AsyncRequestProducer producer;
+            try {
+                AsyncRequestBuilder request = AsyncRequestBuilder.get(buildUri(endpointUrl, params));
+                if (headers != null) {
+                    headers.forEach((name, value) -> {
+                        if (name != null && value != null) {
+                            request.addHeader(name, value);
+                        }
+                    });
+                }
+                producer = request.build();
+            } catch (HttpCaller.APIException e) {
+                sink.error(e);
+                return;
+            }
+            StreamingResponseConsumer consumer = new StreamingResponseConsumer(sink);
+            Future<Void> future = httpClient.execute(producer, consumer, new FutureCallback<>() {
+                @Override
+                public void completed(Void result) {
+                    // completion is signalled by the consumer at end of stream
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    consumer.failed(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    // close() cancels exchanges in flight too; their subscribers still need a terminal signal
+                    if (!sink.isCancelled()) {
+                        consumer.failed(new HttpCaller.APIException("HTTP request cancelled"));
+                    }
+                }
+            });
+            inFlight.add(future);
+            // a no-op once the exchange completed; aborts it otherwise
+            sink.onDispose(() -> {
+                inFlight.remove(future);
+                future.cancel(true);
+            });
+        }, FluxSink.OverflowStrategy.ERROR);
+    }
+
+    /**
+     * Snapshot of the connection pool: leased, available, pending and max.
+     *
+     * @return total pool statistics
+     */
+    public PoolStats poolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Close the client, shutting down its I/O reactor and pool. Requests still
+     * in flight are cancelled and fail with an {@link HttpCaller.APIException}.
+     */
+    @Override
+    public void close() {
+        // the client would otherwise leave an exchange it had scheduled for a retry waiting forever
+        for (Future<?> future : inFlight) {
+            future.cancel(true);
+        }
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private Mono<SimpleHttpResponse> exchange(RequestSupplier request) {
+        return Mono.<SimpleHttpResponse>create(sink -> {
+            SimpleHttpRequest built;
+            AtomicBoolean subscriberCancelled = new AtomicBoolean();
+            try {
+                built = request.get();
+            } catch (HttpCaller.APIException e) {
+                sink.error(e);
+                return;
+            }
+            Future<SimpleHttpResponse> future = httpClient.execute(SimpleRequestProducer.create(built),
+                    SimpleResponseConsumer.create(), new FutureCallback<>() {
+                        @Override
+                        public void completed(SimpleHttpResponse response) {
+                            int code = response.getCode();
+                            if (code >= 200 && code < 300) {
+                                sink.success(response);
+                            } else {
+                                sink.error(new HttpCaller.APIException(
+                                        "HTTP request failed with status code: " + code));
+                            }
+                        }
+
+                        @Override
+                        public void failed(Exception ex) {
+                            sink.error(new HttpCaller.APIException(ex.getMessage(), ex));
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            // close() cancels exchanges in flight too; their subscribers still need a terminal signal
+                            if (!subscriberCancelled.get()) {
+                                sink.error(new HttpCaller.APIException("HTTP request cancelled"));
+                            }
+                        }
+                    });
+            inFlight.add(future);
+            sink.onDispose(() -> inFlight.remove(future));
+            sink.onCancel(() -> {
+                subscriberCancelled.set(true);
+                future.cancel(true);
+            });
+        });
+    }
+
+    private static String bodyAsString(SimpleHttpResponse response) {
+        byte[] body = response.getBodyBytes();
+        if (body == null) {
+            return "";
+        }
+        ContentType contentType = response.getContentType();
+        Charset charset = contentType != null ? contentType.getCharset(StandardCharsets.UTF_8)
+                : StandardCharsets.UTF_8;
+        return new String(body, charset);
+    }
+
+    private static URI buildUri(String endpointUrl, Map<String, String> params) throws HttpCaller.APIException {
+        try {
+            URIBuilder builder = new URIBuilder(endpointUrl);
+            if (params != null && !params.isEmpty()) {
+                for (Map.Entry<String, String> entry : params.entrySet()) {
+                    if (entry.getKey() != null && entry.getValue() != null) {
+                        builder.addParameter(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            return builder.build();
+        } catch (URISyntaxException e) {
+            throw new HttpCaller.APIException(e);
+        }
+    }
+
+    private static SimpleRequestBuilder applyHeaders(SimpleRequestBuilder request, Map<String, String> headers) {
+        if (headers != null) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    request.addHeader(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface RequestSupplier {
+        SimpleHttpRequest get() throws HttpCaller.APIException;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.haiphamcoder.toolkit.spring.reactive;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import io.github.haiphamcoder.toolkit.spring.http.HttpCallerAutoConfiguration;
+import io.github.haiphamcoder.toolkit.spring.http.HttpCallerProperties;
+import reactor.core.publisher.Flux;
+
+/**
+ * Auto-configuration of a shared {@link ReactiveHttpCaller} when Reactor is on
+ * the classpath, built from the shared {@code toolkit.http.*} timeouts, pool
+ * and User-Agent plus {@link ReactiveHttpCallerProperties}. Backs off when the
+ * application defines its own bean; closed with the context.
+ */
+@AutoConfiguration(after = HttpCallerAutoConfiguration.class)
+@ConditionalOnClass(Flux.class)
+@ConditionalOnProperty(prefix = "toolkit.http", name = { "enabled", "reactive.enabled" }, matchIfMissing = true)
+@EnableConfigurationProperties({ HttpCallerProperties.class, ReactiveHttpCallerProperties.class })
+public class ReactiveHttpCallerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReactiveHttpCaller reactiveHttpCaller(HttpCallerProperties http, ReactiveHttpCallerProperties reactive) {
+        ReactiveHttpCaller.Builder builder = new ReactiveHttpCaller.Builder()
+                .connectionTimeoutMs(http.getConnectTimeout())
+                .responseTimeoutMs(http.getResponseTimeout())
+                .connectionRequestTimeoutMs(http.getConnectionRequestTimeout())
+                .pool(http.getPool().getMaxTotal(), http.getPool().getMaxPerRoute())
+                .ioThreads(reactive.getIoThreads())
+                .windowSize(reactive.getWindowSize());
+        if (http.getUserAgent() != null && !http.getUserAgent().isBlank()) {
+            builder.userAgent(http.getUserAgent());
+        }
+        return builder.build();
+    }
+}
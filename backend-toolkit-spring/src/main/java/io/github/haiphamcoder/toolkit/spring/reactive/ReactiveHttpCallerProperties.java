@@ -0,0 +1,51 @@
+package io.github.haiphamcoder.toolkit.spring.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link ReactiveHttpCaller} bean, bound from
+ * {@code toolkit.http.reactive.*}. Timeouts, pool size and User-Agent are
+ * shared with the blocking client ({@code toolkit.http.*}).
+ */
+@ConfigurationProperties(prefix = "toolkit.http.reactive")
+public class ReactiveHttpCallerProperties {
+
+    /**
+     * Whether to auto-configure the ReactiveHttpCaller when Reactor is present.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of I/O dispatch threads; 0 for one per available processor.
+     */
+    private int ioThreads;
+
+    /**
+     * Bytes of a streamed body read ahead of subscriber demand.
+     */
+    private int windowSize = 64 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.haiphamcoder.toolkit.spring.reactive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Bridges a response body onto a {@link FluxSink}, emitting chunks only on
+ * subscriber demand.
+ * <p>
+ * The connection starts with the read window configured on the client, and
+ * every byte read shrinks it. Capacity is handed back only as chunks are
+ * delivered downstream, so at most a window's worth of body is ever buffered
+ * here; beyond that the connection stops reading and the sender is held back
+ * by TCP flow control.
+ * <p>
+ * Chunks are emitted outside this consumer's lock, by one draining thread at
+ * a time, so a slow or re-entrant subscriber never holds up the I/O reactor
+ * thread on the lock.
+ */
+class StreamingResponseConsumer implements AsyncResponseConsumer<Void> {
+
+    private final FluxSink<ByteBuffer> sink;
+    private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+
+    private CapacityChannel capacityChannel;
+    private FutureCallback<Void> resultCallback;
+    private long demand;
+    private int credit;
+    private boolean endOfStream;
+    private boolean terminated;
+    private boolean draining;
+
+    StreamingResponseConsumer(FluxSink<ByteBuffer> sink) {
+        this.sink = sink;
+        sink.onRequest(this::request);
+    }
+
+    @Override
+    public void consumeResponse(HttpResponse response, EntityDetails entityDetails, HttpContext context,
+            FutureCallback<Void> resultCallback) {
+        int code = response.getCode();
+        if (code < 200 || code >= 300) {
+            // failing the sink disposes it, which cancels the exchange
+            failed(new HttpCaller.APIException("HTTP request failed with status code: " + code));
+            return;
+        }
+        synchronized (this) {
+            this.resultCallback = resultCallback;
+            if (entityDetails == null) {
+                endOfStream = true;
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void informationResponse(HttpResponse response, HttpContext context) {
+        // 1xx responses carry no body
+    }
+
+    @Override
+    public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+        synchronized (this) {
+            this.capacityChannel = capacityChannel;
+        }
+        grantCredit();
+    }
+
+    @Override
+    public void consume(ByteBuffer src) {
+        // the reactor reuses src, so the subscriber gets its own copy
+        ByteBuffer chunk = ByteBuffer.allocate(src.remaining());
+        chunk.put(src).flip();
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            queue.add(chunk);
+        }
+        drain();
+    }
+
+    @Override
+    public void streamEnd(List<? extends Header> trailers) {
+        synchronized (this) {
+            endOfStream = true;
+        }
+        drain();
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            queue.clear();
+        }
+        sink.error(cause instanceof HttpCaller.APIException ? cause
+                : new HttpCaller.APIException(cause.getMessage(), cause));
+    }
+
+    @Override
+    public void releaseResources() {
+        synchronized (this) {
+            queue.clear();
+        }
+    }
+
+    private void request(long n) {
+        synchronized (this) {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+        drain();
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                // the thread already draining re-checks the state before it stops
+                return;
+            }
+            draining = true;
+        }
+        FutureCallback<Void> completed = null;
+        while (true) {
+            ByteBuffer chunk;
+            synchronized (this) {
+                if (terminated) {
+                    draining = false;
+                    return;
+                }
+                if (demand > 0 && !queue.isEmpty()) {
+                    chunk = queue.poll();
+                    demand--;
+                    credit += chunk.remaining();
+                } else {
+                    if (endOfStream && queue.isEmpty() && resultCallback != null) {
+                        terminated = true;
+                        completed = resultCallback;
+                    }
+                    draining = false;
+                    break;
+                }
+            }
+            sink.next(chunk);
+        }
+        if (completed != null) {
+            sink.complete();
+            completed.completed(null);
+            return;
+        }
+        try {
+            grantCredit();
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    // hands delivered bytes back to the connection's read window
+    private void grantCredit() throws IOException {
+        CapacityChannel channel;
+        int increment;
+        synchronized (this) {
+            if (capacityChannel == null || credit == 0) {
+                return;
+            }
+            channel = capacityChannel;
+            increment = credit;
+            credit = 0;
+        }
+        channel.update(increment);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.haiphamcoder.toolkit.spring.web;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.core.id.IdGenerator;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+import io.github.haiphamcoder.toolkit.core.id.UuidV7Generator;
+import io.github.haiphamcoder.toolkit.spring.http.HttpCallerBuilderCustomizer;
+import io.github.haiphamcoder.toolkit.spring.http.HttpCallerRegistryCustomizer;
+import io.github.haiphamcoder.toolkit.spring.id.IdGeneratorAutoConfiguration;
+
+/**
+ * Auto-configuration of the {@link RequestIdFilter} in servlet applications and
+ * of request ID propagation on the auto-configured {@link HttpCaller} and
+ * registry clients.
+ */
+@AutoConfiguration(after = IdGeneratorAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "toolkit.request-id", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(RequestIdProperties.class)
+public class RequestIdAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class FilterConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RequestIdFilter requestIdFilter(RequestIdProperties properties,
+                ObjectProvider<SnowflakeGenerator> snowflakeGenerator) {
+            IdGenerator idGenerator;
+            if (properties.getGenerator() == RequestIdProperties.Generator.SNOWFLAKE) {
+                idGenerator = snowflakeGenerator.getIfAvailable();
+                if (idGenerator == null) {
+                    throw new IllegalStateException(
+                            "toolkit.request-id.generator=snowflake requires a SnowflakeGenerator bean");
+                }
+            } else {
+                idGenerator = new UuidV7Generator();
+            }
+            return new RequestIdFilter(idGenerator, properties.getHeaderName(), properties.getMdcKey(),
+                    properties.isTrustIncoming(), properties.getMaxLength(), properties.isEchoResponse());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HttpCaller.class)
+    @ConditionalOnProperty(prefix = "toolkit.request-id", name = "propagate", matchIfMissing = true)
+    static class PropagationConfiguration {
+
+        @Bean
+        public HttpCallerBuilderCustomizer requestIdPropagationCustomizer(RequestIdProperties properties) {
+            RequestIdPropagationInterceptor interceptor = new RequestIdPropagationInterceptor(
+                    properties.getHeaderName());
+            return builder -> builder.addRequestInterceptor(interceptor);
+        }
+
+        @Bean
+        public HttpCallerRegistryCustomizer requestIdRegistryPropagationCustomizer(RequestIdProperties properties) {
+            RequestIdPropagationInterceptor interceptor = new RequestIdPropagationInterceptor(
+                    properties.getHeaderName());
+            return (name, builder) -> builder.addRequestInterceptor(interceptor);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.haiphamcoder.toolkit.spring.web;
+
+/**
+ * Request ID of the inbound request being handled by the current thread, set
+ * by {@link RequestIdFilter}.
+ * <p>
+ * Kept in its own thread-local rather than read back from the MDC so that
+ * propagation works regardless of the logging backend.
+ */
+public final class RequestIdContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RequestIdContext() {
+    }
+
+    /**
+     * Request ID of the current thread.
+     *
+     * @return request ID, or null outside a request
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static void set(String requestId) {
+        CURRENT.set(requestId);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
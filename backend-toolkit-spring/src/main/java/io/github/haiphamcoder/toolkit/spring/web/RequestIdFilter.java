@@ -0,0 +1,96 @@
+package io.github.haiphamcoder.toolkit.spring.web;
+
+import java.io.IOException;
+
+import org.slf4j.MDC;
+import org.springframework.boot.web.servlet.filter.OrderedFilter;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.github.haiphamcoder.toolkit.core.id.IdGenerator;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives every inbound request a correlation ID.
+ * <p>
+ * A well-formed incoming header (visible ASCII, bounded length) is reused
+ * as-is; otherwise a new ID is taken from the {@link IdGenerator}. The ID is
+ * put in the MDC and in {@link RequestIdContext} for the duration of the
+ * request, so log lines carry it and
+ * {@link RequestIdPropagationInterceptor} forwards it downstream, and is echoed
+ * in the response header.
+ */
+public class RequestIdFilter extends OncePerRequestFilter implements OrderedFilter {
+
+    /**
+     * Runs early so that other filters already log with the ID.
+     */
+    public static final int DEFAULT_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private final IdGenerator idGenerator;
+    private final String headerName;
+    private final String mdcKey;
+    private final boolean trustIncoming;
+    private final int maxLength;
+    private final boolean echoResponse;
+
+    /**
+     * @param idGenerator   generator for new IDs
+     * @param headerName    request and response header name
+     * @param mdcKey        MDC key
+     * @param trustIncoming whether to reuse a well-formed incoming ID
+     * @param maxLength     maximum accepted length of an incoming ID
+     * @param echoResponse  whether to set the ID on the response
+     */
+    public RequestIdFilter(IdGenerator idGenerator, String headerName, String mdcKey, boolean trustIncoming,
+            int maxLength, boolean echoResponse) {
+        this.idGenerator = idGenerator;
+        this.headerName = headerName;
+        this.mdcKey = mdcKey;
+        this.trustIncoming = trustIncoming;
+        this.maxLength = maxLength;
+        this.echoResponse = echoResponse;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = trustIncoming ? request.getHeader(headerName) : null;
+        if (!isAcceptable(requestId)) {
+            requestId = idGenerator.generateId();
+        }
+        MDC.put(mdcKey, requestId);
+        RequestIdContext.set(requestId);
+        if (echoResponse) {
+            response.setHeader(headerName, requestId);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestIdContext.clear();
+            MDC.remove(mdcKey);
+        }
+    }
+
+    // rejects values that could forge log lines or bloat every downstream request
+    private boolean isAcceptable(String value) {
+        if (value == null || value.isEmpty() || value.length() > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x21 || c > 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_ORDER;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.haiphamcoder.toolkit.spring.web;
+
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpRequestInterceptor;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+/**
+ * Copies the current {@link RequestIdContext} ID onto outgoing
+ * {@link io.github.haiphamcoder.toolkit.core.http.HttpCaller} requests, unless
+ * the caller already set the header explicitly. One thread-local read per
+ * request, no header maps are copied.
+ */
+public class RequestIdPropagationInterceptor implements HttpRequestInterceptor {
+
+    private final String headerName;
+
+    /**
+     * @param headerName header to set on outgoing requests
+     */
+    public RequestIdPropagationInterceptor(String headerName) {
+        this.headerName = headerName;
+    }
+
+    @Override
+    public void process(HttpRequest request, EntityDetails entity, HttpContext context) {
+        String requestId = RequestIdContext.current();
+        if (requestId != null && !request.containsHeader(headerName)) {
+            request.setHeader(headerName, requestId);
+        }
+    }
+}
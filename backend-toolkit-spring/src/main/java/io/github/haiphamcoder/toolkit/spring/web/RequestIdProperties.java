@@ -0,0 +1,129 @@
+package io.github.haiphamcoder.toolkit.spring.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Request ID settings, bound from {@code toolkit.request-id.*}.
+ */
+@ConfigurationProperties(prefix = "toolkit.request-id")
+public class RequestIdProperties {
+
+    /**
+     * Whether to register the request ID filter.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Header carrying the ID on inbound, outbound and response messages.
+     */
+    private String headerName = "X-Request-Id";
+
+    /**
+     * MDC key holding the ID while a request is handled.
+     */
+    private String mdcKey = "requestId";
+
+    /**
+     * Generator for new IDs.
+     */
+    private Generator generator = Generator.UUID_V7;
+
+    /**
+     * Whether to reuse a well-formed ID sent by the client.
+     */
+    private boolean trustIncoming = true;
+
+    /**
+     * Maximum length of an accepted incoming ID.
+     */
+    private int maxLength = 128;
+
+    /**
+     * Whether to return the ID in the response header.
+     */
+    private boolean echoResponse = true;
+
+    /**
+     * Whether HttpCaller clients forward the ID to downstream services.
+     */
+    private boolean propagate = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public void setHeaderName(String headerName) {
+        this.headerName = headerName;
+    }
+
+    public String getMdcKey() {
+        return mdcKey;
+    }
+
+    public void setMdcKey(String mdcKey) {
+        this.mdcKey = mdcKey;
+    }
+
+    public Generator getGenerator() {
+        return generator;
+    }
+
+    public void setGenerator(Generator generator) {
+        this.generator = generator;
+    }
+
+    public boolean isTrustIncoming() {
+        return trustIncoming;
+    }
+
+    public void setTrustIncoming(boolean trustIncoming) {
+        this.trustIncoming = trustIncoming;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public boolean isEchoResponse() {
+        return echoResponse;
+    }
+
+    public void setEchoResponse(boolean echoResponse) {
+        this.echoResponse = echoResponse;
+    }
+
+    public boolean isPropagate() {
+        return propagate;
+    }
+
+    public void setPropagate(boolean propagate) {
+        this.propagate = propagate;
+    }
+
+    /**
+     * Source of new request IDs.
+     */
+    public enum Generator {
+        /**
+         * Time-ordered UUIDv7, unique across the fleet without coordination.
+         */
+        UUID_V7,
+        /**
+         * The application's SnowflakeGenerator bean; shorter, but unique only if
+         * worker IDs are unique across instances.
+         */
+        SNOWFLAKE
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpCallerAutoConfigurationTest {
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(HttpCallerAutoConfiguration.class,
+                    HttpCallerMetricsAutoConfiguration.class));
+
+    @BeforeAll
+    static void setUpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/protocol", exchange -> {
+            byte[] data = exchange.getProtocol().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDownServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void buildsCallerFromProperties() {
+        runner.withPropertyValues("toolkit.http.pool.max-total=321", "toolkit.http.http-version=HTTP/1.0")
+                .run(context -> {
+                    HttpCaller caller = context.getBean(HttpCaller.class);
+                    assertEquals(321, caller.poolStats().getMax());
+                    assertEquals("HTTP/1.0", caller.get(baseUrl + "/protocol", Collections.emptyMap(),
+                            Collections.emptyMap()));
+                    assertFalse(context.containsBean("httpCallerPoolMetrics"));
+                });
+    }
+
+    @Test
+    void appliesCustomizersAndBacksOffForUserBean() {
+        runner.withBean(HttpCallerBuilderCustomizer.class, () -> builder -> builder.pool(7, 7))
+                .run(context -> assertEquals(7, context.getBean(HttpCaller.class).poolStats().getMax()));
+
+        HttpCaller own = new HttpCaller.Builder().build();
+        runner.withBean(HttpCaller.class, () -> own)
+                .run(context -> assertSame(own, context.getBean(HttpCaller.class)));
+    }
+
+    @Test
+    void disabledByProperty() {
+        runner.withPropertyValues("toolkit.http.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(HttpCaller.class).isEmpty()));
+    }
+
+    @Test
+    void recordsRequestTimerAndPoolGauges() {
+        runner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    context.getBean(HttpCallerPoolMetrics.class).bindTo(registry);
+
+                    context.getBean(HttpCaller.class).get(baseUrl + "/protocol", Collections.emptyMap(),
+                            Collections.emptyMap());
+
+                    Timer timer = registry.find(HttpCallerMetricsInterceptor.METRIC_NAME)
+                            .tags("client", "default", "method", "GET", "status", "200", "outcome", "SUCCESS")
+                            .timer();
+                    assertNotNull(timer);
+                    assertEquals(1, timer.count());
+                    assertEquals(200.0, registry.get("toolkit.http.client.pool.max").gauge().value());
+                    assertEquals(1.0, registry.get("toolkit.http.client.pool.available").gauge().value());
+                });
+    }
+
+    @Test
+    void metricsDisabledByProperty() {
+        runner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues("toolkit.http.metrics.enabled=false")
+                .run(context -> assertFalse(context.containsBean("httpCallerPoolMetrics")));
+    }
+}
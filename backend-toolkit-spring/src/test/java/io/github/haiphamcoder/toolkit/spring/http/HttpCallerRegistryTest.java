@@ -0,0 +1,122 @@
+package io.github.haiphamcoder.toolkit.spring.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpCallerRegistryTest {
+
+    private static HttpServer server;
+    private static String baseUrl;
+    private static final AtomicInteger flakyAttempts = new AtomicInteger();
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(HttpCallerAutoConfiguration.class,
+                    HttpCallerMetricsAutoConfiguration.class))
+            .withPropertyValues(
+                    "toolkit.http.clients.payments.pool.max-total=20",
+                    "toolkit.http.clients.payments.pool.max-per-route=10",
+                    "toolkit.http.clients.payments.retry.enabled=true",
+                    "toolkit.http.clients.payments.retry.max-retries=2",
+                    "toolkit.http.clients.payments.retry.interval=10ms",
+                    "toolkit.http.clients.search.pool.max-total=64",
+                    "toolkit.http.clients.search.limiter.max-concurrent=8");
+
+    @BeforeAll
+    static void setUpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/flaky", exchange -> {
+            int code = flakyAttempts.incrementAndGet() % 2 == 1 ? 503 : 200;
+            byte[] data = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDownServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void buildsNamedClientsLazilyWithTheirOwnSettings() {
+        AtomicReference<String> built = new AtomicReference<>();
+        runner.withBean(HttpCallerRegistryCustomizer.class, () -> (name, builder) -> built.set(name))
+                .run(context -> {
+                    HttpCallerRegistry registry = context.getBean(HttpCallerRegistry.class);
+                    assertEquals(Set.of("payments", "search"), registry.names());
+                    assertNull(built.get());
+
+                    HttpCaller payments = registry.get("payments");
+                    assertEquals("payments", built.get());
+                    assertSame(payments, registry.get("payments"));
+                    assertEquals(20, payments.poolStats().getMax());
+                    assertEquals(64, registry.get("search").poolStats().getMax());
+
+                    // the retry policy hides the first 503
+                    assertEquals("ok", payments.get(baseUrl + "/flaky", Collections.emptyMap(),
+                            Collections.emptyMap()));
+
+                    assertThrows(IllegalArgumentException.class, () -> registry.get("unknown"));
+                });
+    }
+
+    @Test
+    void closesClientsWithTheContext() {
+        AtomicReference<HttpCallerRegistry> registryRef = new AtomicReference<>();
+        runner.run(context -> {
+            registryRef.set(context.getBean(HttpCallerRegistry.class));
+            registryRef.get().get("payments");
+        });
+        assertThrows(IllegalStateException.class, () -> registryRef.get().get("payments"));
+    }
+
+    @Test
+    void tagsPoolAndRequestMetricsWithClientName() {
+        runner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    MeterRegistry meters = context.getBean(MeterRegistry.class);
+                    HttpCallerRegistry registry = context.getBean(HttpCallerRegistry.class);
+                    assertNull(meters.find("toolkit.http.client.pool.max").tag("client", "search").gauge());
+
+                    registry.get("search").get(baseUrl + "/ok", Collections.emptyMap(), Collections.emptyMap());
+                    assertEquals(64.0, meters.get("toolkit.http.client.pool.max").tag("client", "search")
+                            .gauge().value());
+                    assertNotNull(meters.find(HttpCallerMetricsInterceptor.METRIC_NAME).tag("client", "search")
+                            .timer());
+                    assertTrue(meters.find("toolkit.http.client.pool.max").tag("client", "payments").gauges()
+                            .isEmpty());
+                });
+    }
+}
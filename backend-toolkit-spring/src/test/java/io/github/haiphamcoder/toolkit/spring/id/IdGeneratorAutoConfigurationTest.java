@@ -0,0 +1,148 @@
+package io.github.haiphamcoder.toolkit.spring.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.javapoet.ClassName;
+
+import io.github.haiphamcoder.toolkit.core.id.IdGenerator;
+import io.github.haiphamcoder.toolkit.core.id.SnowflakeGenerator;
+import io.github.haiphamcoder.toolkit.core.id.UuidGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdGeneratorAutoConfigurationTest {
+
+    @TempDir
+    Path leaseDir;
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(IdGeneratorAutoConfiguration.class,
+                    IdGeneratorMetricsAutoConfiguration.class));
+
+    @Test
+    void usesFixedWorkerId() {
+        runner.withPropertyValues("toolkit.id.worker-id=9", "toolkit.id.datacenter-id=2")
+                .run(context -> {
+                    SnowflakeGenerator generator = context.getBean(SnowflakeGenerator.class);
+                    assertEquals(9, generator.workerId());
+                    assertEquals(2, generator.datacenterId());
+                    assertEquals(generator, context.getBean(IdGenerator.class));
+                });
+    }
+
+    @Test
+    void leasesDistinctWorkerIdsPerContext() {
+        ApplicationContextRunner leased = runner.withPropertyValues("toolkit.id.lease.directory=" + leaseDir);
+        leased.run(first -> leased.run(second -> {
+            long a = first.getBean(SnowflakeGenerator.class).workerId();
+            long b = second.getBean(SnowflakeGenerator.class).workerId();
+            assertNotEquals(a, b);
+        }));
+        // both leases were released with their contexts
+        leased.run(context -> assertEquals(0, context.getBean(SnowflakeGenerator.class).workerId()));
+    }
+
+    @Test
+    void aheadOfTimeContextReleasesLease() throws IOException {
+        InMemoryGeneratedFiles files = new InMemoryGeneratedFiles();
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            TestPropertyValues.of("toolkit.id.lease.directory=" + leaseDir).applyTo(context);
+            context.register(IdGeneratorAutoConfiguration.class);
+            DefaultGenerationContext generation = new DefaultGenerationContext(
+                    new ClassNameGenerator(ClassName.get("com.example", "App")), files);
+            new ApplicationContextAotGenerator().processAheadOfTime(context, generation);
+            generation.writeGeneratedContent();
+        }
+        String definitions = new String(files.getGeneratedFile(GeneratedFiles.Kind.SOURCE,
+                "io/github/haiphamcoder/toolkit/spring/id/IdGeneratorAutoConfiguration__BeanDefinitions.java")
+                .getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        // the bean is declared as WorkerIdProvider, which is the type the destroy method is inferred from
+        String workerIdProvider = definitions.substring(definitions.indexOf("getWorkerIdProviderBeanDefinition()"));
+        assertTrue(workerIdProvider.substring(0, workerIdProvider.indexOf("return beanDefinition;"))
+                .contains("setDestroyMethodNames(\"close\")"), definitions);
+    }
+
+    @Test
+    void fileLeaseIsExhaustedAfterMaxWorkers() throws Exception {
+        List<FileLockWorkerIdProvider> leases = new ArrayList<>();
+        try {
+            for (int i = 0; i < FileLockWorkerIdProvider.MAX_WORKERS; i++) {
+                leases.add(FileLockWorkerIdProvider.acquire(leaseDir));
+                assertEquals(i, leases.get(i).workerId());
+            }
+            assertThrows(IllegalStateException.class, () -> FileLockWorkerIdProvider.acquire(leaseDir));
+
+            leases.remove(5).close();
+            leases.add(FileLockWorkerIdProvider.acquire(leaseDir));
+            assertEquals(5, leases.get(leases.size() - 1).workerId());
+        } finally {
+            for (FileLockWorkerIdProvider lease : leases) {
+                lease.close();
+            }
+        }
+    }
+
+    @Test
+    void backsOffForUserGenerator() {
+        runner.withBean(IdGenerator.class, UuidGenerator::new)
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(SnowflakeGenerator.class).isEmpty());
+                    assertTrue(context.getBeansOfType(WorkerIdProvider.class).isEmpty());
+                });
+    }
+
+    @Test
+    void exportsGeneratedCounter() {
+        runner.withPropertyValues("toolkit.id.worker-id=3")
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    context.getBean(SnowflakeGeneratorMetrics.class).bindTo(registry);
+                    SnowflakeGenerator generator = context.getBean(SnowflakeGenerator.class);
+                    for (int i = 0; i < 10; i++) {
+                        generator.nextId();
+                    }
+                    assertEquals(10.0, registry.get("toolkit.id.generated").tag("worker", "3")
+                            .functionCounter().count());
+                    assertEquals(10, generator.metrics().generated());
+                    assertEquals(0.0, registry.get("toolkit.id.wait").tag("cause", "clock-regression")
+                            .functionTimer().count());
+                    assertEquals(0.0, registry.get("toolkit.id.clock.regression.max").timeGauge()
+                            .value(TimeUnit.MILLISECONDS));
+                    assertEquals(1, registry.find("toolkit.id.wait").tag("cause", "sequence-exhausted")
+                            .functionTimers().size());
+                });
+    }
+
+    @Test
+    void skipsRecordingWhenMetricsDisabled() {
+        runner.withPropertyValues("toolkit.id.worker-id=3", "toolkit.id.metrics.enabled=false")
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> {
+                    assertNull(context.getBean(SnowflakeGenerator.class).metrics());
+                    assertTrue(context.getBeansOfType(SnowflakeGeneratorMetrics.class).isEmpty());
+                });
+    }
+}
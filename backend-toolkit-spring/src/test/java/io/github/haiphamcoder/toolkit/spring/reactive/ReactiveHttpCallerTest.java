@@ -0,0 +1,208 @@
+package io.github.haiphamcoder.toolkit.spring.reactive;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.spring.http.HttpCallerAutoConfiguration;
+import reactor.core.publisher.BaseSubscriber;
+
+class ReactiveHttpCallerTest {
+
+    private static final int CHUNK = 64 * 1024;
+    private static final long LARGE_BODY = 256L * 1024 * 1024;
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static String baseUrl;
+    private static ReactiveHttpCaller caller;
+
+    private static final AtomicLong largeWritten = new AtomicLong();
+    private static final CountDownLatch largeAborted = new CountDownLatch(1);
+    private static final AtomicLong stalled = new AtomicLong();
+    private static final CountDownLatch stallReleased = new CountDownLatch(1);
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hello", exchange -> {
+            byte[] data = "hello".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.createContext("/echo", exchange -> {
+            byte[] data = exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/sized", exchange -> {
+            int size = Integer.parseInt(exchange.getRequestURI().getQuery().substring("size=".length()));
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(new byte[size]);
+            }
+        });
+        server.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, LARGE_BODY);
+            byte[] chunk = new byte[CHUNK];
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (long sent = 0; sent < LARGE_BODY; sent += CHUNK) {
+                    out.write(chunk);
+                    largeWritten.addAndGet(CHUNK);
+                }
+            } catch (IOException e) {
+                largeAborted.countDown();
+            }
+        });
+        // never answers until the tests are done
+        server.createContext("/stall", exchange -> {
+            stalled.incrementAndGet();
+            try {
+                stallReleased.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        // the large body blocks its handler thread, the other endpoints need their own
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        caller = new ReactiveHttpCaller.Builder().ioThreads(1).build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        stallReleased.countDown();
+        caller.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void emitsBodiesAndSignalsFailures() {
+        assertEquals("hello", caller.get(baseUrl + "/hello", null, null).block(Duration.ofSeconds(5)));
+        assertEquals("{\"a\":1}",
+                caller.postJson(baseUrl + "/echo", "{\"a\":1}", null, Map.of()).block(Duration.ofSeconds(5)));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> caller.get(baseUrl + "/missing", null, null).block(Duration.ofSeconds(5)));
+        assertInstanceOf(HttpCaller.APIException.class, error.getCause());
+        assertEquals("HTTP request failed with status code: 404", error.getCause().getMessage());
+
+        error = assertThrows(RuntimeException.class,
+                () -> caller.stream(baseUrl + "/missing", null, null).blockLast(Duration.ofSeconds(5)));
+        assertInstanceOf(HttpCaller.APIException.class, error.getCause());
+    }
+
+    @Test
+    void streamsWholeBody() {
+        long total = caller.stream(baseUrl + "/sized", Map.of("size", "3000000"), null)
+                .map(ByteBuffer::remaining)
+                .reduce(0L, (sum, size) -> sum + size)
+                .block(Duration.ofSeconds(10));
+        assertEquals(3_000_000L, total);
+    }
+
+    @Test
+    void stopsReadingWithoutDemandAndAbortsOnCancel() throws InterruptedException {
+        AtomicLong received = new AtomicLong();
+        BaseSubscriber<ByteBuffer> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ByteBuffer value) {
+                received.addAndGet(value.remaining());
+            }
+        };
+        caller.stream(baseUrl + "/large", null, null).subscribe(subscriber);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> received.get() > 0);
+        // the server stalls once the read window and socket buffers are full
+        await().atMost(Duration.ofSeconds(5)).pollDelay(Duration.ofMillis(300))
+                .until(() -> {
+                    long before = largeWritten.get();
+                    Thread.sleep(200);
+                    return largeWritten.get() == before;
+                });
+        assertTrue(largeWritten.get() < LARGE_BODY / 4, "written " + largeWritten.get());
+
+        subscriber.cancel();
+        // cancelling gives the half-read connection up, which resets the server's write
+        await().atMost(Duration.ofSeconds(30)).until(() -> caller.poolStats().getLeased() == 0);
+        assertTrue(largeAborted.await(30, TimeUnit.SECONDS), "server write never failed");
+    }
+
+    @Test
+    void closeFailsExchangesInFlight() {
+        ReactiveHttpCaller closing = new ReactiveHttpCaller.Builder().ioThreads(1).pool(1, 1).build();
+        long before = stalled.get();
+        CompletableFuture<String> connected = closing.get(baseUrl + "/stall", null, null).toFuture();
+        await().atMost(Duration.ofSeconds(5)).until(() -> stalled.get() > before);
+        // both wait for the only connection
+        CompletableFuture<String> single = closing.get(baseUrl + "/stall", null, null).toFuture();
+        CompletableFuture<ByteBuffer> streamed = closing.stream(baseUrl + "/stall", null, null).next().toFuture();
+
+        closing.close();
+        for (CompletableFuture<?> future : List.of(connected, single, streamed)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(HttpCaller.APIException.class, e.getCause());
+            assertEquals("HTTP request cancelled", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void autoConfiguresSharedCaller() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(HttpCallerAutoConfiguration.class,
+                        ReactiveHttpCallerAutoConfiguration.class))
+                .withPropertyValues("toolkit.http.reactive.io-threads=1")
+                .run(context -> {
+                    ReactiveHttpCaller bean = context.getBean(ReactiveHttpCaller.class);
+                    assertEquals("hello", bean.get(baseUrl + "/hello", null, null).block(Duration.ofSeconds(5)));
+                });
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveHttpCallerAutoConfiguration.class))
+                .withPropertyValues("toolkit.http.reactive.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(ReactiveHttpCaller.class).isEmpty()));
+    }
+}
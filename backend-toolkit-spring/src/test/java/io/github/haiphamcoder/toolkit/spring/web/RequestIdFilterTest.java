@@ -0,0 +1,122 @@
+package io.github.haiphamcoder.toolkit.spring.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.haiphamcoder.toolkit.core.http.HttpCaller;
+import io.github.haiphamcoder.toolkit.spring.http.HttpCallerAutoConfiguration;
+import io.github.haiphamcoder.toolkit.spring.id.IdGeneratorAutoConfiguration;
+import jakarta.servlet.FilterChain;
+
+class RequestIdFilterTest {
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RequestIdAutoConfiguration.class,
+                    HttpCallerAutoConfiguration.class, IdGeneratorAutoConfiguration.class))
+            .withPropertyValues("toolkit.id.worker-id=1");
+
+    @BeforeAll
+    static void setUpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/echo", exchange -> {
+            String value = exchange.getRequestHeaders().getFirst("X-Request-Id");
+            byte[] data = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDownServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void generatesUuidV7AndPropagatesDownstream() {
+        runner.run(context -> {
+            RequestIdFilter filter = context.getBean(RequestIdFilter.class);
+            HttpCaller caller = context.getBean(HttpCaller.class);
+            AtomicReference<String> inMdc = new AtomicReference<>();
+            AtomicReference<String> downstream = new AtomicReference<>();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+                inMdc.set(MDC.get("requestId"));
+                try {
+                    downstream.set(caller.get(baseUrl + "/echo", Collections.emptyMap(), Collections.emptyMap()));
+                } catch (HttpCaller.APIException e) {
+                    throw new IOException(e);
+                }
+            });
+
+            String requestId = response.getHeader("X-Request-Id");
+            assertEquals(7, UUID.fromString(requestId).version());
+            assertEquals(requestId, inMdc.get());
+            assertEquals(requestId, downstream.get());
+            assertNull(MDC.get("requestId"));
+            assertNull(RequestIdContext.current());
+            // no request in scope, nothing to forward
+            assertEquals("", caller.get(baseUrl + "/echo", Collections.emptyMap(), Collections.emptyMap()));
+        });
+    }
+
+    @Test
+    void reusesWellFormedIncomingIdOnly() {
+        runner.run(context -> {
+            RequestIdFilter filter = context.getBean(RequestIdFilter.class);
+            FilterChain chain = (req, res) -> {
+            };
+
+            MockHttpServletRequest trusted = new MockHttpServletRequest();
+            trusted.addHeader("X-Request-Id", "abc-123");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(trusted, response, chain);
+            assertEquals("abc-123", response.getHeader("X-Request-Id"));
+
+            MockHttpServletRequest forged = new MockHttpServletRequest();
+            forged.addHeader("X-Request-Id", "abc\n[INFO] forged");
+            response = new MockHttpServletResponse();
+            filter.doFilter(forged, response, chain);
+            assertNotEquals("abc\n[INFO] forged", response.getHeader("X-Request-Id"));
+        });
+    }
+
+    @Test
+    void usesSnowflakeWhenConfigured() {
+        runner.withPropertyValues("toolkit.request-id.generator=snowflake")
+                .run(context -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    context.getBean(RequestIdFilter.class).doFilter(new MockHttpServletRequest(), response,
+                            (req, res) -> {
+                            });
+                    assertTrue(response.getHeader("X-Request-Id").matches("[0-9]+"));
+                });
+    }
+}